@@ -15,19 +15,18 @@
  */
 package com.sop4j.dbutils;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.sql.Types;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 
 /**
  * Abstract class for executing a query, insert, update, or batch.
@@ -37,52 +36,234 @@ import java.util.regex.Pattern;
 abstract class AbstractExecutor<T extends AbstractExecutor<T>> {
 
     private static final String COLON = ":";  // TODO: change this to any character
-    private static final Pattern PARAM_PATTERN = Pattern.compile("(:\\w+)");
+
+    // how a bound value is stored, and which setter it is bound with
+    private static final byte KIND_OBJECT = 0;
+    private static final byte KIND_NULL = 1;
+    private static final byte KIND_INT = 2;
+    private static final byte KIND_LONG = 3;
+    private static final byte KIND_DOUBLE = 4;
+    private static final byte KIND_BOOLEAN = 5;
+    private static final byte KIND_STRING = 6;
+    private static final byte KIND_BYTES = 7;
+    private static final byte KIND_TIMESTAMP = 8;
+    private static final byte KIND_LIST = 9;
 
     private final Connection conn;
-    private final String sql;
+    private final SqlTemplate template;
     private final PreparedStatement stmt;
+    private final int autoGeneratedKeys;
+    private final StatementCache statementCache;
+    private boolean failed = false;
+    private boolean released = false;
+
+    private final Object[] paramValues;
+    private final long[] paramBits;
+    private final byte[] paramKinds;
+    private final BitSet boundParams;
+    private int[] parameterTypes;
+    private boolean reusable = false;
 
-    private final Map<String, List<Integer>> paramPosMap;
-    private final Map<String, Object> paramValueMap;
-    private int currentPosition = 0;
+    // list parameters are bound to a statement prepared with the expanded SQL
+    private int boundLists = 0;
+    private int listChunkSize = 0;
+    private PreparedStatement listStmt;
+    private String listSql;
+
+    // statement settings, null when left at the driver's default
+    private final Integer resultSetType;
+    private final Integer resultSetConcurrency;
+    private Integer fetchDirection;
+    private Integer fetchSize;
+    private Integer maxFieldSize;
+    private Integer maxRows;
+    private Integer queryTimeout;
 
     public AbstractExecutor(final Connection conn, final String sql) throws SQLException {
         this(conn, sql, Statement.NO_GENERATED_KEYS);
     }
 
     public AbstractExecutor(final Connection conn, final String sql, final int autoGeneratedKeys) throws SQLException {
-        this.conn = conn;
-        this.sql = sql;
-        this.paramPosMap = new HashMap<String, List<Integer>>();
-        this.paramValueMap = new HashMap<String, Object>();
+        this(conn, sql, autoGeneratedKeys, null, null);
+    }
+
+    /**
+     * Constructs an executor that borrows its statement from a cache, and
+     * configures it with the given settings.
+     *
+     * @param conn the connection to use during execution.
+     * @param sql the SQL statement.
+     * @param autoGeneratedKeys a flag indicating whether auto-generated keys should be returned.
+     * @param statementCache the cache to borrow the statement from, or null to prepare a new one.
+     * @param config the statement settings, or null for the driver's defaults.
+     * @throws SQLException thrown if there is an error preparing or configuring the statement.
+     */
+    AbstractExecutor(final Connection conn, final String sql, final int autoGeneratedKeys,
+                     final StatementCache statementCache, final StatementConfiguration config) throws SQLException {
+        // JDBC can't prepare a statement with both generated keys and a ResultSet type
+        final boolean customResultSet = config != null && config.getResultSetType() != null
+                                        && autoGeneratedKeys == Statement.NO_GENERATED_KEYS;
 
-        final Matcher matcher = PARAM_PATTERN.matcher(sql);
+        this.conn = conn;
+        this.autoGeneratedKeys = autoGeneratedKeys;
+        this.resultSetType = customResultSet ? config.getResultSetType() : null;
+        this.resultSetConcurrency = customResultSet ? config.getResultSetConcurrency() : null;
+        // the cache is keyed by SQL only, so statements with a custom ResultSet aren't cached
+        this.statementCache = customResultSet ? null : statementCache;
 
-        // go through finding params
-        while (matcher.find()) {
-            insertParamPosition(matcher.group().replace(COLON, ""));
+        if (config != null) {
+            this.fetchDirection = config.getFetchDirection();
+            this.fetchSize = config.getFetchSize();
+            this.maxFieldSize = config.getMaxFieldSize();
+            this.maxRows = config.getMaxRows();
+            this.queryTimeout = config.getQueryTimeout();
         }
 
-        // replace all of the :names with ?, and create a prepared statement
-        stmt = conn.prepareStatement(sql.replaceAll(":\\w+", "\\?"), autoGeneratedKeys);
+        this.template = SqlTemplateCache.instance().get(sql);
+        this.paramValues = new Object[template.getParamCount()];
+        this.paramBits = new long[template.getParamCount()];
+        this.paramKinds = new byte[template.getParamCount()];
+        this.boundParams = new BitSet(template.getParamCount());
+
+        // the template has all of the :names replaced with ?
+        stmt = prepare(template.getJdbcSql());
     }
 
     /**
-     * Helper method to insert params and the current position into the map.
-     * @param param the SQL param.
+     * Prepares a statement, or borrows it from the statement cache, and applies the statement settings.
+     *
+     * @param sql the JDBC SQL to prepare.
+     * @return the prepared statement.
+     * @throws SQLException thrown if there is an error preparing or configuring the statement.
      */
-    private void insertParamPosition(final String param) {
-        List<Integer> posList = paramPosMap.get(param);
+    private PreparedStatement prepare(final String sql) throws SQLException {
+        final PreparedStatement ps;
+
+        if (resultSetType != null) {
+            ps = conn.prepareStatement(sql, resultSetType.intValue(), resultSetConcurrency.intValue());
+        } else if (statementCache == null) {
+            ps = conn.prepareStatement(sql, autoGeneratedKeys);
+        } else {
+            ps = statementCache.borrow(conn, sql, autoGeneratedKeys);
+        }
 
-        // create a new list if we need to
-        if (posList == null) {
-            posList = new ArrayList<Integer>();
-            paramPosMap.put(param, posList);
+        if (fetchDirection != null) {
+            ps.setFetchDirection(fetchDirection.intValue());
+        }
+        if (fetchSize != null) {
+            ps.setFetchSize(fetchSize.intValue());
+        }
+        if (maxFieldSize != null) {
+            ps.setMaxFieldSize(maxFieldSize.intValue());
+        }
+        if (maxRows != null) {
+            ps.setMaxRows(maxRows.intValue());
+        }
+        if (queryTimeout != null) {
+            ps.setQueryTimeout(queryTimeout.intValue());
+        }
+
+        return ps;
+    }
+
+    /**
+     * Gives a statement back to the statement cache, first resetting any
+     * settings this executor changed so the next borrower gets the defaults.
+     *
+     * @param sql the JDBC SQL the statement was prepared with.
+     * @param ps the statement.
+     * @throws SQLException if a database access error occurs
+     */
+    private void release(final String sql, final PreparedStatement ps) throws SQLException {
+        if (fetchDirection != null) {
+            ps.setFetchDirection(ResultSet.FETCH_FORWARD);
+        }
+        if (fetchSize != null) {
+            ps.setFetchSize(0);
         }
+        if (maxFieldSize != null) {
+            ps.setMaxFieldSize(0);
+        }
+        if (maxRows != null) {
+            ps.setMaxRows(0);
+        }
+        if (queryTimeout != null) {
+            ps.setQueryTimeout(0);
+        }
+
+        statementCache.release(conn, sql, autoGeneratedKeys, ps);
+    }
+
+    /**
+     * Gives the driver a hint about the number of rows to fetch from the
+     * database at a time. Some drivers, such as MySQL and PostgreSQL, read the
+     * whole result into memory unless a fetch size is set.
+     *
+     * @param size the number of rows to fetch at a time, or 0 for the driver's default.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException if the driver rejects the fetch size.
+     * @see java.sql.Statement#setFetchSize(int)
+     */
+    public T fetchSize(final int size) throws SQLException {
+        stmt.setFetchSize(size);
+        fetchSize = Integer.valueOf(size);
+        return self();
+    }
+
+    /**
+     * Gives the driver a hint about the direction rows will be read in.
+     *
+     * @param direction one of <code>ResultSet.FETCH_FORWARD</code>, <code>FETCH_REVERSE</code>, or <code>FETCH_UNKNOWN</code>.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException if the driver rejects the direction.
+     * @see java.sql.Statement#setFetchDirection(int)
+     */
+    public T fetchDirection(final int direction) throws SQLException {
+        stmt.setFetchDirection(direction);
+        fetchDirection = Integer.valueOf(direction);
+        return self();
+    }
+
+    /**
+     * Limits the number of bytes returned for character and binary column values.
+     *
+     * @param max the maximum number of bytes, or 0 for no limit.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException if the driver rejects the size.
+     * @see java.sql.Statement#setMaxFieldSize(int)
+     */
+    public T maxFieldSize(final int max) throws SQLException {
+        stmt.setMaxFieldSize(max);
+        maxFieldSize = Integer.valueOf(max);
+        return self();
+    }
+
+    /**
+     * Limits the number of rows a query can return; the rest are silently dropped.
+     *
+     * @param max the maximum number of rows, or 0 for no limit.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException if the driver rejects the limit.
+     * @see java.sql.Statement#setMaxRows(int)
+     */
+    public T maxRows(final int max) throws SQLException {
+        stmt.setMaxRows(max);
+        maxRows = Integer.valueOf(max);
+        return self();
+    }
 
-        // increment first, so we match SQL numbering
-        posList.add(Integer.valueOf(++currentPosition));
+    /**
+     * Sets the number of seconds the driver waits for the statement to execute.
+     *
+     * @param seconds the timeout in seconds, or 0 for no limit.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException if the driver rejects the timeout.
+     * @see java.sql.Statement#setQueryTimeout(int)
+     */
+    public T queryTimeout(final int seconds) throws SQLException {
+        stmt.setQueryTimeout(seconds);
+        queryTimeout = Integer.valueOf(seconds);
+        return self();
     }
 
     /**
@@ -91,7 +272,17 @@ abstract class AbstractExecutor<T extends AbstractExecutor<T>> {
      * @return the SQL statement passed into the constructor.
      */
     String getSql() {
-        return sql;
+        return template.getSql();
+    }
+
+    /**
+     * Gets the template parsed from the SQL statement, which is shared by every
+     * executor of the same statement.
+     *
+     * @return the template.
+     */
+    SqlTemplate getTemplate() {
+        return template;
     }
 
     /**
@@ -112,25 +303,38 @@ abstract class AbstractExecutor<T extends AbstractExecutor<T>> {
         return conn;
     }
 
+    /**
+     * Marks this executor as reusable, so the statement stays open after it is
+     * executed and the bindings are reset for the next execution.
+     */
+    void setReusable() {
+        this.reusable = true;
+    }
+
+    /**
+     * Returns true if the statement should stay open after it is executed.
+     *
+     * @return true if the executor is reusable.
+     */
+    boolean isReusable() {
+        return reusable;
+    }
+
     /**
      * Throws an exception if there are unmapped params.
      *
      * @throws SQLException if there are unmapped params.
      */
     void throwIfUnmappedParams() throws SQLException {
-        // if the sizes are the same, then we've filled all the parameters
-        if(paramValueMap.size() == paramPosMap.size()) {
+        // if the first unbound slot is past the end, then we've filled all the parameters
+        if(boundParams.nextClearBit(0) >= paramValues.length) {
             return;
         }
 
         final StringBuilder sb = new StringBuilder("There are unbound parameters: ");
-        final Set<String> unboundParams = paramPosMap.keySet();
 
-        // compute the set difference
-        unboundParams.removeAll(paramValueMap.keySet());
-
-        for (String param:unboundParams) {
-            sb.append(param);
+        for (int i = boundParams.nextClearBit(0); i < paramValues.length; i = boundParams.nextClearBit(i + 1)) {
+            sb.append(template.getSlot(i).getName());
             sb.append(", ");
         }
 
@@ -141,6 +345,44 @@ abstract class AbstractExecutor<T extends AbstractExecutor<T>> {
         throw new SQLException(sb.toString());
     }
 
+    /**
+     * Resolves a named parameter to a slot, so values can be bound to it
+     * repeatedly without looking up the name each time.
+     *
+     * @param name the name of the parameter in the SQL statement.
+     * @return the slot for the parameter.
+     * @throws SQLException thrown if the parameter is not found.
+     */
+    public ParameterSlot slot(final String name) throws SQLException {
+        // so we can take ":name" or "name"
+        final ParameterSlot slot = template.getSlot(name.startsWith(COLON) ? name.substring(1) : name);
+
+        if (slot == null) {
+            throw new SQLException(name + " is not found in the SQL statement: " + getSql());
+        }
+
+        return slot;
+    }
+
+    /**
+     * Checks that a slot was resolved against this statement.
+     *
+     * @param slot the slot to check.
+     * @throws SQLException if the slot is from a different statement.
+     */
+    private void checkSlot(final ParameterSlot slot) throws SQLException {
+        final int index = slot.getIndex();
+
+        if (index < paramValues.length && template.getSlot(index) == slot) {
+            return;
+        }
+
+        // templates can be evicted and re-parsed, so fall back to comparing the SQL
+        if (!template.getSql().equals(slot.getSql())) {
+            throw new SQLException(slot + " is not from the SQL statement: " + getSql());
+        }
+    }
+
     /**
      * Binds a named parameter to a value.
      *
@@ -149,46 +391,211 @@ abstract class AbstractExecutor<T extends AbstractExecutor<T>> {
      * @return this execution object to provide the fluent style.
      * @throws SQLException thrown if the parameter is not found, already bound, or there is an issue binding it.
      */
-    public T bind(String name, final Object value) throws SQLException {
-        name = name.replace(COLON, ""); // so we can take ":name" or "name"
+    public T bind(final String name, final Object value) throws SQLException {
+        return bind(slot(name), value);
+    }
 
-        final List<Integer> pos = paramPosMap.get(name);
+    /**
+     * Binds a parameter slot to a value.
+     *
+     * <p>
+     * The value is bound with <code>PreparedStatement.setObject</code>, unless
+     * {@link #useParameterMetaData()} was called and the parameter's type
+     * matches the value's type, in which case the typed setter is used.
+     * </p>
+     *
+     * @param slot the slot of the parameter, from {@link #slot(String)}.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the slot is from a different statement, already bound, or there is an issue binding it.
+     */
+    public T bind(final ParameterSlot slot, final Object value) throws SQLException {
+        return bindValue(slot, KIND_OBJECT, value, 0L);
+    }
 
-        if (pos == null) {
-            throw new SQLException(name + " is not found in the SQL statement: " + getSql());
-        }
+    /**
+     * Binds a named parameter to an <code>int</code> value, using <code>PreparedStatement.setInt</code>.
+     *
+     * @param name the name of the parameter in the SQL statement.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the parameter is not found, already bound, or there is an issue binding it.
+     */
+    public T bindInt(final String name, final int value) throws SQLException {
+        return bindInt(slot(name), value);
+    }
 
-        // make sure it isn't already bound
-        if(paramValueMap.containsKey(name)) {
-            throw new SQLException("You are attempting to bind the parameter " + name + " twice. It already has the value " + paramValueMap.get(name));
-        }
+    /**
+     * Binds a parameter slot to an <code>int</code> value, using <code>PreparedStatement.setInt</code>.
+     *
+     * @param slot the slot of the parameter, from {@link #slot(String)}.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the slot is from a different statement, already bound, or there is an issue binding it.
+     */
+    public T bindInt(final ParameterSlot slot, final int value) throws SQLException {
+        return bindValue(slot, KIND_INT, null, value);
+    }
 
-        // go through and bind all of the positions for this name
-        for (Integer p:pos) {
-            stmt.setObject(p.intValue(), value);
-        }
+    /**
+     * Binds a named parameter to a <code>long</code> value, using <code>PreparedStatement.setLong</code>.
+     *
+     * @param name the name of the parameter in the SQL statement.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the parameter is not found, already bound, or there is an issue binding it.
+     */
+    public T bindLong(final String name, final long value) throws SQLException {
+        return bindLong(slot(name), value);
+    }
 
-        // add the param and value to our map
-        paramValueMap.put(name, value);
+    /**
+     * Binds a parameter slot to a <code>long</code> value, using <code>PreparedStatement.setLong</code>.
+     *
+     * @param slot the slot of the parameter, from {@link #slot(String)}.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the slot is from a different statement, already bound, or there is an issue binding it.
+     */
+    public T bindLong(final ParameterSlot slot, final long value) throws SQLException {
+        return bindValue(slot, KIND_LONG, null, value);
+    }
 
-        // suppressed because the casting will always work here
-        @SuppressWarnings("unchecked")
-        final T ret = (T) this;
+    /**
+     * Binds a named parameter to a <code>double</code> value, using <code>PreparedStatement.setDouble</code>.
+     *
+     * @param name the name of the parameter in the SQL statement.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the parameter is not found, already bound, or there is an issue binding it.
+     */
+    public T bindDouble(final String name, final double value) throws SQLException {
+        return bindDouble(slot(name), value);
+    }
 
-        return ret;
+    /**
+     * Binds a parameter slot to a <code>double</code> value, using <code>PreparedStatement.setDouble</code>.
+     *
+     * @param slot the slot of the parameter, from {@link #slot(String)}.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the slot is from a different statement, already bound, or there is an issue binding it.
+     */
+    public T bindDouble(final ParameterSlot slot, final double value) throws SQLException {
+        return bindValue(slot, KIND_DOUBLE, null, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Binds a named parameter to a <code>boolean</code> value, using <code>PreparedStatement.setBoolean</code>.
+     *
+     * @param name the name of the parameter in the SQL statement.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the parameter is not found, already bound, or there is an issue binding it.
+     */
+    public T bindBoolean(final String name, final boolean value) throws SQLException {
+        return bindBoolean(slot(name), value);
+    }
+
+    /**
+     * Binds a parameter slot to a <code>boolean</code> value, using <code>PreparedStatement.setBoolean</code>.
+     *
+     * @param slot the slot of the parameter, from {@link #slot(String)}.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the slot is from a different statement, already bound, or there is an issue binding it.
+     */
+    public T bindBoolean(final ParameterSlot slot, final boolean value) throws SQLException {
+        return bindValue(slot, KIND_BOOLEAN, null, value ? 1L : 0L);
+    }
+
+    /**
+     * Binds a named parameter to a <code>String</code> value, using <code>PreparedStatement.setString</code>.
+     *
+     * @param name the name of the parameter in the SQL statement.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the parameter is not found, already bound, or there is an issue binding it.
+     */
+    public T bindString(final String name, final String value) throws SQLException {
+        return bindString(slot(name), value);
+    }
+
+    /**
+     * Binds a parameter slot to a <code>String</code> value, using <code>PreparedStatement.setString</code>.
+     *
+     * @param slot the slot of the parameter, from {@link #slot(String)}.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the slot is from a different statement, already bound, or there is an issue binding it.
+     */
+    public T bindString(final ParameterSlot slot, final String value) throws SQLException {
+        return bindValue(slot, KIND_STRING, value, 0L);
+    }
+
+    /**
+     * Binds a named parameter to a <code>byte[]</code> value, using <code>PreparedStatement.setBytes</code>.
+     *
+     * @param name the name of the parameter in the SQL statement.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the parameter is not found, already bound, or there is an issue binding it.
+     */
+    public T bindBytes(final String name, final byte[] value) throws SQLException {
+        return bindBytes(slot(name), value);
+    }
+
+    /**
+     * Binds a parameter slot to a <code>byte[]</code> value, using <code>PreparedStatement.setBytes</code>.
+     *
+     * @param slot the slot of the parameter, from {@link #slot(String)}.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the slot is from a different statement, already bound, or there is an issue binding it.
+     */
+    public T bindBytes(final ParameterSlot slot, final byte[] value) throws SQLException {
+        return bindValue(slot, KIND_BYTES, value, 0L);
+    }
+
+    /**
+     * Binds a named parameter to a <code>Timestamp</code> value, using <code>PreparedStatement.setTimestamp</code>.
+     *
+     * @param name the name of the parameter in the SQL statement.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the parameter is not found, already bound, or there is an issue binding it.
+     */
+    public T bindTimestamp(final String name, final Timestamp value) throws SQLException {
+        return bindTimestamp(slot(name), value);
+    }
+
+    /**
+     * Binds a parameter slot to a <code>Timestamp</code> value, using <code>PreparedStatement.setTimestamp</code>.
+     *
+     * @param slot the slot of the parameter, from {@link #slot(String)}.
+     * @param value the value of the parameter in the SQL statement.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the slot is from a different statement, already bound, or there is an issue binding it.
+     */
+    public T bindTimestamp(final ParameterSlot slot, final Timestamp value) throws SQLException {
+        return bindValue(slot, KIND_TIMESTAMP, value, 0L);
     }
 
     /**
      * Binds null to a parameter.
-     * Types.VARCHAR is used as the type's parameter.
-     * This usually works, but fails with some Oracle and MS SQL drivers.
+     * If {@link #useParameterMetaData()} was called and the driver reports the
+     * parameter's type, that type is used. Otherwise Types.VARCHAR is used as
+     * the type's parameter. This usually works, but fails with some Oracle and
+     * MS SQL drivers.
      *
      * @param name the name of the parameter.
      * @return this execution object to provide the fluent style.
      * @throws SQLException throw if the parameter is not found, already bound, or there is an issue binding null.
      */
     public T bindNull(final String name) throws SQLException {
-        return bindNull(name, Types.VARCHAR);
+        final ParameterSlot slot = slot(name);
+
+        return bindNull(slot, nullType(slot.getPositions()[0]));
     }
 
     /**
@@ -199,23 +606,551 @@ abstract class AbstractExecutor<T extends AbstractExecutor<T>> {
      * @return this execution object to provide the fluent style.
      * @throws SQLException throw if the parameter is not found, already bound, or there is an issue binding null.
      */
-    public T bindNull(String name, final int sqlType) throws SQLException {
-        name = name.replace(COLON, ""); // so we can take ":name" or "name"
+    public T bindNull(final String name, final int sqlType) throws SQLException {
+        return bindNull(slot(name), sqlType);
+    }
+
+    /**
+     * Binds null to a parameter slot, specifying the parameter's type.
+     *
+     * @param slot the slot of the parameter, from {@link #slot(String)}.
+     * @param sqlType the type of the parameter.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException throw if the slot is from a different statement, already bound, or there is an issue binding null.
+     */
+    public T bindNull(final ParameterSlot slot, final int sqlType) throws SQLException {
+        return bindValue(slot, KIND_NULL, null, sqlType);
+    }
+
+    /**
+     * Binds a list of values to a parameter, typically for an <code>IN (:ids)</code>
+     * clause. The parameter's <code>?</code> is repeated for each value when the
+     * statement is executed. To keep the number of distinct statements small, the
+     * list is padded with its last value up to the next power of two. Lists
+     * longer than the {@link #listChunkSize(int) chunk size} are executed in
+     * several statements, and their results merged.
+     *
+     * @param name the name of the parameter.
+     * @param values the values to bind; the collection is copied.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException throw if the parameter is not found, already bound, or the list is empty.
+     */
+    public T bindList(final String name, final Collection<?> values) throws SQLException {
+        return bindList(slot(name), values);
+    }
+
+    /**
+     * Binds a list of values to a parameter slot.
+     *
+     * @param slot the slot of the parameter, from {@link #slot(String)}.
+     * @param values the values to bind; the collection is copied.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException throw if the slot is from a different statement, already bound, or the list is empty.
+     * @see #bindList(String, Collection)
+     */
+    public T bindList(final ParameterSlot slot, final Collection<?> values) throws SQLException {
+        if (values == null || values.isEmpty()) {
+            throw new SQLException("Cannot bind an empty list to the parameter " + slot.getName());
+        }
+
+        bindValue(slot, KIND_LIST, values.toArray(), 0L);
+        boundLists++;
+
+        return self();
+    }
+
+    /**
+     * Sets the maximum number of values bound to a list parameter in one
+     * statement. A longer list is split into chunks of this size, the statement
+     * is executed once for each chunk, and the results are merged: the rows of
+     * a query are returned one chunk after another, and the update counts of an
+     * update are added together. Use 1000 for Oracle.
+     *
+     * <p>
+     * At most one list parameter can be longer than the chunk size, and
+     * inserts cannot be split.
+     * </p>
+     *
+     * @param size the maximum number of values per statement, or 0 for no limit.
+     * @return this execution object to provide the fluent style.
+     */
+    public T listChunkSize(final int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The list chunk size cannot be negative: " + size);
+        }
+
+        listChunkSize = size;
+        return self();
+    }
+
+    /**
+     * Returns true if any list parameters are bound.
+     *
+     * @return true if a list is bound.
+     */
+    boolean hasListBindings() {
+        return boundLists > 0;
+    }
+
+    /**
+     * Gets the number of times the statement must be executed to bind all of
+     * the values of the list parameters.
+     *
+     * @return the number of chunks, 1 if no list is longer than the chunk size.
+     * @throws SQLException thrown if more than one list is longer than the chunk size.
+     */
+    int getChunkCount() throws SQLException {
+        return boundLists == 0 ? 1 : chunkCount(chunkedSlot());
+    }
+
+    /**
+     * Helper method to find the one list that is longer than the chunk size.
+     */
+    private int chunkedSlot() throws SQLException {
+        int ret = -1;
 
-        final List<Integer> pos = paramPosMap.get(name);
+        if (listChunkSize == 0) {
+            return ret;
+        }
+
+        for (int i = 0; i < paramValues.length; i++) {
+            if (paramKinds[i] == KIND_LIST && ((Object[]) paramValues[i]).length > listChunkSize) {
+                if (ret >= 0) {
+                    throw new SQLException("Only one list parameter can be longer than the chunk size " + listChunkSize
+                                           + ": " + template.getSlot(ret).getName() + ", " + template.getSlot(i).getName());
+                }
+
+                ret = i;
+            }
+        }
+
+        return ret;
+    }
 
-        if (pos == null) {
-            throw new SQLException(name + " is not found in the SQL statement");
+    /**
+     * Helper method to compute the number of chunks of the chunked list.
+     */
+    private int chunkCount(final int chunked) {
+        if (chunked < 0) {
+            return 1;
+        }
+
+        return (((Object[]) paramValues[chunked]).length + listChunkSize - 1) / listChunkSize;
+    }
+
+    /**
+     * Gets the statement to execute for a chunk, with all of the parameters
+     * bound. If no lists are bound this is the prepared statement. Otherwise a
+     * statement is prepared for the expanded SQL, or reused when the previous
+     * chunk had the same shape; it is closed with the executor's statement.
+     *
+     * @param chunk the 0-based chunk, less than {@link #getChunkCount()}.
+     * @return the statement to execute.
+     * @throws SQLException if there is an issue preparing the statement or binding the parameters.
+     */
+    PreparedStatement prepareChunk(final int chunk) throws SQLException {
+        if (boundLists == 0) {
+            return stmt;
+        }
+
+        final int chunked = chunkedSlot();
+        final int[] offsets = new int[paramValues.length];
+        final int[] counts = new int[paramValues.length];
+        final int[] widths = new int[paramValues.length];
+
+        // work out which values of each list are bound, and how many ? they get
+        for (int i = 0; i < paramValues.length; i++) {
+            if (paramKinds[i] != KIND_LIST) {
+                widths[i] = 1;
+                continue;
+            }
+
+            final int len = ((Object[]) paramValues[i]).length;
+
+            offsets[i] = i == chunked ? chunk * listChunkSize : 0;
+            counts[i] = i == chunked ? Math.min(listChunkSize, len - offsets[i]) : len;
+            widths[i] = bucketSize(counts[i]);
+        }
+
+        final String sql = template.getExpandedSql(widths);
+        final PreparedStatement ps;
+
+        if (sql.equals(template.getJdbcSql())) {
+            // every list has one value, so the prepared statement fits
+            releaseListStatement();
+            ps = stmt;
+        } else {
+            if (listStmt == null || !sql.equals(listSql)) {
+                releaseListStatement();
+                listStmt = prepare(sql);
+                listSql = sql;
+            }
+
+            ps = listStmt;
+        }
+
+        int next = 1;
+
+        for (int p = 1; p <= template.getParameterCount(); p++) {
+            final int index = template.getSlotIndex(p);
+
+            if (paramKinds[index] != KIND_LIST) {
+                applyParameter(ps, next++, p, index);
+                continue;
+            }
+
+            // pad the list by repeating its last value
+            final Object[] values = (Object[]) paramValues[index];
+            final int last = offsets[index] + counts[index] - 1;
+
+            for (int v = offsets[index]; v < offsets[index] + widths[index]; v++) {
+                final Object value = values[Math.min(v, last)];
+
+                if (value == null) {
+                    ps.setNull(next++, nullType(p));
+                } else {
+                    applyObject(ps, next++, p, value);
+                }
+            }
+        }
+
+        return ps;
+    }
+
+    /**
+     * Helper method to round the size of a list up to its bucket: the next
+     * power of two, but no more than the chunk size.
+     */
+    private int bucketSize(final int count) {
+        final int bucket = count == 1 ? 1 : Integer.highestOneBit(count - 1) << 1;
+
+        return listChunkSize > 0 && bucket > listChunkSize ? listChunkSize : bucket;
+    }
+
+    /**
+     * Closes the statement prepared for list parameters, or gives it back to
+     * the statement cache.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    private void releaseListStatement() throws SQLException {
+        final PreparedStatement ps = listStmt;
+
+        if (ps == null) {
+            return;
+        }
+
+        listStmt = null;
+
+        if (statementCache != null && !failed) {
+            release(listSql, ps);
+        } else {
+            DbUtils.close(ps);
+        }
+    }
+
+    /**
+     * Executes the query, once for each chunk of the list parameters. The rows
+     * of all of the chunks are returned through one <code>ResultSet</code>.
+     *
+     * @return the results of the query.
+     * @throws SQLException if a database access error occurs
+     */
+    ResultSet executeQuery() throws SQLException {
+        final int chunks = getChunkCount();
+
+        if (chunks == 1) {
+            return prepareChunk(0).executeQuery();
+        }
+
+        return ProxyFactory.instance().createResultSet(new ChunkedResultSet(this, chunks));
+    }
+
+    /**
+     * Executes the update, once for each chunk of the list parameters.
+     *
+     * @return the total number of rows updated.
+     * @throws SQLException if a database access error occurs
+     */
+    int executeUpdate() throws SQLException {
+        final int chunks = getChunkCount();
+        int ret = 0;
+
+        for (int c = 0; c < chunks; c++) {
+            ret += prepareChunk(c).executeUpdate();
+        }
+
+        return ret;
+    }
+
+    /**
+     * Records a value for a slot, and binds it to all of the slot's positions.
+     *
+     * @param slot the slot of the parameter.
+     * @param kind how the value should be bound.
+     * @param value the value, for object kinds.
+     * @param bits the value, for primitive kinds.
+     * @return this execution object to provide the fluent style.
+     * @throws SQLException thrown if the slot is from a different statement, already bound, or there is an issue binding it.
+     */
+    private T bindValue(final ParameterSlot slot, final byte kind, final Object value, final long bits) throws SQLException {
+        checkSlot(slot);
+
+        final int index = slot.getIndex();
+
+        // make sure it isn't already bound
+        if(boundParams.get(index)) {
+            throw new SQLException("You are attempting to bind the parameter " + slot.getName() + " twice. It already has the value " + describeValue(index));
+        }
+
+        paramKinds[index] = kind;
+        paramValues[index] = value;
+        paramBits[index] = bits;
+        boundParams.set(index);
+
+        // lists are bound when the statement is executed
+        if (kind == KIND_LIST) {
+            return self();
         }
 
         // go through and bind all of the positions for this name
-        for (Integer p:pos) {
-            stmt.setNull(p.intValue(), sqlType);
+        for (int p:slot.getPositions()) {
+            applyParameter(stmt, p, p, index);
+        }
+
+        return self();
+    }
+
+    /**
+     * Sets a JDBC parameter on a statement from the value recorded for a slot.
+     *
+     * @param ps the statement to set the parameter on.
+     * @param position the 1-based JDBC position in the statement.
+     * @param typePosition the 1-based JDBC position in the template, for the parameter's type.
+     * @param index the index of the slot.
+     * @throws SQLException if there is an issue setting the parameter.
+     */
+    private void applyParameter(final PreparedStatement ps, final int position, final int typePosition, final int index) throws SQLException {
+        final long bits = paramBits[index];
+
+        switch (paramKinds[index]) {
+        case KIND_NULL:
+            ps.setNull(position, (int) bits);
+            break;
+
+        case KIND_INT:
+            ps.setInt(position, (int) bits);
+            break;
+
+        case KIND_LONG:
+            ps.setLong(position, bits);
+            break;
+
+        case KIND_DOUBLE:
+            ps.setDouble(position, Double.longBitsToDouble(bits));
+            break;
+
+        case KIND_BOOLEAN:
+            ps.setBoolean(position, bits != 0L);
+            break;
+
+        case KIND_STRING:
+            ps.setString(position, (String) paramValues[index]);
+            break;
+
+        case KIND_BYTES:
+            ps.setBytes(position, (byte[]) paramValues[index]);
+            break;
+
+        case KIND_TIMESTAMP:
+            ps.setTimestamp(position, (Timestamp) paramValues[index]);
+            break;
+
+        default:
+            applyObject(ps, position, typePosition, paramValues[index]);
         }
+    }
+
+    /**
+     * Sets a JDBC parameter from an object, using the typed setter for the
+     * parameter's type when parameter metadata is being used.
+     *
+     * @param ps the statement to set the parameter on.
+     * @param position the 1-based JDBC position in the statement.
+     * @param typePosition the 1-based JDBC position in the template, for the parameter's type.
+     * @param value the value to set.
+     * @throws SQLException if there is an issue setting the parameter.
+     */
+    private void applyObject(final PreparedStatement ps, final int position, final int typePosition, final Object value) throws SQLException {
+        if (parameterTypes == null || value == null) {
+            ps.setObject(position, value);
+            return;
+        }
+
+        switch (parameterTypes[typePosition - 1]) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+            if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                ps.setInt(position, ((Number) value).intValue());
+                return;
+            }
+            break;
 
-        // add the param and value to our map
-        paramValueMap.put(name, null);
+        case Types.BIGINT:
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                ps.setLong(position, ((Number) value).longValue());
+                return;
+            }
+            break;
 
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            if (value instanceof Double || value instanceof Float) {
+                ps.setDouble(position, ((Number) value).doubleValue());
+                return;
+            }
+            break;
+
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+            if (value instanceof BigDecimal) {
+                ps.setBigDecimal(position, (BigDecimal) value);
+                return;
+            }
+            break;
+
+        case Types.BIT:
+        case Types.BOOLEAN:
+            if (value instanceof Boolean) {
+                ps.setBoolean(position, ((Boolean) value).booleanValue());
+                return;
+            }
+            break;
+
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.LONGVARCHAR:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+        case Types.LONGNVARCHAR:
+            if (value instanceof String) {
+                ps.setString(position, (String) value);
+                return;
+            }
+            break;
+
+        case Types.BINARY:
+        case Types.VARBINARY:
+        case Types.LONGVARBINARY:
+            if (value instanceof byte[]) {
+                ps.setBytes(position, (byte[]) value);
+                return;
+            }
+            break;
+
+        case Types.DATE:
+            if (value instanceof java.sql.Date) {
+                ps.setDate(position, (java.sql.Date) value);
+                return;
+            }
+            break;
+
+        case Types.TIME:
+            if (value instanceof Time) {
+                ps.setTime(position, (Time) value);
+                return;
+            }
+            break;
+
+        case Types.TIMESTAMP:
+            if (value instanceof Timestamp) {
+                ps.setTimestamp(position, (Timestamp) value);
+                return;
+            }
+            break;
+
+        default:
+            break;
+        }
+
+        // the value doesn't match the parameter's type, so let the driver convert it
+        ps.setObject(position, value);
+    }
+
+    /**
+     * Gets the SQL type to use when binding null to a position.
+     *
+     * @param position the 1-based JDBC position.
+     * @return the parameter's type from the metadata, or Types.VARCHAR.
+     */
+    private int nullType(final int position) {
+        if (parameterTypes == null || parameterTypes[position - 1] == SqlTemplate.UNKNOWN_TYPE) {
+            return Types.VARCHAR;
+        }
+
+        return parameterTypes[position - 1];
+    }
+
+    /**
+     * Describes the value bound to a slot, for error messages.
+     *
+     * @param index the index of the slot.
+     * @return the value bound to the slot, boxed if needed.
+     */
+    private Object describeValue(final int index) {
+        final long bits = paramBits[index];
+
+        switch (paramKinds[index]) {
+        case KIND_NULL:
+            return null;
+
+        case KIND_INT:
+            return Integer.valueOf((int) bits);
+
+        case KIND_LONG:
+            return Long.valueOf(bits);
+
+        case KIND_DOUBLE:
+            return Double.valueOf(Double.longBitsToDouble(bits));
+
+        case KIND_BOOLEAN:
+            return Boolean.valueOf(bits != 0L);
+
+        case KIND_LIST:
+            return Arrays.asList((Object[]) paramValues[index]);
+
+        default:
+            return paramValues[index];
+        }
+    }
+
+    /**
+     * Uses the statement's <code>ParameterMetaData</code> to bind values with
+     * the typed <code>PreparedStatement</code> setters instead of
+     * <code>setObject</code>, saving the driver from inferring the type of
+     * every value. The metadata is read once per SQL statement and database
+     * (the connection's URL, read once per connection) and cached.
+     * If the driver does not support parameter metadata, values are bound with
+     * <code>setObject</code> as usual.
+     *
+     * <p>
+     * This should be called before binding any parameters.
+     * </p>
+     *
+     * @return this execution object to provide the fluent style.
+     */
+    public T useParameterMetaData() {
+        parameterTypes = template.getParameterTypes(conn, stmt);
+        return self();
+    }
+
+    /**
+     * Returns this executor, typed for the fluent style.
+     *
+     * @return this execution object.
+     */
+    T self() {
         // suppressed because the casting will always work here
         @SuppressWarnings("unchecked")
         final T ret = (T) this;
@@ -224,10 +1159,16 @@ abstract class AbstractExecutor<T extends AbstractExecutor<T>> {
     }
 
     /**
-     * Used for batch calls so we can clear the map after the addBatch call.
+     * Used for batch calls so we can clear the bound values after the addBatch call.
+     * Also closes the statement prepared for list parameters, if any.
+     *
+     * @throws SQLException if a database access error occurs
      */
-    void clearValueMap() {
-        paramValueMap.clear();
+    void clearBindings() throws SQLException {
+        boundParams.clear();
+        Arrays.fill(paramValues, null);
+        boundLists = 0;
+        releaseListStatement();
     }
 
     /**
@@ -239,6 +1180,9 @@ abstract class AbstractExecutor<T extends AbstractExecutor<T>> {
      * @throws SQLException if a database access error occurs
      */
     void rethrow(SQLException cause) throws SQLException {
+        // don't hand a statement that failed back to the cache
+        failed = true;
+
         String causeMessage = cause.getMessage();
 
         if (causeMessage == null) {
@@ -248,14 +1192,14 @@ abstract class AbstractExecutor<T extends AbstractExecutor<T>> {
         final StringBuilder msg = new StringBuilder(causeMessage);
 
         msg.append(" Query: ");
-        msg.append(sql);
+        msg.append(template.getSql());
         msg.append(" Parameters: ");
 
-        // loop through adding the parameter to value mappings
-        for (Map.Entry<String, Object> param:paramValueMap.entrySet()) {
-            msg.append(param.getKey());
+        // loop through adding the bound parameter to value mappings
+        for (int i = boundParams.nextSetBit(0); i >= 0; i = boundParams.nextSetBit(i + 1)) {
+            msg.append(template.getSlot(i).getName());
             msg.append("=");
-            msg.append(param.getValue());
+            msg.append(describeValue(i));
             msg.append(" ");
         }
 
@@ -292,12 +1236,32 @@ abstract class AbstractExecutor<T extends AbstractExecutor<T>> {
     /**
      * Close a <code>Statement</code>. This implementation avoids closing if
      * null and does <strong>not</strong> suppress any exceptions. Subclasses
-     * can override to provide special handling like logging.
+     * can override to provide special handling like logging. If this
+     * executor's statement was borrowed from a statement cache, it is returned
+     * to the cache instead of being closed, unless its execution failed.
      *
      * @param stmt Statement to close
      * @throws SQLException if a database access error occurs
      */
     void close(Statement stmt) throws SQLException {
+        if (stmt == this.stmt) {
+            releaseListStatement();
+        }
+
+        if (statementCache != null && stmt == this.stmt) {
+            // only give the statement back once
+            if (released) {
+                return;
+            }
+
+            released = true;
+
+            if (!failed) {
+                release(template.getJdbcSql(), this.stmt);
+                return;
+            }
+        }
+
         DbUtils.close(stmt);
     }
 
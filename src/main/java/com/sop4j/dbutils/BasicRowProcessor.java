@@ -16,7 +16,6 @@
 package com.sop4j.dbutils;
 
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
@@ -45,6 +44,11 @@ public class BasicRowProcessor implements RowProcessor {
      */
     private final BeanProcessor convert;
 
+    /**
+     * The column index of each <code>ResultSet</code> converted.
+     */
+    private final ResultSetCache<ColumnIndex> indexed = new ResultSetCache<ColumnIndex>();
+
     /**
      * BasicRowProcessor constructor.  Bean processing defaults to a
      * BeanProcessor instance.
@@ -68,7 +72,8 @@ public class BasicRowProcessor implements RowProcessor {
      * Convert a <code>ResultSet</code> row into an <code>Object[]</code>.
      * This implementation copies column values into the array in the same
      * order they're returned from the <code>ResultSet</code>.  Array elements
-     * will be set to <code>null</code> if the column was SQL NULL.
+     * will be set to <code>null</code> if the column was SQL NULL.  The
+     * metadata is only read for the first row of each <code>ResultSet</code>.
      *
      * @see com.sop4j.dbutils.RowProcessor#toArray(java.sql.ResultSet)
      * @param rs ResultSet that supplies the array data
@@ -77,8 +82,7 @@ public class BasicRowProcessor implements RowProcessor {
      */
     @Override
     public Object[] toArray(ResultSet rs) throws SQLException {
-        ResultSetMetaData meta = rs.getMetaData();
-        int cols = meta.getColumnCount();
+        int cols = this.columnIndex(rs).columnCount();
         Object[] result = new Object[cols];
 
         for (int i = 0; i < cols; i++) {
@@ -129,6 +133,11 @@ public class BasicRowProcessor implements RowProcessor {
      * names as keys.  Calls to <code>map.get("COL")</code> and
      * <code>map.get("col")</code> return the same value.
      *
+     * <p>
+     * The column names are indexed once per <code>ResultSet</code>, and
+     * each row only holds an array of its values.
+     * </p>
+     *
      * @see com.sop4j.dbutils.RowProcessor#toMap(java.sql.ResultSet)
      * @param rs ResultSet that supplies the map data
      * @throws SQLException if a database access error occurs
@@ -136,19 +145,30 @@ public class BasicRowProcessor implements RowProcessor {
      */
     @Override
     public Map<String, Object> toMap(ResultSet rs) throws SQLException {
-        Map<String, Object> result = new CaseInsensitiveHashMap();
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int cols = rsmd.getColumnCount();
-
-        for (int i = 1; i <= cols; i++) {
-            String columnName = rsmd.getColumnLabel(i);
-            if (null == columnName || 0 == columnName.length()) {
-                columnName = rsmd.getColumnName(i);
-            }
-            result.put(columnName, rs.getObject(i));
+        ColumnIndex index = this.columnIndex(rs);
+        Object[] values = new Object[index.size()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rs.getObject(index.column(i));
         }
 
-        return result;
+        return new RowMap(index, values);
+    }
+
+    /**
+     * Gets the column index of a <code>ResultSet</code>, which is only built
+     * for its first row, so handlers and iterators that convert every row
+     * read the metadata once.
+     */
+    private ColumnIndex columnIndex(ResultSet rs) throws SQLException {
+        ColumnIndex index = this.indexed.get(rs, null);
+
+        if (index == null) {
+            index = ColumnIndex.of(rs.getMetaData());
+            this.indexed.put(rs, null, index);
+        }
+
+        return index;
     }
 
     /**
@@ -166,7 +186,7 @@ public class BasicRowProcessor implements RowProcessor {
      * key.toString().toLowerCase()
      * </pre>
      */
-    private static class CaseInsensitiveHashMap extends HashMap<String, Object> {
+    static class CaseInsensitiveHashMap extends HashMap<String, Object> {
         /**
          * The internal mapping from lowercase keys to the real keys.
          *
@@ -17,6 +17,7 @@ package com.sop4j.dbutils;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
  * This class provides the ability to execute a batch of statements.
@@ -40,7 +41,23 @@ public class BatchExecutor extends AbstractExecutor<BatchExecutor> {
      * @throws SQLException thrown if there is an error during execution.
      */
     BatchExecutor(final Connection conn, final String sql, final boolean closeConnection, final int autoGeneratedKeys) throws SQLException {
-        super(conn, sql, autoGeneratedKeys);
+        this(conn, sql, closeConnection, autoGeneratedKeys, null, null);
+    }
+
+    /**
+     * Constructs a BatchExecutor that borrows its statement from a cache, and configures it.
+     *
+     * @param conn The connection to use during execution.
+     * @param sql The SQL statement.
+     * @param closeConnection If the connection should be closed or not.
+     * @param autoGeneratedKeys If the statement should return auto generated keys or not.
+     * @param statementCache The cache to borrow the statement from, or null.
+     * @param config The statement settings, or null.
+     * @throws SQLException thrown if there is an error during execution.
+     */
+    BatchExecutor(final Connection conn, final String sql, final boolean closeConnection, final int autoGeneratedKeys,
+                  final StatementCache statementCache, final StatementConfiguration config) throws SQLException {
+        super(conn, sql, autoGeneratedKeys, statementCache, config);
         this.closeConn = closeConnection;
     }
 
@@ -53,8 +70,7 @@ public class BatchExecutor extends AbstractExecutor<BatchExecutor> {
      * @throws SQLException thrown if there is an error during execution.
      */
     BatchExecutor(final Connection conn, final String sql, final boolean closeConnection) throws SQLException {
-        super(conn, sql);
-        this.closeConn = closeConnection;
+        this(conn, sql, closeConnection, Statement.NO_GENERATED_KEYS, null, null);
     }
 
     /**
@@ -76,11 +92,16 @@ public class BatchExecutor extends AbstractExecutor<BatchExecutor> {
         // throw an exception if there are unmapped parameters
         this.throwIfUnmappedParams();
 
+        // the statement is prepared before the lists are known, so they can't be expanded
+        if (hasListBindings()) {
+            throw new SQLException("List parameters cannot be used in a batch");
+        }
+
         addBatchCalled = true;
 
         try {
             getStatement().addBatch();
-            clearValueMap();
+            clearBindings();
         } catch (SQLException e) {
             rethrow(e);
         }
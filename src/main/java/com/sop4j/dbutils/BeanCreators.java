@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.beans.ConstructorProperties;
+import java.beans.Introspector;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds how to create beans that have no public no-arg constructor. In order,
+ * a bean is created with:
+ *
+ * <ol>
+ *     <li>a public constructor annotated with <code>@ConstructorProperties</code>;</li>
+ *     <li>the canonical constructor of a record;</li>
+ *     <li>its only public constructor, if the class was compiled with
+ *     <code>-parameters</code> so the parameter names are known;</li>
+ *     <li>a builder from a public static <code>builder()</code> method, whose
+ *     public <code>build()</code> method returns the bean.</li>
+ * </ol>
+ *
+ * <p>
+ * Records and parameter names are looked up reflectively, so they are used
+ * on the JVMs that have them.
+ * </p>
+ *
+ * @since 2.3
+ */
+final class BeanCreators {
+
+    private BeanCreators() {
+        // static methods only
+    }
+
+    /**
+     * Returns true if a class has a public no-arg constructor, so beans are created with setters.
+     *
+     * @param type the bean class.
+     * @return true if the class has a public no-arg constructor.
+     */
+    static boolean hasDefaultConstructor(final Class<?> type) {
+        try {
+            return Modifier.isPublic(type.getConstructor().getModifiers());
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Finds the constructor to pass columns to.
+     *
+     * @param type the bean class.
+     * @return the constructor, or null if there is no constructor with known parameter names.
+     */
+    static Constructor<?> constructor(final Class<?> type) {
+        final Constructor<?>[] ctors = type.getConstructors();
+
+        for (final Constructor<?> ctor : ctors) {
+            if (ctor.isAnnotationPresent(ConstructorProperties.class)) {
+                return ctor;
+            }
+        }
+
+        final Constructor<?> canonical = recordConstructor(type);
+
+        if (canonical != null) {
+            return canonical;
+        }
+
+        if (ctors.length == 1 && ctors[0].getParameterTypes().length > 0 && reflectedNames(ctors[0]) != null) {
+            return ctors[0];
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the names of a constructor's parameters, which are matched to the columns.
+     *
+     * @param ctor a constructor returned by {@link #constructor(Class)}.
+     * @return the name of each parameter.
+     */
+    static String[] parameterNames(final Constructor<?> ctor) {
+        final ConstructorProperties annotation = ctor.getAnnotation(ConstructorProperties.class);
+
+        if (annotation != null) {
+            return annotation.value();
+        }
+
+        final String[] names = recordNames(ctor.getDeclaringClass());
+
+        return names != null ? names : reflectedNames(ctor);
+    }
+
+    /**
+     * Finds the static method that creates a builder for a class.
+     *
+     * @param type the bean class.
+     * @return the <code>builder()</code> method, or null if there is none.
+     */
+    static Method builder(final Class<?> type) {
+        try {
+            final Method builder = type.getMethod("builder");
+
+            if (Modifier.isStatic(builder.getModifiers()) && build(builder, type) != null) {
+                return builder;
+            }
+        } catch (final NoSuchMethodException e) {
+            // no builder
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the builder's method that creates the bean.
+     *
+     * @param builder the method returned by {@link #builder(Class)}.
+     * @param type the bean class.
+     * @return the <code>build()</code> method, or null if there is none.
+     */
+    static Method build(final Method builder, final Class<?> type) {
+        try {
+            final Method build = builder.getReturnType().getMethod("build");
+
+            if (!Modifier.isStatic(build.getModifiers()) && type.isAssignableFrom(build.getReturnType())) {
+                return build;
+            }
+        } catch (final NoSuchMethodException e) {
+            // not a builder
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the builder methods that take one property, keyed by the
+     * property name. <code>name(value)</code>, <code>setName(value)</code>
+     * and <code>withName(value)</code> are all recognized; when a name is
+     * overloaded, the first method found is used.
+     *
+     * @param builderType the class of the builder.
+     * @return the methods, by property name.
+     */
+    static Map<String, Method> builderMethods(final Class<?> builderType) {
+        final Map<String, Method> methods = new LinkedHashMap<String, Method>();
+
+        for (final Method method : builderType.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterTypes().length != 1
+                || method.getDeclaringClass() == Object.class || method.getName().equals("equals")) {
+                continue;
+            }
+
+            final String name = propertyName(method.getName());
+
+            if (!methods.containsKey(name)) {
+                methods.put(name, method);
+            }
+        }
+
+        return methods;
+    }
+
+    /**
+     * Helper method to strip the set or with prefix from a builder method name.
+     */
+    private static String propertyName(final String methodName) {
+        for (final String prefix : new String[] { "set", "with" }) {
+            if (methodName.length() > prefix.length() && methodName.startsWith(prefix)
+                && Character.isUpperCase(methodName.charAt(prefix.length()))) {
+                return Introspector.decapitalize(methodName.substring(prefix.length()));
+            }
+        }
+
+        return methodName;
+    }
+
+    /**
+     * Helper method to find a record's canonical constructor.
+     */
+    private static Constructor<?> recordConstructor(final Class<?> type) {
+        final Object[] components = recordComponents(type);
+
+        if (components == null) {
+            return null;
+        }
+
+        try {
+            final Class<?>[] types = new Class<?>[components.length];
+
+            for (int i = 0; i < components.length; i++) {
+                types[i] = (Class<?>) components[i].getClass().getMethod("getType").invoke(components[i]);
+            }
+
+            return type.getConstructor(types);
+        } catch (final Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Helper method to get a record's component names.
+     */
+    private static String[] recordNames(final Class<?> type) {
+        final Object[] components = recordComponents(type);
+
+        if (components == null) {
+            return null;
+        }
+
+        try {
+            final String[] names = new String[components.length];
+
+            for (int i = 0; i < components.length; i++) {
+                names[i] = (String) components[i].getClass().getMethod("getName").invoke(components[i]);
+            }
+
+            return names;
+        } catch (final Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Helper method to call Class.getRecordComponents, which older JVMs don't have.
+     */
+    private static Object[] recordComponents(final Class<?> type) {
+        try {
+            // null for classes that aren't records
+            return (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+        } catch (final Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Helper method to get parameter names compiled with -parameters, which older JVMs can't read.
+     */
+    private static String[] reflectedNames(final Constructor<?> ctor) {
+        try {
+            final Object[] params = (Object[]) Constructor.class.getMethod("getParameters").invoke(ctor);
+            final List<String> names = new ArrayList<String>(params.length);
+
+            for (final Object param : params) {
+                final Class<?> paramClass = param.getClass();
+
+                if (!((Boolean) paramClass.getMethod("isNamePresent").invoke(param)).booleanValue()) {
+                    return null;
+                }
+
+                names.add((String) paramClass.getMethod("getName").invoke(param));
+            }
+
+            return names.toArray(new String[names.size()]);
+        } catch (final Exception e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,810 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled plan for turning the rows of a <code>ResultSet</code> into beans
+ * of one class. The plan holds, for every column that maps to a writable
+ * property, a {@link PropertySetter}, the setter's parameter type, and how the
+ * column is read, either by a {@link ColumnConverter} or by the getter for the
+ * property type, so none of it is looked up again for each row. Columns can
+ * also be written straight to fields, for {@link FieldBeanProcessor}. Beans
+ * without a public no-arg constructor are instead created by passing the
+ * columns to a constructor, or by setting them on a builder. Plans are cached
+ * by {@link BeanProcessor} under a {@link Key} of the bean class and the
+ * column labels and types.
+ *
+ * @since 2.3
+ */
+final class BeanMapping {
+
+    // which ResultSet getter reads a column, chosen from the property type
+    private static final byte READ_OBJECT = 0;
+    private static final byte READ_STRING = 1;
+    private static final byte READ_INT = 2;
+    private static final byte READ_BOOLEAN = 3;
+    private static final byte READ_LONG = 4;
+    private static final byte READ_DOUBLE = 5;
+    private static final byte READ_FLOAT = 6;
+    private static final byte READ_SHORT = 7;
+    private static final byte READ_BYTE = 8;
+    private static final byte READ_TIMESTAMP = 9;
+    private static final byte READ_SQLXML = 10;
+
+    // how a java.util.Date value is converted for the setter
+    private static final byte DATE_AS_IS = 0;
+    private static final byte DATE_SQL_DATE = 1;
+    private static final byte DATE_SQL_TIME = 2;
+    private static final byte DATE_SQL_TIMESTAMP = 3;
+
+    private final ColumnMapping[] columns;
+
+    // beans without a public no-arg constructor are created with a constructor or a builder
+    private final Constructor<?> constructor;
+    private final int[] arguments;
+    private final Object[] defaultArguments;
+    private final Method builder;
+    private final Method build;
+
+    // set by CompiledBeanProcessor; racing threads compose equivalent mappers
+    private volatile RowMapper<?> rowMapper;
+    private volatile boolean rowMapperResolved = false;
+
+    /**
+     * Compiles a plan from the result of <code>mapColumnsToProperties</code>.
+     *
+     * @param props the bean's property descriptors.
+     * @param columnToProperty the property index for each column, or <code>BeanProcessor.PROPERTY_NOT_FOUND</code>.
+     * @param primitiveDefaults the values to set primitive properties to for SQL NULL.
+     * @param sqlTypes the JDBC type of each column, from index 0.
+     * @param converters the registry to find each column's converter in.
+     */
+    BeanMapping(final PropertyDescriptor[] props, final int[] columnToProperty, final Map<Class<?>, Object> primitiveDefaults,
+                final int[] sqlTypes, final ColumnConverters converters) {
+        final List<ColumnMapping> mapped = new ArrayList<ColumnMapping>(columnToProperty.length);
+
+        for (int col = 1; col < columnToProperty.length; col++) {
+            if (columnToProperty[col] == BeanProcessor.PROPERTY_NOT_FOUND) {
+                continue;
+            }
+
+            final PropertyDescriptor prop = props[columnToProperty[col]];
+            final Method setter = prop.getWriteMethod();
+
+            // properties without a setter are skipped, so there is no need to read their columns
+            if (setter != null) {
+                final Class<?> paramType = setter.getParameterTypes()[0];
+                final ColumnConverter<?> converter = converters.find(sqlTypes[col - 1], paramType);
+
+                mapped.add(new ColumnMapping(col, prop.getName(), PropertySetter.of(setter), prop.getPropertyType(),
+                                             paramType, primitiveDefaults, converter));
+            }
+        }
+
+        this.columns = mapped.toArray(new ColumnMapping[mapped.size()]);
+        this.constructor = null;
+        this.arguments = null;
+        this.defaultArguments = null;
+        this.builder = null;
+        this.build = null;
+    }
+
+    /**
+     * Compiles a plan that passes columns to a constructor. Parameters without
+     * a column are passed null, or the default of their primitive type.
+     *
+     * @param constructor the constructor.
+     * @param names the name of each constructor parameter.
+     * @param columnToParameter the parameter index for each column, or <code>BeanProcessor.PROPERTY_NOT_FOUND</code>.
+     * @param primitiveDefaults the values to pass for primitive parameters for SQL NULL.
+     * @param sqlTypes the JDBC type of each column, from index 0.
+     * @param converters the registry to find each column's converter in.
+     */
+    BeanMapping(final Constructor<?> constructor, final String[] names, final int[] columnToParameter,
+                final Map<Class<?>, Object> primitiveDefaults, final int[] sqlTypes, final ColumnConverters converters) {
+        final Class<?>[] paramTypes = constructor.getParameterTypes();
+        final List<ColumnMapping> mapped = new ArrayList<ColumnMapping>(paramTypes.length);
+        final List<Integer> args = new ArrayList<Integer>(paramTypes.length);
+
+        for (int col = 1; col < columnToParameter.length; col++) {
+            final int param = columnToParameter[col];
+
+            if (param == BeanProcessor.PROPERTY_NOT_FOUND) {
+                continue;
+            }
+
+            final ColumnConverter<?> converter = converters.find(sqlTypes[col - 1], paramTypes[param]);
+
+            mapped.add(new ColumnMapping(col, names[param], null, paramTypes[param], paramTypes[param],
+                                         primitiveDefaults, converter));
+            args.add(Integer.valueOf(param));
+        }
+
+        this.columns = mapped.toArray(new ColumnMapping[mapped.size()]);
+        this.constructor = constructor;
+        this.arguments = new int[args.size()];
+        this.defaultArguments = new Object[paramTypes.length];
+        this.builder = null;
+        this.build = null;
+
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = args.get(i).intValue();
+        }
+
+        for (int param = 0; param < paramTypes.length; param++) {
+            defaultArguments[param] = paramTypes[param].isPrimitive() ? primitiveDefaults.get(paramTypes[param]) : null;
+        }
+    }
+
+    /**
+     * Compiles a plan that sets columns on a builder, then builds the bean.
+     *
+     * @param builder the static method that creates a builder.
+     * @param build the builder's method that creates the bean.
+     * @param methods the builder's methods that take one property each.
+     * @param names the property name of each method.
+     * @param columnToMethod the method index for each column, or <code>BeanProcessor.PROPERTY_NOT_FOUND</code>.
+     * @param primitiveDefaults the values to set primitive properties to for SQL NULL.
+     * @param sqlTypes the JDBC type of each column, from index 0.
+     * @param converters the registry to find each column's converter in.
+     */
+    BeanMapping(final Method builder, final Method build, final Method[] methods, final String[] names,
+                final int[] columnToMethod, final Map<Class<?>, Object> primitiveDefaults, final int[] sqlTypes,
+                final ColumnConverters converters) {
+        final List<ColumnMapping> mapped = new ArrayList<ColumnMapping>(methods.length);
+
+        for (int col = 1; col < columnToMethod.length; col++) {
+            if (columnToMethod[col] == BeanProcessor.PROPERTY_NOT_FOUND) {
+                continue;
+            }
+
+            final Method method = methods[columnToMethod[col]];
+            final Class<?> paramType = method.getParameterTypes()[0];
+            final ColumnConverter<?> converter = converters.find(sqlTypes[col - 1], paramType);
+
+            mapped.add(new ColumnMapping(col, names[columnToMethod[col]], PropertySetter.of(method), paramType,
+                                         paramType, primitiveDefaults, converter));
+        }
+
+        this.columns = mapped.toArray(new ColumnMapping[mapped.size()]);
+        this.constructor = null;
+        this.arguments = null;
+        this.defaultArguments = null;
+        this.builder = builder;
+        this.build = build;
+    }
+
+    /**
+     * Compiles a plan that writes columns directly to fields.
+     *
+     * @param fields the bean's fields.
+     * @param names the name each field is matched to columns by.
+     * @param columnToField the field index for each column, or <code>BeanProcessor.PROPERTY_NOT_FOUND</code>.
+     * @param primitiveDefaults the values to set primitive fields to for SQL NULL.
+     * @param sqlTypes the JDBC type of each column, from index 0.
+     * @param converters the registry to find each column's converter in.
+     */
+    BeanMapping(final Field[] fields, final String[] names, final int[] columnToField,
+                final Map<Class<?>, Object> primitiveDefaults, final int[] sqlTypes, final ColumnConverters converters) {
+        final List<ColumnMapping> mapped = new ArrayList<ColumnMapping>(fields.length);
+
+        for (int col = 1; col < columnToField.length; col++) {
+            if (columnToField[col] == BeanProcessor.PROPERTY_NOT_FOUND) {
+                continue;
+            }
+
+            final Field field = fields[columnToField[col]];
+            final ColumnConverter<?> converter = converters.find(sqlTypes[col - 1], field.getType());
+
+            mapped.add(new ColumnMapping(col, names[columnToField[col]], PropertySetter.of(field), field.getType(),
+                                         field.getType(), primitiveDefaults, converter));
+        }
+
+        this.columns = mapped.toArray(new ColumnMapping[mapped.size()]);
+        this.constructor = null;
+        this.arguments = null;
+        this.defaultArguments = null;
+        this.builder = null;
+        this.build = null;
+    }
+
+    /**
+     * Returns true if beans are created by passing the columns to a constructor.
+     *
+     * @return true if {@link #construct(Object[])} creates the beans.
+     */
+    boolean isConstructed() {
+        return constructor != null;
+    }
+
+    /**
+     * Returns true if the columns are set on a builder, which then creates the bean.
+     *
+     * @return true if {@link #newBuilder()} and {@link #build(Object)} create the beans.
+     */
+    boolean isBuilt() {
+        return builder != null;
+    }
+
+    /**
+     * Gets the constructor parameter a mapped column is passed as.
+     *
+     * @param i the 0-based mapped column.
+     * @return the 0-based parameter.
+     */
+    int getArgument(final int i) {
+        return arguments[i];
+    }
+
+    /**
+     * Creates the constructor arguments, with every parameter set to its default.
+     *
+     * @return a new array of arguments.
+     */
+    Object[] newArguments() {
+        return defaultArguments.clone();
+    }
+
+    /**
+     * Creates a bean with the constructor.
+     *
+     * @param args the constructor arguments.
+     * @return the new bean.
+     * @throws SQLException if the constructor fails.
+     */
+    Object construct(final Object[] args) throws SQLException {
+        try {
+            return constructor.newInstance(args);
+        } catch (final InvocationTargetException e) {
+            throw creationFailed(constructor.getDeclaringClass(), e.getCause());
+        } catch (final Exception e) {
+            throw creationFailed(constructor.getDeclaringClass(), e);
+        }
+    }
+
+    /**
+     * Creates a builder to set the columns on.
+     *
+     * @return the new builder.
+     * @throws SQLException if the builder can't be created.
+     */
+    Object newBuilder() throws SQLException {
+        try {
+            return builder.invoke(null);
+        } catch (final InvocationTargetException e) {
+            throw creationFailed(builder.getDeclaringClass(), e.getCause());
+        } catch (final IllegalAccessException e) {
+            throw creationFailed(builder.getDeclaringClass(), e);
+        }
+    }
+
+    /**
+     * Creates a bean from a builder the columns were set on.
+     *
+     * @param target the builder.
+     * @return the new bean.
+     * @throws SQLException if the builder fails.
+     */
+    Object build(final Object target) throws SQLException {
+        try {
+            return build.invoke(target);
+        } catch (final InvocationTargetException e) {
+            throw creationFailed(builder.getDeclaringClass(), e.getCause());
+        } catch (final IllegalAccessException e) {
+            throw creationFailed(builder.getDeclaringClass(), e);
+        }
+    }
+
+    /**
+     * Gets the number of columns that are set on the bean.
+     *
+     * @return the number of mapped columns.
+     */
+    int size() {
+        return columns.length;
+    }
+
+    /**
+     * Gets the <code>ResultSet</code> column index of a mapped column.
+     *
+     * @param i the 0-based mapped column.
+     * @return the 1-based column index.
+     */
+    int getColumnIndex(final int i) {
+        return columns[i].index;
+    }
+
+    /**
+     * Gets the property setter of a mapped column.
+     *
+     * @param i the 0-based mapped column.
+     * @return the property setter, or null if the column is passed to a constructor.
+     */
+    PropertySetter getPropertySetter(final int i) {
+        return columns[i].setter;
+    }
+
+    /**
+     * Gets the converter of a mapped column.
+     *
+     * @param i the 0-based mapped column.
+     * @return the converter, or null if the column is read by its property type.
+     */
+    ColumnConverter<?> getConverter(final int i) {
+        return columns[i].converter;
+    }
+
+    /**
+     * Gets the mapper composed for this mapping.
+     *
+     * @return the composed mapper, or null if it was not composed.
+     */
+    RowMapper<?> getRowMapper() {
+        return rowMapper;
+    }
+
+    /**
+     * Returns true once composing a mapper for this mapping has been tried.
+     *
+     * @return true if {@link #setRowMapper(RowMapper)} was called.
+     */
+    boolean isRowMapperResolved() {
+        return rowMapperResolved;
+    }
+
+    /**
+     * Records the mapper composed for this mapping.
+     *
+     * @param rowMapper the composed mapper, or null if the mapping can't be composed.
+     */
+    void setRowMapper(final RowMapper<?> rowMapper) {
+        this.rowMapper = rowMapper;
+        this.rowMapperResolved = true;
+    }
+
+    /**
+     * Gets the property type of a mapped column.
+     *
+     * @param i the 0-based mapped column.
+     * @return the property type.
+     */
+    Class<?> getPropertyType(final int i) {
+        return columns[i].propType;
+    }
+
+    /**
+     * Reads a mapped column the way <code>BeanProcessor.processColumn</code> does,
+     * without comparing the property type against each supported type. The
+     * column is read once, and <code>wasNull</code> is only called for
+     * primitive wrapper properties.
+     *
+     * @param rs the <code>ResultSet</code>, positioned on a row.
+     * @param i the 0-based mapped column.
+     * @return the column's value, or null if it is SQL NULL.
+     * @throws SQLException if a database access error occurs
+     */
+    Object read(final ResultSet rs, final int i) throws SQLException {
+        final ColumnMapping column = columns[i];
+        final int index = column.index;
+        final Object value;
+
+        switch (column.reader) {
+        case READ_STRING:
+            return rs.getString(index);
+
+        case READ_INT:
+            value = Integer.valueOf(rs.getInt(index));
+            break;
+
+        case READ_BOOLEAN:
+            value = Boolean.valueOf(rs.getBoolean(index));
+            break;
+
+        case READ_LONG:
+            value = Long.valueOf(rs.getLong(index));
+            break;
+
+        case READ_DOUBLE:
+            value = Double.valueOf(rs.getDouble(index));
+            break;
+
+        case READ_FLOAT:
+            value = Float.valueOf(rs.getFloat(index));
+            break;
+
+        case READ_SHORT:
+            value = Short.valueOf(rs.getShort(index));
+            break;
+
+        case READ_BYTE:
+            value = Byte.valueOf(rs.getByte(index));
+            break;
+
+        case READ_TIMESTAMP:
+            return rs.getTimestamp(index);
+
+        case READ_SQLXML:
+            return rs.getSQLXML(index);
+
+        default:
+            return rs.getObject(index);
+        }
+
+        // the primitive getters return 0 or false for SQL NULL
+        return column.primitive || !rs.wasNull() ? value : null;
+    }
+
+    /**
+     * Sets a mapped column's value on a bean, converting dates and enums.
+     *
+     * @param bean the bean to set the property on.
+     * @param i the 0-based mapped column.
+     * @param value the value read from the column.
+     * @throws SQLException if the value can't be converted or the setter fails.
+     */
+    void set(final Object bean, final int i, final Object value) throws SQLException {
+        final ColumnMapping column = columns[i];
+        final Object arg = convert(i, value);
+
+        try {
+            column.setter.set(bean, arg);
+        } catch (final Throwable t) {
+            throw setterFailed(column, t);
+        }
+    }
+
+    /**
+     * Converts a mapped column's value to the setter or constructor parameter
+     * type, converting dates and enums.
+     *
+     * @param i the 0-based mapped column.
+     * @param value the value read from the column.
+     * @return the value to pass.
+     * @throws SQLException if the value can't be converted.
+     */
+    Object convert(final int i, final Object value) throws SQLException {
+        final ColumnMapping column = columns[i];
+        Object arg = value;
+
+        if (arg == null && column.primitiveDefault != null) {
+            arg = column.primitiveDefault;
+        }
+
+        // convert types for some popular ones
+        if (arg instanceof java.util.Date) {
+            final long time = ((java.util.Date) arg).getTime();
+
+            switch (column.dateConversion) {
+            case DATE_SQL_DATE:
+                arg = new java.sql.Date(time);
+                break;
+
+            case DATE_SQL_TIME:
+                arg = new java.sql.Time(time);
+                break;
+
+            case DATE_SQL_TIMESTAMP:
+                arg = new java.sql.Timestamp(time);
+                break;
+
+            default:
+                break;
+            }
+        }
+
+        if (column.enumDecoder == null && !isCompatibleType(arg, column.paramType)) {
+            // arg cannot be null here because isCompatibleType allows null
+            throw new SQLException("Cannot set " + column.name + ": incompatible types, cannot convert "
+                                   + arg.getClass().getName() + " to " + column.paramType.getName());
+        }
+
+        // see if we can make it work with an enum
+        if (column.enumDecoder != null) {
+            try {
+                arg = column.enumDecoder.decode(arg);
+            } catch (final RuntimeException e) {
+                throw setterFailed(column, e);
+            }
+        }
+
+        return arg;
+    }
+
+    /**
+     * Reads a mapped column and converts it to the setter or constructor
+     * parameter type.
+     *
+     * @param rs the <code>ResultSet</code>, positioned on a row.
+     * @param i the 0-based mapped column.
+     * @return the value to pass.
+     * @throws SQLException if a database access error occurs, or the value can't be converted.
+     */
+    Object value(final ResultSet rs, final int i) throws SQLException {
+        final ColumnMapping column = columns[i];
+
+        if (column.converter != null) {
+            final Object value = column.converter.convert(rs, column.index);
+
+            return value == null ? column.primitiveDefault : value;
+        }
+
+        return convert(i, read(rs, i));
+    }
+
+    /**
+     * Reads a mapped column and sets it on a bean. Columns with a converter
+     * are passed to the setter as the converter returns them. Columns read with
+     * <code>getInt</code>, <code>getLong</code>, <code>getDouble</code> or
+     * <code>getBoolean</code> into a primitive property are passed to the
+     * setter without boxing.
+     *
+     * @param rs the <code>ResultSet</code>, positioned on a row.
+     * @param bean the bean to set the property on.
+     * @param i the 0-based mapped column.
+     * @throws SQLException if a database access error occurs, or the setter fails.
+     */
+    void copy(final ResultSet rs, final Object bean, final int i) throws SQLException {
+        final ColumnMapping column = columns[i];
+
+        if (column.converter != null) {
+            final Object value = column.converter.convert(rs, column.index);
+
+            try {
+                column.setter.set(bean, value == null ? column.primitiveDefault : value);
+            } catch (final Throwable t) {
+                throw setterFailed(column, t);
+            }
+            return;
+        }
+
+        if (!column.primitive) {
+            set(bean, i, read(rs, i));
+            return;
+        }
+
+        // for primitives the getters already return the default for SQL NULL
+        try {
+            switch (column.reader) {
+            case READ_INT:
+                column.setter.setInt(bean, rs.getInt(column.index));
+                break;
+
+            case READ_LONG:
+                column.setter.setLong(bean, rs.getLong(column.index));
+                break;
+
+            case READ_DOUBLE:
+                column.setter.setDouble(bean, rs.getDouble(column.index));
+                break;
+
+            case READ_BOOLEAN:
+                column.setter.setBoolean(bean, rs.getBoolean(column.index));
+                break;
+
+            default:
+                set(bean, i, read(rs, i));
+                break;
+            }
+        } catch (final SQLException e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw setterFailed(column, t);
+        }
+    }
+
+    /**
+     * Helper method to turn anything thrown by a setter into an SQLException.
+     */
+    private static SQLException setterFailed(final ColumnMapping column, final Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+
+        return new SQLException("Cannot set " + column.name + ": " + t.getMessage(), t);
+    }
+
+    /**
+     * Helper method to turn anything thrown while creating a bean into an SQLException.
+     */
+    private static SQLException creationFailed(final Class<?> type, final Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+
+        return new SQLException("Cannot create " + type.getName() + ": " + t.getMessage(), t);
+    }
+
+    /**
+     * Helper method to get the decoder of an enum with an unchecked type.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static EnumDecoder<?> enumDecoder(final Class enumType) {
+        return EnumDecoder.of(enumType);
+    }
+
+    /**
+     * ResultSet.getObject() returns an Integer object for an INT column.  The
+     * setter method for the property might take an Integer or a primitive int.
+     * This method returns true if the value can be successfully passed into
+     * the setter method.  Remember, Method.invoke() handles the unwrapping
+     * of Integer into an int.
+     *
+     * @param value The value to be passed into the setter method.
+     * @param type The setter's parameter type (non-null)
+     * @return boolean True if the value is compatible (null => true)
+     */
+    private static boolean isCompatibleType(final Object value, final Class<?> type) {
+        // Do object check first, then primitives
+        if (value == null || type.isInstance(value)) {
+            return true;
+        } else if (type == Integer.TYPE) {
+            return value instanceof Integer;
+        } else if (type == Long.TYPE) {
+            return value instanceof Long;
+        } else if (type == Double.TYPE) {
+            return value instanceof Double;
+        } else if (type == Float.TYPE) {
+            return value instanceof Float;
+        } else if (type == Short.TYPE) {
+            return value instanceof Short;
+        } else if (type == Byte.TYPE) {
+            return value instanceof Byte;
+        } else if (type == Character.TYPE) {
+            return value instanceof Character;
+        } else if (type == Boolean.TYPE) {
+            return value instanceof Boolean;
+        }
+
+        return false;
+    }
+
+    /**
+     * Helper method to choose the <code>ResultSet</code> getter for a property type.
+     */
+    private static byte readerFor(final Class<?> propType) {
+        if (propType == String.class) {
+            return READ_STRING;
+        } else if (propType == Integer.TYPE || propType == Integer.class) {
+            return READ_INT;
+        } else if (propType == Boolean.TYPE || propType == Boolean.class) {
+            return READ_BOOLEAN;
+        } else if (propType == Long.TYPE || propType == Long.class) {
+            return READ_LONG;
+        } else if (propType == Double.TYPE || propType == Double.class) {
+            return READ_DOUBLE;
+        } else if (propType == Float.TYPE || propType == Float.class) {
+            return READ_FLOAT;
+        } else if (propType == Short.TYPE || propType == Short.class) {
+            return READ_SHORT;
+        } else if (propType == Byte.TYPE || propType == Byte.class) {
+            return READ_BYTE;
+        } else if (propType == Timestamp.class) {
+            return READ_TIMESTAMP;
+        } else if (propType == SQLXML.class) {
+            return READ_SQLXML;
+        }
+
+        return READ_OBJECT;
+    }
+
+    /**
+     * Helper method to choose how dates are converted for a setter's parameter type.
+     */
+    private static byte dateConversionFor(final Class<?> paramType) {
+        if (paramType == java.sql.Date.class) {
+            return DATE_SQL_DATE;
+        } else if (paramType == java.sql.Time.class) {
+            return DATE_SQL_TIME;
+        } else if (paramType == java.sql.Timestamp.class) {
+            return DATE_SQL_TIMESTAMP;
+        }
+
+        return DATE_AS_IS;
+    }
+
+    /**
+     * Everything needed to move one column into one property.
+     */
+    private static final class ColumnMapping {
+        private final int index;
+        private final String name;
+        private final PropertySetter setter;
+        private final Class<?> paramType;
+        private final Class<?> propType;
+        private final boolean primitive;
+        private final Object primitiveDefault;
+        private final byte reader;
+        private final byte dateConversion;
+        private final EnumDecoder<?> enumDecoder;
+        private final ColumnConverter<?> converter;
+
+        ColumnMapping(final int index, final String name, final PropertySetter setter,
+                      final Class<?> propType, final Class<?> paramType, final Map<Class<?>, Object> primitiveDefaults,
+                      final ColumnConverter<?> converter) {
+            this.index = index;
+            this.name = name;
+            this.setter = setter;
+            this.paramType = paramType;
+            this.propType = propType;
+            this.primitive = propType != null && propType.isPrimitive();
+            this.primitiveDefault = primitive ? primitiveDefaults.get(propType) : null;
+            this.reader = readerFor(propType);
+            this.dateConversion = dateConversionFor(paramType);
+            this.enumDecoder = paramType.isEnum() ? enumDecoder(paramType) : null;
+            this.converter = converter;
+        }
+    }
+
+    /**
+     * The cache key of a plan: the bean class and the label of every column.
+     */
+    static final class Key {
+        private final Class<?> type;
+        private final String[] labels;
+        private final int[] sqlTypes;
+        private final int hash;
+
+        /**
+         * Constructs a Key.
+         *
+         * @param type the bean class.
+         * @param labels the label of each column, or its name if it has no label.
+         * @param sqlTypes the JDBC type of each column.
+         */
+        Key(final Class<?> type, final String[] labels, final int[] sqlTypes) {
+            this.type = type;
+            this.labels = labels;
+            this.sqlTypes = sqlTypes;
+            this.hash = 31 * (31 * type.hashCode() + Arrays.hashCode(labels)) + Arrays.hashCode(sqlTypes);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+
+            return hash == other.hash && type == other.type && Arrays.equals(labels, other.labels)
+                   && Arrays.equals(sqlTypes, other.sqlTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
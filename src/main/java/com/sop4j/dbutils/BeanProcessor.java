@@ -19,7 +19,7 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -29,6 +29,7 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +42,44 @@ import java.util.Map;
  * </p>
  *
  * <p>
+ * The result of matching columns to properties is cached for each bean class
+ * and set of column labels and types, and reused for every row and every
+ * later query with the same columns. <code>mapColumnsToProperties</code> is
+ * only called the first time, so overrides of it must depend only on the
+ * column labels and names, and the column to property overrides map must not
+ * be changed after the processor is created.
+ * </p>
+ *
+ * <p>
+ * Columns are matched to properties by a {@link NamingStrategy}, which
+ * reduces both names to keys. The properties are indexed by key once per
+ * mapping, so matching takes time linear in the number of columns and
+ * properties rather than their product. By default names are matched
+ * ignoring case, after applying the column to property overrides.
+ * </p>
+ *
+ * <p>
+ * When a mapping is compiled, each column is given the converter that
+ * {@link ColumnConverters} finds for its JDBC type and the setter's parameter
+ * type, such as the built-in converters for enums, dates and
+ * <code>UUID</code>. Other columns are read with the getter for the property
+ * type. Subclasses that override <code>processColumn</code> read every column
+ * through it instead.
+ * </p>
+ *
+ * <p>
+ * Classes without a public no-arg constructor, such as immutable value
+ * objects, are created by passing the columns to a constructor whose
+ * parameter names are known: one annotated with
+ * <code>@ConstructorProperties</code>, a record's canonical constructor, or
+ * the only public constructor of a class compiled with
+ * <code>-parameters</code>. Otherwise the columns are set on the builder
+ * returned by a static <code>builder()</code> method. Parameters and builder
+ * methods are matched to columns by <code>mapColumnsToProperties</code>, like
+ * properties, and <code>newInstance</code> is not called.
+ * </p>
+ *
+ * <p>
  * This class is thread-safe.
  * </p>
  *
@@ -62,12 +101,53 @@ public class BeanProcessor {
      * is returned.  These are the same as the defaults that ResultSet get*
      * methods return in the event of a NULL column.
      */
-    private static final Map<Class<?>, Object> primitiveDefaults = new HashMap<Class<?>, Object>();
+    static final Map<Class<?>, Object> primitiveDefaults = new HashMap<Class<?>, Object>();
+
+    /**
+     * Matches columns to properties.
+     */
+    private final NamingStrategy naming;
+
+    /**
+     * The converters used for columns when mappings are compiled.
+     */
+    private final ColumnConverters converters;
 
     /**
-     * ResultSet column to bean property name overrides.
+     * The most mappings kept in the cache.
      */
-    private final Map<String, String> columnToPropertyOverrides;
+    private static final int MAX_MAPPINGS = 512;
+
+    /**
+     * Compiled mappings, by bean class and column labels and types; the least
+     * recently used are dropped. Guarded by itself.
+     */
+    private final Map<BeanMapping.Key, BeanMapping> mappings =
+            new LinkedHashMap<BeanMapping.Key, BeanMapping>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<BeanMapping.Key, BeanMapping> eldest) {
+                    return this.size() > MAX_MAPPINGS;
+                }
+            };
+
+    /**
+     * The mappings of each <code>ResultSet</code> and bean class, so
+     * converting each row with <code>toBean</code> only reads the metadata for
+     * the first row.
+     */
+    private final ResultSetCache<BeanMapping> mapped = new ResultSetCache<BeanMapping>();
+
+    /**
+     * True if a subclass overrides processColumn, so it must be called for every column.
+     */
+    private final boolean customProcessColumn = overridesProcessColumn(getClass());
+
+    /**
+     * True if a subclass overrides processColumn or newInstance.
+     */
+    private final boolean customized = customProcessColumn || overrides(getClass(), "newInstance", Class.class);
 
     static {
         primitiveDefaults.put(Integer.TYPE, Integer.valueOf(0));
@@ -94,11 +174,69 @@ public class BeanProcessor {
      * @since 1.5
      */
     public BeanProcessor(Map<String, String> columnToPropertyOverrides) {
+        this(columnToPropertyOverrides, ColumnConverters.DEFAULT);
+    }
+
+    /**
+     * Constructor for BeanProcessor configured with column converters.
+     *
+     * @param converters the registry of converters used to read columns
+     * @since 2.3
+     */
+    public BeanProcessor(ColumnConverters converters) {
+        this(new HashMap<String, String>(), converters);
+    }
+
+    /**
+     * Constructor for BeanProcessor configured with a naming strategy.
+     *
+     * @param naming the strategy that matches columns to properties
+     * @since 2.3
+     */
+    public BeanProcessor(NamingStrategy naming) {
+        this(naming, ColumnConverters.DEFAULT);
+    }
+
+    /**
+     * Constructor for BeanProcessor configured with column to property name overrides
+     * and column converters.
+     *
+     * @param columnToPropertyOverrides ResultSet column to bean property name overrides
+     * @param converters the registry of converters used to read columns
+     * @since 2.3
+     */
+    public BeanProcessor(Map<String, String> columnToPropertyOverrides, ColumnConverters converters) {
+        this(overrides(columnToPropertyOverrides), converters);
+    }
+
+    /**
+     * Constructor for BeanProcessor configured with a naming strategy and column converters.
+     *
+     * @param naming the strategy that matches columns to properties
+     * @param converters the registry of converters used to read columns
+     * @since 2.3
+     */
+    public BeanProcessor(NamingStrategy naming, ColumnConverters converters) {
         super();
+        if (naming == null) {
+            throw new IllegalArgumentException("naming cannot be null");
+        }
+        if (converters == null) {
+            throw new IllegalArgumentException("converters cannot be null");
+        }
+        this.naming = naming;
+        this.converters = converters;
+    }
+
+    /**
+     * Helper method to match columns by name, with overrides.
+     */
+    private static NamingStrategy overrides(Map<String, String> columnToPropertyOverrides) {
         if (columnToPropertyOverrides == null) {
             throw new IllegalArgumentException("columnToPropertyOverrides map cannot be null");
         }
-        this.columnToPropertyOverrides = columnToPropertyOverrides;
+
+        return NamingStrategies.overrides(columnToPropertyOverrides, NamingStrategies.exact());
     }
 
     /**
@@ -137,12 +275,7 @@ public class BeanProcessor {
      */
     public <T> T toBean(ResultSet rs, Class<T> type) throws SQLException {
 
-        PropertyDescriptor[] props = this.propertyDescriptors(type);
-
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int[] columnToProperty = this.mapColumnsToProperties(rsmd, props);
-
-        return this.createBean(rs, type, props, columnToProperty);
+        return this.createBean(rs, type, this.mapping(rs, type));
     }
 
     /**
@@ -186,167 +319,255 @@ public class BeanProcessor {
             return results;
         }
 
-        PropertyDescriptor[] props = this.propertyDescriptors(type);
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int[] columnToProperty = this.mapColumnsToProperties(rsmd, props);
+        BeanMapping mapping = this.mapping(rs, type);
 
         do {
-            results.add(this.createBean(rs, type, props, columnToProperty));
+            results.add(this.createBean(rs, type, mapping));
         } while (rs.next());
 
         return results;
     }
 
+    /**
+     * Gets a mapper that converts the rows of a <code>ResultSet</code> into
+     * JavaBeans like {@link #toBean(ResultSet, Class)}, but matches the
+     * columns to the properties only once, so each row just creates its bean.
+     * The mapper must only be used with rows of the same
+     * <code>ResultSet</code>, or of one with the same columns.
+     *
+     * @param <T> The type of bean to create
+     * @param rs ResultSet that supplies the bean data
+     * @param type Class from which to create the bean instances
+     * @throws SQLException if a database access error occurs
+     * @return the mapper for the columns of the <code>ResultSet</code>
+     * @since 2.3
+     */
+    public <T> RowMapper<T> rowMapper(ResultSet rs, final Class<T> type) throws SQLException {
+        final BeanMapping mapping = this.mapping(rs, type);
+
+        return new RowMapper<T>() {
+            @Override
+            public T map(ResultSet row) throws SQLException {
+                return BeanProcessor.this.createBean(row, type, mapping);
+            }
+        };
+    }
+
     /**
      * Creates a new object and initializes its fields from the ResultSet.
      *
      * @param <T> The type of bean to create
      * @param rs The result set.
      * @param type The bean type (the return type of the object).
-     * @param props The property descriptors.
-     * @param columnToProperty The column indices in the result set.
+     * @param mapping The compiled mapping from columns to properties.
      * @return An initialized object.
      * @throws SQLException if a database error occurs.
      */
-    private <T> T createBean(ResultSet rs, Class<T> type,
-            PropertyDescriptor[] props, int[] columnToProperty)
+    <T> T createBean(ResultSet rs, Class<T> type, BeanMapping mapping)
             throws SQLException {
 
-        T bean = this.newInstance(type);
-
-        for (int i = 1; i < columnToProperty.length; i++) {
+        if (mapping.isConstructed()) {
+            final Object[] args = mapping.newArguments();
 
-            if (columnToProperty[i] == PROPERTY_NOT_FOUND) {
-                continue;
+            for (int i = 0; i < mapping.size(); i++) {
+                if (this.customProcessColumn) {
+                    args[mapping.getArgument(i)] =
+                        mapping.convert(i, this.processColumn(rs, mapping.getColumnIndex(i), mapping.getPropertyType(i)));
+                } else {
+                    args[mapping.getArgument(i)] = mapping.value(rs, i);
+                }
             }
 
-            PropertyDescriptor prop = props[columnToProperty[i]];
-            Class<?> propType = prop.getPropertyType();
+            return type.cast(mapping.construct(args));
+        }
 
-            Object value = this.processColumn(rs, i, propType);
+        final Object bean = mapping.isBuilt() ? mapping.newBuilder() : this.newInstance(type);
 
-            if (propType != null && value == null && propType.isPrimitive()) {
-                value = primitiveDefaults.get(propType);
+        for (int i = 0; i < mapping.size(); i++) {
+            // only go through processColumn when a subclass changed it
+            if (this.customProcessColumn) {
+                mapping.set(bean, i, this.processColumn(rs, mapping.getColumnIndex(i), mapping.getPropertyType(i)));
+            } else {
+                mapping.copy(rs, bean, i);
             }
-
-            this.callSetter(bean, prop, value);
         }
 
-        return bean;
+        return type.cast(mapping.isBuilt() ? mapping.build(bean) : bean);
     }
 
     /**
-     * Calls the setter method on the target object for the given property.
-     * If no setter method exists for the property, this method does nothing.
+     * Gets the compiled mapping for a bean class and the columns of a
+     * <code>ResultSet</code>, introspecting the class and matching the columns
+     * to its properties only the first time the pair is seen. The metadata is
+     * only read for the first row of each <code>ResultSet</code>.
      *
-     * @param target The object to set the property on.
-     * @param prop The property to set.
-     * @param value The value to pass into the setter.
-     * @throws SQLException if an error occurs setting the property.
+     * @param rs The result set.
+     * @param type The bean type.
+     * @return The mapping from columns to properties.
+     * @throws SQLException if a database error occurs.
      */
-    private void callSetter(Object target, PropertyDescriptor prop, Object value)
-            throws SQLException {
+    BeanMapping mapping(ResultSet rs, Class<?> type) throws SQLException {
+        // handlers can map each row to several classes
+        BeanMapping mapping = this.mapped.get(rs, type);
 
-        final Method setter = prop.getWriteMethod();
+        if (mapping == null) {
+            mapping = this.cachedMapping(rs, type);
+            this.mapped.put(rs, type, mapping);
+        }
+
+        return mapping;
+    }
 
-        if (setter == null) {
-            return;
+    /**
+     * Gets the compiled mapping for a bean class and the labels and types of
+     * the columns, from the cache shared by every <code>ResultSet</code>.
+     */
+    private BeanMapping cachedMapping(ResultSet rs, Class<?> type) throws SQLException {
+        final ResultSetMetaData rsmd = rs.getMetaData();
+        final int cols = rsmd.getColumnCount();
+        final String[] labels = new String[cols];
+        final int[] sqlTypes = new int[cols];
+
+        for (int col = 1; col <= cols; col++) {
+            String columnName = rsmd.getColumnLabel(col);
+            if (null == columnName || 0 == columnName.length()) {
+              columnName = rsmd.getColumnName(col);
+            }
+            labels[col - 1] = columnName;
+            sqlTypes[col - 1] = rsmd.getColumnType(col);
         }
 
-        final Class<?>[] params = setter.getParameterTypes();
+        final BeanMapping.Key key = new BeanMapping.Key(type, labels, sqlTypes);
 
-        try {
-            // convert types for some popular ones
-            if (value instanceof java.util.Date) {
-                final String targetType = params[0].getName();
-                if ("java.sql.Date".equals(targetType)) {
-                    value = new java.sql.Date(((java.util.Date) value).getTime());
-                } else
-                if ("java.sql.Time".equals(targetType)) {
-                    value = new java.sql.Time(((java.util.Date) value).getTime());
-                } else
-                if ("java.sql.Timestamp".equals(targetType)) {
-                    value = new java.sql.Timestamp(((java.util.Date) value).getTime());
-                }
+        synchronized (this.mappings) {
+            final BeanMapping mapping = this.mappings.get(key);
+
+            if (mapping != null) {
+                return mapping;
             }
+        }
+
+        // compile outside the lock; two threads can race to compile the same mapping, but they are equivalent
+        final BeanMapping compiled = this.compile(rsmd, type, sqlTypes);
+
+        synchronized (this.mappings) {
+            this.mappings.put(key, compiled);
+        }
 
-            // see if we can make it work with an enum
-            // Issue #2: https://github.com/wspeirs/sop4j-dbutils/pull/2
-            if(params[0].isEnum() && value != null) {
-                try {
-                    final Class cz = Class.forName(params[0].getName());
-                    setter.invoke(target, Enum.valueOf(cz, (String) value));
-                } catch(final ClassNotFoundException e) {
-                    throw new SQLException("Attempted to set an Enum, but class "
-                            + params[0].getName() + " was not found: " + e.getMessage());
+        return compiled;
+    }
+
+    /**
+     * Matches the columns to the properties of a bean class, or to the
+     * parameters of the constructor or the methods of the builder that creates
+     * it when it has no public no-arg constructor.
+     */
+    private BeanMapping compile(ResultSetMetaData rsmd, Class<?> type, int[] sqlTypes) throws SQLException {
+        if (!BeanCreators.hasDefaultConstructor(type)) {
+            final Constructor<?> ctor = BeanCreators.constructor(type);
+
+            if (ctor != null) {
+                final String[] names = BeanCreators.parameterNames(ctor);
+
+                if (names.length != ctor.getParameterTypes().length) {
+                    throw new SQLException("Cannot create " + type.getName() + ": "
+                                           + names.length + " names for " + ctor.getParameterTypes().length + " parameters");
                 }
-            } else if (this.isCompatibleType(value, params[0])) {
-                // Don't call setter if the value object isn't the right type
-                setter.invoke(target, new Object[]{value});
-            } else {
-              throw new SQLException(
-                  "Cannot set " + prop.getName() + ": incompatible types, cannot convert "
-                  + value.getClass().getName() + " to " + params[0].getName());
-                  // value cannot be null here because isCompatibleType allows null
+
+                return new BeanMapping(ctor, names, this.mapColumnsToProperties(rsmd, namedProperties(names)),
+                                       primitiveDefaults, sqlTypes, this.converters);
             }
 
-        } catch (IllegalArgumentException e) {
-            throw new SQLException(
-                "Cannot set " + prop.getName() + ": " + e.getMessage());
+            final Method builder = BeanCreators.builder(type);
 
-        } catch (IllegalAccessException e) {
-            throw new SQLException(
-                "Cannot set " + prop.getName() + ": " + e.getMessage());
+            if (builder != null) {
+                final Map<String, Method> methods = BeanCreators.builderMethods(builder.getReturnType());
+                final String[] names = methods.keySet().toArray(new String[methods.size()]);
 
-        } catch (InvocationTargetException e) {
-            throw new SQLException(
-                "Cannot set " + prop.getName() + ": " + e.getMessage());
+                return new BeanMapping(builder, BeanCreators.build(builder, type),
+                                       methods.values().toArray(new Method[methods.size()]), names,
+                                       this.mapColumnsToProperties(rsmd, namedProperties(names)),
+                                       primitiveDefaults, sqlTypes, this.converters);
+            }
         }
+
+        return this.compileProperties(rsmd, type, sqlTypes);
     }
 
     /**
-     * ResultSet.getObject() returns an Integer object for an INT column.  The
-     * setter method for the property might take an Integer or a primitive int.
-     * This method returns true if the value can be successfully passed into
-     * the setter method.  Remember, Method.invoke() handles the unwrapping
-     * of Integer into an int.
+     * Matches the columns to the writable properties of a bean class that
+     * has a public no-arg constructor.
      *
-     * @param value The value to be passed into the setter method.
-     * @param type The setter's parameter type (non-null)
-     * @return boolean True if the value is compatible (null => true)
+     * @param rsmd The metadata of the columns.
+     * @param type The bean type.
+     * @param sqlTypes The JDBC type of each column, from index 0.
+     * @return The mapping from columns to properties.
+     * @throws SQLException if a database error occurs.
      */
-    private boolean isCompatibleType(Object value, Class<?> type) {
-        // Do object check first, then primitives
-        if (value == null || type.isInstance(value)) {
-            return true;
+    BeanMapping compileProperties(ResultSetMetaData rsmd, Class<?> type, int[] sqlTypes) throws SQLException {
+        final PropertyDescriptor[] props = this.propertyDescriptors(type);
 
-        } else if (type.equals(Integer.TYPE) && value instanceof Integer) {
-            return true;
-
-        } else if (type.equals(Long.TYPE) && value instanceof Long) {
-            return true;
+        return new BeanMapping(props, this.mapColumnsToProperties(rsmd, props), primitiveDefaults, sqlTypes, this.converters);
+    }
 
-        } else if (type.equals(Double.TYPE) && value instanceof Double) {
-            return true;
+    /**
+     * Gets the converters used for columns when mappings are compiled.
+     *
+     * @return the converter registry.
+     */
+    ColumnConverters getConverters() {
+        return this.converters;
+    }
 
-        } else if (type.equals(Float.TYPE) && value instanceof Float) {
-            return true;
+    /**
+     * Helper method to describe constructor parameters, builder methods or
+     * fields to <code>mapColumnsToProperties</code>, which only uses the names.
+     */
+    static PropertyDescriptor[] namedProperties(String[] names) throws SQLException {
+        final PropertyDescriptor[] props = new PropertyDescriptor[names.length];
 
-        } else if (type.equals(Short.TYPE) && value instanceof Short) {
-            return true;
+        try {
+            for (int i = 0; i < names.length; i++) {
+                props[i] = new PropertyDescriptor(names[i], null, null);
+            }
+        } catch (IntrospectionException e) {
+            throw new SQLException("Bean introspection failed: " + e.getMessage());
+        }
 
-        } else if (type.equals(Byte.TYPE) && value instanceof Byte) {
-            return true;
+        return props;
+    }
 
-        } else if (type.equals(Character.TYPE) && value instanceof Character) {
-            return true;
+    /**
+     * Returns true if a subclass overrides <code>processColumn</code> or <code>newInstance</code>,
+     * so beans can't be created by a generated {@link RowMapper}.
+     *
+     * @return true if the processor is customized.
+     */
+    boolean isCustomized() {
+        return this.customized;
+    }
 
-        } else if (type.equals(Boolean.TYPE) && value instanceof Boolean) {
-            return true;
+    /**
+     * Returns true if a subclass overrides <code>processColumn</code>.
+     */
+    private static boolean overridesProcessColumn(Class<?> c) {
+        return overrides(c, "processColumn", ResultSet.class, Integer.TYPE, Class.class);
+    }
 
+    /**
+     * Returns true if a subclass declares the given <code>BeanProcessor</code> method.
+     */
+    private static boolean overrides(Class<?> c, String name, Class<?>... params) {
+        for (; c != BeanProcessor.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, params);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // keep looking in the superclass
+            }
         }
-        return false;
 
+        return false;
     }
 
     /**
@@ -414,21 +635,23 @@ public class BeanProcessor {
         int[] columnToProperty = new int[cols + 1];
         Arrays.fill(columnToProperty, PROPERTY_NOT_FOUND);
 
+        // index the properties by key, so each column is found without a scan; the first property wins
+        Map<String, Integer> index = new HashMap<String, Integer>(props.length * 2);
+
+        for (int i = props.length - 1; i >= 0; i--) {
+            index.put(this.naming.propertyKey(props[i].getName()), Integer.valueOf(i));
+        }
+
         for (int col = 1; col <= cols; col++) {
             String columnName = rsmd.getColumnLabel(col);
             if (null == columnName || 0 == columnName.length()) {
               columnName = rsmd.getColumnName(col);
             }
-            String propertyName = columnToPropertyOverrides.get(columnName);
-            if (propertyName == null) {
-                propertyName = columnName;
-            }
-            for (int i = 0; i < props.length; i++) {
+            String key = this.naming.columnKey(columnName);
+            Integer property = key == null ? null : index.get(key);
 
-                if (propertyName.equalsIgnoreCase(props[i].getName())) {
-                    columnToProperty[col] = i;
-                    break;
-                }
+            if (property != null) {
+                columnToProperty[col] = property.intValue();
             }
         }
 
@@ -445,7 +668,9 @@ public class BeanProcessor {
      * This implementation calls the appropriate <code>ResultSet</code> getter
      * method for the given property type to perform the type conversion.  If
      * the property type doesn't match one of the supported
-     * <code>ResultSet</code> types, <code>getObject</code> is called.
+     * <code>ResultSet</code> types, <code>getObject</code> is called. Each
+     * column is read once; SQL NULL in a primitive wrapper property is
+     * detected with <code>wasNull</code>.
      * </p>
      *
      * @param rs The <code>ResultSet</code> currently being processed.  It is
@@ -465,38 +690,36 @@ public class BeanProcessor {
     protected Object processColumn(ResultSet rs, int index, Class<?> propType)
         throws SQLException {
 
-        if ( !propType.isPrimitive() && rs.getObject(index) == null ) {
-            return null;
-        }
+        final Object value;
 
         if (propType.equals(String.class)) {
             return rs.getString(index);
 
         } else if (
             propType.equals(Integer.TYPE) || propType.equals(Integer.class)) {
-            return Integer.valueOf(rs.getInt(index));
+            value = Integer.valueOf(rs.getInt(index));
 
         } else if (
             propType.equals(Boolean.TYPE) || propType.equals(Boolean.class)) {
-            return Boolean.valueOf(rs.getBoolean(index));
+            value = Boolean.valueOf(rs.getBoolean(index));
 
         } else if (propType.equals(Long.TYPE) || propType.equals(Long.class)) {
-            return Long.valueOf(rs.getLong(index));
+            value = Long.valueOf(rs.getLong(index));
 
         } else if (
             propType.equals(Double.TYPE) || propType.equals(Double.class)) {
-            return Double.valueOf(rs.getDouble(index));
+            value = Double.valueOf(rs.getDouble(index));
 
         } else if (
             propType.equals(Float.TYPE) || propType.equals(Float.class)) {
-            return Float.valueOf(rs.getFloat(index));
+            value = Float.valueOf(rs.getFloat(index));
 
         } else if (
             propType.equals(Short.TYPE) || propType.equals(Short.class)) {
-            return Short.valueOf(rs.getShort(index));
+            value = Short.valueOf(rs.getShort(index));
 
         } else if (propType.equals(Byte.TYPE) || propType.equals(Byte.class)) {
-            return Byte.valueOf(rs.getByte(index));
+            value = Byte.valueOf(rs.getByte(index));
 
         } else if (propType.equals(Timestamp.class)) {
             return rs.getTimestamp(index);
@@ -508,6 +731,8 @@ public class BeanProcessor {
             return rs.getObject(index);
         }
 
+        // the primitive getters return 0 or false for SQL NULL
+        return propType.isPrimitive() || !rs.wasNull() ? value : null;
     }
 
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * The column count, labels, names and types of a query's results, read
+ * once and reused by later executions of the same SQL. Wrapped
+ * <code>ResultSet</code>s answer those metadata calls without going to the
+ * driver; other metadata calls go to the driver's metadata as usual.
+ *
+ * <p>
+ * This class is immutable and thread-safe.
+ * </p>
+ *
+ * @see QueryExecutor#cacheMetaData()
+ * @since 2.3
+ */
+final class CachedMetaData {
+
+    private final int columnCount;
+    private final String[] labels;
+    private final String[] names;
+    private final int[] types;
+
+    private CachedMetaData(final int columnCount, final String[] labels, final String[] names, final int[] types) {
+        this.columnCount = columnCount;
+        this.labels = labels;
+        this.names = names;
+        this.types = types;
+    }
+
+    /**
+     * Reads the metadata to cache.
+     *
+     * @param rsmd the metadata of a query's results.
+     * @return the cached metadata.
+     * @throws SQLException if a database access error occurs
+     */
+    static CachedMetaData of(final ResultSetMetaData rsmd) throws SQLException {
+        final int cols = rsmd.getColumnCount();
+        final String[] labels = new String[cols];
+        final String[] names = new String[cols];
+        final int[] types = new int[cols];
+
+        for (int i = 0; i < cols; i++) {
+            labels[i] = rsmd.getColumnLabel(i + 1);
+            names[i] = rsmd.getColumnName(i + 1);
+            types[i] = rsmd.getColumnType(i + 1);
+        }
+
+        return new CachedMetaData(cols, labels, names, types);
+    }
+
+    /**
+     * Wraps a <code>ResultSet</code> of the same query, so its metadata is answered from the cache.
+     *
+     * @param rs the <code>ResultSet</code> to wrap.
+     * @return the wrapped <code>ResultSet</code>.
+     */
+    ResultSet wrap(final ResultSet rs) {
+        final ProxyFactory factory = ProxyFactory.instance();
+        final ResultSetMetaData metaData = factory.createResultSetMetaData(new MetaData(rs));
+
+        return factory.createResultSet(new Results(rs, metaData));
+    }
+
+    /**
+     * Returns the cached metadata from <code>getMetaData()</code>.
+     */
+    private static final class Results implements InvocationHandler {
+        private final ResultSet rs;
+        private final ResultSetMetaData metaData;
+
+        Results(final ResultSet rs, final ResultSetMetaData metaData) {
+            this.rs = rs;
+            this.metaData = metaData;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+
+            if (name.equals("getMetaData")) {
+                return metaData;
+            } else if (name.equals("equals")) {
+                return Boolean.valueOf(proxy == args[0]);
+            } else if (name.equals("hashCode")) {
+                return Integer.valueOf(System.identityHashCode(proxy));
+            }
+
+            try {
+                return method.invoke(rs, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Answers the cached calls, and passes the others to the driver's metadata.
+     */
+    private final class MetaData implements InvocationHandler {
+        private final ResultSet rs;
+
+        MetaData(final ResultSet rs) {
+            this.rs = rs;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+
+            if (name.equals("getColumnCount")) {
+                return Integer.valueOf(columnCount);
+            } else if (name.equals("getColumnLabel")) {
+                return labels[column(args)];
+            } else if (name.equals("getColumnName")) {
+                return names[column(args)];
+            } else if (name.equals("getColumnType")) {
+                return Integer.valueOf(types[column(args)]);
+            } else if (name.equals("equals")) {
+                return Boolean.valueOf(proxy == args[0]);
+            } else if (name.equals("hashCode")) {
+                return Integer.valueOf(System.identityHashCode(proxy));
+            }
+
+            try {
+                return method.invoke(rs.getMetaData(), args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Gets the array index of a column argument.
+         */
+        private int column(final Object[] args) throws SQLException {
+            final int column = ((Integer) args[0]).intValue();
+
+            if (column < 1 || column > columnCount) {
+                throw new SQLException("Invalid column index: " + column);
+            }
+
+            return column - 1;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Joins the results of executing a query once for each chunk of a long list
+ * parameter into one <code>ResultSet</code>. Each chunk is executed when the
+ * rows of the chunk before it have been read, and all other calls go to the
+ * current chunk's <code>ResultSet</code>. Only forward navigation with
+ * <code>next()</code> spans chunks.
+ *
+ * @see AbstractExecutor#listChunkSize(int)
+ * @since 2.3
+ */
+final class ChunkedResultSet implements InvocationHandler {
+
+    private final AbstractExecutor<?> exec;
+    private final int chunks;
+    private int chunk = 0;
+    private ResultSet current;
+
+    /**
+     * Constructs a ChunkedResultSet, executing the first chunk.
+     *
+     * @param exec the executor whose chunks are executed.
+     * @param chunks the number of chunks.
+     * @throws SQLException if a database access error occurs
+     */
+    ChunkedResultSet(final AbstractExecutor<?> exec, final int chunks) throws SQLException {
+        this.exec = exec;
+        this.chunks = chunks;
+        this.current = exec.prepareChunk(0).executeQuery();
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        final String name = method.getName();
+
+        if (name.equals("next")) {
+            return Boolean.valueOf(next());
+        } else if (name.equals("equals")) {
+            return Boolean.valueOf(proxy == args[0]);
+        } else if (name.equals("hashCode")) {
+            return Integer.valueOf(System.identityHashCode(proxy));
+        }
+
+        try {
+            return method.invoke(current, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Moves to the next row, executing the next chunk when the current one runs out.
+     */
+    private boolean next() throws SQLException {
+        while (chunk < chunks) {
+            if (current.next()) {
+                return true;
+            }
+
+            if (++chunk < chunks) {
+                current.close();
+                current = exec.prepareChunk(chunk).executeQuery();
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads a column of a <code>ResultSet</code> as one Java type. Converters are
+ * created by a {@link ColumnConverterFactory} when a bean mapping is built, so
+ * everything that depends only on the JDBC type and the Java type is decided
+ * once, not for every row.
+ *
+ * @param <T> the Java type the column is converted to.
+ * @see ColumnConverters
+ * @since 2.3
+ */
+public interface ColumnConverter<T> {
+
+    /**
+     * Reads and converts a column of the current row.
+     *
+     * @param rs the <code>ResultSet</code>, positioned on a row.
+     * @param index the 1-based column index.
+     * @return the converted value, or null for SQL NULL.
+     * @throws SQLException if a database access error occurs, or the value can't be converted.
+     */
+    T convert(ResultSet rs, int index) throws SQLException;
+
+}
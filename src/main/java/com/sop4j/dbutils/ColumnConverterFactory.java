@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+/**
+ * Creates {@link ColumnConverter}s for the pairs of JDBC type and Java type
+ * it supports. Factories are registered with {@link ColumnConverters}.
+ *
+ * @since 2.3
+ */
+public interface ColumnConverterFactory {
+
+    /**
+     * Creates a converter for columns of a JDBC type read into a Java type.
+     *
+     * @param <T> the Java type.
+     * @param sqlType the column's type from <code>java.sql.Types</code>.
+     * @param type the Java type the column is converted to.
+     * @return the converter, or null if this factory doesn't support the pair.
+     */
+    <T> ColumnConverter<T> create(int sqlType, Class<T> type);
+
+}
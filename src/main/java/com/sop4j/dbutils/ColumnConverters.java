@@ -0,0 +1,335 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * A registry of {@link ColumnConverterFactory}s. For each pair of JDBC type
+ * and Java type the first factory that supports it is found once, and its
+ * converter is cached. Factories passed to the constructor are asked first,
+ * in order, then the built-in factories, which handle:
+ * </p>
+ *
+ * <ul>
+ *     <li>enums, decoded by {@link EnumDecoder} by code, ordinal or name;</li>
+ *     <li><code>java.util.Date</code>, <code>java.sql.Date</code>, <code>Time</code>
+ *     and <code>Timestamp</code> for <code>DATE</code>, <code>TIME</code> and
+ *     <code>TIMESTAMP</code> columns, read with the matching getter;</li>
+ *     <li><code>UUID</code>, from character, binary or driver-specific columns;</li>
+ *     <li><code>BigDecimal</code> and <code>BigInteger</code>, from numeric columns with <code>getBigDecimal</code>.</li>
+ * </ul>
+ *
+ * <p>
+ * Columns without a converter are read as <code>BeanProcessor</code> always
+ * read them. This class is thread-safe.
+ * </p>
+ *
+ * @see BeanProcessor#BeanProcessor(Map, ColumnConverters)
+ * @since 2.3
+ */
+public final class ColumnConverters {
+
+    private static final ColumnConverterFactory[] BUILT_IN = {
+        EnumDecoder.defaultFactory(), new DateFactory(), new UuidFactory(), new NumericFactory()
+    };
+
+    // marks a pair no factory supports
+    private static final ColumnConverter<Object> NONE = new ColumnConverter<Object>() {
+        @Override
+        public Object convert(ResultSet rs, int index) throws SQLException {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    /**
+     * The registry with only the built-in factories. It must be created after BUILT_IN.
+     */
+    static final ColumnConverters DEFAULT = new ColumnConverters();
+
+    private final ColumnConverterFactory[] factories;
+
+    private final ConcurrentMap<Key, ColumnConverter<?>> converters = new ConcurrentHashMap<Key, ColumnConverter<?>>();
+
+    /**
+     * Constructs a registry of the built-in factories and the given ones,
+     * which are asked first.
+     *
+     * @param factories the factories, in order of precedence.
+     */
+    public ColumnConverters(ColumnConverterFactory... factories) {
+        this.factories = new ColumnConverterFactory[factories.length + BUILT_IN.length];
+
+        for (int i = 0; i < factories.length; i++) {
+            if (factories[i] == null) {
+                throw new IllegalArgumentException("factories cannot contain null");
+            }
+            this.factories[i] = factories[i];
+        }
+
+        System.arraycopy(BUILT_IN, 0, this.factories, factories.length, BUILT_IN.length);
+    }
+
+    /**
+     * Finds the converter for columns of a JDBC type read into a Java type.
+     *
+     * @param <T> the Java type.
+     * @param sqlType the column's type from <code>java.sql.Types</code>.
+     * @param type the Java type.
+     * @return the converter, or null if no factory supports the pair.
+     */
+    public <T> ColumnConverter<T> find(int sqlType, Class<T> type) {
+        final Key key = new Key(sqlType, type);
+        ColumnConverter<?> converter = converters.get(key);
+
+        if (converter == null) {
+            converter = NONE;
+
+            for (int i = 0; i < factories.length; i++) {
+                final ColumnConverter<T> created = factories[i].create(sqlType, type);
+
+                if (created != null) {
+                    converter = created;
+                    break;
+                }
+            }
+
+            converters.putIfAbsent(key, converter);
+        }
+
+        @SuppressWarnings("unchecked")
+        final ColumnConverter<T> found = converter == NONE ? null : (ColumnConverter<T>) converter;
+
+        return found;
+    }
+
+    /**
+     * Returns true if a JDBC type is numeric.
+     *
+     * @param sqlType the type from <code>java.sql.Types</code>.
+     * @return true for the integer, decimal and floating point types.
+     */
+    static boolean isNumeric(final int sqlType) {
+        switch (sqlType) {
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+        case Types.BIGINT:
+        case Types.INTEGER:
+        case Types.SMALLINT:
+        case Types.TINYINT:
+        case Types.DOUBLE:
+        case Types.FLOAT:
+        case Types.REAL:
+            return true;
+
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * The cache key: a JDBC type and a Java type.
+     */
+    private static final class Key {
+        private final int sqlType;
+        private final Class<?> type;
+
+        Key(final int sqlType, final Class<?> type) {
+            this.sqlType = sqlType;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+
+            return sqlType == other.sqlType && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + sqlType;
+        }
+    }
+
+    /**
+     * Reads dates with the getter for the column's JDBC type.
+     */
+    private static final class DateFactory implements ColumnConverterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ColumnConverter<T> create(int sqlType, Class<T> type) {
+            if (!java.util.Date.class.isAssignableFrom(type)) {
+                return null;
+            }
+
+            if (type == java.sql.Date.class || (type == java.util.Date.class && sqlType == Types.DATE)) {
+                if (sqlType == Types.DATE || sqlType == Types.TIMESTAMP) {
+                    return (ColumnConverter<T>) new ColumnConverter<java.sql.Date>() {
+                        @Override
+                        public java.sql.Date convert(ResultSet rs, int index) throws SQLException {
+                            return rs.getDate(index);
+                        }
+                    };
+                }
+            } else if (type == java.sql.Time.class || (type == java.util.Date.class && sqlType == Types.TIME)) {
+                if (sqlType == Types.TIME || sqlType == Types.TIMESTAMP) {
+                    return (ColumnConverter<T>) new ColumnConverter<java.sql.Time>() {
+                        @Override
+                        public java.sql.Time convert(ResultSet rs, int index) throws SQLException {
+                            return rs.getTime(index);
+                        }
+                    };
+                }
+            } else if (type == java.sql.Timestamp.class || type == java.util.Date.class) {
+                if (sqlType == Types.TIMESTAMP || sqlType == Types.DATE) {
+                    return (ColumnConverter<T>) new ColumnConverter<java.sql.Timestamp>() {
+                        @Override
+                        public java.sql.Timestamp convert(ResultSet rs, int index) throws SQLException {
+                            return rs.getTimestamp(index);
+                        }
+                    };
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Reads UUIDs from character, binary or driver-specific columns.
+     */
+    private static final class UuidFactory implements ColumnConverterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ColumnConverter<T> create(int sqlType, Class<T> type) {
+            if (type != UUID.class) {
+                return null;
+            }
+
+            switch (sqlType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return (ColumnConverter<T>) new ColumnConverter<UUID>() {
+                    @Override
+                    public UUID convert(ResultSet rs, int index) throws SQLException {
+                        return parseUuid(rs.getString(index));
+                    }
+                };
+
+            case Types.BINARY:
+            case Types.VARBINARY:
+                return (ColumnConverter<T>) new ColumnConverter<UUID>() {
+                    @Override
+                    public UUID convert(ResultSet rs, int index) throws SQLException {
+                        return toUuid(rs.getBytes(index));
+                    }
+                };
+
+            default:
+                // drivers with a native type return UUID from getObject
+                return (ColumnConverter<T>) new ColumnConverter<UUID>() {
+                    @Override
+                    public UUID convert(ResultSet rs, int index) throws SQLException {
+                        final Object value = rs.getObject(index);
+
+                        if (value == null || value instanceof UUID) {
+                            return (UUID) value;
+                        } else if (value instanceof byte[]) {
+                            return toUuid((byte[]) value);
+                        }
+
+                        return parseUuid(value.toString());
+                    }
+                };
+            }
+        }
+
+        private static UUID parseUuid(final String value) throws SQLException {
+            if (value == null) {
+                return null;
+            }
+
+            try {
+                return UUID.fromString(value);
+            } catch (final IllegalArgumentException e) {
+                throw new SQLException("Cannot convert " + value + " to a UUID", e);
+            }
+        }
+
+        private static UUID toUuid(final byte[] value) throws SQLException {
+            if (value == null) {
+                return null;
+            } else if (value.length != 16) {
+                throw new SQLException("Cannot convert " + value.length + " bytes to a UUID");
+            }
+
+            final ByteBuffer buffer = ByteBuffer.wrap(value);
+
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+    }
+
+    /**
+     * Reads arbitrary-precision numbers from numeric columns with <code>getBigDecimal</code>.
+     */
+    private static final class NumericFactory implements ColumnConverterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ColumnConverter<T> create(int sqlType, Class<T> type) {
+            if (!isNumeric(sqlType)) {
+                return null;
+            } else if (type == BigDecimal.class) {
+                return (ColumnConverter<T>) new ColumnConverter<BigDecimal>() {
+                    @Override
+                    public BigDecimal convert(ResultSet rs, int index) throws SQLException {
+                        return rs.getBigDecimal(index);
+                    }
+                };
+            } else if (type == BigInteger.class) {
+                return (ColumnConverter<T>) new ColumnConverter<BigInteger>() {
+                    @Override
+                    public BigInteger convert(ResultSet rs, int index) throws SQLException {
+                        final BigDecimal value = rs.getBigDecimal(index);
+
+                        return value == null ? null : value.toBigInteger();
+                    }
+                };
+            }
+
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.io.Serializable;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The columns of a <code>ResultSet</code>, indexed by label ignoring case.
+ * An index is built once per <code>ResultSet</code> and shared by the
+ * {@link RowMap}s of all its rows, so the metadata is read and lower case
+ * keys are computed once per column rather than for every row and lookup.
+ *
+ * <p>
+ * Columns whose labels only differ in case share a key, which is the label
+ * of the last such column, and the value of the last such column, like
+ * repeated puts into a case insensitive map.
+ * </p>
+ *
+ * <p>
+ * This class is immutable and thread-safe.
+ * </p>
+ *
+ * @since 2.3
+ */
+final class ColumnIndex implements Serializable {
+
+    private static final long serialVersionUID = 6386224853127003254L;
+
+    /**
+     * The number of columns in the <code>ResultSet</code>.
+     */
+    private final int columnCount;
+
+    /**
+     * The key of each position.
+     */
+    private final String[] keys;
+
+    /**
+     * The column index, starting from 1, of each position.
+     */
+    private final int[] columns;
+
+    /**
+     * Positions by every label, as given.
+     */
+    private final Map<String, Integer> labels;
+
+    /**
+     * Positions by lower case label.
+     */
+    private final Map<String, Integer> lowerCaseLabels;
+
+    private ColumnIndex(int columnCount, String[] keys, int[] columns, Map<String, Integer> labels,
+                        Map<String, Integer> lowerCaseLabels) {
+        this.columnCount = columnCount;
+        this.keys = keys;
+        this.columns = columns;
+        this.labels = labels;
+        this.lowerCaseLabels = lowerCaseLabels;
+    }
+
+    /**
+     * Indexes the columns of a <code>ResultSet</code> by their labels, or their names if they have no label.
+     *
+     * @param rsmd the <code>ResultSetMetaData</code> of the <code>ResultSet</code>.
+     * @return the index.
+     * @throws SQLException if a database access error occurs
+     */
+    static ColumnIndex of(ResultSetMetaData rsmd) throws SQLException {
+        final int cols = rsmd.getColumnCount();
+        final String[] keys = new String[cols];
+        final int[] columns = new int[cols];
+        final Map<String, Integer> labels = new HashMap<String, Integer>(cols * 2);
+        final Map<String, Integer> lowerCaseLabels = new HashMap<String, Integer>(cols * 2);
+        int size = 0;
+
+        for (int col = 1; col <= cols; col++) {
+            String columnName = rsmd.getColumnLabel(col);
+            if (null == columnName || 0 == columnName.length()) {
+                columnName = rsmd.getColumnName(col);
+            }
+            final String lowerCase = columnName.toLowerCase(Locale.ENGLISH);
+            Integer position = lowerCaseLabels.get(lowerCase);
+
+            if (position == null) {
+                position = Integer.valueOf(size++);
+                lowerCaseLabels.put(lowerCase, position);
+            }
+            keys[position.intValue()] = columnName;
+            columns[position.intValue()] = col;
+            labels.put(columnName, position);
+        }
+
+        if (size < cols) {
+            final String[] uniqueKeys = new String[size];
+            final int[] uniqueColumns = new int[size];
+
+            System.arraycopy(keys, 0, uniqueKeys, 0, size);
+            System.arraycopy(columns, 0, uniqueColumns, 0, size);
+
+            return new ColumnIndex(cols, uniqueKeys, uniqueColumns, labels, lowerCaseLabels);
+        }
+
+        return new ColumnIndex(cols, keys, columns, labels, lowerCaseLabels);
+    }
+
+    /**
+     * Gets the number of columns in the <code>ResultSet</code>.
+     *
+     * @return the number of columns.
+     */
+    int columnCount() {
+        return this.columnCount;
+    }
+
+    /**
+     * Gets the number of positions, which is the number of columns unless labels are repeated.
+     *
+     * @return the number of positions.
+     */
+    int size() {
+        return this.keys.length;
+    }
+
+    /**
+     * Gets the key of a position.
+     *
+     * @param position the position, starting from 0.
+     * @return the column's label.
+     */
+    String key(int position) {
+        return this.keys[position];
+    }
+
+    /**
+     * Gets the column of a position.
+     *
+     * @param position the position, starting from 0.
+     * @return the column index, starting from 1.
+     */
+    int column(int position) {
+        return this.columns[position];
+    }
+
+    /**
+     * Finds the position of a label, ignoring case. Labels as given by the
+     * <code>ResultSet</code> are found without converting them to lower case.
+     *
+     * @param key the label.
+     * @return the position, or -1 if no column has the label.
+     */
+    int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        Integer position = this.labels.get(key);
+
+        if (position == null) {
+            position = this.lowerCaseLabels.get(key.toString().toLowerCase(Locale.ENGLISH));
+        }
+
+        return position == null ? -1 : position.intValue();
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A <code>BeanProcessor</code> that composes a {@link RowMapper} from
+ * <code>MethodHandle</code>s for each bean class and set of columns the first
+ * time they are seen. The mapper calls the typed <code>ResultSet</code>
+ * getters and the bean's setters through handles the JIT can inline, so rows
+ * are mapped without reflection or boxing of primitives.
+ * </p>
+ *
+ * <p>
+ * A mapper is only composed when the bean class has a public no-arg
+ * constructor, and every mapped property is a primitive, a primitive wrapper
+ * or a <code>String</code> with a setter that this library can reach through
+ * a <code>MethodHandle</code>. Otherwise, and in subclasses that override
+ * <code>processColumn</code> or <code>newInstance</code>, beans are created
+ * exactly as <code>BeanProcessor</code> creates them.
+ * </p>
+ *
+ * <p>
+ * Each mapper is held for as long as its mapping is cached.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @see RowMapper
+ * @since 2.3
+ */
+public class CompiledBeanProcessor extends BeanProcessor {
+
+    /**
+     * Constructor for CompiledBeanProcessor.
+     */
+    public CompiledBeanProcessor() {
+        super();
+    }
+
+    /**
+     * Constructor for CompiledBeanProcessor configured with column to property name overrides.
+     *
+     * @param columnToPropertyOverrides ResultSet column to bean property name overrides
+     */
+    public CompiledBeanProcessor(Map<String, String> columnToPropertyOverrides) {
+        super(columnToPropertyOverrides);
+    }
+
+    /**
+     * Convert a <code>ResultSet</code> row into a JavaBean, using the
+     * composed mapper for the bean class and columns when there is one.
+     *
+     * @param <T> The type of bean to create
+     * @param rs ResultSet that supplies the bean data
+     * @param type Class from which to create the bean instance
+     * @throws SQLException if a database access error occurs
+     * @return the newly created bean
+     * @see BeanProcessor#toBean(ResultSet, Class)
+     */
+    @Override
+    public <T> T toBean(ResultSet rs, Class<T> type) throws SQLException {
+        final BeanMapping mapping = this.mapping(rs, type);
+        final RowMapper<T> mapper = this.rowMapper(type, mapping);
+
+        return mapper == null ? this.createBean(rs, type, mapping) : map(mapper, rs, type);
+    }
+
+    /**
+     * Convert a <code>ResultSet</code> into a <code>List</code> of JavaBeans,
+     * using the composed mapper for the bean class and columns when there is
+     * one.
+     *
+     * @param <T> The type of bean to create
+     * @param rs ResultSet that supplies the bean data
+     * @param type Class from which to create the bean instance
+     * @throws SQLException if a database access error occurs
+     * @return the newly created List of beans
+     * @see BeanProcessor#toBeanList(ResultSet, Class)
+     */
+    @Override
+    public <T> List<T> toBeanList(ResultSet rs, Class<T> type) throws SQLException {
+        List<T> results = new ArrayList<T>();
+
+        if (!rs.next()) {
+            return results;
+        }
+
+        final BeanMapping mapping = this.mapping(rs, type);
+        final RowMapper<T> mapper = this.rowMapper(type, mapping);
+
+        if (mapper == null) {
+            do {
+                results.add(this.createBean(rs, type, mapping));
+            } while (rs.next());
+        } else {
+            do {
+                results.add(map(mapper, rs, type));
+            } while (rs.next());
+        }
+
+        return results;
+    }
+
+    /**
+     * Gets a mapper for the columns of a <code>ResultSet</code>, which is the
+     * composed mapper for the bean class and columns when there is one.
+     *
+     * @param <T> The type of bean to create
+     * @param rs ResultSet that supplies the bean data
+     * @param type Class from which to create the bean instances
+     * @throws SQLException if a database access error occurs
+     * @return the mapper for the columns of the <code>ResultSet</code>
+     * @see BeanProcessor#rowMapper(ResultSet, Class)
+     */
+    @Override
+    public <T> RowMapper<T> rowMapper(ResultSet rs, final Class<T> type) throws SQLException {
+        final RowMapper<T> mapper = this.rowMapper(type, this.mapping(rs, type));
+
+        if (mapper == null) {
+            return super.rowMapper(rs, type);
+        }
+
+        return new RowMapper<T>() {
+            @Override
+            public T map(ResultSet row) throws SQLException {
+                return CompiledBeanProcessor.map(mapper, row, type);
+            }
+        };
+    }
+
+    /**
+     * Gets the mapper for a mapping, composing it the first time.
+     *
+     * @param type the bean class.
+     * @param mapping the mapping from columns to properties.
+     * @return the composed mapper, or null if beans must be created by <code>BeanProcessor</code>.
+     */
+    <T> RowMapper<T> rowMapper(Class<T> type, BeanMapping mapping) {
+        if (this.isCustomized()) {
+            return null;
+        }
+
+        if (!mapping.isRowMapperResolved()) {
+            mapping.setRowMapper(RowMapperGenerator.generate(type, mapping));
+        }
+
+        @SuppressWarnings("unchecked")
+        final RowMapper<T> mapper = (RowMapper<T>) mapping.getRowMapper();
+
+        return mapper;
+    }
+
+    /**
+     * Helper method to map a row, turning anything a setter throws into an SQLException.
+     */
+    private static <T> T map(RowMapper<T> mapper, ResultSet rs, Class<T> type) throws SQLException {
+        try {
+            return mapper.map(rs);
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SQLException("Cannot create " + type.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+}
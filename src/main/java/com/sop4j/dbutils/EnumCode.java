@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The code an enum constant is stored as in the database. When any constant
+ * of an enum has a code, columns are decoded by code instead of by name or
+ * ordinal. Codes that are all integers are also read from numeric columns.
+ *
+ * <pre>
+ * public enum Status {
+ *     &#64;EnumCode("A") ACTIVE,
+ *     &#64;EnumCode("D") DELETED
+ * }
+ * </pre>
+ *
+ * @see EnumDecoder
+ * @since 2.3
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface EnumCode {
+
+    /**
+     * The code of the constant.
+     *
+     * @return the code.
+     */
+    String value();
+
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Decodes column values into the constants of one enum type. The lookup
+ * tables for names, ordinals and {@link EnumCode} codes are built once per
+ * enum type and shared, so decoding a value is a single hash or array
+ * lookup.
+ * </p>
+ *
+ * <p>
+ * {@link #factory(Mode)} creates {@link ColumnConverter}s for a
+ * {@link Mode}; register one with {@link ColumnConverters} to choose how
+ * every enum column is decoded. Without one, enums with codes are decoded by
+ * code, enums in numeric columns by ordinal, and others by name.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @param <E> the enum type.
+ * @since 2.3
+ */
+public final class EnumDecoder<E extends Enum<E>> {
+
+    /**
+     * How enum columns are decoded.
+     */
+    public enum Mode {
+        /** By constant name, with <code>getString</code>. */
+        NAME,
+        /** By constant name ignoring case, with <code>getString</code>. */
+        NAME_IGNORE_CASE,
+        /** By ordinal, with <code>getInt</code>. */
+        ORDINAL,
+        /** By {@link EnumCode}, with <code>getInt</code> for numeric columns and integer codes, else <code>getString</code>. */
+        CODE
+    }
+
+    private static final ConcurrentMap<Class<?>, EnumDecoder<?>> DECODERS = new ConcurrentHashMap<Class<?>, EnumDecoder<?>>();
+
+    private final Class<E> type;
+    private final E[] constants;
+    private final Map<String, E> names = new HashMap<String, E>();
+    private final Map<String, E> upperCaseNames = new HashMap<String, E>();
+    private final Map<String, E> codes = new HashMap<String, E>();
+    private final Map<Integer, E> intCodes = new HashMap<Integer, E>();
+
+    private EnumDecoder(final Class<E> type) {
+        this.type = type;
+        this.constants = type.getEnumConstants();
+
+        boolean integerCodes = true;
+
+        for (final E constant : constants) {
+            final String name = constant.name();
+            final EnumCode code;
+
+            names.put(name, constant);
+
+            if (!upperCaseNames.containsKey(name.toUpperCase(Locale.ROOT))) {
+                upperCaseNames.put(name.toUpperCase(Locale.ROOT), constant);
+            }
+
+            try {
+                code = type.getField(name).getAnnotation(EnumCode.class);
+            } catch (final NoSuchFieldException e) {
+                // every constant is a public field
+                throw new IllegalStateException(e);
+            }
+
+            if (code == null) {
+                continue;
+            }
+
+            if (codes.put(code.value(), constant) != null) {
+                throw new IllegalArgumentException(type.getName() + " has two constants with the code " + code.value());
+            }
+
+            try {
+                intCodes.put(Integer.valueOf(code.value().trim()), constant);
+            } catch (final NumberFormatException e) {
+                integerCodes = false;
+            }
+        }
+
+        if (!integerCodes) {
+            intCodes.clear();
+        }
+    }
+
+    /**
+     * Gets the decoder for an enum type, creating it the first time.
+     *
+     * @param <E> the enum type.
+     * @param type the enum class.
+     * @return the decoder.
+     */
+    public static <E extends Enum<E>> EnumDecoder<E> of(final Class<E> type) {
+        @SuppressWarnings("unchecked")
+        EnumDecoder<E> decoder = (EnumDecoder<E>) DECODERS.get(type);
+
+        if (decoder == null) {
+            decoder = new EnumDecoder<E>(type);
+
+            @SuppressWarnings("unchecked")
+            final EnumDecoder<E> existing = (EnumDecoder<E>) DECODERS.putIfAbsent(type, decoder);
+
+            if (existing != null) {
+                decoder = existing;
+            }
+        }
+
+        return decoder;
+    }
+
+    /**
+     * Creates a factory of converters that decode every enum type with a mode.
+     *
+     * @param mode how enum columns are decoded.
+     * @return the factory.
+     */
+    public static ColumnConverterFactory factory(final Mode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode cannot be null");
+        }
+
+        return new Factory(mode);
+    }
+
+    /**
+     * Creates the factory used when none is registered, which chooses the mode from the enum and the column type.
+     *
+     * @return the factory.
+     */
+    static ColumnConverterFactory defaultFactory() {
+        return new Factory(null);
+    }
+
+    /**
+     * Returns true if any constant of the enum has an {@link EnumCode}.
+     *
+     * @return true if the enum has codes.
+     */
+    public boolean hasCodes() {
+        return !codes.isEmpty();
+    }
+
+    /**
+     * Gets a constant by name.
+     *
+     * @param name the name, or null.
+     * @return the constant, or null if the name is null.
+     * @throws IllegalArgumentException if no constant has the name.
+     */
+    public E byName(final String name) {
+        return name == null ? null : found(names.get(name), name);
+    }
+
+    /**
+     * Gets a constant by name, ignoring case.
+     *
+     * @param name the name, or null.
+     * @return the constant, or null if the name is null.
+     * @throws IllegalArgumentException if no constant has the name.
+     */
+    public E byNameIgnoreCase(final String name) {
+        return name == null ? null : found(upperCaseNames.get(name.toUpperCase(Locale.ROOT)), name);
+    }
+
+    /**
+     * Gets a constant by ordinal.
+     *
+     * @param ordinal the ordinal.
+     * @return the constant.
+     * @throws IllegalArgumentException if no constant has the ordinal.
+     */
+    public E byOrdinal(final int ordinal) {
+        if (ordinal < 0 || ordinal >= constants.length) {
+            throw new IllegalArgumentException("No enum constant " + type.getName() + " with ordinal " + ordinal);
+        }
+
+        return constants[ordinal];
+    }
+
+    /**
+     * Gets a constant by its {@link EnumCode}.
+     *
+     * @param code the code, or null.
+     * @return the constant, or null if the code is null.
+     * @throws IllegalArgumentException if no constant has the code.
+     */
+    public E byCode(final String code) {
+        return code == null ? null : found(codes.get(code), code);
+    }
+
+    /**
+     * Gets a constant by its integer {@link EnumCode}.
+     *
+     * @param code the code.
+     * @return the constant.
+     * @throws IllegalArgumentException if no constant has the code.
+     */
+    public E byCode(final int code) {
+        return found(intCodes.get(Integer.valueOf(code)), String.valueOf(code));
+    }
+
+    /**
+     * Decodes a value read with <code>getObject</code> or <code>processColumn</code>.
+     * Strings are decoded by code if the enum has codes, else by name, and
+     * numbers by code if the enum has integer codes, else by ordinal.
+     *
+     * @param value the value, or null.
+     * @return the constant, or null if the value is null.
+     * @throws IllegalArgumentException if no constant matches the value.
+     */
+    public E decode(final Object value) {
+        if (value == null) {
+            return null;
+        } else if (type.isInstance(value)) {
+            return type.cast(value);
+        } else if (value instanceof Number) {
+            final int number = ((Number) value).intValue();
+
+            return intCodes.isEmpty() ? byOrdinal(number) : byCode(number);
+        }
+
+        return hasCodes() ? byCode(value.toString()) : byName(value.toString());
+    }
+
+    /**
+     * Helper method to fail for values that don't match a constant.
+     */
+    private E found(final E constant, final String value) {
+        if (constant == null) {
+            throw new IllegalArgumentException("No enum constant " + type.getName() + "." + value);
+        }
+
+        return constant;
+    }
+
+    /**
+     * Creates the converters for a mode, or chooses the mode when it is null.
+     */
+    private static final class Factory implements ColumnConverterFactory {
+        private final Mode mode;
+
+        Factory(final Mode mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public <T> ColumnConverter<T> create(final int sqlType, final Class<T> type) {
+            if (!type.isEnum()) {
+                return null;
+            }
+
+            final EnumDecoder<?> decoder = of((Class) type);
+            final boolean numeric = ColumnConverters.isNumeric(sqlType);
+            Mode chosen = mode;
+
+            if (chosen == null) {
+                chosen = decoder.hasCodes() ? Mode.CODE : numeric ? Mode.ORDINAL : Mode.NAME;
+            }
+
+            if (chosen == Mode.ORDINAL || (chosen == Mode.CODE && numeric && !decoder.intCodes.isEmpty())) {
+                return (ColumnConverter<T>) new NumberConverter(decoder, chosen == Mode.CODE);
+            }
+
+            return (ColumnConverter<T>) new StringConverter(decoder, chosen);
+        }
+    }
+
+    /**
+     * Decodes columns read with <code>getInt</code>.
+     */
+    private static final class NumberConverter implements ColumnConverter<Object> {
+        private final EnumDecoder<?> decoder;
+        private final boolean code;
+
+        NumberConverter(final EnumDecoder<?> decoder, final boolean code) {
+            this.decoder = decoder;
+            this.code = code;
+        }
+
+        @Override
+        public Object convert(final ResultSet rs, final int index) throws SQLException {
+            final int value = rs.getInt(index);
+
+            if (rs.wasNull()) {
+                return null;
+            }
+
+            try {
+                return code ? decoder.byCode(value) : decoder.byOrdinal(value);
+            } catch (final IllegalArgumentException e) {
+                throw new SQLException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Decodes columns read with <code>getString</code>.
+     */
+    private static final class StringConverter implements ColumnConverter<Object> {
+        private final EnumDecoder<?> decoder;
+        private final Mode mode;
+
+        StringConverter(final EnumDecoder<?> decoder, final Mode mode) {
+            this.decoder = decoder;
+            this.mode = mode;
+        }
+
+        @Override
+        public Object convert(final ResultSet rs, final int index) throws SQLException {
+            final String value = rs.getString(index);
+
+            try {
+                switch (mode) {
+                case NAME_IGNORE_CASE:
+                    return decoder.byNameIgnoreCase(value);
+
+                case CODE:
+                    return decoder.byCode(value);
+
+                default:
+                    return decoder.byName(value);
+                }
+            } catch (final IllegalArgumentException e) {
+                throw new SQLException(e.getMessage(), e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.persistence.Column;
+import javax.persistence.Transient;
+
+/**
+ * <p>
+ * A <code>BeanProcessor</code> that writes columns directly to a bean's
+ * fields instead of calling setters, for classes such as entities that only
+ * declare fields. Every field of the class and its superclasses that is not
+ * static, final or transient is matched to the columns by the name in its
+ * <code>@Column</code> annotation, as in {@link EntityUtils}, or else by its
+ * field name. Fields marked <code>@Transient</code> are skipped.
+ * </p>
+ *
+ * <p>
+ * Fields are bound once per mapping to <code>MethodHandle</code> setters,
+ * which the JIT can inline, and private fields are made accessible.
+ * Classes without a public no-arg constructor are still created through a
+ * constructor or builder, as <code>BeanProcessor</code> does.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @since 2.3
+ */
+public class FieldBeanProcessor extends BeanProcessor {
+
+    /**
+     * Constructor for FieldBeanProcessor.
+     */
+    public FieldBeanProcessor() {
+        super();
+    }
+
+    /**
+     * Constructor for FieldBeanProcessor configured with column to field name overrides.
+     *
+     * @param columnToFieldOverrides ResultSet column to field name overrides
+     */
+    public FieldBeanProcessor(Map<String, String> columnToFieldOverrides) {
+        super(columnToFieldOverrides);
+    }
+
+    /**
+     * Constructor for FieldBeanProcessor configured with column to field name overrides
+     * and column converters.
+     *
+     * @param columnToFieldOverrides ResultSet column to field name overrides
+     * @param converters the registry of converters used to read columns
+     */
+    public FieldBeanProcessor(Map<String, String> columnToFieldOverrides, ColumnConverters converters) {
+        super(columnToFieldOverrides, converters);
+    }
+
+    /**
+     * Matches the columns to the fields of the bean class.
+     */
+    @Override
+    BeanMapping compileProperties(ResultSetMetaData rsmd, Class<?> type, int[] sqlTypes) throws SQLException {
+        final Map<String, Field> fields = fields(type);
+        final String[] names = fields.keySet().toArray(new String[fields.size()]);
+
+        return new BeanMapping(fields.values().toArray(new Field[fields.size()]), names,
+                               this.mapColumnsToProperties(rsmd, namedProperties(names)),
+                               primitiveDefaults, sqlTypes, this.getConverters());
+    }
+
+    /**
+     * Helper method to find the writable fields of a class and its superclasses, by column name.
+     */
+    private static Map<String, Field> fields(Class<?> type) {
+        final Map<String, Field> fields = new LinkedHashMap<String, Field>();
+
+        // walk up the inheritance chain; fields of subclasses hide those of superclasses
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                final int mods = field.getModifiers();
+
+                if (Modifier.isStatic(mods) || Modifier.isFinal(mods) || Modifier.isTransient(mods)
+                    || field.isSynthetic() || field.isAnnotationPresent(Transient.class)) {
+                    continue;
+                }
+
+                final Column column = field.getAnnotation(Column.class);
+                final String name = column == null || column.name().isEmpty() ? field.getName() : column.name();
+
+                if (!fields.containsKey(name)) {
+                    fields.put(name, field);
+                }
+            }
+        }
+
+        return fields;
+    }
+
+}
@@ -16,47 +16,28 @@
 package com.sop4j.dbutils;
 
 
-import java.beans.PropertyDescriptor;
-import java.sql.ResultSetMetaData;
-import java.sql.SQLException;
-import java.util.Arrays;
-
-
 /**
  * Provides generous name matching between DB columns and Java Bean properties by matching with and without underscores.
+ *
+ * @see NamingStrategies#snakeCase()
  */
 public class GenerousBeanProcessor extends BeanProcessor {
 
-    @Override
-    protected int[] mapColumnsToProperties(final ResultSetMetaData rsmd,
-            final PropertyDescriptor[] props) throws SQLException {
-
-        final int cols = rsmd.getColumnCount();
-        final int[] columnToProperty = new int[cols + 1];
-        Arrays.fill(columnToProperty, PROPERTY_NOT_FOUND);
-
-        for (int col = 1; col <= cols; col++) {
-            String columnName = rsmd.getColumnLabel(col);
-
-            if (null == columnName || 0 == columnName.length()) {
-                columnName = rsmd.getColumnName(col);
-            }
-
-            final String generousColumnName = columnName.replace("_", "");
-
-            for (int i = 0; i < props.length; i++) {
-                final String propName = props[i].getName();
-
-                // see if either the column name, or the generous one matches
-                if (columnName.equalsIgnoreCase(propName) ||
-                        generousColumnName.equalsIgnoreCase(propName)) {
-                    columnToProperty[col] = i;
-                    break;
-                }
-            }
-        }
+    /**
+     * Constructor for GenerousBeanProcessor.
+     */
+    public GenerousBeanProcessor() {
+        super(NamingStrategies.snakeCase());
+    }
 
-        return columnToProperty;
+    /**
+     * Constructor for GenerousBeanProcessor configured with column converters.
+     *
+     * @param converters the registry of converters used to read columns
+     * @since 2.3
+     */
+    public GenerousBeanProcessor(ColumnConverters converters) {
+        super(NamingStrategies.snakeCase(), converters);
     }
 
 }
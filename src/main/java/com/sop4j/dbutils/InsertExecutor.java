@@ -16,6 +16,7 @@
 package com.sop4j.dbutils;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -39,7 +40,22 @@ public class InsertExecutor extends AbstractExecutor<InsertExecutor> {
      * @throws SQLException thrown if there is an error during execution.
      */
     InsertExecutor(final Connection conn, final String sql, final boolean closeConnection) throws SQLException {
-        super(conn, sql, Statement.RETURN_GENERATED_KEYS);
+        this(conn, sql, closeConnection, null, null);
+    }
+
+    /**
+     * Constructs an InsertExecutor that borrows its statement from a cache, and configures it.
+     *
+     * @param conn The connection to use during execution.
+     * @param sql The SQL statement.
+     * @param closeConnection If the connection should be closed or not.
+     * @param statementCache The cache to borrow the statement from, or null.
+     * @param config The statement settings, or null.
+     * @throws SQLException thrown if there is an error during execution.
+     */
+    InsertExecutor(final Connection conn, final String sql, final boolean closeConnection,
+          final StatementCache statementCache, final StatementConfiguration config) throws SQLException {
+        super(conn, sql, Statement.RETURN_GENERATED_KEYS, statementCache, config);
         this.closeConn = closeConnection;
     }
 
@@ -66,11 +82,13 @@ public class InsertExecutor extends AbstractExecutor<InsertExecutor> {
         }
 
         try {
+            final PreparedStatement stmt = prepareStatement();
+
             // execute the update
-            getStatement().executeUpdate();
+            stmt.executeUpdate();
 
             // get the result set
-            final ResultSet resultSet = getStatement().getGeneratedKeys();
+            final ResultSet resultSet = stmt.getGeneratedKeys();
 
             // run the handler over the results and return them
             return handler.handle(resultSet);
@@ -98,11 +116,13 @@ public class InsertExecutor extends AbstractExecutor<InsertExecutor> {
         this.throwIfUnmappedParams();
 
         try {
+            final PreparedStatement stmt = prepareStatement();
+
             // execute the insert
-            int ret = getStatement().executeUpdate();
+            int ret = stmt.executeUpdate();
 
             // get any generated keys, and just close the ResultSet
-            getStatement().getGeneratedKeys().close();
+            stmt.getGeneratedKeys().close();
 
             return ret;
         } catch (SQLException e) {
@@ -117,4 +137,17 @@ public class InsertExecutor extends AbstractExecutor<InsertExecutor> {
         return 0; // only get here on an error
     }
 
+    /**
+     * Gets the statement to execute, with all of the parameters bound.
+     * The generated keys of several statements cannot be merged, so the list
+     * parameters of an insert cannot be split into chunks.
+     */
+    private PreparedStatement prepareStatement() throws SQLException {
+        if (getChunkCount() > 1) {
+            throw new SQLException("The list parameters of an insert cannot be longer than the chunk size");
+        }
+
+        return prepareChunk(0);
+    }
+
 }
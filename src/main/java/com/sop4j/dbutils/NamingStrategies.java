@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The built-in {@link NamingStrategy}s. Strategies that adjust column names
+ * wrap another strategy, so they can be combined:
+ *
+ * <pre>
+ * NamingStrategies.overrides(overrides, NamingStrategies.stripPrefix("t_", NamingStrategies.snakeCase()))
+ * </pre>
+ *
+ * @since 2.3
+ */
+public final class NamingStrategies {
+
+    private static final NamingStrategy EXACT = new Exact();
+
+    private static final NamingStrategy SNAKE_CASE = new SnakeCase();
+
+    private NamingStrategies() {
+        // static methods only
+    }
+
+    /**
+     * Matches columns to properties with the same name, ignoring case. This is
+     * how <code>BeanProcessor</code> matches them by default.
+     *
+     * @return the strategy.
+     */
+    public static NamingStrategy exact() {
+        return EXACT;
+    }
+
+    /**
+     * Matches columns to properties ignoring case and underscores, so
+     * <code>first_name</code> maps to <code>firstName</code>. This is how
+     * {@link GenerousBeanProcessor} matches them.
+     *
+     * @return the strategy.
+     */
+    public static NamingStrategy snakeCase() {
+        return SNAKE_CASE;
+    }
+
+    /**
+     * Removes a prefix, ignoring case, from column names before another strategy matches them.
+     *
+     * @param prefix the prefix, such as a table alias.
+     * @param next the strategy that matches the rest of the name.
+     * @return the strategy.
+     */
+    public static NamingStrategy stripPrefix(String prefix, NamingStrategy next) {
+        if (prefix == null || next == null) {
+            throw new IllegalArgumentException("prefix and next cannot be null");
+        }
+
+        return new StripPrefix(prefix, next);
+    }
+
+    /**
+     * Maps only the columns that start with a prefix, ignoring case, matching
+     * the rest of their names with another strategy. Other columns don't map
+     * to any property, so a joined row can be split into a group of columns
+     * per table.
+     *
+     * @param prefix the prefix of the group's columns, such as <code>line_</code>.
+     * @param next the strategy that matches the rest of the name.
+     * @return the strategy.
+     */
+    public static NamingStrategy prefixed(String prefix, NamingStrategy next) {
+        if (prefix == null || next == null) {
+            throw new IllegalArgumentException("prefix and next cannot be null");
+        }
+
+        return new Prefixed(prefix, next);
+    }
+
+    /**
+     * Maps the columns in a map to the property named by their value, and
+     * the others with another strategy.
+     *
+     * @param columnToPropertyOverrides column to property name overrides, which must not change afterwards.
+     * @param next the strategy for the other columns.
+     * @return the strategy.
+     */
+    public static NamingStrategy overrides(Map<String, String> columnToPropertyOverrides, NamingStrategy next) {
+        if (columnToPropertyOverrides == null || next == null) {
+            throw new IllegalArgumentException("columnToPropertyOverrides and next cannot be null");
+        }
+
+        return columnToPropertyOverrides.isEmpty() ? next : new Overrides(columnToPropertyOverrides, next);
+    }
+
+    private static final class Exact implements NamingStrategy {
+        @Override
+        public String propertyKey(String propertyName) {
+            return propertyName.toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public String columnKey(String columnName) {
+            return columnName.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class SnakeCase implements NamingStrategy {
+        @Override
+        public String propertyKey(String propertyName) {
+            return key(propertyName);
+        }
+
+        @Override
+        public String columnKey(String columnName) {
+            return key(columnName);
+        }
+
+        private static String key(String name) {
+            final StringBuilder key = new StringBuilder(name.length());
+
+            for (int i = 0; i < name.length(); i++) {
+                final char c = name.charAt(i);
+
+                if (c != '_') {
+                    key.append(Character.toLowerCase(c));
+                }
+            }
+
+            return key.toString();
+        }
+    }
+
+    private static final class StripPrefix implements NamingStrategy {
+        private final String prefix;
+        private final NamingStrategy next;
+
+        StripPrefix(String prefix, NamingStrategy next) {
+            this.prefix = prefix;
+            this.next = next;
+        }
+
+        @Override
+        public String propertyKey(String propertyName) {
+            return next.propertyKey(propertyName);
+        }
+
+        @Override
+        public String columnKey(String columnName) {
+            if (columnName.length() > prefix.length() && columnName.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return next.columnKey(columnName.substring(prefix.length()));
+            }
+
+            return next.columnKey(columnName);
+        }
+    }
+
+    private static final class Prefixed implements NamingStrategy {
+        private final String prefix;
+        private final NamingStrategy next;
+
+        Prefixed(String prefix, NamingStrategy next) {
+            this.prefix = prefix;
+            this.next = next;
+        }
+
+        @Override
+        public String propertyKey(String propertyName) {
+            return next.propertyKey(propertyName);
+        }
+
+        @Override
+        public String columnKey(String columnName) {
+            if (columnName.length() > prefix.length() && columnName.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return next.columnKey(columnName.substring(prefix.length()));
+            }
+
+            return null;
+        }
+    }
+
+    private static final class Overrides implements NamingStrategy {
+        private final Map<String, String> overrides;
+        private final NamingStrategy next;
+
+        Overrides(Map<String, String> overrides, NamingStrategy next) {
+            this.overrides = overrides;
+            this.next = next;
+        }
+
+        @Override
+        public String propertyKey(String propertyName) {
+            return next.propertyKey(propertyName);
+        }
+
+        @Override
+        public String columnKey(String columnName) {
+            final String propertyName = overrides.get(columnName);
+
+            return propertyName == null ? next.columnKey(columnName) : next.propertyKey(propertyName);
+        }
+    }
+
+}
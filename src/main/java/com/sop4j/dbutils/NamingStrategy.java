@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+/**
+ * Decides which bean property a column maps to. Both names are reduced to
+ * keys, and a column maps to the property with the same key, so the
+ * properties of a bean can be indexed by key once and each column looked up
+ * in constant time.
+ *
+ * @see NamingStrategies
+ * @since 2.3
+ */
+public interface NamingStrategy {
+
+    /**
+     * Gets the key of a property name.
+     *
+     * @param propertyName the name of a property, constructor parameter or field.
+     * @return the key.
+     */
+    String propertyKey(String propertyName);
+
+    /**
+     * Gets the key of a column.
+     *
+     * @param columnName the column's label, or its name if it has no label.
+     * @return the key, or null if the column doesn't map to any property.
+     */
+    String columnKey(String columnName);
+
+}
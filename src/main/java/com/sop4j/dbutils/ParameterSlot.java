@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+/**
+ * A handle to a named parameter in a SQL statement. A slot is resolved once
+ * by name with {@link AbstractExecutor#slot(String)} and can then be used to
+ * bind values without looking the name up again. Slots are immutable, and can
+ * be reused with any executor created from the same SQL statement.
+ *
+ * <pre>
+ * final BatchExecutor exec = runner.batch(conn, "insert into person (id, name) values (:id, :name)");
+ * final ParameterSlot id = exec.slot("id");
+ * final ParameterSlot name = exec.slot("name");
+ *
+ * for (Person p:people) {
+ *     exec.bind(id, p.getId()).bind(name, p.getName()).addBatch();
+ * }
+ * </pre>
+ *
+ * @since 2.3
+ */
+public final class ParameterSlot {
+
+    private final String sql;
+    private final String name;
+    private final int index;
+    private final int[] positions;
+
+    ParameterSlot(final String sql, final String name, final int index, final int[] positions) {
+        this.sql = sql;
+        this.name = name;
+        this.index = index;
+        this.positions = positions;
+    }
+
+    /**
+     * Gets the SQL statement this slot was resolved from.
+     *
+     * @return the SQL statement, with named parameters.
+     */
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Gets the name of the parameter, without the colon.
+     *
+     * @return the name of the parameter.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the index of this parameter among the distinct parameters of the statement.
+     *
+     * @return the 0-based index of the parameter.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the 1-based JDBC positions of the parameter. The returned array must not be modified.
+     *
+     * @return the JDBC positions of the parameter.
+     */
+    int[] getPositions() {
+        return positions;
+    }
+
+    @Override
+    public String toString() {
+        return ":" + name;
+    }
+
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Calls a bean's setter, or writes one of its fields. A setter is resolved
+ * once per property, and then called for every row. The default strategy
+ * binds the setter or field to a <code>MethodHandle</code>, which the JIT can
+ * inline, and which takes <code>int</code>, <code>long</code>,
+ * <code>double</code> and <code>boolean</code> values without boxing them.
+ * When the setter or field can't be reached through a handle it falls back to
+ * <code>Method.invoke</code> or <code>Field.set</code>.
+ *
+ * <p>
+ * Exceptions thrown by the setter itself are rethrown unwrapped.
+ * </p>
+ *
+ * @since 2.3
+ */
+abstract class PropertySetter {
+
+    private static final MethodType OBJECT_SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * Creates a setter that calls the method through a <code>MethodHandle</code>,
+     * or through reflection if access to the method is restricted.
+     *
+     * @param setter the bean's setter method.
+     * @return the property setter.
+     */
+    static PropertySetter of(final Method setter) {
+        try {
+            return new HandleSetter(MethodHandles.lookup().unreflect(setter), setter.getParameterTypes()[0]);
+        } catch (final IllegalAccessException e) {
+            return reflective(setter);
+        }
+    }
+
+    /**
+     * Creates a setter that writes a field through a <code>MethodHandle</code>,
+     * or through reflection if access to the field is restricted. Private
+     * fields are made accessible.
+     *
+     * @param field the bean's field, which must not be final.
+     * @return the property setter.
+     */
+    static PropertySetter of(final Field field) {
+        try {
+            field.setAccessible(true);
+            return new HandleSetter(MethodHandles.lookup().unreflectSetter(field), field.getType());
+        } catch (final IllegalAccessException e) {
+            return new FieldSetter(field);
+        } catch (final SecurityException e) {
+            return new FieldSetter(field);
+        }
+    }
+
+    /**
+     * Creates a setter that calls the method with <code>Method.invoke</code>.
+     *
+     * @param setter the bean's setter method.
+     * @return the property setter.
+     */
+    static PropertySetter reflective(final Method setter) {
+        return new ReflectionSetter(setter);
+    }
+
+    /**
+     * Gets the handle the setter is called through, for composing into a
+     * {@link RowMapper}.
+     *
+     * @return the handle, typed as the bean class and the setter's parameter
+     * type, or null if the setter is called through reflection.
+     */
+    MethodHandle handle() {
+        return null;
+    }
+
+    /**
+     * Calls the setter.
+     *
+     * @param bean the bean to set the property on.
+     * @param value the value, which must be compatible with the setter's parameter type.
+     * @throws Throwable anything thrown by the setter.
+     */
+    abstract void set(Object bean, Object value) throws Throwable;
+
+    /**
+     * Calls the setter with an <code>int</code>. This implementation boxes the value.
+     *
+     * @param bean the bean to set the property on.
+     * @param value the value.
+     * @throws Throwable anything thrown by the setter.
+     */
+    void setInt(final Object bean, final int value) throws Throwable {
+        set(bean, Integer.valueOf(value));
+    }
+
+    /**
+     * Calls the setter with a <code>long</code>. This implementation boxes the value.
+     *
+     * @param bean the bean to set the property on.
+     * @param value the value.
+     * @throws Throwable anything thrown by the setter.
+     */
+    void setLong(final Object bean, final long value) throws Throwable {
+        set(bean, Long.valueOf(value));
+    }
+
+    /**
+     * Calls the setter with a <code>double</code>. This implementation boxes the value.
+     *
+     * @param bean the bean to set the property on.
+     * @param value the value.
+     * @throws Throwable anything thrown by the setter.
+     */
+    void setDouble(final Object bean, final double value) throws Throwable {
+        set(bean, Double.valueOf(value));
+    }
+
+    /**
+     * Calls the setter with a <code>boolean</code>. This implementation boxes the value.
+     *
+     * @param bean the bean to set the property on.
+     * @param value the value.
+     * @throws Throwable anything thrown by the setter.
+     */
+    void setBoolean(final Object bean, final boolean value) throws Throwable {
+        set(bean, Boolean.valueOf(value));
+    }
+
+    /**
+     * Calls the setter through <code>MethodHandle</code>s adapted to exact types,
+     * so <code>invokeExact</code> can be used.
+     */
+    private static final class HandleSetter extends PropertySetter {
+        private final MethodHandle handle;
+        private final MethodHandle objectHandle;
+        private final MethodHandle primitiveHandle;
+        private final Class<?> paramType;
+
+        HandleSetter(final MethodHandle handle, final Class<?> paramType) {
+            this.handle = handle;
+            this.objectHandle = handle.asType(OBJECT_SETTER);
+            this.paramType = paramType;
+            this.primitiveHandle = paramType.isPrimitive()
+                    ? handle.asType(MethodType.methodType(void.class, Object.class, paramType)) : null;
+        }
+
+        @Override
+        MethodHandle handle() {
+            return handle;
+        }
+
+        @Override
+        void set(final Object bean, final Object value) throws Throwable {
+            objectHandle.invokeExact(bean, value);
+        }
+
+        @Override
+        void setInt(final Object bean, final int value) throws Throwable {
+            if (paramType == int.class) {
+                primitiveHandle.invokeExact(bean, value);
+            } else {
+                super.setInt(bean, value);
+            }
+        }
+
+        @Override
+        void setLong(final Object bean, final long value) throws Throwable {
+            if (paramType == long.class) {
+                primitiveHandle.invokeExact(bean, value);
+            } else {
+                super.setLong(bean, value);
+            }
+        }
+
+        @Override
+        void setDouble(final Object bean, final double value) throws Throwable {
+            if (paramType == double.class) {
+                primitiveHandle.invokeExact(bean, value);
+            } else {
+                super.setDouble(bean, value);
+            }
+        }
+
+        @Override
+        void setBoolean(final Object bean, final boolean value) throws Throwable {
+            if (paramType == boolean.class) {
+                primitiveHandle.invokeExact(bean, value);
+            } else {
+                super.setBoolean(bean, value);
+            }
+        }
+    }
+
+    /**
+     * Calls the setter with <code>Method.invoke</code>.
+     */
+    private static final class ReflectionSetter extends PropertySetter {
+        private final Method method;
+
+        ReflectionSetter(final Method method) {
+            this.method = method;
+        }
+
+        @Override
+        void set(final Object bean, final Object value) throws Throwable {
+            try {
+                method.invoke(bean, value);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Writes the field with <code>Field.set</code>.
+     */
+    private static final class FieldSetter extends PropertySetter {
+        private final Field field;
+
+        FieldSetter(final Field field) {
+            this.field = field;
+        }
+
+        @Override
+        void set(final Object bean, final Object value) throws Throwable {
+            field.set(bean, value);
+        }
+    }
+
+}
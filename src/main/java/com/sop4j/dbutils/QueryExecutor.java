@@ -18,16 +18,28 @@ package com.sop4j.dbutils;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+
+import com.sop4j.dbutils.handlers.RowCallbackHandler;
 
 /**
  * Fluent class for executing a query.
  *
+ * <p>
+ * Executors created with {@link QueryRunner#prepareQuery(Connection, String)}
+ * are reusable: the statement stays open after {@link #execute(ResultSetHandler)},
+ * and all of the parameters must be bound again before the next execution.
+ * Reusable executors must be closed with {@link #close()}.
+ * </p>
+ *
  * @since 2.0
  */
-public class QueryExecutor extends AbstractExecutor<QueryExecutor> {
+public class QueryExecutor extends AbstractExecutor<QueryExecutor> implements AutoCloseable {
 
     private final boolean closeConn;
 
+    private boolean cacheMetaData;
+
     /**
      * Constructs a QueryExecutor given a connection and SQL statement.
      *
@@ -37,10 +49,51 @@ public class QueryExecutor extends AbstractExecutor<QueryExecutor> {
      * @throws SQLException thrown if there is an error during execution.
      */
     QueryExecutor(final Connection conn, final String sql, final boolean closeConnection) throws SQLException {
-        super(conn, sql);
+        this(conn, sql, closeConnection, null, null);
+    }
+
+    /**
+     * Constructs a QueryExecutor that borrows its statement from a cache, and configures it.
+     *
+     * @param conn The connection to use during execution.
+     * @param sql The SQL statement.
+     * @param closeConnection If the connection should be closed or not.
+     * @param statementCache The cache to borrow the statement from, or null.
+     * @param config The statement settings, or null.
+     * @throws SQLException thrown if there is an error during execution.
+     */
+    QueryExecutor(final Connection conn, final String sql, final boolean closeConnection,
+          final StatementCache statementCache, final StatementConfiguration config) throws SQLException {
+        super(conn, sql, Statement.NO_GENERATED_KEYS, statementCache, config);
         this.closeConn = closeConnection;
     }
 
+    /**
+     * Answers the column count, labels, names and types of the results from a
+     * cache shared by every execution of the same SQL statement on the same
+     * database, so handlers don't read them from the driver. The first
+     * execution reads them.
+     *
+     * <p>
+     * The cache is kept for each database, identified by the connection's URL,
+     * which is read once per connection. Connections with the same URL must
+     * see the same columns: this should not be used when they switch catalogs
+     * or schemas, for example with a per-tenant search path, or with
+     * <code>select *</code> from tables whose columns change, as changes to
+     * the tables are not detected. Every
+     * call to the <code>ResultSet</code> goes through a proxy, so this suits
+     * frequent queries that return few rows, on drivers whose metadata is
+     * slow.
+     * </p>
+     *
+     * @return this execution object to provide the fluent style.
+     * @since 2.3
+     */
+    public QueryExecutor cacheMetaData() {
+        cacheMetaData = true;
+        return this;
+    }
+
     /**
      * Calls query after checking the parameters to ensure nothing is null.
      *
@@ -55,7 +108,7 @@ public class QueryExecutor extends AbstractExecutor<QueryExecutor> {
 
         // make sure our handler is not null
         if (handler == null) {
-            if (closeConn) {
+            if (closeConn && !isReusable()) {
                 close(getConnection());
             }
             throw new SQLException("Null ResultSetHandler");
@@ -65,7 +118,10 @@ public class QueryExecutor extends AbstractExecutor<QueryExecutor> {
 
         try {
             // execute the query, wrapping it
-            resultSet = this.wrap(getStatement().executeQuery());
+            resultSet = this.wrap(executeQuery());
+            if (cacheMetaData) {
+                resultSet = getTemplate().cacheMetaData(getConnection(), resultSet);
+            }
             // execute the handler
             return handler.handle(resultSet);
         } catch (SQLException e) {
@@ -75,9 +131,14 @@ public class QueryExecutor extends AbstractExecutor<QueryExecutor> {
             try {
                 close(resultSet);
             } finally {
-                close(getStatement());
-                if (closeConn) {
-                    close(getConnection());
+                if (isReusable()) {
+                    // keep the statement for the next execution
+                    clearBindings();
+                } else {
+                    close(getStatement());
+                    if (closeConn) {
+                        close(getConnection());
+                    }
                 }
             }
         }
@@ -85,4 +146,67 @@ public class QueryExecutor extends AbstractExecutor<QueryExecutor> {
         // we get here only if something is thrown
         return null;
     }
+
+    /**
+     * Maps each row to a bean and passes it to a consumer, without collecting
+     * the rows, until there are no more rows or the consumer returns false.
+     * The result set, and the statement and connection when they aren't kept,
+     * are closed as with {@link #execute(ResultSetHandler)}. Set a
+     * {@link #fetchSize(int) fetch size} so the driver doesn't read all the
+     * rows at once.
+     *
+     * @param type The Class that the rows are mapped to.
+     * @param consumer The consumer of the rows.
+     *
+     * @return The number of rows passed to the consumer.
+     * @throws SQLException If there are database or parameter errors.
+     * @see RowCallbackHandler
+     * @since 2.3
+     */
+    public <T> long forEach(Class<T> type, RowConsumer<? super T> consumer) throws SQLException {
+        return this.executeRows(type == null || consumer == null ? null : new RowCallbackHandler<T>(type, consumer));
+    }
+
+    /**
+     * Maps each row to an array and passes it to a consumer, without
+     * collecting the rows, until there are no more rows or the consumer
+     * returns false.
+     *
+     * @param consumer The consumer of the rows.
+     *
+     * @return The number of rows passed to the consumer.
+     * @throws SQLException If there are database or parameter errors.
+     * @see #forEach(Class, RowConsumer)
+     * @since 2.3
+     */
+    public long forEach(RowConsumer<? super Object[]> consumer) throws SQLException {
+        return this.executeRows(consumer == null ? null : RowCallbackHandler.forArrays(consumer));
+    }
+
+    /**
+     * Helper method to execute a RowCallbackHandler, which fails like a null handler when it is null.
+     */
+    private long executeRows(RowCallbackHandler<?> handler) throws SQLException {
+        final Long count = this.execute(handler);
+
+        return count == null ? 0 : count.longValue();
+    }
+
+    /**
+     * Closes the statement, and the connection if it should be closed. This
+     * only needs to be called for reusable executors; other executors are
+     * closed when they are executed.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            close(getStatement());
+        } finally {
+            if (closeConn) {
+                close(getConnection());
+            }
+        }
+    }
 }
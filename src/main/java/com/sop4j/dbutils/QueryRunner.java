@@ -18,6 +18,7 @@ package com.sop4j.dbutils;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -49,11 +50,46 @@ public class QueryRunner {
      */
     private final DataSource ds;
 
+    /**
+     * The per-connection cache of prepared statements, or null if caching is disabled.
+     */
+    private final StatementCache statementCache;
+
+    /**
+     * The settings every statement starts with, or null for the driver's defaults.
+     */
+    private final StatementConfiguration stmtConfig;
+
     /**
      * Constructor for QueryRunner.
      */
     public QueryRunner() {
-        ds = null;
+        this(null, 0, null);
+    }
+
+    /**
+     * Constructor for QueryRunner that configures every statement it creates.
+     *
+     * @param stmtConfig The configuration to apply to statements when they are prepared.
+     */
+    public QueryRunner(final StatementConfiguration stmtConfig) {
+        this(null, 0, stmtConfig);
+    }
+
+    /**
+     * Constructor for QueryRunner that caches prepared statements.
+     *
+     * Statements created for a <code>Connection</code> passed in by the caller, and not closed by the
+     * executor, are kept open and reused the next time the same SQL is executed on that
+     * <code>Connection</code>. At most <code>statementCacheSize</code> statements are kept per
+     * <code>Connection</code>; the least recently used are closed first. The runner holds each
+     * <code>Connection</code> until {@link #closeCachedStatements(Connection)} is called for it.
+     *
+     * @param statementCacheSize The maximum number of statements to cache per connection, 0 to disable caching.
+     * @see #closeCachedStatements(Connection)
+     */
+    public QueryRunner(final int statementCacheSize) {
+        this(null, statementCacheSize, null);
     }
 
     /**
@@ -65,7 +101,50 @@ public class QueryRunner {
      * @param ds The <code>DataSource</code> to retrieve connections from.
      */
     public QueryRunner(final DataSource ds) {
+        this(ds, 0, null);
+    }
+
+    /**
+     * Constructor for QueryRunner that takes a <code>DataSource</code> to use, and configures every
+     * statement it creates.
+     *
+     * @param ds The <code>DataSource</code> to retrieve connections from.
+     * @param stmtConfig The configuration to apply to statements when they are prepared.
+     */
+    public QueryRunner(final DataSource ds, final StatementConfiguration stmtConfig) {
+        this(ds, 0, stmtConfig);
+    }
+
+    /**
+     * Constructor for QueryRunner that takes a <code>DataSource</code> to use and caches prepared statements.
+     *
+     * Only statements created on a <code>Connection</code> passed in by the caller are cached, as connections
+     * retrieved from the <code>DataSource</code> are closed after each call.
+     *
+     * @param ds The <code>DataSource</code> to retrieve connections from.
+     * @param statementCacheSize The maximum number of statements to cache per connection, 0 to disable caching.
+     * @see #QueryRunner(int)
+     */
+    public QueryRunner(final DataSource ds, final int statementCacheSize) {
+        this(ds, statementCacheSize, null);
+    }
+
+    /**
+     * Constructor for QueryRunner that takes a <code>DataSource</code> to use, caches prepared statements,
+     * and configures every statement it creates.
+     *
+     * @param ds The <code>DataSource</code> to retrieve connections from.
+     * @param statementCacheSize The maximum number of statements to cache per connection, 0 to disable caching.
+     * @param stmtConfig The configuration to apply to statements when they are prepared, or null.
+     */
+    public QueryRunner(final DataSource ds, final int statementCacheSize, final StatementConfiguration stmtConfig) {
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("The statement cache size cannot be negative: " + statementCacheSize);
+        }
+
         this.ds = ds;
+        this.statementCache = statementCacheSize == 0 ? null : new StatementCache(statementCacheSize);
+        this.stmtConfig = stmtConfig;
     }
 
     /**
@@ -79,6 +158,15 @@ public class QueryRunner {
         return this.ds;
     }
 
+    /**
+     * Returns the configuration applied to the statements this runner creates.
+     *
+     * @return the statement configuration, or null if none was given.
+     */
+    public StatementConfiguration getStatementConfiguration() {
+        return this.stmtConfig;
+    }
+
     /**
      * Factory method that creates and initializes a <code>Connection</code>
      * object. <code>QueryRunner</code> methods always call this method to
@@ -110,6 +198,31 @@ public class QueryRunner {
         DbUtils.close(conn);
     }
 
+    /**
+     * Closes all of the prepared statements this runner has cached for the given <code>Connection</code>.
+     * The runner holds each <code>Connection</code> and its statements until this is called, so it
+     * must be called before the <code>Connection</code> is closed or returned to a pool. Does nothing
+     * if statement caching is disabled.
+     *
+     * @param conn The connection whose cached statements should be closed.
+     * @throws SQLException if a database access error occurs
+     */
+    public void closeCachedStatements(Connection conn) throws SQLException {
+        if (statementCache != null && conn != null) {
+            statementCache.evict(conn);
+        }
+    }
+
+    /**
+     * Returns the statement cache to use for an executor; connections the executor closes are never cached.
+     *
+     * @param closeConn True if the executor will close the connection.
+     * @return the cache, or null if statements should not be cached.
+     */
+    private StatementCache statementCacheFor(boolean closeConn) {
+        return closeConn ? null : statementCache;
+    }
+
     /**
      * Creates an {@link BatchExecutor} for the given SQL.
      * <code>Connection</code> is retrieved from the <code>DataSource</code>
@@ -162,7 +275,7 @@ public class QueryRunner {
             throw new SQLException("Null SQL statement");
         }
 
-        return new BatchExecutor(conn, sql, closeConn);
+        return new BatchExecutor(conn, sql, closeConn, Statement.NO_GENERATED_KEYS, statementCacheFor(closeConn), stmtConfig);
     }
 
     /**
@@ -217,7 +330,56 @@ public class QueryRunner {
             throw new SQLException("Null SQL statement");
         }
 
-        return new QueryExecutor(conn, sql, closeConn);
+        return new QueryExecutor(conn, sql, closeConn, statementCacheFor(closeConn), stmtConfig);
+    }
+
+    /**
+     * Creates a reusable {@link QueryExecutor} for the given SQL.
+     * <code>Connection</code> is retrieved from the <code>DataSource</code>
+     * set in the constructor. The statement is prepared once, and can be
+     * bound and executed many times. The statement and <code>Connection</code>
+     * are closed when the executor is closed.
+     *
+     * @param sql The SQL statement to execute.
+     *
+     * @return A reusable {@link QueryExecutor} for this SQL statement.
+     * @throws SQLException If there are database or parameter errors.
+     */
+    public QueryExecutor prepareQuery(String sql) throws SQLException {
+        return this.prepareQuery(this.prepareConnection(), true, sql);
+    }
+
+    /**
+     * Creates a reusable {@link QueryExecutor} for the given SQL statement and connection.
+     * The statement is prepared once, and can be bound and executed many times.
+     * The statement is closed when the executor is closed, but the connection is <b>NOT</b>.
+     *
+     * @param conn The connection to use for the query calls.
+     * @param sql The SQL statement to execute.
+     *
+     * @return A reusable {@link QueryExecutor} for this SQL statement.
+     * @throws SQLException If there are database or parameter errors.
+     */
+    public QueryExecutor prepareQuery(Connection conn, String sql) throws SQLException {
+        return this.prepareQuery(conn, false, sql);
+    }
+
+    /**
+     * Creates a reusable {@link QueryExecutor} for the given SQL statement and connection.
+     *
+     * @param conn The connection to use for the query calls.
+     * @param closeConn True if the connection should be closed when the executor is closed, false otherwise.
+     * @param sql The SQL statement to execute.
+     *
+     * @return A reusable {@link QueryExecutor} for this SQL statement.
+     * @throws SQLException If there are database or parameter errors.
+     */
+    public QueryExecutor prepareQuery(Connection conn, boolean closeConn, String sql) throws SQLException {
+        final QueryExecutor exec = this.query(conn, closeConn, sql);
+
+        exec.setReusable();
+
+        return exec;
     }
 
     /**
@@ -272,7 +434,56 @@ public class QueryRunner {
             throw new SQLException("Null SQL statement");
         }
 
-        return new UpdateExecutor(conn, sql, closeConn);
+        return new UpdateExecutor(conn, sql, closeConn, statementCacheFor(closeConn), stmtConfig);
+    }
+
+    /**
+     * Creates a reusable {@link UpdateExecutor} for the given SQL.
+     * <code>Connection</code> is retrieved from the <code>DataSource</code>
+     * set in the constructor. The statement is prepared once, and can be
+     * bound and executed many times. The statement and <code>Connection</code>
+     * are closed when the executor is closed.
+     *
+     * @param sql The SQL statement to execute.
+     *
+     * @return A reusable {@link UpdateExecutor} for this SQL statement.
+     * @throws SQLException If there are database or parameter errors.
+     */
+    public UpdateExecutor prepareUpdate(String sql) throws SQLException {
+        return this.prepareUpdate(this.prepareConnection(), true, sql);
+    }
+
+    /**
+     * Creates a reusable {@link UpdateExecutor} for the given SQL statement and connection.
+     * The statement is prepared once, and can be bound and executed many times.
+     * The statement is closed when the executor is closed, but the connection is <b>NOT</b>.
+     *
+     * @param conn The connection to use for the update calls.
+     * @param sql The SQL statement to execute.
+     *
+     * @return A reusable {@link UpdateExecutor} for this SQL statement.
+     * @throws SQLException If there are database or parameter errors.
+     */
+    public UpdateExecutor prepareUpdate(Connection conn, String sql) throws SQLException {
+        return this.prepareUpdate(conn, false, sql);
+    }
+
+    /**
+     * Creates a reusable {@link UpdateExecutor} for the given SQL statement and connection.
+     *
+     * @param conn The connection to use for the update calls.
+     * @param closeConn True if the connection should be closed when the executor is closed, false otherwise.
+     * @param sql The SQL statement to execute.
+     *
+     * @return A reusable {@link UpdateExecutor} for this SQL statement.
+     * @throws SQLException If there are database or parameter errors.
+     */
+    public UpdateExecutor prepareUpdate(Connection conn, boolean closeConn, String sql) throws SQLException {
+        final UpdateExecutor exec = this.update(conn, closeConn, sql);
+
+        exec.setReusable();
+
+        return exec;
     }
 
     /**
@@ -327,7 +538,7 @@ public class QueryRunner {
             throw new SQLException("Null SQL statement");
         }
 
-        return new InsertExecutor(conn, sql, closeConn);
+        return new InsertExecutor(conn, sql, closeConn, statementCacheFor(closeConn), stmtConfig);
     }
 
     //
@@ -365,7 +576,7 @@ public class QueryRunner {
         LOG.debug("INSERT: {}", sb.toString());
 
         // create the executor
-        final InsertExecutor exec = new InsertExecutor(this.prepareConnection(), sb.toString(), true);
+        final InsertExecutor exec = new InsertExecutor(this.prepareConnection(), sb.toString(), true, null, stmtConfig);
 
         for(String column:columns.keySet()) {
             // don't bind the exclude columns
@@ -417,7 +628,7 @@ public class QueryRunner {
         LOG.debug("SELECT: {}", sb.toString());
 
         // setup the QueryExecutor
-        final QueryExecutor exec = new QueryExecutor(prepareConnection(), sb.toString(), true);
+        final QueryExecutor exec = new QueryExecutor(prepareConnection(), sb.toString(), true, null, stmtConfig);
 
         // execute using the BeanHandler
         return exec.execute(new BeanListHandler<T>(entityClass));
@@ -454,7 +665,7 @@ public class QueryRunner {
         LOG.debug("SELECT: {}", sb.toString());
 
         // setup the QueryExecutor
-        final QueryExecutor exec = new QueryExecutor(prepareConnection(), sb.toString(), true);
+        final QueryExecutor exec = new QueryExecutor(prepareConnection(), sb.toString(), true, null, stmtConfig);
 
         // bind all the id columns
         bindColumnValues(exec, idColumns, entity, Collections.<String>emptySet());
@@ -509,7 +720,7 @@ public class QueryRunner {
         LOG.debug("UPDATE: {}", sb.toString());
 
         // setup the QueryExecutor
-        final UpdateExecutor exec = new UpdateExecutor(prepareConnection(), sb.toString(), true);
+        final UpdateExecutor exec = new UpdateExecutor(prepareConnection(), sb.toString(), true, null, stmtConfig);
 
         // bind all the update column values
         bindColumnValues(exec, updateColumns, entity, excludeColumns);
@@ -552,7 +763,7 @@ public class QueryRunner {
         LOG.debug("DELETE: {}", sb.toString());
 
         // setup the QueryExecutor
-        final UpdateExecutor exec = new UpdateExecutor(prepareConnection(), sb.toString(), true);
+        final UpdateExecutor exec = new UpdateExecutor(prepareConnection(), sb.toString(), true, null, stmtConfig);
 
         // bind all the id columns
         bindColumnValues(exec, idColumns, entity, Collections.<String>emptySet());
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Values worked out from the metadata of a <code>ResultSet</code>, so that
+ * converting each of its rows reads the metadata only once. Values are keyed
+ * by the identity of the <code>ResultSet</code> and an optional type, so
+ * entries for different result sets never replace each other. The result
+ * sets are held weakly, and the entries of collected result sets are removed
+ * as new ones are added. This class is thread safe.
+ *
+ * @param <V> the type of the cached values.
+ * @since 2.3
+ */
+final class ResultSetCache<V> {
+
+    private final ConcurrentMap<Object, V> values = new ConcurrentHashMap<Object, V>();
+    private final ReferenceQueue<ResultSet> collected = new ReferenceQueue<ResultSet>();
+
+    /**
+     * Gets the value for a <code>ResultSet</code> and type.
+     *
+     * @param rs the result set.
+     * @param type the type the value is for, or null.
+     * @return the value, or null if none was put.
+     */
+    V get(final ResultSet rs, final Object type) {
+        return values.get(new Lookup(rs, type));
+    }
+
+    /**
+     * Puts the value for a <code>ResultSet</code> and type.
+     *
+     * @param rs the result set.
+     * @param type the type the value is for, or null.
+     * @param value the value.
+     */
+    void put(final ResultSet rs, final Object type, final V value) {
+        Reference<? extends ResultSet> ref;
+
+        while ((ref = collected.poll()) != null) {
+            values.remove(ref);
+        }
+
+        values.put(new Entry(rs, type, collected), value);
+    }
+
+    /**
+     * Returns the number of entries, including those of result sets collected
+     * since the last put.
+     *
+     * @return the number of entries.
+     */
+    int size() {
+        return values.size();
+    }
+
+    private static int hash(final ResultSet rs, final Object type) {
+        return System.identityHashCode(rs) * 31 + (type == null ? 0 : type.hashCode());
+    }
+
+    private static boolean same(final Object type, final Object other) {
+        return type == null ? other == null : type.equals(other);
+    }
+
+    /**
+     * The key of a stored value, which does not keep its
+     * <code>ResultSet</code> from being collected.
+     */
+    private static final class Entry extends WeakReference<ResultSet> {
+        private final Object type;
+        private final int hash;
+
+        Entry(final ResultSet rs, final Object type, final ReferenceQueue<ResultSet> queue) {
+            super(rs, queue);
+            this.type = type;
+            this.hash = hash(rs, type);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj instanceof Lookup) {
+                return obj.equals(this);
+            }
+
+            if (!(obj instanceof Entry)) {
+                return false;
+            }
+
+            final Entry other = (Entry) obj;
+            final ResultSet rs = get();
+
+            // a collected entry only equals itself
+            return rs != null && rs == other.get() && same(type, other.type);
+        }
+    }
+
+    /**
+     * The key a value is looked up by.
+     */
+    private static final class Lookup {
+        private final ResultSet rs;
+        private final Object type;
+
+        Lookup(final ResultSet rs, final Object type) {
+            this.rs = rs;
+            this.type = type;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash(rs, type);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Entry)) {
+                return false;
+            }
+
+            final Entry other = (Entry) obj;
+
+            return rs == other.get() && same(type, other.type);
+        }
+    }
+
+}
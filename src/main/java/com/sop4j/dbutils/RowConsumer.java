@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.sql.SQLException;
+
+/**
+ * Receives the rows of a query one at a time, so they can be processed
+ * without being collected, and can stop the query early.
+ *
+ * @param <T> the type of object each row is mapped to.
+ * @see com.sop4j.dbutils.handlers.RowCallbackHandler
+ * @see QueryExecutor#forEach(Class, RowConsumer)
+ * @since 2.3
+ */
+public interface RowConsumer<T> {
+
+    /**
+     * Receives one row. The row isn't used afterwards, so it can be kept or
+     * dropped.
+     *
+     * @param row the object the row was mapped to.
+     * @return true to receive the next row, false to stop.
+     * @throws SQLException if a database access error occurs
+     */
+    boolean accept(T row) throws SQLException;
+
+}
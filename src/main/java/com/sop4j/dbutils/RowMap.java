@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The case insensitive <code>Map</code> returned by
+ * {@link BasicRowProcessor#toMap(java.sql.ResultSet)}: a row's values in an
+ * array, looked up through the {@link ColumnIndex} shared by every row of the
+ * <code>ResultSet</code>.
+ *
+ * <p>
+ * Values can be replaced in place. Adding or removing keys copies the row
+ * into a case insensitive <code>HashMap</code> that is used from then on, so
+ * a row map behaves like the maps returned before, and rows that are only
+ * read cost one array each.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @since 2.3
+ */
+final class RowMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = -4125369852731830591L;
+
+    /**
+     * The positions of the keys.
+     */
+    private final ColumnIndex index;
+
+    /**
+     * The value of each position.
+     */
+    private final Object[] values;
+
+    /**
+     * The copy of the row, once keys have been added or removed.
+     */
+    private Map<String, Object> copy;
+
+    /**
+     * Creates a new instance of RowMap.
+     *
+     * @param index the positions of the keys.
+     * @param values the value of each position, which is not copied.
+     */
+    RowMap(ColumnIndex index, Object[] values) {
+        this.index = index;
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return this.copy == null ? this.values.length : this.copy.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.copy == null ? this.index.indexOf(key) >= 0 : this.copy.containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (this.copy != null) {
+            return this.copy.get(key);
+        }
+        final int position = this.index.indexOf(key);
+
+        return position < 0 ? null : this.values[position];
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (this.copy == null) {
+            final int position = this.index.indexOf(key);
+
+            if (position >= 0 && this.index.key(position).equals(key)) {
+                final Object old = this.values[position];
+                this.values[position] = value;
+                return old;
+            }
+            this.copy();
+        }
+
+        return this.copy.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (this.copy == null) {
+            if (this.index.indexOf(key) < 0) {
+                return null;
+            }
+            this.copy();
+        }
+
+        return this.copy.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (this.copy == null) {
+            this.copy = new BasicRowProcessor.CaseInsensitiveHashMap();
+        } else {
+            this.copy.clear();
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (this.copy != null) {
+            return this.copy.entrySet();
+        }
+
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new Entries();
+            }
+
+            @Override
+            public int size() {
+                return RowMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Copies the row into a case insensitive <code>HashMap</code>, to add or remove keys.
+     */
+    private void copy() {
+        final Map<String, Object> map = new BasicRowProcessor.CaseInsensitiveHashMap();
+
+        for (int i = 0; i < this.values.length; i++) {
+            map.put(this.index.key(i), this.values[i]);
+        }
+        this.copy = map;
+    }
+
+    /**
+     * Iterates over the positions of a row that had not been copied when the
+     * iteration started. Removing an entry copies the row, and the rest of the
+     * iteration reads and writes the copy.
+     */
+    private final class Entries implements Iterator<Map.Entry<String, Object>> {
+
+        private int next;
+
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return this.next < RowMap.this.values.length;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final int position = this.next++;
+            final String key = RowMap.this.index.key(position);
+            this.last = position;
+
+            return new AbstractMap.SimpleEntry<String, Object>(key, RowMap.this.copy == null
+                                                                    ? RowMap.this.values[position]
+                                                                    : RowMap.this.copy.get(key)) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public Object setValue(Object value) {
+                    super.setValue(value);
+                    if (RowMap.this.copy != null) {
+                        return RowMap.this.copy.put(key, value);
+                    }
+                    final Object old = RowMap.this.values[position];
+                    RowMap.this.values[position] = value;
+                    return old;
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (this.last < 0) {
+                throw new IllegalStateException();
+            }
+            if (RowMap.this.copy == null) {
+                RowMap.this.copy();
+            }
+            RowMap.this.copy.remove(RowMap.this.index.key(this.last));
+            this.last = -1;
+        }
+    }
+
+}
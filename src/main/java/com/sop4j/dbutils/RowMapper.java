@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a <code>ResultSet</code> to an object. Mappers are
+ * specific to one bean class and one set of columns; the
+ * {@link CompiledBeanProcessor} composes them at runtime.
+ *
+ * @param <T> the type of object the row is mapped to.
+ * @since 2.3
+ */
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row. The <code>ResultSet</code> must be positioned on a
+     * valid row, and its position is not changed.
+     *
+     * @param rs the <code>ResultSet</code> to read the row from.
+     * @return the object for the row.
+     * @throws SQLException if a database access error occurs
+     */
+    T map(ResultSet rs) throws SQLException;
+
+}
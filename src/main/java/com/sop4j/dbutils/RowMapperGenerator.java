@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds a {@link RowMapper} for a {@link BeanMapping} by composing
+ * <code>MethodHandle</code>s. For each column, the handle of the typed
+ * <code>ResultSet</code> getter is bound to the column index and passed to
+ * the property's {@link PropertySetter} handle, and the columns are chained
+ * after the bean's constructor, so a row is mapped as if by:
+ *
+ * <pre>
+ * Bean bean = new Bean();
+ * long v = rs.getLong(3);
+ * bean.setId(rs.wasNull() ? null : Long.valueOf(v));
+ * </pre>
+ *
+ * <p>
+ * Only mappings where every property is a primitive, a primitive wrapper or a
+ * <code>String</code> set through a handle, and no column has a
+ * {@link ColumnConverter}, are composed; they read exactly as
+ * <code>BeanProcessor.processColumn</code> does.
+ * </p>
+ *
+ * @since 2.3
+ */
+final class RowMapperGenerator {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // (Object bean, ResultSet rs)void, the shape every column is adapted to
+    private static final MethodType COLUMN = MethodType.methodType(void.class, Object.class, ResultSet.class);
+
+    // (ResultSet rs, int index) reading each property type
+    private static final Map<Class<?>, MethodHandle> READERS = new HashMap<Class<?>, MethodHandle>();
+
+    static {
+        try {
+            addGetter(String.class, "getString");
+            addGetter(int.class, "getInt");
+            addGetter(long.class, "getLong");
+            addGetter(double.class, "getDouble");
+            addGetter(float.class, "getFloat");
+            addGetter(short.class, "getShort");
+            addGetter(byte.class, "getByte");
+            addGetter(boolean.class, "getBoolean");
+            addWrapper(Integer.class, "readInteger");
+            addWrapper(Long.class, "readLong");
+            addWrapper(Double.class, "readDouble");
+            addWrapper(Float.class, "readFloat");
+            addWrapper(Short.class, "readShort");
+            addWrapper(Byte.class, "readByte");
+            addWrapper(Boolean.class, "readBoolean");
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private RowMapperGenerator() {
+        // static methods only
+    }
+
+    private static void addGetter(final Class<?> type, final String getter) throws ReflectiveOperationException {
+        READERS.put(type, LOOKUP.findVirtual(ResultSet.class, getter, MethodType.methodType(type, int.class)));
+    }
+
+    private static void addWrapper(final Class<?> type, final String reader) throws ReflectiveOperationException {
+        READERS.put(type, LOOKUP.findStatic(RowMapperGenerator.class, reader,
+                                            MethodType.methodType(type, ResultSet.class, int.class)));
+    }
+
+    /**
+     * Builds a mapper for a mapping, if the bean class and every property can be mapped directly.
+     *
+     * @param type the bean class.
+     * @param mapping the mapping from columns to properties.
+     * @return the mapper, or null if the mapping is not eligible.
+     */
+    static <T> RowMapper<T> generate(final Class<T> type, final BeanMapping mapping) {
+        final int mods = type.getModifiers();
+
+        if (mapping.isConstructed() || mapping.isBuilt() || Modifier.isAbstract(mods) || type.isInterface()) {
+            return null;
+        }
+
+        // the columns are set right to left, so each can be folded in front of the ones after it
+        MethodHandle columns = MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, ResultSet.class);
+
+        for (int i = mapping.size() - 1; i >= 0; i--) {
+            final MethodHandle column = column(mapping, i);
+
+            if (column == null) {
+                return null;
+            }
+
+            columns = MethodHandles.foldArguments(columns, column);
+        }
+
+        try {
+            final MethodHandle ctor = LOOKUP.unreflectConstructor(type.getConstructor())
+                                            .asType(MethodType.methodType(Object.class));
+
+            return new HandleRowMapper<T>(type, MethodHandles.foldArguments(columns, ctor));
+        } catch (final NoSuchMethodException e) {
+            return null;
+        } catch (final IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Helper method to compose reading one column and setting it on the bean,
+     * as a handle of type (Object, ResultSet)void.
+     */
+    private static MethodHandle column(final BeanMapping mapping, final int i) {
+        final PropertySetter setter = mapping.getPropertySetter(i);
+        final MethodHandle handle = setter == null ? null : setter.handle();
+        final Class<?> propType = mapping.getPropertyType(i);
+        final MethodHandle reader = READERS.get(propType);
+
+        if (handle == null || reader == null || mapping.getConverter(i) != null
+            || handle.type().parameterCount() != 2 || handle.type().parameterType(1) != propType) {
+            return null;
+        }
+
+        final MethodHandle read = MethodHandles.insertArguments(reader, 1, Integer.valueOf(mapping.getColumnIndex(i)));
+
+        return MethodHandles.filterArguments(handle, 1, read).asType(COLUMN);
+    }
+
+    // the wrapper readers call wasNull, as BeanProcessor.processColumn does
+
+    private static Integer readInteger(final ResultSet rs, final int index) throws SQLException {
+        final int value = rs.getInt(index);
+
+        return rs.wasNull() ? null : Integer.valueOf(value);
+    }
+
+    private static Long readLong(final ResultSet rs, final int index) throws SQLException {
+        final long value = rs.getLong(index);
+
+        return rs.wasNull() ? null : Long.valueOf(value);
+    }
+
+    private static Double readDouble(final ResultSet rs, final int index) throws SQLException {
+        final double value = rs.getDouble(index);
+
+        return rs.wasNull() ? null : Double.valueOf(value);
+    }
+
+    private static Float readFloat(final ResultSet rs, final int index) throws SQLException {
+        final float value = rs.getFloat(index);
+
+        return rs.wasNull() ? null : Float.valueOf(value);
+    }
+
+    private static Short readShort(final ResultSet rs, final int index) throws SQLException {
+        final short value = rs.getShort(index);
+
+        return rs.wasNull() ? null : Short.valueOf(value);
+    }
+
+    private static Byte readByte(final ResultSet rs, final int index) throws SQLException {
+        final byte value = rs.getByte(index);
+
+        return rs.wasNull() ? null : Byte.valueOf(value);
+    }
+
+    private static Boolean readBoolean(final ResultSet rs, final int index) throws SQLException {
+        final boolean value = rs.getBoolean(index);
+
+        return rs.wasNull() ? null : Boolean.valueOf(value);
+    }
+
+    /**
+     * Maps rows by invoking the composed handle.
+     */
+    private static final class HandleRowMapper<T> implements RowMapper<T> {
+        private final Class<T> type;
+        private final MethodHandle handle;
+
+        HandleRowMapper(final Class<T> type, final MethodHandle handle) {
+            this.type = type;
+            this.handle = handle.asType(MethodType.methodType(Object.class, ResultSet.class));
+        }
+
+        @Override
+        public T map(final ResultSet rs) throws SQLException {
+            try {
+                return type.cast((Object) handle.invokeExact(rs));
+            } catch (final SQLException e) {
+                throw e;
+            } catch (final RuntimeException e) {
+                throw e;
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable t) {
+                // setters can throw checked exceptions
+                throw new SQLException("Cannot create " + type.getName() + ": " + t.getMessage(), t);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,555 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An immutable, parsed form of a SQL statement that uses named parameters.
+ * The template holds the SQL with all of the <code>:name</code> parameters
+ * replaced by <code>?</code>, and the JDBC positions of every parameter.
+ * Templates are shared between executors through the {@link SqlTemplateCache}.
+ * The parsed form is immutable; the parameter types and result metadata are
+ * read from the driver the first time they are asked for on each database,
+ * and then kept with the template for connections to the same database URL.
+ *
+ * @since 2.3
+ */
+final class SqlTemplate {
+
+    // the database URL of each connection, read once per connection
+    private static final Map<Connection, String> DATABASES = Collections.synchronizedMap(new WeakHashMap<Connection, String>());
+
+    /**
+     * The parameter type used when the driver cannot report a parameter's type.
+     */
+    static final int UNKNOWN_TYPE = Integer.MIN_VALUE;
+
+    private final String sql;
+    private final String jdbcSql;
+    private final ParameterSlot[] slots;
+    private final Map<String, ParameterSlot> slotsByName;
+    private final int parameterCount;
+    private final int[] markerOffsets;
+    private final int[] positionSlots;
+    private final ConcurrentMap<String, String> expandedSql = new ConcurrentHashMap<String, String>();
+    private final ConcurrentMap<String, int[]> parameterTypes = new ConcurrentHashMap<String, int[]>();
+    private final ConcurrentMap<String, CachedMetaData> metaData = new ConcurrentHashMap<String, CachedMetaData>();
+
+    private SqlTemplate(final String sql, final String jdbcSql, final Map<String, int[]> paramPositions, final int[] markerOffsets) {
+        this.sql = sql;
+        this.jdbcSql = jdbcSql;
+        this.slots = new ParameterSlot[paramPositions.size()];
+        this.slotsByName = new HashMap<String, ParameterSlot>();
+        this.parameterCount = markerOffsets.length;
+        this.markerOffsets = markerOffsets;
+        this.positionSlots = new int[markerOffsets.length];
+
+        // the slots are numbered in the order the parameters first appear
+        int index = 0;
+
+        for (Map.Entry<String, int[]> entry:paramPositions.entrySet()) {
+            final ParameterSlot slot = new ParameterSlot(sql, entry.getKey(), index, entry.getValue());
+
+            for (int p:slot.getPositions()) {
+                positionSlots[p - 1] = index;
+            }
+
+            slots[index++] = slot;
+            slotsByName.put(slot.getName(), slot);
+        }
+    }
+
+    /**
+     * Parses a SQL statement with named parameters into a template.
+     *
+     * <p>
+     * The statement is scanned once, copying it into the JDBC SQL and
+     * recording the position of every <code>:name</code> parameter. Text
+     * inside quoted strings and identifiers, <code>--</code> and
+     * <code>/* *&#47;</code> comments, and PostgreSQL dollar-quoted strings is
+     * copied as-is, and PostgreSQL <code>::type</code> casts are not treated as
+     * parameters.
+     * </p>
+     *
+     * @param sql the SQL statement to parse.
+     * @return the parsed template.
+     */
+    static SqlTemplate parse(final String sql) {
+        final int len = sql.length();
+        final StringBuilder jdbcSql = new StringBuilder(len);
+        final Map<String, int[]> paramPositions = new LinkedHashMap<String, int[]>();
+        int[] markerOffsets = new int[8];
+        int position = 0;
+        int copied = 0;
+        int i = 0;
+
+        while (i < len) {
+            final char c = sql.charAt(i);
+
+            switch (c) {
+            case '\'':
+                i = skipQuoted(sql, i, '\'', isEscapeString(sql, i));
+                break;
+
+            case '"':
+            case '`':
+                i = skipQuoted(sql, i, c, false);
+                break;
+
+            case '-':
+                i = (i + 1 < len && sql.charAt(i + 1) == '-') ? skipLineComment(sql, i) : i + 1;
+                break;
+
+            case '/':
+                i = (i + 1 < len && sql.charAt(i + 1) == '*') ? skipBlockComment(sql, i) : i + 1;
+                break;
+
+            case '$':
+                i = skipDollarQuoted(sql, i);
+                break;
+
+            case ':':
+                // a :: cast, not a parameter
+                if (i + 1 < len && sql.charAt(i + 1) == ':') {
+                    i += 2;
+                    break;
+                }
+
+                int end = i + 1;
+
+                while (end < len && isParamChar(sql.charAt(end))) {
+                    end++;
+                }
+
+                // a lone colon
+                if (end == i + 1) {
+                    i++;
+                    break;
+                }
+
+                // copy everything up to the parameter, then replace it with ?
+                jdbcSql.append(sql, copied, i).append('?');
+                addPosition(paramPositions, sql.substring(i + 1, end), ++position);
+
+                if (position > markerOffsets.length) {
+                    markerOffsets = Arrays.copyOf(markerOffsets, markerOffsets.length * 2);
+                }
+
+                markerOffsets[position - 1] = jdbcSql.length() - 1;
+                copied = i = end;
+                break;
+
+            default:
+                i++;
+            }
+        }
+
+        jdbcSql.append(sql, copied, len);
+
+        return new SqlTemplate(sql, jdbcSql.toString(), paramPositions, Arrays.copyOf(markerOffsets, position));
+    }
+
+    /**
+     * Helper method to append a position to the positions for a parameter.
+     */
+    private static void addPosition(final Map<String, int[]> paramPositions, final String name, final int position) {
+        final int[] pos = paramPositions.get(name);
+
+        if (pos == null) {
+            paramPositions.put(name, new int[] { position });
+        } else {
+            final int[] newPos = Arrays.copyOf(pos, pos.length + 1);
+
+            newPos[pos.length] = position;
+            paramPositions.put(name, newPos);
+        }
+    }
+
+    /**
+     * Returns true if the character can be part of a parameter name; the same characters as <code>\w</code>.
+     */
+    private static boolean isParamChar(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * Returns true if the character can be part of an unquoted identifier.
+     */
+    private static boolean isIdentifierChar(final char c) {
+        return isParamChar(c) || c == '$' || Character.isLetter(c);
+    }
+
+    /**
+     * Returns true if the quote at <code>start</code> opens a PostgreSQL <code>E'...'</code>
+     * string, where backslash escapes the next character.
+     */
+    private static boolean isEscapeString(final String sql, final int start) {
+        if (start == 0) {
+            return false;
+        }
+
+        final char prefix = sql.charAt(start - 1);
+
+        return (prefix == 'E' || prefix == 'e') && (start == 1 || !isIdentifierChar(sql.charAt(start - 2)));
+    }
+
+    /**
+     * Skips a quoted string or identifier, where a doubled quote is an escaped quote.
+     *
+     * @return the index after the closing quote, or the length of the SQL if it is not closed.
+     */
+    private static int skipQuoted(final String sql, final int start, final char quote, final boolean backslashEscapes) {
+        final int len = sql.length();
+        int i = start + 1;
+
+        while (i < len) {
+            final char c = sql.charAt(i);
+
+            if (backslashEscapes && c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                // a doubled quote is part of the string
+                if (i + 1 < len && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+
+        return len;
+    }
+
+    /**
+     * Skips a <code>--</code> comment.
+     *
+     * @return the index of the line break ending the comment, or the length of the SQL.
+     */
+    private static int skipLineComment(final String sql, final int start) {
+        final int len = sql.length();
+        int i = start + 2;
+
+        while (i < len && sql.charAt(i) != '\n' && sql.charAt(i) != '\r') {
+            i++;
+        }
+
+        return i;
+    }
+
+    /**
+     * Skips a <code>/* *&#47;</code> comment. Comments nest, as in the SQL standard and PostgreSQL.
+     *
+     * @return the index after the end of the comment, or the length of the SQL if it is not closed.
+     */
+    private static int skipBlockComment(final String sql, final int start) {
+        final int len = sql.length();
+        int depth = 1;
+        int i = start + 2;
+
+        while (i < len) {
+            final char c = sql.charAt(i);
+
+            if (c == '*' && i + 1 < len && sql.charAt(i + 1) == '/') {
+                i += 2;
+
+                if (--depth == 0) {
+                    return i;
+                }
+            } else if (c == '/' && i + 1 < len && sql.charAt(i + 1) == '*') {
+                i += 2;
+                depth++;
+            } else {
+                i++;
+            }
+        }
+
+        return len;
+    }
+
+    /**
+     * Skips a PostgreSQL dollar-quoted string such as <code>$$...$$</code> or <code>$body$...$body$</code>.
+     * A <code>$</code> that does not start a dollar quote, such as a <code>$1</code> parameter or
+     * a <code>$</code> inside an identifier, is skipped on its own.
+     *
+     * @return the index after the closing tag, or the length of the SQL if it is not closed.
+     */
+    private static int skipDollarQuoted(final String sql, final int start) {
+        final int len = sql.length();
+
+        // a $ in the middle of an identifier
+        if (start > 0 && isIdentifierChar(sql.charAt(start - 1))) {
+            return start + 1;
+        }
+
+        int tagEnd = start + 1;
+
+        // tags follow identifier rules, so cannot start with a digit
+        if (tagEnd < len && !Character.isDigit(sql.charAt(tagEnd))) {
+            while (tagEnd < len && isParamChar(sql.charAt(tagEnd))) {
+                tagEnd++;
+            }
+        }
+
+        if (tagEnd >= len || sql.charAt(tagEnd) != '$') {
+            return start + 1;
+        }
+
+        final String tag = sql.substring(start, tagEnd + 1);
+        final int close = sql.indexOf(tag, tagEnd + 1);
+
+        return close < 0 ? len : close + tag.length();
+    }
+
+    /**
+     * Gets the original SQL statement, with named parameters.
+     *
+     * @return the original SQL statement.
+     */
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Gets the SQL statement with all named parameters replaced by <code>?</code>.
+     *
+     * @return the SQL statement to prepare.
+     */
+    String getJdbcSql() {
+        return jdbcSql;
+    }
+
+    /**
+     * Gets the JDBC positions of a named parameter.
+     * The returned array must not be modified.
+     *
+     * @param name the name of the parameter, without the colon.
+     * @return the 1-based positions of the parameter, or null if it is not in the statement.
+     */
+    int[] getPositions(final String name) {
+        final ParameterSlot slot = slotsByName.get(name);
+
+        return slot == null ? null : slot.getPositions();
+    }
+
+    /**
+     * Gets the slot for a named parameter.
+     *
+     * @param name the name of the parameter, without the colon.
+     * @return the slot for the parameter, or null if it is not in the statement.
+     */
+    ParameterSlot getSlot(final String name) {
+        return slotsByName.get(name);
+    }
+
+    /**
+     * Gets the slot at a given index.
+     *
+     * @param index the 0-based index of the slot.
+     * @return the slot at the index.
+     */
+    ParameterSlot getSlot(final int index) {
+        return slots[index];
+    }
+
+    /**
+     * Gets the number of distinct named parameters.
+     *
+     * @return the number of distinct named parameters.
+     */
+    int getParamCount() {
+        return slots.length;
+    }
+
+    /**
+     * Gets the total number of <code>?</code> placeholders in the JDBC statement.
+     *
+     * @return the number of JDBC parameters.
+     */
+    int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Gets the index of the slot bound to a JDBC position.
+     *
+     * @param position the 1-based JDBC position.
+     * @return the 0-based index of the slot.
+     */
+    int getSlotIndex(final int position) {
+        return positionSlots[position - 1];
+    }
+
+    /**
+     * Gets the JDBC SQL with the <code>?</code> of some slots repeated, so a
+     * list of values can be bound to them. The expanded statements are kept
+     * with the template, so callers should keep the number of distinct widths small.
+     *
+     * @param widths the number of <code>?</code> for each slot, indexed by slot index.
+     * @return the SQL statement to prepare.
+     */
+    String getExpandedSql(final int[] widths) {
+        final String key = Arrays.toString(widths);
+        String ret = expandedSql.get(key);
+
+        if (ret == null) {
+            ret = expandSql(widths);
+            expandedSql.putIfAbsent(key, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Helper method to build the JDBC SQL with the <code>?</code> of each slot repeated.
+     */
+    private String expandSql(final int[] widths) {
+        final StringBuilder sb = new StringBuilder(jdbcSql.length() + 2 * parameterCount);
+        int copied = 0;
+
+        for (int i = 0; i < parameterCount; i++) {
+            final int offset = markerOffsets[i];
+
+            sb.append(jdbcSql, copied, offset).append('?');
+
+            for (int w = widths[positionSlots[i]]; w > 1; w--) {
+                sb.append(", ?");
+            }
+
+            copied = offset + 1;
+        }
+
+        return sb.append(jdbcSql, copied, jdbcSql.length()).toString();
+    }
+
+    /**
+     * Wraps a <code>ResultSet</code> of this template's query so its column
+     * count, labels, names and types are answered from a cache, reading them
+     * from the first <code>ResultSet</code> wrapped for the connection's
+     * database.
+     *
+     * @param conn the connection the statement was prepared on.
+     * @param rs a <code>ResultSet</code> of a statement prepared from this template.
+     * @return the wrapped <code>ResultSet</code>.
+     * @throws SQLException if a database access error occurs
+     */
+    ResultSet cacheMetaData(final Connection conn, final ResultSet rs) throws SQLException {
+        final String database = database(conn);
+        CachedMetaData cached = metaData.get(database);
+
+        // two threads can race to read the metadata, but they get the same columns
+        if (cached == null) {
+            cached = CachedMetaData.of(rs.getMetaData());
+            metaData.put(database, cached);
+        }
+
+        return cached.wrap(rs);
+    }
+
+    /**
+     * Gets the SQL types of the JDBC parameters, reading them from the
+     * statement's <code>ParameterMetaData</code> the first time for the
+     * connection's database. Types the driver cannot report are
+     * {@link #UNKNOWN_TYPE}.
+     *
+     * @param conn the connection the statement was prepared on.
+     * @param stmt a statement prepared from this template.
+     * @return the SQL type of each JDBC parameter, indexed by position - 1.
+     */
+    int[] getParameterTypes(final Connection conn, final PreparedStatement stmt) {
+        final String database;
+
+        try {
+            database = database(conn);
+        } catch (final SQLException e) {
+            // without knowing the database, the types can't be shared
+            return readParameterTypes(stmt);
+        }
+
+        int[] types = parameterTypes.get(database);
+
+        // two threads can race to read the metadata, but they get the same types
+        if (types == null) {
+            types = readParameterTypes(stmt);
+            parameterTypes.put(database, types);
+        }
+
+        return types;
+    }
+
+    /**
+     * Identifies the database of a connection by its URL, so metadata read on
+     * one database is not used on another. The URL is read the first time a
+     * connection is seen, and then kept for as long as the connection is
+     * reachable. Connections to the same URL are assumed to see the same
+     * tables.
+     *
+     * @param conn the connection.
+     * @return the connection's database.
+     * @throws SQLException if a database access error occurs
+     */
+    static String database(final Connection conn) throws SQLException {
+        String database = DATABASES.get(conn);
+
+        if (database == null) {
+            final DatabaseMetaData dbmd = conn.getMetaData();
+
+            database = String.valueOf(dbmd == null ? null : dbmd.getURL());
+            DATABASES.put(conn, database);
+        }
+
+        return database;
+    }
+
+    /**
+     * Helper method to read the parameter types from the statement.
+     */
+    private int[] readParameterTypes(final PreparedStatement stmt) {
+        final int[] types = new int[parameterCount];
+
+        Arrays.fill(types, UNKNOWN_TYPE);
+
+        try {
+            final ParameterMetaData pmd = stmt.getParameterMetaData();
+
+            for (int i = 0; i < types.length; i++) {
+                types[i] = pmd.getParameterType(i + 1);
+            }
+        } catch (final SQLException e) {
+            // the driver doesn't support parameter metadata, so leave the rest unknown
+        } catch (final RuntimeException e) {
+            // some drivers throw UnsupportedOperationException instead
+        }
+
+        return types;
+    }
+
+}
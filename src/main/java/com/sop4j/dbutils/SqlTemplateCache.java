@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of parsed SQL templates, keyed by the SQL text. Every
+ * executor created by a {@link QueryRunner} looks its SQL up in this cache so
+ * that named parameters are only parsed once per distinct statement. This
+ * class is thread safe.
+ *
+ * @since 2.3
+ */
+public final class SqlTemplateCache {
+
+    /**
+     * The default maximum number of templates held by the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * The Singleton instance of this class.
+     */
+    private static final SqlTemplateCache instance = new SqlTemplateCache(DEFAULT_MAX_SIZE);
+
+    private final ConcurrentMap<String, SqlTemplate> templates = new ConcurrentHashMap<String, SqlTemplate>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile int maxSize;
+
+    /**
+     * Returns the Singleton instance of this class, used by all executors.
+     *
+     * @return singleton instance
+     */
+    public static SqlTemplateCache instance() {
+        return instance;
+    }
+
+    private SqlTemplateCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the parsed template for a SQL statement, parsing it on a miss.
+     *
+     * @param sql the SQL statement.
+     * @return the parsed template.
+     */
+    SqlTemplate get(final String sql) {
+        final SqlTemplate template = templates.get(sql);
+
+        if (template != null) {
+            hits.incrementAndGet();
+            return template;
+        }
+
+        misses.incrementAndGet();
+
+        final SqlTemplate parsed = SqlTemplate.parse(sql);
+
+        // two threads can race to parse the same SQL, but the templates are equivalent
+        final SqlTemplate existing = templates.putIfAbsent(sql, parsed);
+
+        if (existing == null) {
+            evictIfNeeded();
+            return parsed;
+        }
+
+        return existing;
+    }
+
+    /**
+     * Removes entries until the cache is back under its maximum size. The
+     * entries removed are arbitrary; the statements an application runs most
+     * often will simply be parsed again on their next use.
+     */
+    private void evictIfNeeded() {
+        final Iterator<String> it = templates.keySet().iterator();
+
+        while (templates.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found a parsed template.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups that had to parse the SQL statement.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of templates currently in the cache.
+     *
+     * @return the number of cached templates.
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Returns the maximum number of templates held by the cache.
+     *
+     * @return the maximum size of the cache.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum number of templates held by the cache. A size of zero
+     * disables caching.
+     *
+     * @param maxSize the maximum size of the cache.
+     */
+    public void setMaxSize(final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize cannot be negative: " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        evictIfNeeded();
+    }
+
+    /**
+     * Removes all of the templates and resets the hit and miss counters.
+     */
+    public void clear() {
+        templates.clear();
+        hits.set(0);
+        misses.set(0);
+    }
+
+}
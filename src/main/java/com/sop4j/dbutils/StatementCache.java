@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A per-connection cache of prepared statements, keyed by the JDBC SQL. Executors
+ * borrow a statement from the cache instead of preparing a new one, and return it
+ * instead of closing it. Each connection holds at most a fixed number of
+ * statements; the least recently used statement is closed to make room.
+ *
+ * <p>
+ * Connections are held strongly, with their statements, until
+ * {@link #evict(Connection)} is called for them. Only a statement that is
+ * borrowed is checked, and if it was closed with its connection, the
+ * connection's statements are dropped. A pool that hands out a new proxy for
+ * each checkout gives every checkout its own statements, so they must be
+ * evicted before the connection is returned to the pool. This class is thread
+ * safe.
+ * </p>
+ *
+ * @since 2.3
+ */
+final class StatementCache {
+
+    private final int maxPerConnection;
+    private final Map<Connection, LinkedHashMap<Key, PreparedStatement>> statements =
+            new IdentityHashMap<Connection, LinkedHashMap<Key, PreparedStatement>>();
+
+    /**
+     * Constructs a StatementCache.
+     *
+     * @param maxPerConnection the maximum number of statements cached for each connection.
+     */
+    StatementCache(final int maxPerConnection) {
+        if (maxPerConnection <= 0) {
+            throw new IllegalArgumentException("The statement cache size must be positive: " + maxPerConnection);
+        }
+
+        this.maxPerConnection = maxPerConnection;
+    }
+
+    /**
+     * Borrows a statement from the cache, preparing a new one if none is cached.
+     *
+     * @param conn the connection the statement is for.
+     * @param sql the JDBC SQL of the statement.
+     * @param autoGeneratedKeys a flag indicating whether auto-generated keys should be returned.
+     * @return a prepared statement, which must be given back with {@link #release}.
+     * @throws SQLException if a database access error occurs
+     */
+    PreparedStatement borrow(final Connection conn, final String sql, final int autoGeneratedKeys) throws SQLException {
+        final Key key = new Key(sql, autoGeneratedKeys);
+        PreparedStatement stmt = null;
+
+        synchronized (this) {
+            final Map<Key, PreparedStatement> connStatements = statements.get(conn);
+
+            // remove it, so no one else uses it until it is released
+            if (connStatements != null) {
+                stmt = connStatements.remove(key);
+            }
+        }
+
+        if (stmt != null) {
+            if (!stmt.isClosed()) {
+                return stmt;
+            }
+
+            // the connection was closed out from under us
+            evict(conn);
+        }
+
+        return conn.prepareStatement(sql, autoGeneratedKeys);
+    }
+
+    /**
+     * Returns a borrowed statement to the cache.
+     *
+     * @param conn the connection the statement is for.
+     * @param sql the JDBC SQL of the statement.
+     * @param autoGeneratedKeys a flag indicating whether auto-generated keys should be returned.
+     * @param stmt the statement to return.
+     * @throws SQLException if a database access error occurs closing an evicted statement.
+     */
+    void release(final Connection conn, final String sql, final int autoGeneratedKeys, final PreparedStatement stmt) throws SQLException {
+        final List<PreparedStatement> evicted = new ArrayList<PreparedStatement>(1);
+
+        synchronized (this) {
+            LinkedHashMap<Key, PreparedStatement> connStatements = statements.get(conn);
+
+            if (connStatements == null) {
+                connStatements = new LinkedHashMap<Key, PreparedStatement>();
+                statements.put(conn, connStatements);
+            }
+
+            // the same SQL was borrowed twice, so keep only the latest
+            final PreparedStatement previous = connStatements.put(new Key(sql, autoGeneratedKeys), stmt);
+
+            if (previous != null) {
+                evicted.add(previous);
+            }
+
+            // statements are removed while borrowed, so the eldest is the least recently used
+            final Iterator<PreparedStatement> it = connStatements.values().iterator();
+
+            while (connStatements.size() > maxPerConnection) {
+                evicted.add(it.next());
+                it.remove();
+            }
+        }
+
+        closeAll(evicted);
+    }
+
+    /**
+     * Removes and closes all of the cached statements for a connection.
+     *
+     * @param conn the connection to evict statements for.
+     * @throws SQLException if a database access error occurs closing a statement.
+     */
+    void evict(final Connection conn) throws SQLException {
+        final Map<Key, PreparedStatement> connStatements;
+
+        synchronized (this) {
+            connStatements = statements.remove(conn);
+        }
+
+        if (connStatements != null) {
+            closeAll(connStatements.values());
+        }
+    }
+
+    /**
+     * Returns the number of statements cached for a connection.
+     *
+     * @param conn the connection.
+     * @return the number of cached statements.
+     */
+    synchronized int size(final Connection conn) {
+        final Map<Key, PreparedStatement> connStatements = statements.get(conn);
+
+        return connStatements == null ? 0 : connStatements.size();
+    }
+
+    /**
+     * Helper method to close statements, closing them all even if one throws.
+     */
+    private static void closeAll(final Iterable<PreparedStatement> stmts) throws SQLException {
+        SQLException first = null;
+
+        for (PreparedStatement stmt:stmts) {
+            try {
+                stmt.close();
+            } catch (final SQLException e) {
+                if (first == null) {
+                    first = e;
+                }
+            }
+        }
+
+        if (first != null) {
+            throw first;
+        }
+    }
+
+    /**
+     * The cache key: the SQL, and whether it returns generated keys.
+     */
+    private static final class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        Key(final String sql, final int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public int hashCode() {
+            return sql.hashCode() * 31 + autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+/**
+ * Configuration options for the statements created by a {@link QueryRunner}.
+ * Every executor the runner creates starts with these settings, and can
+ * override them with its fluent setters, such as
+ * {@link AbstractExecutor#fetchSize(int)}. Options that are null are left at
+ * the driver's defaults.
+ *
+ * <p>
+ * Some drivers, such as MySQL and PostgreSQL, read the whole result into
+ * memory unless a fetch size is set; PostgreSQL also needs auto-commit turned
+ * off, and MySQL needs a fetch size of <code>Integer.MIN_VALUE</code> to
+ * stream rows.
+ * </p>
+ *
+ * <pre>
+ * StatementConfiguration config = new StatementConfiguration.Builder()
+ *     .fetchSize(500)
+ *     .queryTimeout(30)
+ *     .build();
+ * QueryRunner runner = new QueryRunner(dataSource, config);
+ * </pre>
+ *
+ * @since 2.3
+ */
+public final class StatementConfiguration {
+
+    private final Integer fetchDirection;
+    private final Integer fetchSize;
+    private final Integer maxFieldSize;
+    private final Integer maxRows;
+    private final Integer queryTimeout;
+    private final Integer resultSetType;
+    private final Integer resultSetConcurrency;
+
+    /**
+     * Constructs a StatementConfiguration with the given options.
+     *
+     * @param fetchDirection The direction for fetching rows from database tables.
+     * @param fetchSize The number of rows that should be fetched from the database when more rows are needed.
+     * @param maxFieldSize The maximum number of bytes that can be returned for character and binary column values.
+     * @param maxRows The maximum number of rows that a <code>ResultSet</code> can produce.
+     * @param queryTimeout The number of seconds the driver will wait for execution.
+     * @param resultSetType The <code>ResultSet</code> type, such as <code>ResultSet.TYPE_FORWARD_ONLY</code>.
+     * @param resultSetConcurrency The <code>ResultSet</code> concurrency, such as <code>ResultSet.CONCUR_READ_ONLY</code>.
+     */
+    public StatementConfiguration(Integer fetchDirection, Integer fetchSize, Integer maxFieldSize, Integer maxRows,
+                                  Integer queryTimeout, Integer resultSetType, Integer resultSetConcurrency) {
+        if ((resultSetType == null) != (resultSetConcurrency == null)) {
+            throw new IllegalArgumentException("The ResultSet type and concurrency must be set together");
+        }
+
+        this.fetchDirection = fetchDirection;
+        this.fetchSize = fetchSize;
+        this.maxFieldSize = maxFieldSize;
+        this.maxRows = maxRows;
+        this.queryTimeout = queryTimeout;
+        this.resultSetType = resultSetType;
+        this.resultSetConcurrency = resultSetConcurrency;
+    }
+
+    /**
+     * Get the fetch direction.
+     *
+     * @return The direction to fetch or null if not set.
+     */
+    public Integer getFetchDirection() {
+        return fetchDirection;
+    }
+
+    /**
+     * Get the fetch size.
+     *
+     * @return The fetch size or null if not set.
+     */
+    public Integer getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Get the max field size.
+     *
+     * @return The max field size or null if not set.
+     */
+    public Integer getMaxFieldSize() {
+        return maxFieldSize;
+    }
+
+    /**
+     * Get the max rows.
+     *
+     * @return The max rows or null if not set.
+     */
+    public Integer getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Get the query timeout.
+     *
+     * @return The query timeout in seconds or null if not set.
+     */
+    public Integer getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    /**
+     * Get the <code>ResultSet</code> type. It only applies to statements that
+     * do not return generated keys, as JDBC cannot prepare a statement with both.
+     *
+     * @return The <code>ResultSet</code> type or null if not set.
+     */
+    public Integer getResultSetType() {
+        return resultSetType;
+    }
+
+    /**
+     * Get the <code>ResultSet</code> concurrency.
+     *
+     * @return The <code>ResultSet</code> concurrency or null if not set.
+     * @see #getResultSetType()
+     */
+    public Integer getResultSetConcurrency() {
+        return resultSetConcurrency;
+    }
+
+    /**
+     * Builder class for <code>StatementConfiguration</code> for more flexible construction.
+     */
+    public static final class Builder {
+        private Integer fetchDirection;
+        private Integer fetchSize;
+        private Integer maxFieldSize;
+        private Integer maxRows;
+        private Integer queryTimeout;
+        private Integer resultSetType;
+        private Integer resultSetConcurrency;
+
+        /**
+         * @param fetchDirection The direction for fetching rows from database tables.
+         * @return This builder for chaining.
+         * @see StatementConfiguration#getFetchDirection()
+         */
+        public Builder fetchDirection(final int fetchDirection) {
+            this.fetchDirection = Integer.valueOf(fetchDirection);
+            return this;
+        }
+
+        /**
+         * @param fetchSize The number of rows that should be fetched from the database when more rows are needed.
+         * @return This builder for chaining.
+         * @see StatementConfiguration#getFetchSize()
+         */
+        public Builder fetchSize(final int fetchSize) {
+            this.fetchSize = Integer.valueOf(fetchSize);
+            return this;
+        }
+
+        /**
+         * @param maxFieldSize The maximum number of bytes that can be returned for character and binary column values.
+         * @return This builder for chaining.
+         * @see StatementConfiguration#getMaxFieldSize()
+         */
+        public Builder maxFieldSize(final int maxFieldSize) {
+            this.maxFieldSize = Integer.valueOf(maxFieldSize);
+            return this;
+        }
+
+        /**
+         * @param maxRows The maximum number of rows that a <code>ResultSet</code> can produce.
+         * @return This builder for chaining.
+         * @see StatementConfiguration#getMaxRows()
+         */
+        public Builder maxRows(final int maxRows) {
+            this.maxRows = Integer.valueOf(maxRows);
+            return this;
+        }
+
+        /**
+         * @param queryTimeout The number of seconds the driver will wait for execution.
+         * @return This builder for chaining.
+         * @see StatementConfiguration#getQueryTimeout()
+         */
+        public Builder queryTimeout(final int queryTimeout) {
+            this.queryTimeout = Integer.valueOf(queryTimeout);
+            return this;
+        }
+
+        /**
+         * @param resultSetType The <code>ResultSet</code> type.
+         * @param resultSetConcurrency The <code>ResultSet</code> concurrency.
+         * @return This builder for chaining.
+         * @see StatementConfiguration#getResultSetType()
+         */
+        public Builder resultSet(final int resultSetType, final int resultSetConcurrency) {
+            this.resultSetType = Integer.valueOf(resultSetType);
+            this.resultSetConcurrency = Integer.valueOf(resultSetConcurrency);
+            return this;
+        }
+
+        /**
+         * @return A new and configured {@link StatementConfiguration}.
+         */
+        public StatementConfiguration build() {
+            return new StatementConfiguration(fetchDirection, fetchSize, maxFieldSize, maxRows, queryTimeout,
+                                              resultSetType, resultSetConcurrency);
+        }
+    }
+
+}
@@ -17,13 +17,21 @@ package com.sop4j.dbutils;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
  * Fluent class for executing updates.
  *
+ * <p>
+ * Executors created with {@link QueryRunner#prepareUpdate(Connection, String)}
+ * are reusable: the statement stays open after {@link #execute()}, and all of
+ * the parameters must be bound again before the next execution. Reusable
+ * executors must be closed with {@link #close()}.
+ * </p>
+ *
  * @since 2.0
  */
-public class UpdateExecutor extends AbstractExecutor<UpdateExecutor> {
+public class UpdateExecutor extends AbstractExecutor<UpdateExecutor> implements AutoCloseable {
 
     private final boolean closeConn;
 
@@ -36,7 +44,22 @@ public class UpdateExecutor extends AbstractExecutor<UpdateExecutor> {
      * @throws SQLException thrown if there is an error during execution.
      */
     UpdateExecutor(final Connection conn, final String sql, final boolean closeConnection) throws SQLException {
-        super(conn, sql);
+        this(conn, sql, closeConnection, null, null);
+    }
+
+    /**
+     * Constructs an UpdateExecutor that borrows its statement from a cache, and configures it.
+     *
+     * @param conn The connection to use during execution.
+     * @param sql The SQL statement.
+     * @param closeConnection If the connection should be closed or not.
+     * @param statementCache The cache to borrow the statement from, or null.
+     * @param config The statement settings, or null.
+     * @throws SQLException thrown if there is an error during execution.
+     */
+    UpdateExecutor(final Connection conn, final String sql, final boolean closeConnection,
+          final StatementCache statementCache, final StatementConfiguration config) throws SQLException {
+        super(conn, sql, Statement.NO_GENERATED_KEYS, statementCache, config);
         this.closeConn = closeConnection;
     }
 
@@ -51,14 +74,19 @@ public class UpdateExecutor extends AbstractExecutor<UpdateExecutor> {
         this.throwIfUnmappedParams();
 
         try {
-            return getStatement().executeUpdate();
+            return executeUpdate();
         } catch (SQLException e) {
             this.rethrow(e);
 
         } finally {
-            close(getStatement());
-            if (closeConn) {
-                close(getConnection());
+            if (isReusable()) {
+                // keep the statement for the next execution
+                clearBindings();
+            } else {
+                close(getStatement());
+                if (closeConn) {
+                    close(getConnection());
+                }
             }
         }
 
@@ -66,4 +94,22 @@ public class UpdateExecutor extends AbstractExecutor<UpdateExecutor> {
         return 0;
     }
 
+    /**
+     * Closes the statement, and the connection if it should be closed. This
+     * only needs to be called for reusable executors; other executors are
+     * closed when they are executed.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            close(getStatement());
+        } finally {
+            if (closeConn) {
+                close(getConnection());
+            }
+        }
+    }
+
 }
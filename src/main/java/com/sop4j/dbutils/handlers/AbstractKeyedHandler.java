@@ -16,7 +16,9 @@
 package com.sop4j.dbutils.handlers;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,6 +30,14 @@ import com.sop4j.dbutils.ResultSetHandler;
  * <code>ResultSet</code> rows are converted into objects (Vs) which are then stored
  * in a Map under the given keys (Ks).
  * </p>
+ * <p>
+ * {@link KeyedHandler} and {@link BeanMapHandler} created with an expected
+ * size store the rows in a {@link LongHashMap} instead of a
+ * <code>HashMap</code> when the key column is a <code>BIGINT</code> whose
+ * values are <code>Long</code>s, and the subclass doesn't override
+ * <code>createKey</code> or <code>createMap</code>. The keys are then read
+ * with <code>getLong</code> and not boxed.
+ * </p>
  *
  * @param <K> the type of keys maintained by the returned map
  * @param <V> the type of mapped values
@@ -36,6 +46,32 @@ import com.sop4j.dbutils.ResultSetHandler;
  */
 public abstract class AbstractKeyedHandler<K, V> implements ResultSetHandler<Map<K, V>> {
 
+    /**
+     * The number of rows expected, or 0 if unknown.
+     */
+    private final int expectedSize;
+
+    /**
+     * Creates a new instance of AbstractKeyedHandler.
+     */
+    protected AbstractKeyedHandler() {
+        this(0);
+    }
+
+    /**
+     * Creates a new instance of AbstractKeyedHandler that expects a number of rows.
+     *
+     * @param expectedSize the number of rows expected, which a map of <code>long</code> keys is
+     * sized for, or 0 if unknown.
+     * @since 2.3
+     */
+    protected AbstractKeyedHandler(int expectedSize) {
+        super();
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize cannot be negative");
+        }
+        this.expectedSize = expectedSize;
+    }
 
     /**
      * Convert each row's columns into a Map and store then
@@ -48,6 +84,11 @@ public abstract class AbstractKeyedHandler<K, V> implements ResultSetHandler<Map
      */
     @Override
     public Map<K, V> handle(ResultSet rs) throws SQLException {
+        final int longKeyColumn = this.expectedSize > 0 ? this.longKeyColumn(rs) : 0;
+        if (longKeyColumn > 0) {
+            return this.handleLongKeys(rs, longKeyColumn);
+        }
+
         Map<K, V> result = createMap();
         while (rs.next()) {
             result.put(createKey(rs), createRow(rs));
@@ -55,6 +96,83 @@ public abstract class AbstractKeyedHandler<K, V> implements ResultSetHandler<Map
         return result;
     }
 
+    /**
+     * Stores the rows in a <code>LongHashMap</code> under the <code>long</code> value of the key column,
+     * without boxing the keys.
+     */
+    private Map<K, V> handleLongKeys(ResultSet rs, int keyColumn) throws SQLException {
+        final LongHashMap<V> result = new LongHashMap<V>(this.expectedSize);
+
+        while (rs.next()) {
+            final long key = rs.getLong(keyColumn);
+
+            if (key == 0 && rs.wasNull()) {
+                result.put((Long) null, createRow(rs));
+            } else {
+                result.put(key, createRow(rs));
+            }
+        }
+
+        // the driver reports that getObject returns Longs for the key column
+        @SuppressWarnings("unchecked")
+        final Map<K, V> map = (Map<K, V>) result;
+
+        return map;
+    }
+
+    /**
+     * Gets the key column if the keys can be stored as <code>long</code>s:
+     * when it is a <code>BIGINT</code> for which the driver reports that
+     * <code>getObject</code> returns a <code>Long</code> (unsigned
+     * <code>BIGINT</code>s can be <code>BigInteger</code>s), and the subclass
+     * reads keys and creates the map as the given base class does.
+     *
+     * @param rs the <code>ResultSet</code> to handle.
+     * @param base the handler class whose <code>createKey</code> reads the column.
+     * @param columnIndex the key column's index, if there is no name.
+     * @param columnName the key column's name, or null.
+     * @return the key column's index, or 0 to store keys with <code>createKey</code>.
+     * @throws SQLException if a database access error occurs
+     */
+    int bigintKeyColumn(ResultSet rs, Class<?> base, int columnIndex, String columnName) throws SQLException {
+        if (overrides(getClass(), base, "createKey", ResultSet.class) || overrides(getClass(), base, "createMap")) {
+            return 0;
+        }
+        final int col = columnName == null ? columnIndex : rs.findColumn(columnName);
+        final ResultSetMetaData rsmd = rs.getMetaData();
+
+        return rsmd.getColumnType(col) == Types.BIGINT && Long.class.getName().equals(rsmd.getColumnClassName(col))
+               ? col : 0;
+    }
+
+    /**
+     * Gets the key column if the keys can be stored as <code>long</code>s.
+     * This implementation returns 0, so keys are stored with <code>createKey</code>.
+     *
+     * @param rs the <code>ResultSet</code> to handle.
+     * @return the key column's index, or 0.
+     * @throws SQLException if a database access error occurs
+     */
+    int longKeyColumn(ResultSet rs) throws SQLException {
+        return 0;
+    }
+
+    /**
+     * Returns true if a subclass of a handler class declares the given method.
+     */
+    private static boolean overrides(Class<?> c, Class<?> base, String name, Class<?>... params) {
+        for (; c != base && c != null; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, params);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // keep looking in the superclass
+            }
+        }
+
+        return false;
+    }
+
     /**
      * This factory method is called by <code>handle()</code> to create the Map
      * to store records in.  This implementation returns a <code>HashMap</code>
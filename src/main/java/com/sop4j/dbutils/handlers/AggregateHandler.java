@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.sop4j.dbutils.ResultSetHandler;
+
+/**
+ * <p>
+ * <code>ResultSetHandler</code> implementation that folds every row of a
+ * <code>ResultSet</code> into one result with a {@link Reducer}, without
+ * keeping the rows.
+ * </p>
+ *
+ * <pre>
+ * ResultSetHandler&lt;List&lt;Object&gt;&gt; h = new AggregateHandler&lt;List&lt;Object&gt;&gt;(
+ *         Aggregates.all(Aggregates.count(), Aggregates.sumDouble(&quot;total&quot;)));
+ * </pre>
+ *
+ * <p>
+ * This class is thread safe if the reducer is.
+ * </p>
+ *
+ * @param <R> the type of the result
+ * @see com.sop4j.dbutils.ResultSetHandler
+ * @since 2.3
+ */
+public class AggregateHandler<R> implements ResultSetHandler<R> {
+
+    /**
+     * The reducer that folds the rows.
+     */
+    private final Reducer<Object, R> reducer;
+
+    /**
+     * Creates a new instance of AggregateHandler.
+     *
+     * @param <S> the type of the reducer's state
+     * @param reducer The reducer that folds the rows.
+     */
+    @SuppressWarnings("unchecked")
+    public <S> AggregateHandler(Reducer<S, R> reducer) {
+        if (reducer == null) {
+            throw new IllegalArgumentException("reducer cannot be null");
+        }
+        this.reducer = (Reducer<Object, R>) reducer;
+    }
+
+    /**
+     * Folds the rows of the <code>ResultSet</code>.
+     *
+     * @param rs The <code>ResultSet</code> to handle.
+     *
+     * @return The result of all the rows, or of none if the <code>ResultSet</code> is empty.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public R handle(ResultSet rs) throws SQLException {
+        Object state = this.reducer.start(rs);
+
+        while (rs.next()) {
+            state = this.reducer.add(state, rs);
+        }
+
+        return this.reducer.finish(state);
+    }
+
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The built-in {@link Reducer}s. SQL <code>NULL</code>s are skipped and the
+ * states are mutable. {@link #count()}, the sums and histograms read columns
+ * with the typed getters, so adding a row allocates nothing;
+ * {@link #count(String)}, {@link #min(String)}, {@link #max(String)} and
+ * {@link #frequencies(String)} read values with <code>getObject</code>, which
+ * may box them for each row.
+ *
+ * @since 2.3
+ */
+public final class Aggregates {
+
+    private Aggregates() {
+        // static methods only
+    }
+
+    /**
+     * Counts the rows.
+     *
+     * @return the reducer.
+     */
+    public static Reducer<?, Long> count() {
+        return new Count(null);
+    }
+
+    /**
+     * Counts the rows where a column is not SQL <code>NULL</code>.
+     *
+     * @param column the column's label.
+     * @return the reducer.
+     */
+    public static Reducer<?, Long> count(String column) {
+        return new Count(checkColumn(column));
+    }
+
+    /**
+     * Sums a column with <code>getLong</code>.
+     *
+     * @param column the column's label.
+     * @return the reducer, whose result is 0 if there are no values.
+     */
+    public static Reducer<?, Long> sumLong(String column) {
+        return new SumLong(checkColumn(column));
+    }
+
+    /**
+     * Sums a column with <code>getDouble</code>.
+     *
+     * @param column the column's label.
+     * @return the reducer, whose result is 0 if there are no values.
+     */
+    public static Reducer<?, Double> sumDouble(String column) {
+        return new SumDouble(checkColumn(column));
+    }
+
+    /**
+     * Finds the least value of a column, read with <code>getObject</code>, which must be <code>Comparable</code>.
+     *
+     * @param column the column's label.
+     * @return the reducer, whose result is <code>null</code> if there are no values.
+     */
+    public static Reducer<?, Object> min(String column) {
+        return new Extreme(checkColumn(column), -1);
+    }
+
+    /**
+     * Finds the greatest value of a column, read with <code>getObject</code>, which must be <code>Comparable</code>.
+     *
+     * @param column the column's label.
+     * @return the reducer, whose result is <code>null</code> if there are no values.
+     */
+    public static Reducer<?, Object> max(String column) {
+        return new Extreme(checkColumn(column), 1);
+    }
+
+    /**
+     * Counts the values of a column, read with <code>getDouble</code>, in
+     * buckets. Bucket 0 counts values less than <code>bounds[0]</code>,
+     * bucket <code>i</code> values from <code>bounds[i - 1]</code> up to
+     * <code>bounds[i]</code>, and the last bucket values from the last bound.
+     *
+     * @param column the column's label.
+     * @param bounds the lower bounds of the buckets after the first, in increasing order.
+     * @return the reducer, whose result has <code>bounds.length + 1</code> counts.
+     */
+    public static Reducer<?, long[]> histogram(String column, double... bounds) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (!(bounds[i - 1] < bounds[i])) {
+                throw new IllegalArgumentException("bounds must be increasing");
+            }
+        }
+
+        return new Histogram(checkColumn(column), bounds.clone());
+    }
+
+    /**
+     * Counts the rows of each distinct value of a column, read with <code>getObject</code>.
+     *
+     * @param column the column's label.
+     * @return the reducer, whose result maps the values, in the order first read, to their counts.
+     */
+    public static Reducer<?, Map<Object, Long>> frequencies(String column) {
+        return new Frequencies(checkColumn(column));
+    }
+
+    /**
+     * Combines reducers, adding every row to each of them.
+     *
+     * @param reducers the reducers.
+     * @return the reducer, whose result has the result of each reducer in order.
+     */
+    public static Reducer<?, List<Object>> all(Reducer<?, ?>... reducers) {
+        for (Reducer<?, ?> reducer : reducers) {
+            if (reducer == null) {
+                throw new IllegalArgumentException("reducers cannot be null");
+            }
+        }
+
+        return new All(reducers.clone());
+    }
+
+    /**
+     * Helper method to check a column label.
+     */
+    private static String checkColumn(String column) {
+        if (column == null) {
+            throw new IllegalArgumentException("column cannot be null");
+        }
+
+        return column;
+    }
+
+    /**
+     * The state of the reducers that keep a number.
+     */
+    private static final class Tally {
+        private final int col;
+        private long count;
+        private long longValue;
+        private double doubleValue;
+
+        Tally(int col) {
+            this.col = col;
+        }
+    }
+
+    private static final class Count implements Reducer<Tally, Long> {
+        private final String column;
+
+        Count(String column) {
+            this.column = column;
+        }
+
+        @Override
+        public Tally start(ResultSet rs) throws SQLException {
+            return new Tally(this.column == null ? 0 : rs.findColumn(this.column));
+        }
+
+        @Override
+        public Tally add(Tally state, ResultSet rs) throws SQLException {
+            if (state.col == 0 || rs.getObject(state.col) != null) {
+                state.count++;
+            }
+            return state;
+        }
+
+        @Override
+        public Long finish(Tally state) {
+            return Long.valueOf(state.count);
+        }
+    }
+
+    private static final class SumLong implements Reducer<Tally, Long> {
+        private final String column;
+
+        SumLong(String column) {
+            this.column = column;
+        }
+
+        @Override
+        public Tally start(ResultSet rs) throws SQLException {
+            return new Tally(rs.findColumn(this.column));
+        }
+
+        @Override
+        public Tally add(Tally state, ResultSet rs) throws SQLException {
+            state.longValue += rs.getLong(state.col);
+            return state;
+        }
+
+        @Override
+        public Long finish(Tally state) {
+            return Long.valueOf(state.longValue);
+        }
+    }
+
+    private static final class SumDouble implements Reducer<Tally, Double> {
+        private final String column;
+
+        SumDouble(String column) {
+            this.column = column;
+        }
+
+        @Override
+        public Tally start(ResultSet rs) throws SQLException {
+            return new Tally(rs.findColumn(this.column));
+        }
+
+        @Override
+        public Tally add(Tally state, ResultSet rs) throws SQLException {
+            state.doubleValue += rs.getDouble(state.col);
+            return state;
+        }
+
+        @Override
+        public Double finish(Tally state) {
+            return Double.valueOf(state.doubleValue);
+        }
+    }
+
+    /**
+     * The state of min and max.
+     */
+    private static final class Value {
+        private final int col;
+        private Comparable<Object> value;
+
+        Value(int col) {
+            this.col = col;
+        }
+    }
+
+    private static final class Extreme implements Reducer<Value, Object> {
+        private final String column;
+        private final int sign;
+
+        Extreme(String column, int sign) {
+            this.column = column;
+            this.sign = sign;
+        }
+
+        @Override
+        public Value start(ResultSet rs) throws SQLException {
+            return new Value(rs.findColumn(this.column));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Value add(Value state, ResultSet rs) throws SQLException {
+            final Object value = rs.getObject(state.col);
+
+            if (value == null) {
+                return state;
+            }
+            if (!(value instanceof Comparable)) {
+                throw new SQLException("Cannot compare " + this.column + ": " + value.getClass().getName()
+                                       + " is not Comparable");
+            }
+            if (state.value == null || state.value.compareTo(value) * this.sign < 0) {
+                state.value = (Comparable<Object>) value;
+            }
+            return state;
+        }
+
+        @Override
+        public Object finish(Value state) {
+            return state.value;
+        }
+    }
+
+    /**
+     * The state of a histogram.
+     */
+    private static final class Buckets {
+        private final int col;
+        private final long[] counts;
+
+        Buckets(int col, int buckets) {
+            this.col = col;
+            this.counts = new long[buckets];
+        }
+    }
+
+    private static final class Histogram implements Reducer<Buckets, long[]> {
+        private final String column;
+        private final double[] bounds;
+
+        Histogram(String column, double[] bounds) {
+            this.column = column;
+            this.bounds = bounds;
+        }
+
+        @Override
+        public Buckets start(ResultSet rs) throws SQLException {
+            return new Buckets(rs.findColumn(this.column), this.bounds.length + 1);
+        }
+
+        @Override
+        public Buckets add(Buckets state, ResultSet rs) throws SQLException {
+            final double value = rs.getDouble(state.col);
+
+            if (!rs.wasNull()) {
+                // the number of bounds at or below the value
+                final int bucket = Arrays.binarySearch(this.bounds, value);
+                state.counts[bucket >= 0 ? bucket + 1 : -bucket - 1]++;
+            }
+            return state;
+        }
+
+        @Override
+        public long[] finish(Buckets state) {
+            return state.counts;
+        }
+    }
+
+    /**
+     * The state of frequencies.
+     */
+    private static final class Counts {
+        private final int col;
+        private final Map<Object, long[]> counts = new LinkedHashMap<Object, long[]>();
+
+        Counts(int col) {
+            this.col = col;
+        }
+    }
+
+    private static final class Frequencies implements Reducer<Counts, Map<Object, Long>> {
+        private final String column;
+
+        Frequencies(String column) {
+            this.column = column;
+        }
+
+        @Override
+        public Counts start(ResultSet rs) throws SQLException {
+            return new Counts(rs.findColumn(this.column));
+        }
+
+        @Override
+        public Counts add(Counts state, ResultSet rs) throws SQLException {
+            final Object value = rs.getObject(state.col);
+
+            if (value != null) {
+                long[] count = state.counts.get(value);
+
+                if (count == null) {
+                    count = new long[1];
+                    state.counts.put(value, count);
+                }
+                count[0]++;
+            }
+            return state;
+        }
+
+        @Override
+        public Map<Object, Long> finish(Counts state) {
+            final Map<Object, Long> result = new LinkedHashMap<Object, Long>(state.counts.size() * 2);
+
+            for (Map.Entry<Object, long[]> entry : state.counts.entrySet()) {
+                result.put(entry.getKey(), Long.valueOf(entry.getValue()[0]));
+            }
+
+            return result;
+        }
+    }
+
+    private static final class All implements Reducer<Object[], List<Object>> {
+        private final Reducer<Object, Object>[] reducers;
+
+        @SuppressWarnings("unchecked")
+        All(Reducer<?, ?>[] reducers) {
+            this.reducers = (Reducer<Object, Object>[]) reducers;
+        }
+
+        @Override
+        public Object[] start(ResultSet rs) throws SQLException {
+            final Object[] states = new Object[this.reducers.length];
+
+            for (int i = 0; i < states.length; i++) {
+                states[i] = this.reducers[i].start(rs);
+            }
+            return states;
+        }
+
+        @Override
+        public Object[] add(Object[] states, ResultSet rs) throws SQLException {
+            for (int i = 0; i < states.length; i++) {
+                states[i] = this.reducers[i].add(states[i], rs);
+            }
+            return states;
+        }
+
+        @Override
+        public List<Object> finish(Object[] states) {
+            final List<Object> results = new ArrayList<Object>(states.length);
+
+            for (int i = 0; i < states.length; i++) {
+                results.add(this.reducers[i].finish(states[i]));
+            }
+            return results;
+        }
+    }
+
+}
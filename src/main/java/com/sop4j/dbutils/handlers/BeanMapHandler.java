@@ -86,7 +86,7 @@ public class BeanMapHandler<K, V> extends AbstractKeyedHandler<K, V> {
      *            are created from.
      */
     public BeanMapHandler(Class<V> type) {
-        this(type, ArrayHandler.ROW_PROCESSOR, 1, null);
+        this(type, ArrayHandler.ROW_PROCESSOR, 1, null, 0);
     }
 
     /**
@@ -101,7 +101,7 @@ public class BeanMapHandler<K, V> extends AbstractKeyedHandler<K, V> {
      *            converting rows into Beans
      */
     public BeanMapHandler(Class<V> type, RowProcessor convert) {
-        this(type, convert, 1, null);
+        this(type, convert, 1, null, 0);
     }
 
     /**
@@ -115,7 +115,7 @@ public class BeanMapHandler<K, V> extends AbstractKeyedHandler<K, V> {
      *            column at this index.
      */
     public BeanMapHandler(Class<V> type, int columnIndex) {
-        this(type, ArrayHandler.ROW_PROCESSOR, columnIndex, null);
+        this(type, ArrayHandler.ROW_PROCESSOR, columnIndex, null, 0);
     }
 
     /**
@@ -129,7 +129,26 @@ public class BeanMapHandler<K, V> extends AbstractKeyedHandler<K, V> {
      *            column with this name.
      */
     public BeanMapHandler(Class<V> type, String columnName) {
-        this(type, ArrayHandler.ROW_PROCESSOR, 1, columnName);
+        this(type, ArrayHandler.ROW_PROCESSOR, 1, columnName, 0);
+    }
+
+    /**
+     * Creates a new instance of BeanMapHandler that expects a number of rows.
+     *
+     * @param type
+     *            The Class that objects returned from <code>createRow()</code>
+     *            are created from.
+     * @param columnName
+     *            The values to use as keys in the Map are retrieved from the
+     *            column with this name.
+     * @param expectedSize
+     *            The number of rows expected. When the key column is a
+     *            <code>BIGINT</code> of <code>Long</code>s, the rows are
+     *            stored in a {@link LongHashMap} sized for them.
+     * @since 2.3
+     */
+    public BeanMapHandler(Class<V> type, String columnName, int expectedSize) {
+        this(type, ArrayHandler.ROW_PROCESSOR, 1, columnName, expectedSize);
     }
 
     /**
@@ -144,10 +163,12 @@ public class BeanMapHandler<K, V> extends AbstractKeyedHandler<K, V> {
      * @param columnName
      *            The values to use as keys in the Map are retrieved from the
      *            column with this name.
+     * @param expectedSize
+     *            The number of rows expected, or 0.
      */
     private BeanMapHandler(Class<V> type, RowProcessor convert,
-            int columnIndex, String columnName) {
-        super();
+            int columnIndex, String columnName, int expectedSize) {
+        super(expectedSize);
         this.type = type;
         this.convert = convert;
         this.columnIndex = columnIndex;
@@ -177,6 +198,11 @@ public class BeanMapHandler<K, V> extends AbstractKeyedHandler<K, V> {
                (K) rs.getObject(columnName);
     }
 
+    @Override
+    int longKeyColumn(ResultSet rs) throws SQLException {
+        return this.bigintKeyColumn(rs, BeanMapHandler.class, this.columnIndex, this.columnName);
+    }
+
     @Override
     protected V createRow(ResultSet rs) throws SQLException {
         return this.convert.toBean(rs, type);
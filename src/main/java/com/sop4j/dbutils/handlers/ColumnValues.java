@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.util.BitSet;
+
+/**
+ * The values of one column, in a primitive array, and the rows where the
+ * column is SQL <code>NULL</code>. Returned by the primitive column handlers'
+ * <code>withNulls()</code> handlers.
+ *
+ * @param <A> the type of the array of values
+ * @see LongColumnHandler#withNulls()
+ * @since 2.3
+ */
+public final class ColumnValues<A> {
+
+    /**
+     * The values, one per row.
+     */
+    private final A values;
+
+    /**
+     * The indexes of the rows that are SQL <code>NULL</code>.
+     */
+    private final BitSet nulls;
+
+    /**
+     * Creates a new instance of ColumnValues.
+     *
+     * @param values the values, one per row.
+     * @param nulls the indexes of the rows that are SQL <code>NULL</code>.
+     */
+    ColumnValues(A values, BitSet nulls) {
+        this.values = values;
+        this.nulls = nulls;
+    }
+
+    /**
+     * Gets the values, with the handler's null value in the rows that are SQL <code>NULL</code>.
+     *
+     * @return the values, one per row.
+     */
+    public A getValues() {
+        return this.values;
+    }
+
+    /**
+     * Gets the rows that are SQL <code>NULL</code>.
+     *
+     * @return the set of the 0-based indexes of the rows that are SQL <code>NULL</code>.
+     */
+    public BitSet getNulls() {
+        return this.nulls;
+    }
+
+}
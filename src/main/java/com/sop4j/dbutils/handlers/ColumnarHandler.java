@@ -0,0 +1,630 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.sop4j.dbutils.ResultSetHandler;
+
+/**
+ * <p>
+ * <code>ResultSetHandler</code> implementation that reads a
+ * <code>ResultSet</code> into columns instead of rows. Each column is one
+ * array, chosen from its JDBC type in the <code>ResultSetMetaData</code>:
+ * </p>
+ * <ul>
+ * <li><code>TINYINT</code>, <code>SMALLINT</code> and <code>INTEGER</code>,
+ * and <code>DECIMAL</code> and <code>NUMERIC</code> without a scale and up to
+ * 9 digits, are read with <code>getInt</code> into an {@link IntColumn}.</li>
+ * <li><code>BIGINT</code>, and <code>DECIMAL</code> and <code>NUMERIC</code>
+ * without a scale and up to 18 digits, are read with <code>getLong</code> into
+ * a {@link LongColumn}.</li>
+ * <li><code>REAL</code>, <code>FLOAT</code> and <code>DOUBLE</code> are read
+ * with <code>getDouble</code> into a {@link DoubleColumn}.</li>
+ * <li>Character columns are read with <code>getString</code> into a
+ * {@link StringColumn}, which stores each distinct value once and a code per
+ * row.</li>
+ * <li>Other columns are read with <code>getObject</code> into an
+ * {@link ObjectColumn}.</li>
+ * </ul>
+ * <p>
+ * Every column has a bitmap of its SQL <code>NULL</code> rows, and primitive
+ * values are never boxed, so numeric results take a fraction of the memory of
+ * rows of objects, and each column can be processed as one array.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @see com.sop4j.dbutils.ResultSetHandler
+ * @since 2.3
+ */
+public class ColumnarHandler implements ResultSetHandler<ColumnarHandler.Columns> {
+
+    /**
+     * The number of rows expected, or 0.
+     */
+    private final int expectedRows;
+
+    /**
+     * Creates a new instance of ColumnarHandler, whose arrays grow as rows are read.
+     */
+    public ColumnarHandler() {
+        this(0);
+    }
+
+    /**
+     * Creates a new instance of ColumnarHandler.
+     *
+     * @param expectedRows The number of rows expected, which the arrays are first sized for, or 0.
+     */
+    public ColumnarHandler(int expectedRows) {
+        if (expectedRows < 0) {
+            throw new IllegalArgumentException("expectedRows cannot be negative");
+        }
+        this.expectedRows = expectedRows;
+    }
+
+    /**
+     * Reads the <code>ResultSet</code> into columns.
+     *
+     * @param rs The <code>ResultSet</code> to handle.
+     *
+     * @return The columns, never <code>null</code>.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Columns handle(ResultSet rs) throws SQLException {
+        final ResultSetMetaData rsmd = rs.getMetaData();
+        final int cols = rsmd.getColumnCount();
+        final int capacity = this.expectedRows > 0 ? this.expectedRows : PrimitiveArrays.INITIAL_CAPACITY;
+        final Column[] columns = new Column[cols];
+
+        for (int col = 1; col <= cols; col++) {
+            String columnName = rsmd.getColumnLabel(col);
+            if (null == columnName || 0 == columnName.length()) {
+                columnName = rsmd.getColumnName(col);
+            }
+            columns[col - 1] = this.createColumn(rsmd, col, columnName, capacity);
+        }
+
+        int rows = 0;
+
+        while (rs.next()) {
+            for (int col = 0; col < cols; col++) {
+                columns[col].read(rs, col + 1, rows);
+            }
+            rows++;
+        }
+
+        for (Column column : columns) {
+            column.trim(rows);
+        }
+
+        return new Columns(columns, rows);
+    }
+
+    /**
+     * Chooses the array for a column from its metadata.
+     */
+    private Column createColumn(ResultSetMetaData rsmd, int col, String label, int capacity) throws SQLException {
+        switch (rsmd.getColumnType(col)) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+            return new IntColumn(label, capacity);
+
+        case Types.BIGINT:
+            return new LongColumn(label, capacity);
+
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            return new DoubleColumn(label, capacity);
+
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+            if (rsmd.getScale(col) == 0) {
+                final int precision = rsmd.getPrecision(col);
+
+                if (precision > 0 && precision <= 9) {
+                    return new IntColumn(label, capacity);
+                } else if (precision > 0 && precision <= 18) {
+                    return new LongColumn(label, capacity);
+                }
+            }
+            return new ObjectColumn(label, capacity);
+
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.LONGVARCHAR:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+        case Types.LONGNVARCHAR:
+            return new StringColumn(label, capacity);
+
+        default:
+            return new ObjectColumn(label, capacity);
+        }
+    }
+
+    /**
+     * The columns read from a <code>ResultSet</code>.
+     */
+    public static final class Columns {
+
+        private final Column[] columns;
+        private final int rowCount;
+
+        Columns(Column[] columns, int rowCount) {
+            this.columns = columns;
+            this.rowCount = rowCount;
+        }
+
+        /**
+         * Gets the number of rows.
+         *
+         * @return the number of rows.
+         */
+        public int getRowCount() {
+            return this.rowCount;
+        }
+
+        /**
+         * Gets the number of columns.
+         *
+         * @return the number of columns.
+         */
+        public int getColumnCount() {
+            return this.columns.length;
+        }
+
+        /**
+         * Gets a column by index.
+         *
+         * @param col the column index, starting from 1 like JDBC.
+         * @return the column.
+         */
+        public Column getColumn(int col) {
+            return this.columns[col - 1];
+        }
+
+        /**
+         * Gets a column by label, ignoring case.
+         *
+         * @param label the column's label.
+         * @return the column, or <code>null</code> if there is no column with the label.
+         */
+        public Column getColumn(String label) {
+            for (Column column : this.columns) {
+                if (column.getLabel().equalsIgnoreCase(label)) {
+                    return column;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * The values of one column, and which of them are SQL <code>NULL</code>.
+     * The value stored for a <code>NULL</code> is the one returned by the
+     * typed getter, such as 0.
+     */
+    public abstract static class Column {
+
+        private final String label;
+        private final BitSet nulls = new BitSet();
+        private int size;
+
+        Column(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Gets the column's label.
+         *
+         * @return the label, or the name if the column has no label.
+         */
+        public String getLabel() {
+            return this.label;
+        }
+
+        /**
+         * Gets the number of rows.
+         *
+         * @return the number of rows.
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Tests if a row is SQL <code>NULL</code>.
+         *
+         * @param row the row, starting from 0.
+         * @return true if the row is SQL <code>NULL</code>.
+         */
+        public boolean isNull(int row) {
+            return this.nulls.get(row);
+        }
+
+        /**
+         * Gets the bitmap of the SQL <code>NULL</code> rows.
+         *
+         * @return a copy of the bitmap.
+         */
+        public BitSet getNulls() {
+            return (BitSet) this.nulls.clone();
+        }
+
+        /**
+         * Gets a row's value as an object.
+         *
+         * @param row the row, starting from 0.
+         * @return the value, or <code>null</code> for SQL <code>NULL</code>.
+         */
+        public abstract Object getObject(int row);
+
+        /**
+         * Reads the current row of a column.
+         */
+        abstract void read(ResultSet rs, int col, int row) throws SQLException;
+
+        /**
+         * Records that a row was SQL <code>NULL</code> if the last read was.
+         */
+        final void readNull(ResultSet rs, int row) throws SQLException {
+            if (rs.wasNull()) {
+                this.nulls.set(row);
+            }
+        }
+
+        /**
+         * Shrinks the arrays to the rows read.
+         */
+        void trim(int rows) {
+            this.size = rows;
+        }
+
+        /**
+         * Checks a row index.
+         */
+        final void check(int row) {
+            if (row < 0 || row >= this.size) {
+                throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + this.size);
+            }
+        }
+    }
+
+    /**
+     * A column of <code>int</code>s.
+     */
+    public static final class IntColumn extends Column {
+
+        private int[] values;
+
+        IntColumn(String label, int capacity) {
+            super(label);
+            this.values = new int[capacity];
+        }
+
+        /**
+         * Gets a row's value.
+         *
+         * @param row the row, starting from 0.
+         * @return the value, or 0 for SQL <code>NULL</code>.
+         */
+        public int getInt(int row) {
+            check(row);
+            return this.values[row];
+        }
+
+        /**
+         * Gets the values.
+         *
+         * @return the array of values, one per row, which is not copied.
+         */
+        public int[] getValues() {
+            return this.values;
+        }
+
+        @Override
+        public Object getObject(int row) {
+            return isNull(row) ? null : Integer.valueOf(getInt(row));
+        }
+
+        @Override
+        void read(ResultSet rs, int col, int row) throws SQLException {
+            if (row == this.values.length) {
+                this.values = Arrays.copyOf(this.values, PrimitiveArrays.grow(row));
+            }
+            this.values[row] = rs.getInt(col);
+            readNull(rs, row);
+        }
+
+        @Override
+        void trim(int rows) {
+            super.trim(rows);
+            if (rows < this.values.length) {
+                this.values = Arrays.copyOf(this.values, rows);
+            }
+        }
+    }
+
+    /**
+     * A column of <code>long</code>s.
+     */
+    public static final class LongColumn extends Column {
+
+        private long[] values;
+
+        LongColumn(String label, int capacity) {
+            super(label);
+            this.values = new long[capacity];
+        }
+
+        /**
+         * Gets a row's value.
+         *
+         * @param row the row, starting from 0.
+         * @return the value, or 0 for SQL <code>NULL</code>.
+         */
+        public long getLong(int row) {
+            check(row);
+            return this.values[row];
+        }
+
+        /**
+         * Gets the values.
+         *
+         * @return the array of values, one per row, which is not copied.
+         */
+        public long[] getValues() {
+            return this.values;
+        }
+
+        @Override
+        public Object getObject(int row) {
+            return isNull(row) ? null : Long.valueOf(getLong(row));
+        }
+
+        @Override
+        void read(ResultSet rs, int col, int row) throws SQLException {
+            if (row == this.values.length) {
+                this.values = Arrays.copyOf(this.values, PrimitiveArrays.grow(row));
+            }
+            this.values[row] = rs.getLong(col);
+            readNull(rs, row);
+        }
+
+        @Override
+        void trim(int rows) {
+            super.trim(rows);
+            if (rows < this.values.length) {
+                this.values = Arrays.copyOf(this.values, rows);
+            }
+        }
+    }
+
+    /**
+     * A column of <code>double</code>s.
+     */
+    public static final class DoubleColumn extends Column {
+
+        private double[] values;
+
+        DoubleColumn(String label, int capacity) {
+            super(label);
+            this.values = new double[capacity];
+        }
+
+        /**
+         * Gets a row's value.
+         *
+         * @param row the row, starting from 0.
+         * @return the value, or 0 for SQL <code>NULL</code>.
+         */
+        public double getDouble(int row) {
+            check(row);
+            return this.values[row];
+        }
+
+        /**
+         * Gets the values.
+         *
+         * @return the array of values, one per row, which is not copied.
+         */
+        public double[] getValues() {
+            return this.values;
+        }
+
+        @Override
+        public Object getObject(int row) {
+            return isNull(row) ? null : Double.valueOf(getDouble(row));
+        }
+
+        @Override
+        void read(ResultSet rs, int col, int row) throws SQLException {
+            if (row == this.values.length) {
+                this.values = Arrays.copyOf(this.values, PrimitiveArrays.grow(row));
+            }
+            this.values[row] = rs.getDouble(col);
+            readNull(rs, row);
+        }
+
+        @Override
+        void trim(int rows) {
+            super.trim(rows);
+            if (rows < this.values.length) {
+                this.values = Arrays.copyOf(this.values, rows);
+            }
+        }
+    }
+
+    /**
+     * A column of <code>String</code>s, stored as a dictionary of the
+     * distinct values and the code of each row's value in the dictionary.
+     * SQL <code>NULL</code>s have the code -1.
+     */
+    public static final class StringColumn extends Column {
+
+        private int[] codes;
+        private String[] dictionary = new String[16];
+        private int dictionarySize;
+        private Map<String, Integer> lookup = new HashMap<String, Integer>();
+
+        StringColumn(String label, int capacity) {
+            super(label);
+            this.codes = new int[capacity];
+        }
+
+        /**
+         * Gets a row's value.
+         *
+         * @param row the row, starting from 0.
+         * @return the value, or <code>null</code> for SQL <code>NULL</code>.
+         */
+        public String getString(int row) {
+            final int code = getCode(row);
+
+            return code < 0 ? null : this.dictionary[code];
+        }
+
+        /**
+         * Gets the code of a row's value.
+         *
+         * @param row the row, starting from 0.
+         * @return the index of the value in the dictionary, or -1 for SQL <code>NULL</code>.
+         */
+        public int getCode(int row) {
+            check(row);
+            return this.codes[row];
+        }
+
+        /**
+         * Gets the codes.
+         *
+         * @return the array of codes, one per row, which is not copied.
+         */
+        public int[] getCodes() {
+            return this.codes;
+        }
+
+        /**
+         * Gets the distinct values, in the order they were first read.
+         *
+         * @return the array of values, indexed by code, which is not copied.
+         */
+        public String[] getDictionary() {
+            return this.dictionary;
+        }
+
+        @Override
+        public Object getObject(int row) {
+            return getString(row);
+        }
+
+        @Override
+        void read(ResultSet rs, int col, int row) throws SQLException {
+            if (row == this.codes.length) {
+                this.codes = Arrays.copyOf(this.codes, PrimitiveArrays.grow(row));
+            }
+            final String value = rs.getString(col);
+
+            if (value == null) {
+                this.codes[row] = -1;
+                readNull(rs, row);
+                return;
+            }
+            Integer code = this.lookup.get(value);
+
+            if (code == null) {
+                if (this.dictionarySize == this.dictionary.length) {
+                    this.dictionary = Arrays.copyOf(this.dictionary, this.dictionarySize * 2);
+                }
+                code = Integer.valueOf(this.dictionarySize);
+                this.dictionary[this.dictionarySize++] = value;
+                this.lookup.put(value, code);
+            }
+            this.codes[row] = code.intValue();
+        }
+
+        @Override
+        void trim(int rows) {
+            super.trim(rows);
+            if (rows < this.codes.length) {
+                this.codes = Arrays.copyOf(this.codes, rows);
+            }
+            this.dictionary = Arrays.copyOf(this.dictionary, this.dictionarySize);
+            this.lookup = null;
+        }
+    }
+
+    /**
+     * A column of objects, for the types that have no primitive array.
+     */
+    public static final class ObjectColumn extends Column {
+
+        private Object[] values;
+
+        ObjectColumn(String label, int capacity) {
+            super(label);
+            this.values = new Object[capacity];
+        }
+
+        @Override
+        public Object getObject(int row) {
+            check(row);
+            return this.values[row];
+        }
+
+        /**
+         * Gets the values.
+         *
+         * @return the array of values, one per row, which is not copied.
+         */
+        public Object[] getValues() {
+            return this.values;
+        }
+
+        @Override
+        void read(ResultSet rs, int col, int row) throws SQLException {
+            if (row == this.values.length) {
+                this.values = Arrays.copyOf(this.values, PrimitiveArrays.grow(row));
+            }
+            this.values[row] = rs.getObject(col);
+            readNull(rs, row);
+        }
+
+        @Override
+        void trim(int rows) {
+            super.trim(rows);
+            if (rows < this.values.length) {
+                this.values = Arrays.copyOf(this.values, rows);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * <code>ResultSetHandler</code> implementation that converts one
+ * <code>ResultSet</code> column into a <code>double[]</code>, such as a series
+ * of measurements. Values are read with <code>getDouble</code> and never boxed, so each row
+ * takes 8 bytes instead of a <code>Double</code> and a list entry.
+ *
+ * <p>
+ * SQL <code>NULL</code>s are stored as 0, or as the given null value. The
+ * handler returned by {@link #withNulls()} also returns the rows that are
+ * SQL <code>NULL</code>. This class is thread safe.
+ * </p>
+ *
+ * @see com.sop4j.dbutils.ResultSetHandler
+ * @since 2.3
+ */
+public class DoubleColumnHandler extends PrimitiveColumnHandler<double[]> {
+
+    /**
+     * The value stored for SQL <code>NULL</code>.
+     */
+    private final double nullValue;
+
+    /**
+     * Creates a new instance of DoubleColumnHandler.  The first column of each
+     * row will be returned from <code>handle()</code>.
+     */
+    public DoubleColumnHandler() {
+        this(1, null, 0);
+    }
+
+    /**
+     * Creates a new instance of DoubleColumnHandler.
+     *
+     * @param columnIndex The index of the column to retrieve from the
+     * <code>ResultSet</code>.
+     */
+    public DoubleColumnHandler(int columnIndex) {
+        this(columnIndex, null, 0);
+    }
+
+    /**
+     * Creates a new instance of DoubleColumnHandler.
+     *
+     * @param columnName The name of the column to retrieve from the
+     * <code>ResultSet</code>.
+     */
+    public DoubleColumnHandler(String columnName) {
+        this(1, columnName, 0);
+    }
+
+    /**
+     * Creates a new instance of DoubleColumnHandler that stores a sentinel for SQL <code>NULL</code>.
+     *
+     * @param columnIndex The index of the column to retrieve from the
+     * <code>ResultSet</code>.
+     * @param nullValue The value stored for SQL <code>NULL</code>.
+     */
+    public DoubleColumnHandler(int columnIndex, double nullValue) {
+        this(columnIndex, null, nullValue);
+    }
+
+    /**
+     * Creates a new instance of DoubleColumnHandler that stores a sentinel for SQL <code>NULL</code>.
+     *
+     * @param columnName The name of the column to retrieve from the
+     * <code>ResultSet</code>.
+     * @param nullValue The value stored for SQL <code>NULL</code>.
+     */
+    public DoubleColumnHandler(String columnName, double nullValue) {
+        this(1, columnName, nullValue);
+    }
+
+    /**
+     * Private Helper
+     */
+    private DoubleColumnHandler(int columnIndex, String columnName, double nullValue) {
+        super(columnIndex, columnName);
+        this.nullValue = nullValue;
+    }
+
+    @Override
+    double[] newArray(int length) {
+        return new double[length];
+    }
+
+    @Override
+    double[] copyOf(double[] values, int length) {
+        return Arrays.copyOf(values, length);
+    }
+
+    @Override
+    boolean read(ResultSet rs, int col, double[] values, int row) throws SQLException {
+        final double value = rs.getDouble(col);
+
+        if (value == 0 && rs.wasNull()) {
+            values[row] = this.nullValue;
+            return true;
+        }
+        values[row] = value;
+        return false;
+    }
+
+}
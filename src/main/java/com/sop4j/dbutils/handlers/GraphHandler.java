@@ -0,0 +1,370 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.sop4j.dbutils.BeanProcessor;
+import com.sop4j.dbutils.NamingStrategies;
+import com.sop4j.dbutils.ResultSetHandler;
+
+/**
+ * <p>
+ * <code>ResultSetHandler</code> implementation that assembles the rows of a
+ * join into a graph of beans, so parents and their children are read with one
+ * query instead of a query per parent.
+ * </p>
+ * <p>
+ * Each table's columns are selected with a prefix, and each table has an id
+ * column. The rows are read in one pass: a bean is only created the first
+ * time its id is seen, and is then added to its parent's collection, or set
+ * on its parent if the property is not a collection. When the id column of a
+ * table is SQL <code>NULL</code>, as for a parent without children in an
+ * outer join, that table and the tables joined to it are skipped for the row.
+ * </p>
+ *
+ * <pre>
+ * ResultSetHandler&lt;List&lt;Order&gt;&gt; h = new GraphHandler&lt;Order&gt;(Order.class, &quot;order_&quot;, &quot;order_id&quot;,
+ *         new GraphHandler.Join(&quot;lines&quot;, Line.class, &quot;line_&quot;, &quot;line_id&quot;));
+ * List&lt;Order&gt; orders = queryRunner.query(
+ *         &quot;select o.id order_id, o.placed order_placed, l.id line_id, l.quantity line_quantity &quot;
+ *         + &quot;from orders o left join order_lines l on l.order_id = o.id&quot;, h);
+ * </pre>
+ *
+ * <p>
+ * The rest of each column label is matched to a property of the table's bean
+ * ignoring case and underscores, as by {@link NamingStrategies#snakeCase()}.
+ * Collection properties that are <code>null</code> are set to a new
+ * <code>ArrayList</code>, or a <code>LinkedHashSet</code> for a
+ * <code>Set</code>. Roots are returned, and children added, in the order
+ * they are first seen.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @param <T> the type of the root beans
+ * @see com.sop4j.dbutils.ResultSetHandler
+ * @since 2.3
+ */
+public class GraphHandler<T> implements ResultSetHandler<List<T>> {
+
+    /**
+     * A table joined to its parent table, and the tables joined to it.
+     */
+    public static final class Join {
+
+        private final String property;
+        private final Class<?> type;
+        private final String prefix;
+        private final String idColumn;
+        private final Join[] joins;
+
+        /**
+         * Creates a new instance of Join.
+         *
+         * @param property The parent's property that holds the beans: a collection, or a single bean.
+         * @param type The Class of the beans.
+         * @param prefix The prefix of the table's columns.
+         * @param idColumn The label of the column that identifies the beans.
+         * @param joins The tables joined to this one.
+         */
+        public Join(String property, Class<?> type, String prefix, String idColumn, Join... joins) {
+            if (property == null || type == null || prefix == null || idColumn == null) {
+                throw new IllegalArgumentException("property, type, prefix and idColumn cannot be null");
+            }
+            this.property = property;
+            this.type = type;
+            this.prefix = prefix;
+            this.idColumn = idColumn;
+            this.joins = joins.clone();
+        }
+
+    }
+
+    /**
+     * The table of the root beans.
+     */
+    private final Table root;
+
+    /**
+     * All the tables, by index.
+     */
+    private final Table[] tables;
+
+    /**
+     * Creates a new instance of GraphHandler.
+     *
+     * @param type The Class of the root beans.
+     * @param prefix The prefix of the root table's columns.
+     * @param idColumn The label of the column that identifies the root beans.
+     * @param joins The tables joined to the root table.
+     */
+    public GraphHandler(Class<T> type, String prefix, String idColumn, Join... joins) {
+        if (type == null || prefix == null || idColumn == null) {
+            throw new IllegalArgumentException("type, prefix and idColumn cannot be null");
+        }
+        final List<Table> all = new ArrayList<Table>();
+
+        this.root = new Table(all, type, prefix, idColumn, null, joins);
+        this.tables = all.toArray(new Table[all.size()]);
+    }
+
+    /**
+     * Assembles the rows of the <code>ResultSet</code> into beans.
+     *
+     * @param rs The <code>ResultSet</code> to handle.
+     *
+     * @return A List of the root beans, never <code>null</code>.
+     *
+     * @throws SQLException if a database access error occurs, or an id column is missing
+     */
+    @Override
+    public List<T> handle(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return new ArrayList<T>();
+        }
+        final Graph graph = new Graph(rs.getMetaData());
+        final Map<Object, Node> roots = new HashMap<Object, Node>();
+
+        do {
+            graph.add(rs, this.root, null, roots);
+        } while (rs.next());
+
+        @SuppressWarnings("unchecked")
+        final List<T> result = (List<T>) graph.roots;
+
+        return result;
+    }
+
+    /**
+     * Finds a property that can hold the beans of a joined table.
+     */
+    private static PropertyDescriptor property(Class<?> parentType, String name) {
+        final BeanInfo beanInfo;
+
+        try {
+            beanInfo = Introspector.getBeanInfo(parentType);
+        } catch (IntrospectionException e) {
+            throw new IllegalArgumentException("Bean introspection failed: " + e.getMessage(), e);
+        }
+
+        for (PropertyDescriptor property : beanInfo.getPropertyDescriptors()) {
+            if (!property.getName().equals(name)) {
+                continue;
+            }
+            final Class<?> propType = property.getPropertyType();
+
+            if (Collection.class.isAssignableFrom(propType)) {
+                if (property.getReadMethod() == null ||
+                    !propType.isAssignableFrom(ArrayList.class) && !propType.isAssignableFrom(LinkedHashSet.class)) {
+                    break;
+                }
+            } else if (property.getWriteMethod() == null) {
+                break;
+            }
+
+            return property;
+        }
+
+        throw new IllegalArgumentException("No property " + name + " of " + parentType.getName()
+                                           + " can hold the joined beans");
+    }
+
+    /**
+     * A table: how to create its beans and attach them to their parents.
+     */
+    private static final class Table {
+
+        private final int index;
+        private final Class<?> type;
+        private final String idColumn;
+        private final BeanProcessor processor;
+        private final PropertyDescriptor property;
+        private final Table[] children;
+
+        Table(List<Table> all, Class<?> type, String prefix, String idColumn, PropertyDescriptor property,
+              Join[] joins) {
+            this.index = all.size();
+            this.type = type;
+            this.idColumn = idColumn;
+            this.processor = new BeanProcessor(NamingStrategies.prefixed(prefix, NamingStrategies.snakeCase()));
+            this.property = property;
+            this.children = new Table[joins.length];
+            all.add(this);
+
+            for (int i = 0; i < joins.length; i++) {
+                final Join join = joins[i];
+
+                this.children[i] = new Table(all, join.type, join.prefix, join.idColumn,
+                                             property(type, join.property), join.joins);
+            }
+        }
+
+        /**
+         * Adds a bean to its parent's collection, or sets it on its parent.
+         */
+        void attach(Object parent, Object bean) throws SQLException {
+            try {
+                if (!Collection.class.isAssignableFrom(this.property.getPropertyType())) {
+                    this.property.getWriteMethod().invoke(parent, bean);
+                    return;
+                }
+                @SuppressWarnings("unchecked")
+                Collection<Object> beans = (Collection<Object>) this.property.getReadMethod().invoke(parent);
+
+                if (beans == null) {
+                    final Method setter = this.property.getWriteMethod();
+
+                    if (setter == null) {
+                        throw new SQLException("Cannot set " + this.property.getName() + ": it is null and read-only");
+                    }
+                    beans = this.property.getPropertyType().isAssignableFrom(ArrayList.class)
+                            ? new ArrayList<Object>() : new LinkedHashSet<Object>();
+                    setter.invoke(parent, beans);
+                }
+                beans.add(bean);
+
+            } catch (IllegalAccessException e) {
+                throw new SQLException("Cannot set " + this.property.getName() + ": " + e.getMessage(), e);
+
+            } catch (InvocationTargetException e) {
+                throw new SQLException("Cannot set " + this.property.getName() + ": " + e.getCause(), e.getCause());
+            }
+        }
+    }
+
+    /**
+     * A bean and the beans already attached to it, by table and id.
+     */
+    private static final class Node {
+
+        private final Object bean;
+        private final Map<Object, Node>[] children;
+
+        @SuppressWarnings("unchecked")
+        Node(Object bean, int tables) {
+            this.bean = bean;
+            this.children = new Map[tables];
+
+            for (int i = 0; i < tables; i++) {
+                this.children[i] = new HashMap<Object, Node>();
+            }
+        }
+    }
+
+    /**
+     * The state of one call to <code>handle()</code>.
+     */
+    private final class Graph {
+
+        /**
+         * The id column index of each table.
+         */
+        private final int[] ids;
+
+        /**
+         * The beans created for each table, by id, so a bean joined to several parents is created once.
+         */
+        private final Map<Object, Object>[] beans;
+
+        /**
+         * The root beans, in order.
+         */
+        private final List<Object> roots = new ArrayList<Object>();
+
+        @SuppressWarnings("unchecked")
+        Graph(ResultSetMetaData rsmd) throws SQLException {
+            final Table[] all = GraphHandler.this.tables;
+
+            this.ids = new int[all.length];
+            this.beans = new Map[all.length];
+
+            for (int i = 0; i < all.length; i++) {
+                this.ids[i] = column(rsmd, all[i].idColumn);
+                this.beans[i] = new HashMap<Object, Object>();
+            }
+        }
+
+        /**
+         * Adds a row's bean of a table, if it's new for the parent, and then the row's beans of the joined tables.
+         */
+        void add(ResultSet rs, Table table, Object parent, Map<Object, Node> siblings) throws SQLException {
+            final Object id = rs.getObject(this.ids[table.index]);
+
+            if (id == null) {
+                return;
+            }
+            Node node = siblings.get(id);
+
+            if (node == null) {
+                Object bean = this.beans[table.index].get(id);
+
+                if (bean == null) {
+                    bean = table.processor.toBean(rs, table.type);
+                    this.beans[table.index].put(id, bean);
+                }
+                node = new Node(bean, table.children.length);
+                siblings.put(id, node);
+
+                if (parent == null) {
+                    this.roots.add(bean);
+                } else {
+                    table.attach(parent, bean);
+                }
+            }
+
+            for (int i = 0; i < table.children.length; i++) {
+                add(rs, table.children[i], node.bean, node.children[i]);
+            }
+        }
+
+        /**
+         * Finds a column by label, or by name, ignoring case.
+         */
+        private int column(ResultSetMetaData rsmd, String label) throws SQLException {
+            final int cols = rsmd.getColumnCount();
+
+            for (int col = 1; col <= cols; col++) {
+                String columnName = rsmd.getColumnLabel(col);
+
+                if (null == columnName || 0 == columnName.length()) {
+                    columnName = rsmd.getColumnName(col);
+                }
+                if (label.equalsIgnoreCase(columnName)) {
+                    return col;
+                }
+            }
+
+            throw new SQLException("Cannot find id column " + label);
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.sop4j.dbutils.ResultSetHandler;
+
+/**
+ * <p>
+ * <code>ResultSetHandler</code> implementation that groups the rows of a
+ * <code>ResultSet</code> by one or more columns and folds each group into a
+ * result with a {@link Reducer}, keeping one state per group rather than the
+ * rows. The rows don't need to be sorted.
+ * </p>
+ *
+ * <pre>
+ * ResultSetHandler&lt;Map&lt;String, Double&gt;&gt; h = new GroupByHandler&lt;String, Double&gt;(
+ *         &quot;region&quot;, Aggregates.sumDouble(&quot;total&quot;));
+ * </pre>
+ *
+ * <p>
+ * The keys are read with <code>getObject</code>. Grouping by several columns
+ * gives keys that are unmodifiable <code>List</code>s of the values. The
+ * groups are in the order first read.
+ * </p>
+ *
+ * <p>
+ * This class is thread safe if the reducer is.
+ * </p>
+ *
+ * @param <K> the type of the keys, <code>List&lt;Object&gt;</code> when grouping by several columns
+ * @param <R> the type of the result of a group
+ * @see com.sop4j.dbutils.ResultSetHandler
+ * @since 2.3
+ */
+public class GroupByHandler<K, R> implements ResultSetHandler<Map<K, R>> {
+
+    /**
+     * The labels of the columns to group by.
+     */
+    private final String[] columns;
+
+    /**
+     * Whether the keys are lists of the values, rather than the value of the one column.
+     */
+    private final boolean compositeKeys;
+
+    /**
+     * The reducer that folds each group.
+     */
+    private final Reducer<Object, R> reducer;
+
+    /**
+     * Creates a new instance of GroupByHandler grouping by one column.
+     *
+     * @param <S> the type of the reducer's state
+     * @param column The label of the column to group by.
+     * @param reducer The reducer that folds each group.
+     */
+    public <S> GroupByHandler(String column, Reducer<S, R> reducer) {
+        this(new String[] { column }, false, reducer);
+    }
+
+    /**
+     * Creates a new instance of GroupByHandler grouping by several columns.
+     *
+     * @param <S> the type of the reducer's state
+     * @param columns The labels of the columns to group by.
+     * @param reducer The reducer that folds each group.
+     */
+    public <S> GroupByHandler(String[] columns, Reducer<S, R> reducer) {
+        this(columns == null ? null : columns.clone(), true, reducer);
+    }
+
+    /**
+     * Helper constructor that checks the arguments.
+     */
+    @SuppressWarnings("unchecked")
+    private <S> GroupByHandler(String[] columns, boolean compositeKeys, Reducer<S, R> reducer) {
+        if (columns == null || columns.length == 0) {
+            throw new IllegalArgumentException("columns cannot be null or empty");
+        }
+        for (String column : columns) {
+            if (column == null) {
+                throw new IllegalArgumentException("column cannot be null");
+            }
+        }
+        if (reducer == null) {
+            throw new IllegalArgumentException("reducer cannot be null");
+        }
+
+        this.columns = columns;
+        this.compositeKeys = compositeKeys;
+        this.reducer = (Reducer<Object, R>) reducer;
+    }
+
+    /**
+     * Groups and folds the rows of the <code>ResultSet</code>.
+     *
+     * @param rs The <code>ResultSet</code> to handle.
+     *
+     * @return The result of each group, empty if the <code>ResultSet</code> is empty.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Map<K, R> handle(ResultSet rs) throws SQLException {
+        final int[] cols = new int[this.columns.length];
+
+        for (int i = 0; i < cols.length; i++) {
+            cols[i] = rs.findColumn(this.columns[i]);
+        }
+
+        final Map<Key, Object[]> groups = new LinkedHashMap<Key, Object[]>();
+
+        // the key of the current row, only copied when it starts a new group
+        final Key probe = new Key(new Object[cols.length]);
+
+        while (rs.next()) {
+            for (int i = 0; i < cols.length; i++) {
+                probe.values[i] = rs.getObject(cols[i]);
+            }
+            probe.rehash();
+
+            Object[] state = groups.get(probe);
+
+            if (state == null) {
+                state = new Object[] { this.reducer.start(rs) };
+                groups.put(new Key(probe.values.clone()), state);
+            }
+            state[0] = this.reducer.add(state[0], rs);
+        }
+
+        final Map<K, R> result = new LinkedHashMap<K, R>(groups.size() * 2);
+
+        for (Map.Entry<Key, Object[]> group : groups.entrySet()) {
+            result.put(this.key(group.getKey().values), this.reducer.finish(group.getValue()[0]));
+        }
+
+        return result;
+    }
+
+    /**
+     * Helper method to turn the values of a group's columns into its key.
+     */
+    @SuppressWarnings("unchecked")
+    private K key(Object[] values) {
+        if (this.compositeKeys) {
+            return (K) Collections.unmodifiableList(Arrays.asList(values));
+        }
+        return (K) values[0];
+    }
+
+    /**
+     * The values of a group's columns, with their hash cached.
+     */
+    private static final class Key {
+        private final Object[] values;
+        private int hash;
+
+        Key(Object[] values) {
+            this.values = values;
+            this.rehash();
+        }
+
+        void rehash() {
+            this.hash = Arrays.hashCode(this.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && this.hash == ((Key) obj).hash
+                   && Arrays.equals(this.values, ((Key) obj).values);
+        }
+    }
+
+}
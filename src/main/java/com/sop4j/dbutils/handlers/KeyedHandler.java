@@ -72,7 +72,7 @@ public class KeyedHandler<K> extends AbstractKeyedHandler<K, Map<String, Object>
      * of each row will be a key in the Map.
      */
     public KeyedHandler() {
-        this(ArrayHandler.ROW_PROCESSOR, 1, null);
+        this(ArrayHandler.ROW_PROCESSOR, 1, null, 0);
     }
 
     /**
@@ -83,7 +83,7 @@ public class KeyedHandler<K> extends AbstractKeyedHandler<K, Map<String, Object>
      * to use when converting rows into Maps
      */
     public KeyedHandler(RowProcessor convert) {
-        this(convert, 1, null);
+        this(convert, 1, null, 0);
     }
 
     /**
@@ -93,7 +93,7 @@ public class KeyedHandler<K> extends AbstractKeyedHandler<K, Map<String, Object>
      * retrieved from the column at this index.
      */
     public KeyedHandler(int columnIndex) {
-        this(ArrayHandler.ROW_PROCESSOR, columnIndex, null);
+        this(ArrayHandler.ROW_PROCESSOR, columnIndex, null, 0);
     }
 
     /**
@@ -103,7 +103,21 @@ public class KeyedHandler<K> extends AbstractKeyedHandler<K, Map<String, Object>
      * retrieved from the column with this name.
      */
     public KeyedHandler(String columnName) {
-        this(ArrayHandler.ROW_PROCESSOR, 1, columnName);
+        this(ArrayHandler.ROW_PROCESSOR, 1, columnName, 0);
+    }
+
+    /**
+     * Creates a new instance of KeyedHandler that expects a number of rows.
+     *
+     * @param columnName The values to use as keys in the Map are
+     * retrieved from the column with this name.
+     * @param expectedSize The number of rows expected. When the key column is
+     * a <code>BIGINT</code> of <code>Long</code>s, the rows are stored in a
+     * {@link LongHashMap} sized for them.
+     * @since 2.3
+     */
+    public KeyedHandler(String columnName, int expectedSize) {
+        this(ArrayHandler.ROW_PROCESSOR, 1, columnName, expectedSize);
     }
 
     /**
@@ -115,10 +129,11 @@ public class KeyedHandler<K> extends AbstractKeyedHandler<K, Map<String, Object>
      * retrieved from the column at this index.
      * @param columnName The values to use as keys in the Map are
      * retrieved from the column with this name.
+     * @param expectedSize The number of rows expected, or 0.
      */
     private KeyedHandler(RowProcessor convert, int columnIndex,
-            String columnName) {
-        super();
+            String columnName, int expectedSize) {
+        super(expectedSize);
         this.convert = convert;
         this.columnIndex = columnIndex;
         this.columnName = columnName;
@@ -145,6 +160,11 @@ public class KeyedHandler<K> extends AbstractKeyedHandler<K, Map<String, Object>
                     (K) rs.getObject(columnName);
     }
 
+    @Override
+    int longKeyColumn(ResultSet rs) throws SQLException {
+        return this.bigintKeyColumn(rs, KeyedHandler.class, this.columnIndex, this.columnName);
+    }
+
     /**
      * This factory method is called by <code>handle()</code> to store the
      * current <code>ResultSet</code> row in some object. This
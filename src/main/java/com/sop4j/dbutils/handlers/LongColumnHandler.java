@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * <code>ResultSetHandler</code> implementation that converts one
+ * <code>ResultSet</code> column into a <code>long[]</code>, such as a list of
+ * ids. Values are read with <code>getLong</code> and never boxed, so each row
+ * takes 8 bytes instead of a <code>Long</code> and a list entry.
+ *
+ * <p>
+ * SQL <code>NULL</code>s are stored as 0, or as the given null value. The
+ * handler returned by {@link #withNulls()} also returns the rows that are
+ * SQL <code>NULL</code>. This class is thread safe.
+ * </p>
+ *
+ * @see com.sop4j.dbutils.ResultSetHandler
+ * @since 2.3
+ */
+public class LongColumnHandler extends PrimitiveColumnHandler<long[]> {
+
+    /**
+     * The value stored for SQL <code>NULL</code>.
+     */
+    private final long nullValue;
+
+    /**
+     * Creates a new instance of LongColumnHandler.  The first column of each
+     * row will be returned from <code>handle()</code>.
+     */
+    public LongColumnHandler() {
+        this(1, null, 0);
+    }
+
+    /**
+     * Creates a new instance of LongColumnHandler.
+     *
+     * @param columnIndex The index of the column to retrieve from the
+     * <code>ResultSet</code>.
+     */
+    public LongColumnHandler(int columnIndex) {
+        this(columnIndex, null, 0);
+    }
+
+    /**
+     * Creates a new instance of LongColumnHandler.
+     *
+     * @param columnName The name of the column to retrieve from the
+     * <code>ResultSet</code>.
+     */
+    public LongColumnHandler(String columnName) {
+        this(1, columnName, 0);
+    }
+
+    /**
+     * Creates a new instance of LongColumnHandler that stores a sentinel for SQL <code>NULL</code>.
+     *
+     * @param columnIndex The index of the column to retrieve from the
+     * <code>ResultSet</code>.
+     * @param nullValue The value stored for SQL <code>NULL</code>.
+     */
+    public LongColumnHandler(int columnIndex, long nullValue) {
+        this(columnIndex, null, nullValue);
+    }
+
+    /**
+     * Creates a new instance of LongColumnHandler that stores a sentinel for SQL <code>NULL</code>.
+     *
+     * @param columnName The name of the column to retrieve from the
+     * <code>ResultSet</code>.
+     * @param nullValue The value stored for SQL <code>NULL</code>.
+     */
+    public LongColumnHandler(String columnName, long nullValue) {
+        this(1, columnName, nullValue);
+    }
+
+    /**
+     * Private Helper
+     */
+    private LongColumnHandler(int columnIndex, String columnName, long nullValue) {
+        super(columnIndex, columnName);
+        this.nullValue = nullValue;
+    }
+
+    @Override
+    long[] newArray(int length) {
+        return new long[length];
+    }
+
+    @Override
+    long[] copyOf(long[] values, int length) {
+        return Arrays.copyOf(values, length);
+    }
+
+    @Override
+    boolean read(ResultSet rs, int col, long[] values, int row) throws SQLException {
+        final long value = rs.getLong(col);
+
+        if (value == 0 && rs.wasNull()) {
+            values[row] = this.nullValue;
+            return true;
+        }
+        values[row] = value;
+        return false;
+    }
+
+}
@@ -0,0 +1,552 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>
+ * A <code>Map</code> with <code>long</code> keys, stored in an open addressing
+ * hash table of a <code>long[]</code> and an <code>Object[]</code>, so keys
+ * are never boxed when the map is filled or read with the <code>long</code>
+ * methods. As a <code>Map&lt;Long, V&gt;</code> it behaves like a
+ * <code>HashMap</code>, including a <code>null</code> key, and boxes keys
+ * only when they are iterated.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ *
+ * @param <V> the type of mapped values
+ * @since 2.3
+ */
+public class LongHashMap<V> extends AbstractMap<Long, V> implements Serializable {
+
+    private static final long serialVersionUID = 3412870465839722104L;
+
+    /**
+     * Marks a slot holding a <code>null</code> value; empty slots hold <code>null</code>.
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    /**
+     * The slot of the null key's entry, which is not in the table.
+     */
+    private static final int NULL_KEY_SLOT = -1;
+
+    /**
+     * The smallest table.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    private transient long[] keys;
+    private transient Object[] values;
+    private transient int size;
+    private transient int resizeAt;
+    private transient int modCount;
+
+    private transient boolean hasNullKey;
+    private transient V nullKeyValue;
+
+    /**
+     * Creates an empty map.
+     */
+    public LongHashMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map that holds an expected number of entries without growing.
+     *
+     * @param expectedSize the number of entries expected.
+     */
+    public LongHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize cannot be negative");
+        }
+        int capacity = MIN_CAPACITY;
+
+        // keep the table at most two thirds full
+        while (capacity < (1 << 30) && capacity * 2L < expectedSize * 3L) {
+            capacity <<= 1;
+        }
+        this.allocate(capacity);
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key.
+     * @return the value, or <code>null</code> if the key is not in the map.
+     */
+    public V get(long key) {
+        final int slot = this.find(key);
+
+        return slot < 0 ? null : this.value(slot);
+    }
+
+    /**
+     * Tests if a key is in the map.
+     *
+     * @param key the key.
+     * @return true if the key is in the map.
+     */
+    public boolean containsKey(long key) {
+        return this.find(key) >= 0;
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key the key.
+     * @param value the value.
+     * @return the previous value, or <code>null</code> if the key was not in the map.
+     */
+    public V put(long key, V value) {
+        final long[] k = this.keys;
+        final Object[] v = this.values;
+        final int mask = k.length - 1;
+        int slot = hash(key) & mask;
+
+        while (v[slot] != null) {
+            if (k[slot] == key) {
+                final V old = this.value(slot);
+                v[slot] = value == null ? NULL_VALUE : value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        k[slot] = key;
+        v[slot] = value == null ? NULL_VALUE : value;
+        this.modCount++;
+
+        if (++this.size > this.resizeAt) {
+            this.rehash();
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key.
+     * @return the value, or <code>null</code> if the key was not in the map.
+     */
+    public V remove(long key) {
+        final int slot = this.find(key);
+
+        return slot < 0 ? null : this.removeSlot(slot);
+    }
+
+    /**
+     * Removes the entry in a full slot, shifting back the entries after it
+     * in its run of full slots. Only entries after the slot move, and they
+     * stay in the run.
+     */
+    private V removeSlot(int slot) {
+        final V old = this.value(slot);
+        final long[] k = this.keys;
+        final Object[] v = this.values;
+        final int mask = k.length - 1;
+
+        // shift back the entries after the removed one that probed past it
+        for (int next = (slot + 1) & mask; v[next] != null; next = (next + 1) & mask) {
+            final int home = hash(k[next]) & mask;
+
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                k[slot] = k[next];
+                v[slot] = v[next];
+                slot = next;
+            }
+        }
+        v[slot] = null;
+        this.size--;
+        this.modCount++;
+
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return this.hasNullKey ? this.size + 1 : this.size;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (key == null) {
+            return this.nullKeyValue;
+        }
+
+        return key instanceof Long ? this.get(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (key == null) {
+            return this.hasNullKey;
+        }
+
+        return key instanceof Long && this.containsKey(((Long) key).longValue());
+    }
+
+    @Override
+    public V put(Long key, V value) {
+        if (key != null) {
+            return this.put(key.longValue(), value);
+        }
+        final V old = this.nullKeyValue;
+
+        if (!this.hasNullKey) {
+            this.hasNullKey = true;
+            this.modCount++;
+        }
+        this.nullKeyValue = value;
+
+        return old;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key == null) {
+            final V old = this.nullKeyValue;
+
+            if (this.hasNullKey) {
+                this.hasNullKey = false;
+                this.nullKeyValue = null;
+                this.modCount++;
+            }
+
+            return old;
+        }
+
+        return key instanceof Long ? this.remove(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public void clear() {
+        this.allocate(MIN_CAPACITY);
+        this.size = 0;
+        this.hasNullKey = false;
+        this.nullKeyValue = null;
+        this.modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<Long, V>> entrySet() {
+        return new AbstractSet<Map.Entry<Long, V>>() {
+            @Override
+            public Iterator<Map.Entry<Long, V>> iterator() {
+                return new Entries();
+            }
+
+            @Override
+            public int size() {
+                return LongHashMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Spreads the bits of a key, so sequential ids don't probe long runs.
+     */
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Finds the slot of a key.
+     */
+    private int find(long key) {
+        final long[] k = this.keys;
+        final Object[] v = this.values;
+        final int mask = k.length - 1;
+        int slot = hash(key) & mask;
+
+        while (v[slot] != null) {
+            if (k[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Gets the value in a full slot.
+     */
+    @SuppressWarnings("unchecked")
+    private V value(int slot) {
+        final Object value = this.values[slot];
+
+        return value == NULL_VALUE ? null : (V) value;
+    }
+
+    /**
+     * Creates empty arrays of a capacity.
+     */
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.resizeAt = capacity / 3 * 2;
+    }
+
+    /**
+     * Doubles the capacity.
+     */
+    private void rehash() {
+        final long[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+
+        if (oldKeys.length == (1 << 30)) {
+            throw new IllegalStateException("LongHashMap is full");
+        }
+        this.allocate(oldKeys.length * 2);
+
+        final long[] k = this.keys;
+        final Object[] v = this.values;
+        final int mask = k.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+
+                while (v[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                k[slot] = oldKeys[i];
+                v[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Writes the size, then each key and value.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(this.size());
+
+        if (this.hasNullKey) {
+            out.writeBoolean(true);
+            out.writeObject(this.nullKeyValue);
+        } else {
+            out.writeBoolean(false);
+        }
+        for (int slot = 0; slot < this.values.length; slot++) {
+            if (this.values[slot] != null) {
+                out.writeLong(this.keys[slot]);
+                out.writeObject(this.value(slot));
+            }
+        }
+    }
+
+    /**
+     * Reads the entries written by <code>writeObject</code>.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int entries = in.readInt();
+
+        this.allocate(MIN_CAPACITY);
+        if (in.readBoolean()) {
+            this.put((Long) null, (V) in.readObject());
+            entries--;
+        }
+        for (int i = 0; i < entries; i++) {
+            this.put(in.readLong(), (V) in.readObject());
+        }
+    }
+
+    /**
+     * Iterates over the null key, then the slots downwards, starting below an
+     * empty slot. Removing an entry only moves entries that come after it in
+     * its run of full slots, which have already been iterated over, so the
+     * iterator can remove entries without missing or repeating any.
+     */
+    private final class Entries implements Iterator<Map.Entry<Long, V>> {
+
+        private int expectedModCount = LongHashMap.this.modCount;
+        private boolean nullKey = LongHashMap.this.hasNullKey;
+        private int next;
+        private int remaining;
+        private int last = -2;
+
+        Entries() {
+            final Object[] v = LongHashMap.this.values;
+            int empty = 0;
+
+            // the table is never full
+            while (v[empty] != null) {
+                empty++;
+            }
+            this.next = empty;
+            this.remaining = v.length;
+            this.advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nullKey || this.remaining > 0;
+        }
+
+        @Override
+        public Map.Entry<Long, V> next() {
+            if (LongHashMap.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (this.nullKey) {
+                this.nullKey = false;
+                this.last = NULL_KEY_SLOT;
+                return new Entry(NULL_KEY_SLOT);
+            }
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next;
+            this.advance();
+
+            return new Entry(this.last);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == -2) {
+                throw new IllegalStateException();
+            }
+            if (LongHashMap.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (this.last == NULL_KEY_SLOT) {
+                LongHashMap.this.remove((Object) null);
+            } else {
+                LongHashMap.this.removeSlot(this.last);
+            }
+            this.last = -2;
+            this.expectedModCount = LongHashMap.this.modCount;
+        }
+
+        /**
+         * Moves down to the next full slot, counting the slots left to visit.
+         */
+        private void advance() {
+            final Object[] v = LongHashMap.this.values;
+            final int mask = v.length - 1;
+
+            do {
+                this.next = (this.next - 1) & mask;
+                this.remaining--;
+            } while (this.remaining > 0 && v[this.next] == null);
+        }
+    }
+
+    /**
+     * An entry in a slot, or the null key's entry, whose value can be set.
+     */
+    private final class Entry implements Map.Entry<Long, V> {
+
+        private final long key;
+        private int slot;
+
+        Entry(int slot) {
+            this.key = slot == NULL_KEY_SLOT ? 0 : LongHashMap.this.keys[slot];
+            this.slot = slot;
+        }
+
+        /**
+         * Gets the slot of the key, which removals can move.
+         */
+        private int slot() {
+            if (this.slot != NULL_KEY_SLOT
+                && (LongHashMap.this.values[this.slot] == null || LongHashMap.this.keys[this.slot] != this.key)) {
+                this.slot = LongHashMap.this.find(this.key);
+                if (this.slot < 0) {
+                    throw new IllegalStateException("Entry was removed");
+                }
+            }
+
+            return this.slot;
+        }
+
+        @Override
+        public Long getKey() {
+            return this.slot == NULL_KEY_SLOT ? null : Long.valueOf(this.key);
+        }
+
+        @Override
+        public V getValue() {
+            final int s = this.slot();
+
+            return s == NULL_KEY_SLOT ? LongHashMap.this.nullKeyValue : LongHashMap.this.value(s);
+        }
+
+        @Override
+        public V setValue(V value) {
+            final V old = this.getValue();
+
+            if (this.slot == NULL_KEY_SLOT) {
+                LongHashMap.this.nullKeyValue = value;
+            } else {
+                LongHashMap.this.values[this.slot] = value == null ? NULL_VALUE : value;
+            }
+
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            final Object value = this.getValue();
+
+            final Object key = this.getKey();
+
+            return (key == null ? e.getKey() == null : key.equals(e.getKey()))
+                   && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            final Object value = this.getValue();
+
+            final Object key = this.getKey();
+
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return this.getKey() + "=" + this.getValue();
+        }
+    }
+
+}
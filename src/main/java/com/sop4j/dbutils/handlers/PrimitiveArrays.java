@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+/**
+ * Sizes of the growable primitive arrays filled by the handlers.
+ *
+ * @since 2.3
+ */
+final class PrimitiveArrays {
+
+    /**
+     * The capacity of the arrays before the first row is read.
+     */
+    static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The largest array that can be allocated.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private PrimitiveArrays() {
+        // static methods only
+    }
+
+    /**
+     * Gets the capacity to grow a full array to, by half its length.
+     *
+     * @param length the length of the full array.
+     * @return the new length.
+     */
+    static int grow(int length) {
+        if (length >= MAX_CAPACITY) {
+            throw new OutOfMemoryError("Too many rows for an array");
+        }
+
+        return (int) Math.min((long) length + (length >> 1) + 1, MAX_CAPACITY);
+    }
+
+}
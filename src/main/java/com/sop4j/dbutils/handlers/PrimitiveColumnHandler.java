@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+
+import com.sop4j.dbutils.ResultSetHandler;
+
+/**
+ * Reads one column of every row into a growable primitive array. The
+ * subclasses store the values of one primitive type, and replace SQL
+ * <code>NULL</code> with their null value.
+ *
+ * @param <A> the type of the array of values
+ * @since 2.3
+ */
+abstract class PrimitiveColumnHandler<A> implements ResultSetHandler<A> {
+
+    /**
+     * The column number to retrieve.
+     */
+    private final int columnIndex;
+
+    /**
+     * The column name to retrieve.  Either columnName or columnIndex
+     * will be used but never both.
+     */
+    private final String columnName;
+
+    /**
+     * Creates a new instance of PrimitiveColumnHandler.
+     *
+     * @param columnIndex The index of the column to retrieve.
+     * @param columnName The name of the column to retrieve, or null to use the index.
+     */
+    PrimitiveColumnHandler(int columnIndex, String columnName) {
+        this.columnIndex = columnIndex;
+        this.columnName = columnName;
+    }
+
+    /**
+     * Creates an array of values.
+     *
+     * @param length the length of the array.
+     * @return the new array.
+     */
+    abstract A newArray(int length);
+
+    /**
+     * Copies an array of values into one of another length.
+     *
+     * @param values the array to copy.
+     * @param length the length of the copy.
+     * @return the copy.
+     */
+    abstract A copyOf(A values, int length);
+
+    /**
+     * Reads the column of the current row into the array, storing the null
+     * value if it's SQL <code>NULL</code>.
+     *
+     * @param rs the <code>ResultSet</code>, on the row to read.
+     * @param col the index of the column.
+     * @param values the array of values.
+     * @param row the index of the row in the array.
+     * @return true if the column is SQL <code>NULL</code>.
+     * @throws SQLException if a database access error occurs
+     */
+    abstract boolean read(ResultSet rs, int col, A values, int row) throws SQLException;
+
+    /**
+     * Converts the column of every row into an array.
+     *
+     * @param rs The <code>ResultSet</code> to handle.
+     *
+     * @return The column's values, one per row, never <code>null</code>.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public A handle(ResultSet rs) throws SQLException {
+        return this.readColumn(rs, null);
+    }
+
+    /**
+     * Gets a handler that also returns the rows where the column is SQL
+     * <code>NULL</code>, which can't be told apart from the null value in
+     * the array.
+     *
+     * @return the handler, which is thread safe.
+     */
+    public ResultSetHandler<ColumnValues<A>> withNulls() {
+        return new ResultSetHandler<ColumnValues<A>>() {
+            @Override
+            public ColumnValues<A> handle(ResultSet rs) throws SQLException {
+                final BitSet nulls = new BitSet();
+
+                return new ColumnValues<A>(PrimitiveColumnHandler.this.readColumn(rs, nulls), nulls);
+            }
+        };
+    }
+
+    /**
+     * Reads the column of every row, setting the SQL <code>NULL</code> rows in a set if there is one.
+     */
+    private A readColumn(ResultSet rs, BitSet nulls) throws SQLException {
+        final int col = this.columnName == null ? this.columnIndex : rs.findColumn(this.columnName);
+        int capacity = PrimitiveArrays.INITIAL_CAPACITY;
+        A values = this.newArray(capacity);
+        int rows = 0;
+
+        while (rs.next()) {
+            if (rows == capacity) {
+                capacity = PrimitiveArrays.grow(rows);
+                values = this.copyOf(values, capacity);
+            }
+            if (this.read(rs, col, values, rows) && nulls != null) {
+                nulls.set(rows);
+            }
+            rows++;
+        }
+
+        return rows == capacity ? values : this.copyOf(values, rows);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Folds rows into a result, one row at a time, so rows don't have to be
+ * kept. A state is started for each group and every row of the group is
+ * added to it; the state is then finished into the result. States are
+ * usually mutable and returned from <code>add</code>, so adding a row
+ * allocates nothing.
+ *
+ * <p>
+ * Implementations should be thread safe, keeping everything that changes
+ * in the states.
+ * </p>
+ *
+ * @param <S> the type of the state of a group
+ * @param <R> the type of the result of a group
+ * @see Aggregates
+ * @see GroupByHandler
+ * @see AggregateHandler
+ * @since 2.3
+ */
+public interface Reducer<S, R> {
+
+    /**
+     * Starts the state of a group. This is a good place to look up the
+     * indexes of the columns to read, as it's called once per group rather
+     * than once per row. The <code>ResultSet</code> may not be on a row, so
+     * only its metadata and <code>findColumn</code> should be used.
+     *
+     * @param rs the <code>ResultSet</code>.
+     * @return the empty state.
+     * @throws SQLException if a database access error occurs
+     */
+    S start(ResultSet rs) throws SQLException;
+
+    /**
+     * Adds the current row to the state of its group.
+     *
+     * @param state the state of the group.
+     * @param rs the <code>ResultSet</code>, on the row to add.
+     * @return the new state, usually the same object.
+     * @throws SQLException if a database access error occurs
+     */
+    S add(S state, ResultSet rs) throws SQLException;
+
+    /**
+     * Finishes the state of a group, after all its rows have been added.
+     *
+     * @param state the state of the group.
+     * @return the result of the group.
+     */
+    R finish(S state);
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.sop4j.dbutils.BeanProcessor;
+import com.sop4j.dbutils.ResultSetHandler;
+import com.sop4j.dbutils.RowConsumer;
+import com.sop4j.dbutils.RowMapper;
+import com.sop4j.dbutils.RowProcessor;
+
+/**
+ * <p>
+ * <code>ResultSetHandler</code> implementation that maps each row of a
+ * <code>ResultSet</code> and passes it to a {@link RowConsumer} rather
+ * than collecting the rows, so the memory used doesn't grow with the number
+ * of rows. The consumer can stop early by returning false.
+ * </p>
+ *
+ * <p>
+ * Most drivers read all the rows into memory when the query is executed
+ * unless a fetch size is set, and some also need auto-commit to be off or a
+ * forward-only cursor. {@link com.sop4j.dbutils.QueryExecutor#forEach(Class, RowConsumer)}
+ * uses this handler.
+ * </p>
+ *
+ * <p>
+ * This class is thread safe if the consumer is.
+ * </p>
+ *
+ * @param <T> the type each row is mapped to
+ * @see com.sop4j.dbutils.ResultSetHandler
+ * @since 2.3
+ */
+public class RowCallbackHandler<T> implements ResultSetHandler<Long> {
+
+    /**
+     * The BeanProcessor that maps rows to beans by default.
+     */
+    private static final BeanProcessor BEAN_PROCESSOR = new BeanProcessor();
+
+    /**
+     * The class of the beans the rows are mapped to, or null when a mapper is given.
+     */
+    private final Class<T> type;
+
+    /**
+     * The BeanProcessor that maps rows to beans.
+     */
+    private final BeanProcessor convert;
+
+    /**
+     * The mapper for the rows when it doesn't depend on the columns, or null.
+     */
+    private final RowMapper<T> mapper;
+
+    /**
+     * The consumer of the rows.
+     */
+    private final RowConsumer<? super T> consumer;
+
+    /**
+     * Creates a new instance of RowCallbackHandler that maps the rows to
+     * beans with a <code>BeanProcessor</code>.
+     *
+     * @param type The Class that the rows are mapped to.
+     * @param consumer The consumer of the rows.
+     */
+    public RowCallbackHandler(Class<T> type, RowConsumer<? super T> consumer) {
+        this(type, BEAN_PROCESSOR, consumer);
+    }
+
+    /**
+     * Creates a new instance of RowCallbackHandler that maps the rows to beans.
+     *
+     * @param type The Class that the rows are mapped to.
+     * @param convert The <code>BeanProcessor</code> that maps the rows. The
+     * columns are matched to the properties once per <code>ResultSet</code>.
+     * @param consumer The consumer of the rows.
+     */
+    public RowCallbackHandler(Class<T> type, BeanProcessor convert, RowConsumer<? super T> consumer) {
+        this(type, convert, null, consumer);
+        if (type == null) {
+            throw new IllegalArgumentException("type cannot be null");
+        }
+        if (convert == null) {
+            throw new IllegalArgumentException("convert cannot be null");
+        }
+    }
+
+    /**
+     * Creates a new instance of RowCallbackHandler that maps the rows with a mapper.
+     *
+     * @param mapper The mapper for the rows.
+     * @param consumer The consumer of the rows.
+     */
+    public RowCallbackHandler(RowMapper<T> mapper, RowConsumer<? super T> consumer) {
+        this(null, null, mapper, consumer);
+        if (mapper == null) {
+            throw new IllegalArgumentException("mapper cannot be null");
+        }
+    }
+
+    /**
+     * Helper constructor that checks the consumer.
+     */
+    private RowCallbackHandler(Class<T> type, BeanProcessor convert, RowMapper<T> mapper,
+            RowConsumer<? super T> consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("consumer cannot be null");
+        }
+        this.type = type;
+        this.convert = convert;
+        this.mapper = mapper;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Creates a RowCallbackHandler that maps the rows to arrays with a <code>RowProcessor</code>.
+     *
+     * @param convert The <code>RowProcessor</code> that maps the rows.
+     * @param consumer The consumer of the rows.
+     * @return the handler.
+     */
+    public static RowCallbackHandler<Object[]> forArrays(final RowProcessor convert,
+            RowConsumer<? super Object[]> consumer) {
+        if (convert == null) {
+            throw new IllegalArgumentException("convert cannot be null");
+        }
+
+        return new RowCallbackHandler<Object[]>(new RowMapper<Object[]>() {
+            @Override
+            public Object[] map(ResultSet rs) throws SQLException {
+                return convert.toArray(rs);
+            }
+        }, consumer);
+    }
+
+    /**
+     * Creates a RowCallbackHandler that maps the rows to arrays with a <code>BasicRowProcessor</code>.
+     *
+     * @param consumer The consumer of the rows.
+     * @return the handler.
+     */
+    public static RowCallbackHandler<Object[]> forArrays(RowConsumer<? super Object[]> consumer) {
+        return forArrays(ArrayHandler.ROW_PROCESSOR, consumer);
+    }
+
+    /**
+     * Maps the rows and passes them to the consumer, until there are no more
+     * rows or the consumer returns false.
+     *
+     * @param rs The <code>ResultSet</code> to handle.
+     *
+     * @return The number of rows passed to the consumer, including the one it stopped at.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Long handle(ResultSet rs) throws SQLException {
+        long count = 0;
+
+        if (!rs.next()) {
+            return Long.valueOf(count);
+        }
+
+        final RowMapper<T> rows = this.mapper == null ? this.convert.rowMapper(rs, this.type) : this.mapper;
+
+        do {
+            count++;
+            if (!this.consumer.accept(rows.map(rs))) {
+                break;
+            }
+        } while (rs.next());
+
+        return Long.valueOf(count);
+    }
+
+}
@@ -15,17 +15,25 @@
  */
 package com.sop4j.dbutils;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ParameterMetaData;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -36,7 +44,7 @@ import org.mockito.MockitoAnnotations;
 public class AbstractExecutorTest {
 
     @SuppressWarnings("rawtypes") // don't care about this in the unit test
-    private AbstractExecutor executor;
+    private AbstractExecutor<?> executor;
 
     @Mock private Connection conn;
     @Mock private PreparedStatement stmt;
@@ -49,9 +57,13 @@ public class AbstractExecutorTest {
         when(conn.prepareStatement(any(String.class), any(Integer.class))).thenReturn(stmt);
     }
 
-    @SuppressWarnings("rawtypes")
     public void createExecutor(String sql) throws SQLException {
-        executor = new AbstractExecutor(conn, sql) { };
+        createExecutor(conn, sql);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public void createExecutor(Connection connection, String sql) throws SQLException {
+        executor = new AbstractExecutor(connection, sql) { };
     }
 
     @Test
@@ -123,4 +135,219 @@ public class AbstractExecutorTest {
         verify(stmt, times(1)).setNull(1, Types.VARCHAR);
         verify(stmt, times(1)).setNull(2, Types.NULL);
     }
+
+    @Test
+    public void testSlotBind() throws SQLException {
+        createExecutor("select * from blah where a = :first or b = :first and c = :last");
+
+        final ParameterSlot first = executor.slot(":first");
+        final ParameterSlot last = executor.slot("last");
+
+        assertEquals("first", first.getName());
+        assertEquals(0, first.getIndex());
+        assertEquals(1, last.getIndex());
+
+        executor.bind(first, "first_name")
+                .bindNull(last, Types.VARCHAR);
+
+        verify(stmt, times(1)).setObject(1, "first_name");
+        verify(stmt, times(1)).setObject(2, "first_name");
+        verify(stmt, times(1)).setNull(3, Types.VARCHAR);
+
+        executor.throwIfUnmappedParams();
+    }
+
+    @Test
+    public void testSlotFromSameSql() throws SQLException {
+        createExecutor("select * from blah where a = :first");
+        final ParameterSlot first = executor.slot("first");
+
+        createExecutor("select * from blah where a = :first");
+        executor.bind(first, "first_name");
+
+        verify(stmt, times(1)).setObject(1, "first_name");
+    }
+
+    @Test(expected=SQLException.class)
+    public void testSlotFromOtherSql() throws SQLException {
+        createExecutor("select * from blah where a = :first");
+        final ParameterSlot first = executor.slot("first");
+
+        createExecutor("select * from other where a = :first");
+        executor.bind(first, "first_name");
+    }
+
+    @Test
+    public void testUnboundParams() throws SQLException {
+        createExecutor("select * from blah where a = :first and b = :middle and c = :last");
+
+        executor.bind("middle", "middle_name");
+
+        try {
+            executor.throwIfUnmappedParams();
+            fail("expected an exception for unbound params");
+        } catch (SQLException e) {
+            assertEquals("There are unbound parameters: first, last", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testTypedBinds() throws SQLException {
+        createExecutor("insert into blah values (:i, :l, :d, :b, :s, :bytes, :ts, :i)");
+
+        final byte[] bytes = new byte[] { 1, 2 };
+        final Timestamp ts = new Timestamp(0);
+
+        executor.bindInt("i", 1)
+                .bindLong(":l", 2L)
+                .bindDouble("d", 3.5)
+                .bindBoolean("b", true)
+                .bindString("s", "str")
+                .bindBytes("bytes", bytes)
+                .bindTimestamp("ts", ts);
+
+        verify(stmt, times(1)).setInt(1, 1);
+        verify(stmt, times(1)).setLong(2, 2L);
+        verify(stmt, times(1)).setDouble(3, 3.5);
+        verify(stmt, times(1)).setBoolean(4, true);
+        verify(stmt, times(1)).setString(5, "str");
+        verify(stmt, times(1)).setBytes(6, bytes);
+        verify(stmt, times(1)).setTimestamp(7, ts);
+        verify(stmt, times(1)).setInt(8, 1);
+
+        executor.throwIfUnmappedParams();
+    }
+
+    @Test(expected=SQLException.class)
+    public void testTypedDoubleBind() throws SQLException {
+        createExecutor("select * from blah where a = :first");
+
+        executor.bindInt("first", 1)
+                .bindInt("first", 2);
+    }
+
+    @Test
+    public void testNullDoubleBind() throws SQLException {
+        createExecutor("select * from blah where a = :first");
+
+        executor.bindNull("first");
+
+        try {
+            executor.bindNull("first", Types.INTEGER);
+            fail("Expected SQLException");
+        } catch (SQLException e) {
+            // the first bind is kept
+            verify(stmt, times(1)).setNull(1, Types.VARCHAR);
+            verify(stmt, times(0)).setNull(1, Types.INTEGER);
+        }
+    }
+
+    @Test
+    public void testParameterMetaData() throws SQLException {
+        final ParameterMetaData pmd = mock(ParameterMetaData.class);
+
+        when(stmt.getParameterMetaData()).thenReturn(pmd);
+        when(pmd.getParameterType(1)).thenReturn(Integer.valueOf(Types.INTEGER));
+        when(pmd.getParameterType(2)).thenReturn(Integer.valueOf(Types.VARCHAR));
+        when(pmd.getParameterType(3)).thenReturn(Integer.valueOf(Types.TIMESTAMP));
+        when(pmd.getParameterType(4)).thenReturn(Integer.valueOf(Types.BIGINT));
+
+        createExecutor("select * from blah where a = :a and b = :b and c = :c and d = :d and pmd = 1");
+
+        executor.useParameterMetaData()
+                .bind("a", Integer.valueOf(1))
+                .bind("b", "str")
+                .bindNull("c")
+                .bind("d", "not a long");
+
+        verify(stmt, times(1)).setInt(1, 1);
+        verify(stmt, times(1)).setString(2, "str");
+        verify(stmt, times(1)).setNull(3, Types.TIMESTAMP);
+        verify(stmt, times(1)).setObject(4, "not a long");
+    }
+
+    @Test
+    public void testParameterMetaDataUnsupported() throws SQLException {
+        when(stmt.getParameterMetaData()).thenThrow(new SQLException("not supported"));
+
+        createExecutor("select * from blah where a = :a and b = :b and pmd = 2");
+
+        executor.useParameterMetaData()
+                .bind("a", Integer.valueOf(1))
+                .bindNull("b");
+
+        verify(stmt, times(1)).setObject(1, Integer.valueOf(1));
+        verify(stmt, times(1)).setNull(2, Types.VARCHAR);
+    }
+
+    @Test
+    public void testParameterMetaDataPerDatabase() throws SQLException {
+        final ParameterMetaData pmd = mock(ParameterMetaData.class);
+
+        when(stmt.getParameterMetaData()).thenReturn(pmd);
+        when(pmd.getParameterType(1)).thenReturn(Integer.valueOf(Types.INTEGER));
+
+        final DatabaseMetaData one = mock(DatabaseMetaData.class);
+        when(one.getURL()).thenReturn("jdbc:one");
+        when(conn.getMetaData()).thenReturn(one);
+
+        final DatabaseMetaData two = mock(DatabaseMetaData.class);
+        final Connection other = mock(Connection.class);
+        when(two.getURL()).thenReturn("jdbc:two");
+        when(other.prepareStatement(any(String.class), any(Integer.class))).thenReturn(stmt);
+        when(other.getMetaData()).thenReturn(two);
+
+        for (int i = 0; i < 4; i++) {
+            createExecutor(i % 2 == 0 ? conn : other, "select * from blah where a = :a and pmd = 3");
+            executor.useParameterMetaData().bind("a", Integer.valueOf(1));
+        }
+
+        // read once for each database, and each connection's URL is read once
+        verify(stmt, times(2)).getParameterMetaData();
+        verify(stmt, times(4)).setInt(1, 1);
+        verify(one, times(1)).getURL();
+        verify(two, times(1)).getURL();
+    }
+
+    @Test
+    public void testBindList() throws SQLException {
+        createExecutor("select * from blah where a = :a and id in (:ids)");
+
+        executor.bind("a", "x").bindList("ids", Arrays.asList(1, 2, 3));
+        executor.throwIfUnmappedParams();
+
+        PreparedStatement ps = executor.prepareChunk(0);
+
+        // padded to 4 with the last value
+        verify(conn, times(1)).prepareStatement("select * from blah where a = ? and id in (?, ?, ?, ?)", Statement.NO_GENERATED_KEYS);
+        // once when it was bound, and once on the expanded statement
+        verify(ps, times(2)).setObject(1, "x");
+        verify(ps, times(1)).setObject(2, 1);
+        verify(ps, times(1)).setObject(3, 2);
+        verify(ps, times(1)).setObject(4, 3);
+        verify(ps, times(1)).setObject(5, 3);
+    }
+
+    @Test
+    public void testBindListChunks() throws SQLException {
+        createExecutor("select * from blah where id in (:ids)");
+
+        executor.listChunkSize(3).bindList("ids", Arrays.asList(1, 2, 3, 4));
+
+        assertEquals(2, executor.getChunkCount());
+
+        executor.prepareChunk(0);
+        verify(conn, times(1)).prepareStatement("select * from blah where id in (?, ?, ?)", Statement.NO_GENERATED_KEYS);
+
+        executor.prepareChunk(1);
+        verify(conn, times(1)).prepareStatement("select * from blah where id in (?)", Statement.NO_GENERATED_KEYS);
+        verify(stmt, times(1)).setObject(1, 4);
+    }
+
+    @Test(expected=SQLException.class)
+    public void testBindEmptyList() throws SQLException {
+        createExecutor("select * from blah where id in (:ids)");
+
+        executor.bindList("ids", Collections.emptyList());
+    }
 }
@@ -15,6 +15,13 @@
  */
 package com.sop4j.dbutils;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.text.DateFormat;
 import java.text.ParseException;
@@ -115,6 +122,49 @@ public class BasicRowProcessorTest extends BaseTestCase {
         datef.parse(b.getNotDate());
     }
 
+    public void testMetaDataReadOnce() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+        when(rs.getMetaData()).thenReturn(rsmd);
+        when(rsmd.getColumnCount()).thenReturn(2);
+        when(rsmd.getColumnLabel(1)).thenReturn("one");
+        when(rsmd.getColumnLabel(2)).thenReturn("two");
+        when(rs.getObject(1)).thenReturn("1");
+        when(rs.getObject(2)).thenReturn("2");
+
+        RowProcessor rowProcessor = new BasicRowProcessor();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(2, rowProcessor.toArray(rs).length);
+            assertEquals("2", rowProcessor.toMap(rs).get("TWO"));
+        }
+
+        verify(rs, times(1)).getMetaData();
+    }
+
+    public void testMetaDataReadOncePerResultSet() throws SQLException {
+        ResultSet[] results = new ResultSet[64];
+
+        for (int i = 0; i < results.length; i++) {
+            ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+            when(rsmd.getColumnCount()).thenReturn(1);
+            when(rsmd.getColumnLabel(1)).thenReturn("one");
+            results[i] = mock(ResultSet.class);
+            when(results[i].getMetaData()).thenReturn(rsmd);
+        }
+
+        // interleave rows of many result sets
+        RowProcessor rowProcessor = new BasicRowProcessor();
+        for (int row = 0; row < 3; row++) {
+            for (ResultSet result : results) {
+                assertEquals(1, rowProcessor.toArray(result).length);
+            }
+        }
+
+        for (ResultSet result : results) {
+            verify(result, times(1)).getMetaData();
+        }
+    }
+
     public void testToMap() throws SQLException {
 
         assertTrue(this.rs.next());
@@ -15,11 +15,20 @@
  */
 package com.sop4j.dbutils;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.beans.ConstructorProperties;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class BeanProcessorTest extends BaseTestCase {
@@ -109,4 +118,195 @@ public class BeanProcessorTest extends BaseTestCase {
             assertTrue(columns[i] != BeanProcessor.PROPERTY_NOT_FOUND);
         }
     }
+
+    public void testMappingIsCached() throws SQLException {
+        final int[] calls = new int[1];
+        BeanProcessor counting = new BeanProcessor() {
+            @Override
+            protected int[] mapColumnsToProperties(ResultSetMetaData rsmd, PropertyDescriptor[] props) throws SQLException {
+                calls[0]++;
+                return super.mapColumnsToProperties(rsmd, props);
+            }
+        };
+
+        assertEquals(ROWS, counting.toBeanList(this.rs, TestBean.class).size());
+
+        // a new query with the same columns reuses the mapping
+        ResultSet other = this.createMockResultSet();
+        assertTrue(other.next());
+        TestBean b = counting.toBean(other, TestBean.class);
+        assertEquals("1", b.getOne());
+        assertEquals(EnumTest.ENUM_ZERO, b.getEnumTest());
+        assertEquals(0, b.getNullPrimitiveTest());
+
+        assertTrue(other.next());
+        assertEquals("4", counting.toBean(other, TestBean.class).getOne());
+
+        assertEquals(1, calls[0]);
+    }
+
+    public void testMetaDataReadOncePerResultSet() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+        when(rs.getMetaData()).thenReturn(rsmd);
+        when(rsmd.getColumnCount()).thenReturn(1);
+        when(rsmd.getColumnLabel(1)).thenReturn("one");
+        when(rsmd.getColumnType(1)).thenReturn(Types.VARCHAR);
+        when(rs.getString(1)).thenReturn("1", "2", "3");
+
+        BeanProcessor processor = new BeanProcessor();
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(String.valueOf(i), processor.toBean(rs, TestBean.class).getOne());
+        }
+
+        verify(rs, times(1)).getMetaData();
+    }
+
+    public void testMetaDataReadOncePerResultSetAndClass() throws SQLException {
+        BeanProcessor processor = new BeanProcessor();
+        ResultSet[] results = new ResultSet[64];
+
+        for (int i = 0; i < results.length; i++) {
+            ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+            when(rsmd.getColumnCount()).thenReturn(1);
+            when(rsmd.getColumnLabel(1)).thenReturn("one");
+            when(rsmd.getColumnType(1)).thenReturn(Types.VARCHAR);
+            results[i] = mock(ResultSet.class);
+            when(results[i].getMetaData()).thenReturn(rsmd);
+        }
+
+        // interleave rows of many result sets, each mapped to two classes
+        for (int row = 0; row < 3; row++) {
+            for (ResultSet result : results) {
+                processor.toBean(result, TestBean.class);
+                processor.toBean(result, MapColumnToPropertiesBean.class);
+            }
+        }
+
+        for (ResultSet result : results) {
+            verify(result, times(2)).getMetaData();
+        }
+    }
+
+    public void testHotMappingSurvivesChurn() throws SQLException {
+        BeanProcessor processor = new BeanProcessor();
+        String[] hot = { "one", "two" };
+        BeanMapping mapping = processor.mapping(MockResultSet.create(MockResultSetMetaData.create(hot), new Object[0][]), TestBean.class);
+
+        for (int i = 0; i < 1000; i++) {
+            ResultSet other = MockResultSet.create(MockResultSetMetaData.create(new String[] { "column" + i }), new Object[0][]);
+            processor.mapping(other, TestBean.class);
+            assertSame(mapping, processor.mapping(MockResultSet.create(MockResultSetMetaData.create(hot), new Object[0][]), TestBean.class));
+        }
+    }
+
+    public void testProcessColumnOverride() throws SQLException {
+        BeanProcessor custom = new BeanProcessor() {
+            @Override
+            protected Object processColumn(ResultSet rs, int index, Class<?> propType) throws SQLException {
+                final Object value = super.processColumn(rs, index, propType);
+                return index == 1 ? "x" + value : value;
+            }
+        };
+
+        assertTrue(this.rs.next());
+        assertEquals("x1", custom.toBean(this.rs, TestBean.class).getOne());
+    }
+
+    public static class ImmutableBean {
+        private final String one;
+        private final int intTest;
+        private final int nullPrimitiveTest;
+        private final EnumTest enumTest;
+        private final Long missing;
+
+        @ConstructorProperties({ "one", "intTest", "nullPrimitiveTest", "enumTest", "missing" })
+        public ImmutableBean(String one, int intTest, int nullPrimitiveTest, EnumTest enumTest, Long missing) {
+            this.one = one;
+            this.intTest = intTest;
+            this.nullPrimitiveTest = nullPrimitiveTest;
+            this.enumTest = enumTest;
+            this.missing = missing;
+        }
+    }
+
+    public void testConstructorProperties() throws SQLException {
+        List<ImmutableBean> beans = beanProc.toBeanList(this.rs, ImmutableBean.class);
+
+        assertEquals(ROWS, beans.size());
+
+        ImmutableBean b = beans.get(1);
+        assertEquals("4", b.one);
+        assertEquals(3, b.intTest);
+        assertEquals(0, b.nullPrimitiveTest);
+        assertEquals(EnumTest.ENUM_ONE, b.enumTest);
+        assertNull(b.missing);
+    }
+
+    public static class BuiltBean {
+        private final String one;
+        private final int intTest;
+        private final EnumTest enumTest;
+
+        private BuiltBean(Builder builder) {
+            this.one = builder.one;
+            this.intTest = builder.intTest;
+            this.enumTest = builder.enumTest;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public static class Builder {
+            private String one;
+            private int intTest;
+            private EnumTest enumTest;
+
+            public Builder one(String one) {
+                this.one = one;
+                return this;
+            }
+
+            public Builder setIntTest(int intTest) {
+                this.intTest = intTest;
+                return this;
+            }
+
+            public Builder withEnumTest(EnumTest enumTest) {
+                this.enumTest = enumTest;
+                return this;
+            }
+
+            public BuiltBean build() {
+                return new BuiltBean(this);
+            }
+        }
+    }
+
+    public void testBuilder() throws SQLException {
+        assertTrue(this.rs.next());
+
+        BuiltBean b = beanProc.toBean(this.rs, BuiltBean.class);
+        assertEquals("1", b.one);
+        assertEquals(1, b.intTest);
+        assertEquals(EnumTest.ENUM_ZERO, b.enumTest);
+    }
+
+    public static class UnnamedBean {
+        public UnnamedBean(String one) {
+            // parameter names are not compiled in
+        }
+    }
+
+    public void testNoCreator() throws SQLException {
+        assertTrue(this.rs.next());
+
+        try {
+            beanProc.toBean(this.rs, UnnamedBean.class);
+            fail("Expected SQLException");
+        } catch (SQLException e) {
+            // expected
+        }
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Microbenchmark comparing the <code>MethodHandle</code> based
+ * {@link PropertySetter} against <code>Method.invoke</code>, for an object and
+ * a primitive property. This is not run as part of the unit tests; run it
+ * from the test classpath:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.sop4j.dbutils.BeanSetterBenchmark
+ * </pre>
+ */
+public class BeanSetterBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5000000;
+    private static final int ITERATIONS = 20000000;
+
+    public static class Bean {
+        private int intTest;
+        private String one;
+
+        public void setIntTest(int intTest) {
+            this.intTest = intTest;
+        }
+
+        public void setOne(String one) {
+            this.one = one;
+        }
+    }
+
+    private static long timeObject(PropertySetter setter, Bean bean, int iterations) throws Throwable {
+        final String[] values = { "a", "b", "c", "d" };
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++) {
+            setter.set(bean, values[i & 3]);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private static long timeInt(PropertySetter setter, Bean bean, int iterations) throws Throwable {
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++) {
+            setter.setInt(bean, i);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, long reflectNanos, long handleNanos) {
+        System.out.printf("%-8s reflection %6.2f ns/op, handle %6.2f ns/op (%.1fx)%n", name,
+                          Double.valueOf((double) reflectNanos / ITERATIONS), Double.valueOf((double) handleNanos / ITERATIONS),
+                          Double.valueOf((double) reflectNanos / handleNanos));
+    }
+
+    public static void main(String[] args) throws Throwable {
+        final Method setOne = Bean.class.getMethod("setOne", String.class);
+        final Method setIntTest = Bean.class.getMethod("setIntTest", int.class);
+        final PropertySetter[] one = { PropertySetter.reflective(setOne), PropertySetter.of(setOne) };
+        final PropertySetter[] intTest = { PropertySetter.reflective(setIntTest), PropertySetter.of(setIntTest) };
+        final Bean bean = new Bean();
+
+        for (int s = 0; s < 2; s++) {
+            timeObject(one[s], bean, WARMUP_ITERATIONS);
+            timeInt(intTest[s], bean, WARMUP_ITERATIONS);
+        }
+
+        report("String", timeObject(one[0], bean, ITERATIONS), timeObject(one[1], bean, ITERATIONS));
+        report("int", timeInt(intTest[0], bean, ITERATIONS), timeInt(intTest[1], bean, ITERATIONS));
+
+        // keep the JIT from removing the loops
+        if (bean.intTest == -1 && bean.one == null) {
+            System.out.println(bean);
+        }
+    }
+}
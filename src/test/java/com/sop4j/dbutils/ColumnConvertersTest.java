@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+
+@SuppressWarnings("boxing") // test code
+public class ColumnConvertersTest {
+
+    private final ColumnConverters converters = new ColumnConverters();
+
+    @Test
+    public void testUnsupported() {
+        assertNull(converters.find(Types.VARCHAR, String.class));
+        assertNull(converters.find(Types.INTEGER, Integer.TYPE));
+        assertNull(converters.find(Types.OTHER, Timestamp.class));
+        assertNull(converters.find(Types.VARCHAR, BigDecimal.class));
+    }
+
+    @Test
+    public void testEnum() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("ENUM_ONE", null, "nope");
+
+        ColumnConverter<EnumTest> converter = converters.find(Types.VARCHAR, EnumTest.class);
+
+        assertEquals(EnumTest.ENUM_ONE, converter.convert(rs, 1));
+        assertNull(converter.convert(rs, 1));
+
+        try {
+            converter.convert(rs, 1);
+            fail("Expected SQLException");
+        } catch (SQLException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDates() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        Timestamp ts = new Timestamp(1000);
+        java.sql.Date date = new java.sql.Date(2000);
+        when(rs.getTimestamp(1)).thenReturn(ts);
+        when(rs.getDate(1)).thenReturn(date);
+
+        assertSame(ts, converters.find(Types.TIMESTAMP, java.util.Date.class).convert(rs, 1));
+        assertSame(ts, converters.find(Types.TIMESTAMP, Timestamp.class).convert(rs, 1));
+        assertSame(date, converters.find(Types.DATE, java.util.Date.class).convert(rs, 1));
+        assertSame(date, converters.find(Types.TIMESTAMP, java.sql.Date.class).convert(rs, 1));
+    }
+
+    @Test
+    public void testUuid() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        byte[] bytes = ByteBuffer.allocate(16)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(uuid.toString());
+        when(rs.getBytes(1)).thenReturn(bytes);
+        when(rs.getObject(1)).thenReturn(uuid, uuid.toString(), null);
+
+        assertEquals(uuid, converters.find(Types.CHAR, UUID.class).convert(rs, 1));
+        assertEquals(uuid, converters.find(Types.BINARY, UUID.class).convert(rs, 1));
+
+        ColumnConverter<UUID> other = converters.find(Types.OTHER, UUID.class);
+        assertEquals(uuid, other.convert(rs, 1));
+        assertEquals(uuid, other.convert(rs, 1));
+        assertNull(other.convert(rs, 1));
+    }
+
+    @Test
+    public void testNumeric() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getBigDecimal(1)).thenReturn(new BigDecimal("12345678901234567890.5"));
+
+        assertEquals(new BigDecimal("12345678901234567890.5"), converters.find(Types.DECIMAL, BigDecimal.class).convert(rs, 1));
+        assertEquals(new BigInteger("12345678901234567890"), converters.find(Types.NUMERIC, BigInteger.class).convert(rs, 1));
+    }
+
+    @Test
+    public void testCustomFactory() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        final ColumnConverter<String> upper = new ColumnConverter<String>() {
+            @Override
+            public String convert(ResultSet rs, int index) throws SQLException {
+                String value = rs.getString(index);
+                return value == null ? null : value.toUpperCase();
+            }
+        };
+
+        ColumnConverters custom = new ColumnConverters(new ColumnConverterFactory() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> ColumnConverter<T> create(int sqlType, Class<T> type) {
+                created.incrementAndGet();
+                return type == String.class ? (ColumnConverter<T>) upper : null;
+            }
+        });
+
+        assertSame(upper, custom.find(Types.VARCHAR, String.class));
+        assertSame(upper, custom.find(Types.VARCHAR, String.class));
+        assertEquals(1, created.get());
+
+        // the built-in factories are still used
+        assertEquals(EnumTest.ENUM_ZERO, custom.find(Types.VARCHAR, EnumTest.class).convert(mockString("ENUM_ZERO"), 1));
+
+        ResultSetMetaData rsmd = MockResultSetMetaData.create(new String[] { "one", "two" });
+        ResultSet rs = MockResultSet.create(rsmd, new Object[][] { { "abc", null } });
+        rs.next();
+
+        TestBean bean = new BeanProcessor(custom).toBean(rs, TestBean.class);
+        assertEquals("ABC", bean.getOne());
+        assertNull(bean.getTwo());
+    }
+
+    private static ResultSet mockString(String value) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(value);
+        return rs;
+    }
+
+}
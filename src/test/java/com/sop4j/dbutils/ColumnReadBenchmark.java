@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Benchmark of the bytes allocated and the columns decoded per row when
+ * wrapper properties are tested for null with <code>getObject</code> before
+ * the typed getter, against reading them once and calling
+ * <code>wasNull</code>. The <code>ResultSet</code> decodes a new object for
+ * every <code>getObject</code>, like most drivers do. This is not run as part
+ * of the unit tests; run it from the test classpath:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.sop4j.dbutils.ColumnReadBenchmark
+ * </pre>
+ */
+public class ColumnReadBenchmark {
+
+    private static final int WARMUP_ROWS = 200000;
+    private static final int ROWS = 1000000;
+
+    private static final String[] COLUMNS = { "id", "parentId", "count", "total", "ratio", "score", "flag", "version" };
+
+    public static class Bean {
+        private Long id;
+        private Long parentId;
+        private Integer count;
+        private Long total;
+        private Double ratio;
+        private Double score;
+        private Boolean flag;
+        private Integer version;
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public void setParentId(Long parentId) {
+            this.parentId = parentId;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public void setTotal(Long total) {
+            this.total = total;
+        }
+
+        public void setRatio(Double ratio) {
+            this.ratio = ratio;
+        }
+
+        public void setScore(Double score) {
+            this.score = score;
+        }
+
+        public void setFlag(Boolean flag) {
+            this.flag = flag;
+        }
+
+        public void setVersion(Integer version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * A one-row ResultSet of numbers that counts how many columns are decoded.
+     */
+    private static final class Row implements InvocationHandler {
+        private final long[] values = { 1000, 0, 7, 123456789, 0, 0, 1, 3 };
+        private final boolean[] nulls = { false, true, false, false, false, true, false, false };
+        private final ResultSetMetaData metaData = MockResultSetMetaData.create(COLUMNS);
+        private long decoded;
+        private boolean wasNull;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+
+            if (name.equals("wasNull")) {
+                return Boolean.valueOf(wasNull);
+            } else if (name.equals("getMetaData")) {
+                return metaData;
+            }
+
+            final int col = ((Integer) args[0]).intValue() - 1;
+            decoded++;
+            wasNull = nulls[col];
+
+            if (name.equals("getObject")) {
+                // drivers decode a new object from the wire format
+                return wasNull ? null : new java.math.BigDecimal(values[col]);
+            } else if (name.equals("getLong")) {
+                return Long.valueOf(values[col]);
+            } else if (name.equals("getInt")) {
+                return Integer.valueOf((int) values[col]);
+            } else if (name.equals("getDouble")) {
+                return Double.valueOf(values[col]);
+            } else if (name.equals("getBoolean")) {
+                return Boolean.valueOf(values[col] != 0);
+            }
+
+            throw new UnsupportedOperationException(name);
+        }
+    }
+
+    /**
+     * Goes through processColumn, optionally testing for null with getObject first as it used to.
+     */
+    private static final class Processor extends BeanProcessor {
+        private final boolean doubleRead;
+
+        Processor(boolean doubleRead) {
+            this.doubleRead = doubleRead;
+        }
+
+        @Override
+        protected Object processColumn(ResultSet rs, int index, Class<?> propType) throws SQLException {
+            if (doubleRead && !propType.isPrimitive() && rs.getObject(index) == null) {
+                return null;
+            }
+
+            return super.processColumn(rs, index, propType);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void run(String name, boolean doubleRead, int rows, boolean report) throws SQLException {
+        final Row row = new Row();
+        final ResultSet rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                                                                 new Class<?>[] { ResultSet.class }, row);
+        final BeanProcessor processor = new Processor(doubleRead);
+        Bean bean = null;
+
+        processor.toBean(rs, Bean.class);
+        row.decoded = 0;
+
+        final long bytes = allocatedBytes();
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < rows; i++) {
+            bean = processor.toBean(rs, Bean.class);
+        }
+
+        final long nanos = System.nanoTime() - start;
+        final long allocated = allocatedBytes() - bytes;
+
+        if (report) {
+            System.out.printf("%-12s %5.1f decodes/row, %6.1f bytes/row, %7.1f ns/row%n", name,
+                              Double.valueOf((double) row.decoded / rows), Double.valueOf((double) allocated / rows),
+                              Double.valueOf((double) nanos / rows));
+        }
+
+        // keep the JIT from removing the loop
+        if (bean.id == null) {
+            System.out.println(bean);
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        run("double read", true, WARMUP_ROWS, false);
+        run("single read", false, WARMUP_ROWS, false);
+        run("double read", true, ROWS, true);
+        run("single read", false, ROWS, true);
+    }
+}
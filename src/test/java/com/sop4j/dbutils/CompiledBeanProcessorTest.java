@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+public class CompiledBeanProcessorTest extends BaseTestCase {
+
+    private static final String[] simpleColumns = { "id", "parentId", "name", "count", "active", "ratio", "weight", "rank", "ignored" };
+
+    private final CompiledBeanProcessor beanProc = new CompiledBeanProcessor();
+
+    public static class SimpleBean {
+        private long id;
+        private Long parentId;
+        private String name;
+        private int count;
+        private boolean active;
+        private Double ratio;
+        private Float weight;
+        private short rank;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public Long getParentId() {
+            return parentId;
+        }
+
+        public void setParentId(Long parentId) {
+            this.parentId = parentId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public Double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(Double ratio) {
+            if (ratio != null && ratio.doubleValue() < 0) {
+                throw new IllegalArgumentException("negative ratio");
+            }
+            this.ratio = ratio;
+        }
+
+        public Float getWeight() {
+            return weight;
+        }
+
+        public void setWeight(Float weight) {
+            this.weight = weight;
+        }
+
+        public short getRank() {
+            return rank;
+        }
+
+        public void setRank(short rank) {
+            this.rank = rank;
+        }
+    }
+
+    public static class AllTypesBean {
+        private int intValue;
+        private Integer intWrapper;
+        private long longValue;
+        private Long longWrapper;
+        private double doubleValue;
+        private Double doubleWrapper;
+        private float floatValue;
+        private Float floatWrapper;
+        private short shortValue;
+        private Short shortWrapper;
+        private byte byteValue;
+        private Byte byteWrapper;
+        private boolean booleanValue;
+        private Boolean booleanWrapper;
+        private String string;
+
+        public void setIntValue(int intValue) {
+            this.intValue = intValue;
+        }
+
+        public void setIntWrapper(Integer intWrapper) {
+            this.intWrapper = intWrapper;
+        }
+
+        public void setLongValue(long longValue) {
+            this.longValue = longValue;
+        }
+
+        public void setLongWrapper(Long longWrapper) {
+            this.longWrapper = longWrapper;
+        }
+
+        public void setDoubleValue(double doubleValue) {
+            this.doubleValue = doubleValue;
+        }
+
+        public void setDoubleWrapper(Double doubleWrapper) {
+            this.doubleWrapper = doubleWrapper;
+        }
+
+        public void setFloatValue(float floatValue) {
+            this.floatValue = floatValue;
+        }
+
+        public void setFloatWrapper(Float floatWrapper) {
+            this.floatWrapper = floatWrapper;
+        }
+
+        public void setShortValue(short shortValue) {
+            this.shortValue = shortValue;
+        }
+
+        public void setShortWrapper(Short shortWrapper) {
+            this.shortWrapper = shortWrapper;
+        }
+
+        public void setByteValue(byte byteValue) {
+            this.byteValue = byteValue;
+        }
+
+        public void setByteWrapper(Byte byteWrapper) {
+            this.byteWrapper = byteWrapper;
+        }
+
+        public void setBooleanValue(boolean booleanValue) {
+            this.booleanValue = booleanValue;
+        }
+
+        public void setBooleanWrapper(Boolean booleanWrapper) {
+            this.booleanWrapper = booleanWrapper;
+        }
+
+        public void setString(String string) {
+            this.string = string;
+        }
+    }
+
+    private static ResultSet createSimpleResultSet(Object[]... rows) {
+        return MockResultSet.create(MockResultSetMetaData.create(simpleColumns), rows);
+    }
+
+    public void testToBeanList() throws SQLException {
+        ResultSet simple = createSimpleResultSet(
+                new Object[] { Long.valueOf(1), Long.valueOf(7), "one", Integer.valueOf(3), Boolean.TRUE, Double.valueOf(0.5), Float.valueOf(2.5f), Short.valueOf((short) 4), "x" },
+                new Object[] { Long.valueOf(2), null, null, null, null, null, null, null, null });
+
+        List<SimpleBean> beans = beanProc.toBeanList(simple, SimpleBean.class);
+
+        assertEquals(2, beans.size());
+
+        SimpleBean b = beans.get(0);
+        assertEquals(1L, b.getId());
+        assertEquals(Long.valueOf(7), b.getParentId());
+        assertEquals("one", b.getName());
+        assertEquals(3, b.getCount());
+        assertTrue(b.isActive());
+        assertEquals(Double.valueOf(0.5), b.getRatio());
+        assertEquals(Float.valueOf(2.5f), b.getWeight());
+        assertEquals(4, b.getRank());
+
+        b = beans.get(1);
+        assertEquals(2L, b.getId());
+        assertNull(b.getParentId());
+        assertNull(b.getName());
+        assertEquals(0, b.getCount());
+        assertFalse(b.isActive());
+        assertNull(b.getRatio());
+        assertNull(b.getWeight());
+        assertEquals(0, b.getRank());
+    }
+
+    public void testMapperIsGenerated() throws SQLException {
+        ResultSet simple = createSimpleResultSet(new Object[] { Long.valueOf(1), null, "one", null, null, null, null, null, null });
+        assertTrue(simple.next());
+
+        RowMapper<SimpleBean> mapper = beanProc.rowMapper(SimpleBean.class, beanProc.mapping(simple, SimpleBean.class));
+
+        assertNotNull(mapper);
+        assertSame(mapper, beanProc.rowMapper(SimpleBean.class, beanProc.mapping(simple, SimpleBean.class)));
+        assertEquals("one", mapper.map(simple).getName());
+    }
+
+    public void testEveryPropertyType() throws SQLException {
+        ResultSet all = MockResultSet.create(MockResultSetMetaData.create(new String[] {
+                "intValue", "intWrapper", "longValue", "longWrapper", "doubleValue", "doubleWrapper", "floatValue",
+                "floatWrapper", "shortValue", "shortWrapper", "byteValue", "byteWrapper", "booleanValue",
+                "booleanWrapper", "string" }), new Object[][] {
+                new Object[] { Integer.valueOf(1), Integer.valueOf(2), Long.valueOf(3), Long.valueOf(4), Double.valueOf(5.5),
+                               Double.valueOf(6.5), Float.valueOf(7.5f), Float.valueOf(8.5f), Short.valueOf((short) 9),
+                               Short.valueOf((short) 10), Byte.valueOf((byte) 11), Byte.valueOf((byte) 12), Boolean.TRUE,
+                               Boolean.TRUE, "str" },
+                new Object[15] });
+        assertTrue(all.next());
+
+        assertNotNull(beanProc.rowMapper(AllTypesBean.class, beanProc.mapping(all, AllTypesBean.class)));
+
+        AllTypesBean b = beanProc.toBean(all, AllTypesBean.class);
+        assertEquals(1, b.intValue);
+        assertEquals(Integer.valueOf(2), b.intWrapper);
+        assertEquals(3L, b.longValue);
+        assertEquals(Long.valueOf(4), b.longWrapper);
+        assertEquals(5.5, b.doubleValue, 0);
+        assertEquals(Double.valueOf(6.5), b.doubleWrapper);
+        assertEquals(7.5f, b.floatValue, 0);
+        assertEquals(Float.valueOf(8.5f), b.floatWrapper);
+        assertEquals(9, b.shortValue);
+        assertEquals(Short.valueOf((short) 10), b.shortWrapper);
+        assertEquals(11, b.byteValue);
+        assertEquals(Byte.valueOf((byte) 12), b.byteWrapper);
+        assertTrue(b.booleanValue);
+        assertEquals(Boolean.TRUE, b.booleanWrapper);
+        assertEquals("str", b.string);
+
+        assertTrue(all.next());
+        b = beanProc.toBean(all, AllTypesBean.class);
+        assertEquals(0, b.intValue);
+        assertNull(b.intWrapper);
+        assertEquals(0L, b.longValue);
+        assertNull(b.longWrapper);
+        assertEquals(0.0, b.doubleValue, 0);
+        assertNull(b.doubleWrapper);
+        assertEquals(0.0f, b.floatValue, 0);
+        assertNull(b.floatWrapper);
+        assertEquals(0, b.shortValue);
+        assertNull(b.shortWrapper);
+        assertEquals(0, b.byteValue);
+        assertNull(b.byteWrapper);
+        assertFalse(b.booleanValue);
+        assertNull(b.booleanWrapper);
+        assertNull(b.string);
+    }
+
+    public void testSetterException() throws SQLException {
+        ResultSet simple = createSimpleResultSet(new Object[] { Long.valueOf(1), null, null, null, null, Double.valueOf(-1), null, null, null });
+        assertTrue(simple.next());
+
+        try {
+            beanProc.toBean(simple, SimpleBean.class);
+            fail("Expected SQLException");
+        } catch (SQLException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    public void testFallback() throws SQLException {
+        assertTrue(this.rs.next());
+
+        // TestBean has enum, date and Object properties
+        assertNull(beanProc.rowMapper(TestBean.class, beanProc.mapping(this.rs, TestBean.class)));
+
+        TestBean b = beanProc.toBean(this.rs, TestBean.class);
+        assertEquals("1", b.getOne());
+        assertEquals(EnumTest.ENUM_ZERO, b.getEnumTest());
+        assertEquals(13.0, b.getColumnProcessorDoubleTest(), 0);
+    }
+
+    public void testCustomizedProcessor() throws SQLException {
+        CompiledBeanProcessor custom = new CompiledBeanProcessor() {
+            @Override
+            protected Object processColumn(ResultSet rs, int index, Class<?> propType) throws SQLException {
+                Object value = super.processColumn(rs, index, propType);
+                return index == 3 ? "custom " + value : value;
+            }
+        };
+
+        ResultSet simple = createSimpleResultSet(new Object[] { Long.valueOf(1), null, "one", null, null, null, null, null, null });
+        assertTrue(simple.next());
+
+        assertNull(custom.rowMapper(SimpleBean.class, custom.mapping(simple, SimpleBean.class)));
+        assertEquals("custom one", custom.toBean(simple, SimpleBean.class).getName());
+    }
+
+}
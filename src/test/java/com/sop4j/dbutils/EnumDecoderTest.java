@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.junit.Test;
+
+
+@SuppressWarnings("boxing") // test code
+public class EnumDecoderTest {
+
+    public enum Status {
+        @EnumCode("A") ACTIVE,
+        @EnumCode("D") DELETED
+    }
+
+    public enum Priority {
+        @EnumCode("10") LOW,
+        @EnumCode("20") HIGH
+    }
+
+    public enum Duplicate {
+        @EnumCode("X") ONE,
+        @EnumCode("X") TWO
+    }
+
+    @Test
+    public void testByName() {
+        EnumDecoder<EnumTest> decoder = EnumDecoder.of(EnumTest.class);
+
+        assertSame(decoder, EnumDecoder.of(EnumTest.class));
+        assertFalse(decoder.hasCodes());
+        assertEquals(EnumTest.ENUM_ONE, decoder.byName("ENUM_ONE"));
+        assertEquals(EnumTest.ENUM_ONE, decoder.byNameIgnoreCase("enum_one"));
+        assertEquals(EnumTest.ENUM_ONE, decoder.byOrdinal(1));
+        assertNull(decoder.byName(null));
+
+        try {
+            decoder.byName("enum_one");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            decoder.byOrdinal(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testByCode() {
+        EnumDecoder<Status> status = EnumDecoder.of(Status.class);
+
+        assertTrue(status.hasCodes());
+        assertEquals(Status.DELETED, status.byCode("D"));
+        assertEquals(Status.DELETED, status.decode("D"));
+        assertEquals(Status.ACTIVE, status.decode(Status.ACTIVE));
+
+        EnumDecoder<Priority> priority = EnumDecoder.of(Priority.class);
+
+        assertEquals(Priority.HIGH, priority.byCode(20));
+        assertEquals(Priority.HIGH, priority.decode(Integer.valueOf(20)));
+        assertEquals(Priority.LOW, priority.decode("10"));
+    }
+
+    @Test
+    public void testDecodeOrdinal() {
+        assertEquals(EnumTest.ENUM_ONE, EnumDecoder.of(EnumTest.class).decode(Long.valueOf(1)));
+        assertNull(EnumDecoder.of(EnumTest.class).decode(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateCode() {
+        EnumDecoder.of(Duplicate.class);
+    }
+
+    @Test
+    public void testDefaultConverters() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("ENUM_TWO", "D");
+        when(rs.getInt(2)).thenReturn(2, 20, 0);
+        when(rs.wasNull()).thenReturn(false, false, true);
+
+        ColumnConverters converters = new ColumnConverters();
+
+        assertEquals(EnumTest.ENUM_TWO, converters.find(Types.VARCHAR, EnumTest.class).convert(rs, 1));
+        assertEquals(Status.DELETED, converters.find(Types.CHAR, Status.class).convert(rs, 1));
+        assertEquals(EnumTest.ENUM_TWO, converters.find(Types.INTEGER, EnumTest.class).convert(rs, 2));
+        assertEquals(Priority.HIGH, converters.find(Types.INTEGER, Priority.class).convert(rs, 2));
+        assertNull(converters.find(Types.INTEGER, EnumTest.class).convert(rs, 2));
+    }
+
+    @Test
+    public void testModeFactory() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("enum_zero", "bad");
+
+        ColumnConverters converters = new ColumnConverters(EnumDecoder.factory(EnumDecoder.Mode.NAME_IGNORE_CASE));
+        ColumnConverter<EnumTest> converter = converters.find(Types.VARCHAR, EnumTest.class);
+
+        assertEquals(EnumTest.ENUM_ZERO, converter.convert(rs, 1));
+
+        try {
+            converter.convert(rs, 1);
+            fail("Expected SQLException");
+        } catch (SQLException e) {
+            // expected
+        }
+    }
+
+}
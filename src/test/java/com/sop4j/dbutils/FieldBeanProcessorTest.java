@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Transient;
+
+public class FieldBeanProcessorTest extends BaseTestCase {
+
+    private final FieldBeanProcessor beanProc = new FieldBeanProcessor();
+
+    public static class BaseEntity {
+        private String one;
+    }
+
+    public static class FieldEntity extends BaseEntity {
+        private static String two;
+
+        @Column(name = "intTest")
+        private int count;
+
+        private Integer integerTest;
+
+        @Column
+        private EnumTest enumTest;
+
+        private final String three = "final";
+
+        @Transient
+        private String notInBean;
+    }
+
+    public void testToBeanList() throws SQLException {
+        List<FieldEntity> beans = beanProc.toBeanList(this.rs, FieldEntity.class);
+
+        assertEquals(ROWS, beans.size());
+
+        FieldEntity b = beans.get(0);
+        assertEquals("1", ((BaseEntity) b).one);
+        assertEquals(1, b.count);
+        assertEquals(Integer.valueOf(2), b.integerTest);
+        assertEquals(EnumTest.ENUM_ZERO, b.enumTest);
+        assertEquals("final", b.three);
+        assertNull(b.notInBean);
+        assertNull(FieldEntity.two);
+
+        b = beans.get(1);
+        assertEquals("4", ((BaseEntity) b).one);
+        assertEquals(3, b.count);
+        assertEquals(EnumTest.ENUM_ONE, b.enumTest);
+    }
+
+    public void testBeanWithSetters() throws SQLException {
+        assertTrue(this.rs.next());
+
+        // TestBean's fields are named like its properties
+        TestBean b = beanProc.toBean(this.rs, TestBean.class);
+        assertEquals("1", b.getOne());
+        assertEquals(1, b.getIntTest());
+        assertEquals(0, b.getNullPrimitiveTest());
+        assertEquals(EnumTest.ENUM_ZERO, b.getEnumTest());
+        assertEquals("not set", b.getDoNotSet());
+    }
+
+}
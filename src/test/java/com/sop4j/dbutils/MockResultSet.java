@@ -96,7 +96,7 @@ public class MockResultSet implements InvocationHandler {
      * @throws SQLException if the column name is invalid
      */
     private int columnNameToIndex(String columnName) throws SQLException {
-        for (int i = 0; i < this.currentRow.length; i++) {
+        for (int i = 0; i < this.metaData.getColumnCount(); i++) {
             int c = i + 1;
             if (this.metaData.getColumnName(c).equalsIgnoreCase(columnName)) {
                 return c;
@@ -313,6 +313,12 @@ public class MockResultSet implements InvocationHandler {
         } else if (methodName.equals("isLast")) {
             return this.isLast();
 
+        } else if (methodName.equals("getFetchSize")) {
+            return Integer.valueOf(0);
+
+        } else if (methodName.equals("findColumn")) {
+            return Integer.valueOf(this.columnNameToIndex((String) args[0]));
+
         } else if (methodName.equals("hashCode")) {
             return Integer.valueOf(System.identityHashCode(proxy));
 
@@ -18,6 +18,7 @@ package com.sop4j.dbutils;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.sql.ResultSetMetaData;
+import java.sql.Types;
 
 /**
  * MockResultSetMetaData dynamically implements the ResultSetMetaData
@@ -78,6 +79,11 @@ public class MockResultSetMetaData implements InvocationHandler {
                 int col = ((Integer) args[0]).intValue() - 1;
                 return this.columnLabels[col];
 
+        } else if (
+                methodName.equals("getColumnType")) {
+
+                return Integer.valueOf(Types.OTHER);
+
         } else if (methodName.equals("hashCode")) {
             return Integer.valueOf(System.identityHashCode(proxy));
 
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.beans.PropertyDescriptor;
+import java.sql.ResultSetMetaData;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+@SuppressWarnings("boxing") // test code
+public class NamingStrategiesTest {
+
+    @Test
+    public void testExact() {
+        NamingStrategy naming = NamingStrategies.exact();
+
+        assertEquals(naming.propertyKey("firstName"), naming.columnKey("FIRSTNAME"));
+        assertEquals("first_name", naming.columnKey("FIRST_NAME"));
+    }
+
+    @Test
+    public void testSnakeCase() {
+        NamingStrategy naming = NamingStrategies.snakeCase();
+
+        assertEquals(naming.propertyKey("firstName"), naming.columnKey("FIRST_NAME"));
+        assertEquals(naming.propertyKey("firstName"), naming.columnKey("firstname"));
+    }
+
+    @Test
+    public void testStripPrefix() {
+        NamingStrategy naming = NamingStrategies.stripPrefix("t_", NamingStrategies.snakeCase());
+
+        assertEquals(naming.propertyKey("firstName"), naming.columnKey("T_FIRST_NAME"));
+        assertEquals(naming.propertyKey("firstName"), naming.columnKey("first_name"));
+        assertEquals("t", naming.columnKey("t_"));
+    }
+
+    @Test
+    public void testPrefixed() {
+        NamingStrategy naming = NamingStrategies.prefixed("line_", NamingStrategies.snakeCase());
+
+        assertEquals(naming.propertyKey("unitPrice"), naming.columnKey("LINE_UNIT_PRICE"));
+        assertNull(naming.columnKey("order_id"));
+        assertNull(naming.columnKey("line_"));
+    }
+
+    @Test
+    public void testOverrides() {
+        Map<String, String> overrides = new HashMap<String, String>();
+        overrides.put("fname", "firstName");
+        NamingStrategy naming = NamingStrategies.overrides(overrides, NamingStrategies.exact());
+
+        assertEquals(naming.propertyKey("firstName"), naming.columnKey("fname"));
+        assertEquals("lastname", naming.columnKey("lastName"));
+        assertSame(NamingStrategies.exact(),
+                   NamingStrategies.overrides(Collections.<String, String>emptyMap(), NamingStrategies.exact()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullNext() {
+        NamingStrategies.stripPrefix("t_", null);
+    }
+
+    @Test
+    public void testMapColumnsToProperties() throws Exception {
+        BeanProcessor processor = new BeanProcessor(new NamingStrategy() {
+            @Override
+            public String propertyKey(String propertyName) {
+                return propertyName;
+            }
+
+            @Override
+            public String columnKey(String columnName) {
+                return "skip".equals(columnName) ? null : columnName;
+            }
+        });
+        PropertyDescriptor[] props = BeanProcessor.namedProperties(new String[] { "one", "two", "one" });
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+
+        when(metaData.getColumnCount()).thenReturn(4);
+        when(metaData.getColumnLabel(1)).thenReturn("two");
+        when(metaData.getColumnLabel(2)).thenReturn("skip");
+        when(metaData.getColumnLabel(3)).thenReturn("");
+        when(metaData.getColumnName(3)).thenReturn("one");
+        when(metaData.getColumnLabel(4)).thenReturn("ONE");
+
+        int[] ret = processor.mapColumnsToProperties(metaData, props);
+
+        assertEquals(1, ret[1]);
+        assertEquals(BeanProcessor.PROPERTY_NOT_FOUND, ret[2]);
+        assertEquals(0, ret[3]);
+        assertEquals(BeanProcessor.PROPERTY_NOT_FOUND, ret[4]);
+    }
+
+}
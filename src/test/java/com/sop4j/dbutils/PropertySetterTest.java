@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+
+public class PropertySetterTest {
+
+    public static class Bean {
+        private int count;
+        private long total;
+        private String name;
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public void setName(String name) {
+            if ("bad".equals(name)) {
+                throw new IllegalStateException("bad name");
+            }
+            this.name = name;
+        }
+    }
+
+    private static PropertySetter[] setters(String name, Class<?> type) throws Exception {
+        Method method = Bean.class.getMethod(name, type);
+
+        return new PropertySetter[] { PropertySetter.of(method), PropertySetter.reflective(method) };
+    }
+
+    @Test
+    public void testSet() throws Throwable {
+        for (PropertySetter setter:setters("setName", String.class)) {
+            Bean bean = new Bean();
+            setter.set(bean, "abc");
+            assertEquals("abc", bean.name);
+        }
+    }
+
+    @Test
+    public void testPrimitives() throws Throwable {
+        for (PropertySetter setter:setters("setCount", int.class)) {
+            Bean bean = new Bean();
+            setter.setInt(bean, 5);
+            assertEquals(5, bean.count);
+            setter.set(bean, Integer.valueOf(6));
+            assertEquals(6, bean.count);
+        }
+
+        for (PropertySetter setter:setters("setTotal", long.class)) {
+            Bean bean = new Bean();
+            setter.setLong(bean, 7L);
+            assertEquals(7L, bean.total);
+        }
+    }
+
+    @Test
+    public void testExceptionIsUnwrapped() throws Throwable {
+        for (PropertySetter setter:setters("setName", String.class)) {
+            try {
+                setter.set(new Bean(), "bad");
+                fail("expected the setter's exception");
+            } catch (IllegalStateException e) {
+                assertEquals("bad name", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testField() throws Throwable {
+        PropertySetter count = PropertySetter.of(Bean.class.getDeclaredField("count"));
+        PropertySetter name = PropertySetter.of(Bean.class.getDeclaredField("name"));
+        Bean bean = new Bean();
+
+        count.setInt(bean, 3);
+        name.set(bean, "bad");
+
+        // the field is written directly, so the setter's check doesn't run
+        assertEquals(3, bean.count);
+        assertEquals("bad", bean.name);
+    }
+
+}
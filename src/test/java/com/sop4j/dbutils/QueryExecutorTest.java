@@ -15,21 +15,34 @@
  */
 package com.sop4j.dbutils;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 
 public class QueryExecutorTest {
@@ -90,4 +103,165 @@ public class QueryExecutorTest {
         verify(conn, times(1)).close();
         verify(stmt, times(1)).close();
     }
+
+    @Test
+    public void testReusable() throws Exception {
+        createExecutor("select * from blah where a = :a");
+        executor.setReusable();
+
+        assertNotNull(executor.bind("a", "one").execute(handler));
+        assertNotNull(executor.bind("a", "two").execute(handler));
+
+        verify(conn, times(1)).prepareStatement(any(String.class), any(Integer.class));
+        verify(handler, times(2)).handle(resultSet);
+        verify(resultSet, times(2)).close();
+        verify(stmt, times(0)).close();
+        verify(conn, times(0)).close();
+
+        executor.close();
+
+        verify(stmt, times(1)).close();
+        verify(conn, times(1)).close();
+    }
+
+    @Test
+    public void testCacheMetaData() throws Exception {
+        ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(rsmd);
+        when(rsmd.getColumnCount()).thenReturn(1);
+        when(rsmd.getColumnLabel(1)).thenReturn("a");
+        when(rsmd.getColumnName(1)).thenReturn("A");
+        when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+        when(rsmd.isNullable(1)).thenReturn(ResultSetMetaData.columnNoNulls);
+        when(resultSet.next()).thenReturn(true, false, true, false);
+
+        ResultSetHandler<String> labels = new ResultSetHandler<String>() {
+            @Override
+            public String handle(ResultSet rs) throws SQLException {
+                assertTrue(rs.next());
+                assertFalse(rs.next());
+                ResultSetMetaData metaData = rs.getMetaData();
+                assertEquals(ResultSetMetaData.columnNoNulls, metaData.isNullable(1));
+                return metaData.getColumnCount() + metaData.getColumnLabel(1) + metaData.getColumnName(1)
+                       + metaData.getColumnType(1);
+            }
+        };
+
+        for (int i = 0; i < 2; i++) {
+            createExecutor("select a from cached_metadata");
+            assertEquals("1aA" + Types.INTEGER, executor.cacheMetaData().execute(labels));
+        }
+
+        verify(rsmd, times(1)).getColumnCount();
+        verify(rsmd, times(1)).getColumnLabel(1);
+        verify(rsmd, times(2)).isNullable(1);
+        verify(resultSet, times(2)).close();
+    }
+
+    @Test
+    public void testCacheMetaDataPerDatabase() throws Exception {
+        ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(rsmd);
+        when(rsmd.getColumnCount()).thenReturn(1);
+        when(rsmd.getColumnLabel(1)).thenReturn("a");
+
+        DatabaseMetaData one = mock(DatabaseMetaData.class);
+        when(one.getURL()).thenReturn("jdbc:one");
+        when(conn.getMetaData()).thenReturn(one);
+
+        DatabaseMetaData two = mock(DatabaseMetaData.class);
+        when(two.getURL()).thenReturn("jdbc:two");
+        Connection other = mock(Connection.class);
+        when(other.prepareStatement(any(String.class), any(Integer.class))).thenReturn(stmt);
+        when(other.getMetaData()).thenReturn(two);
+
+        ResultSetHandler<Integer> count = new ResultSetHandler<Integer>() {
+            @Override
+            public Integer handle(ResultSet rs) throws SQLException {
+                return rs.getMetaData().getColumnCount();
+            }
+        };
+
+        for (int i = 0; i < 4; i++) {
+            executor = new QueryExecutor(i % 2 == 0 ? conn : other, "select a from cached_metadata_per_database", true);
+            assertEquals(Integer.valueOf(1), executor.cacheMetaData().execute(count));
+        }
+
+        // read once for each database, and each connection's URL is read once
+        verify(resultSet, times(2)).getMetaData();
+        verify(one, times(1)).getURL();
+        verify(two, times(1)).getURL();
+        verify(conn, never()).getCatalog();
+    }
+
+    @Test
+    public void testForEach() throws Exception {
+        ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(rsmd);
+        when(rsmd.getColumnCount()).thenReturn(1);
+        when(rsmd.getColumnLabel(1)).thenReturn("a");
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getObject(1)).thenReturn("a", "b", "c");
+        createExecutor("select a from blah");
+
+        final StringBuilder rows = new StringBuilder();
+        long count = executor.fetchSize(100).forEach(new RowConsumer<Object[]>() {
+            @Override
+            public boolean accept(Object[] row) {
+                rows.append(row[0]);
+                return rows.length() < 2;
+            }
+        });
+
+        assertEquals(2, count);
+        assertEquals("ab", rows.toString());
+        verify(stmt, times(1)).setFetchSize(100);
+        verify(resultSet, times(2)).next();
+        verify(resultSet, times(1)).close();
+        verify(stmt, times(1)).close();
+        verify(conn, times(1)).close();
+    }
+
+    @Test
+    public void testForEachNullConsumer() throws Exception {
+        createExecutor("select a from blah");
+
+        try {
+            executor.forEach(Object.class, null);
+            fail("SQLException expected");
+        } catch (SQLException e) {
+            // expected
+        }
+
+        verify(conn, times(1)).close();
+    }
+
+    @Test
+    public void testChunkedList() throws Exception {
+        createExecutor("select * from blah where id in (:ids)");
+
+        when(resultSet.next()).thenReturn(true, false, true, false);
+        when(handler.handle(any(ResultSet.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                ResultSet rs = (ResultSet) invocation.getArguments()[0];
+                int rows = 0;
+
+                while (rs.next()) {
+                    rows++;
+                }
+
+                return Integer.valueOf(rows);
+            }
+        });
+
+        Object ret = executor.listChunkSize(2).bindList("ids", Arrays.asList(1, 2, 3, 4)).execute(handler);
+
+        // both chunks have the same shape, so the statement is reused
+        assertEquals(Integer.valueOf(2), ret);
+        verify(conn, times(1)).prepareStatement("select * from blah where id in (?, ?)", Statement.NO_GENERATED_KEYS);
+        verify(stmt, times(2)).executeQuery();
+        verify(stmt, times(2)).close();
+        verify(conn, times(1)).close();
+    }
 }
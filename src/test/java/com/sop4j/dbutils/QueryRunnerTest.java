@@ -16,12 +16,19 @@
 package com.sop4j.dbutils;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import javax.sql.DataSource;
 
@@ -80,6 +87,28 @@ public class QueryRunnerTest {
         verify(dataSource, times(1)).getConnection();
     }
 
+    @Test
+    public void testPrepareQueryConnSQL() throws SQLException {
+        QueryExecutor exec = runner.prepareQuery(conn, "select * from blah where :first=first");
+
+        assertNotNull(exec);
+        assertTrue(exec.isReusable());
+
+        exec.close();
+        verify(conn, times(0)).close();
+    }
+
+    @Test
+    public void testPrepareQuerySQL() throws SQLException {
+        QueryExecutor exec = runner.prepareQuery("select * from blah where :first=first");
+
+        assertTrue(exec.isReusable());
+        verify(dataSource, times(1)).getConnection();
+
+        exec.close();
+        verify(conn, times(1)).close();
+    }
+
     @Test
     public void testQueryConnSQL() throws SQLException {
         assertNotNull(runner.query(conn, "select * from blah where :first=first"));
@@ -136,6 +165,17 @@ public class QueryRunnerTest {
         verify(dataSource, times(1)).getConnection();
     }
 
+    @Test
+    public void testPrepareUpdateConnSQL() throws SQLException {
+        UpdateExecutor exec = runner.prepareUpdate(conn, "update blah set first = :first");
+
+        assertNotNull(exec);
+        assertTrue(exec.isReusable());
+
+        exec.close();
+        verify(conn, times(0)).close();
+    }
+
     @Test
     public void testUpdateConnSQL() throws SQLException {
         assertNotNull(runner.update(conn, "select * from blah where :first=first"));
@@ -156,5 +196,36 @@ public class QueryRunnerTest {
         assertNotNull(runner.update(conn, true, null));
     }
 
+    // statement configuration tests
+
+    @Test
+    public void testStatementConfiguration() throws SQLException {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        when(conn.prepareStatement(any(String.class), any(Integer.class))).thenReturn(stmt);
+
+        StatementConfiguration config = new StatementConfiguration.Builder().fetchSize(500).queryTimeout(30).build();
+        runner = new QueryRunner(dataSource, config);
+
+        // the executor can override the runner's settings
+        runner.query(conn, "select * from blah where :first=first").fetchSize(10);
 
+        verify(stmt, times(1)).setFetchSize(500);
+        verify(stmt, times(1)).setQueryTimeout(30);
+        verify(stmt, times(1)).setFetchSize(10);
+        verify(stmt, never()).setMaxRows(any(Integer.class));
+    }
+
+    @Test
+    public void testStatementConfigurationResultSetType() throws SQLException {
+        StatementConfiguration config = new StatementConfiguration.Builder()
+            .resultSet(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY).build();
+        runner = new QueryRunner(dataSource, config);
+
+        runner.query(conn, "select * from blah where :first=first");
+        runner.insert(conn, "insert into blah values (:first)");
+
+        verify(conn, times(1)).prepareStatement("select * from blah where ?=first", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        // inserts need generated keys, so they ignore the type
+        verify(conn, times(1)).prepareStatement("insert into blah values (?)", Statement.RETURN_GENERATED_KEYS);
+    }
 }
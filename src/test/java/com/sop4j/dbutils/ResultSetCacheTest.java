@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.sql.ResultSet;
+
+import org.junit.Test;
+
+public class ResultSetCacheTest {
+
+    @Test
+    public void testKeyedByResultSetAndType() {
+        ResultSetCache<String> cache = new ResultSetCache<String>();
+        ResultSet[] results = new ResultSet[100];
+
+        for (int i = 0; i < results.length; i++) {
+            results[i] = mock(ResultSet.class);
+            cache.put(results[i], null, "row" + i);
+            cache.put(results[i], String.class, "string" + i);
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            assertEquals("row" + i, cache.get(results[i], null));
+            assertEquals("string" + i, cache.get(results[i], String.class));
+            assertNull(cache.get(results[i], Integer.class));
+        }
+
+        assertNull(cache.get(mock(ResultSet.class), null));
+        assertEquals(200, cache.size());
+    }
+
+}
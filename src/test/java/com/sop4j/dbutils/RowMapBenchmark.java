@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import com.sop4j.dbutils.handlers.MapListHandler;
+
+/**
+ * Benchmark of the bytes allocated per row by <code>MapListHandler</code>
+ * when each row is copied into a case insensitive <code>HashMap</code>, as
+ * <code>toMap</code> used to do, against row maps that share one column
+ * index. The rows are kept, so nearly all the allocated bytes are retained.
+ * This is not run as part of the unit tests; run it from the test classpath:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.sop4j.dbutils.RowMapBenchmark
+ * </pre>
+ */
+public class RowMapBenchmark {
+
+    private static final int ROWS = 500000;
+
+    private static final String[] COLUMNS = { "ID", "PARENT_ID", "NAME", "STATUS", "CREATED", "UPDATED", "TOTAL", "VERSION" };
+
+    /**
+     * A ResultSet of the same values, which are not counted since drivers allocate them either way.
+     */
+    private static final class Rows implements InvocationHandler {
+        private final Object[] values = { Long.valueOf(1000), null, "name", "A", "2014-01-01", "2014-02-01",
+                                          Long.valueOf(123456789), Integer.valueOf(3) };
+        private final ResultSetMetaData metaData = MockResultSetMetaData.create(COLUMNS);
+        private int rows;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+
+            if (name.equals("next")) {
+                return Boolean.valueOf(rows-- > 0);
+            } else if (name.equals("getMetaData")) {
+                return metaData;
+            } else if (name.equals("getObject")) {
+                return values[((Integer) args[0]).intValue() - 1];
+            }
+
+            throw new UnsupportedOperationException(name);
+        }
+    }
+
+    /**
+     * Copies each row into a case insensitive HashMap, as toMap used to.
+     */
+    private static final class CopyingProcessor extends BasicRowProcessor {
+        @Override
+        public Map<String, Object> toMap(ResultSet rs) throws SQLException {
+            Map<String, Object> result = new CaseInsensitiveHashMap();
+            ResultSetMetaData rsmd = rs.getMetaData();
+            int cols = rsmd.getColumnCount();
+
+            for (int i = 1; i <= cols; i++) {
+                String columnName = rsmd.getColumnLabel(i);
+                if (null == columnName || 0 == columnName.length()) {
+                    columnName = rsmd.getColumnName(i);
+                }
+                result.put(columnName, rs.getObject(i));
+            }
+
+            return result;
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void run(String name, RowProcessor processor, int rows, boolean report) throws SQLException {
+        final Rows handler = new Rows();
+        final ResultSet rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                                                                 new Class<?>[] { ResultSet.class }, handler);
+        handler.rows = rows;
+
+        final long bytes = allocatedBytes();
+        final long start = System.nanoTime();
+        final List<Map<String, Object>> result = new MapListHandler(processor).handle(rs);
+        final long nanos = System.nanoTime() - start;
+        final long allocated = allocatedBytes() - bytes;
+
+        if (report) {
+            System.out.printf("%-10s %6.1f bytes/row, %7.1f ns/row%n", name,
+                              Double.valueOf((double) allocated / rows), Double.valueOf((double) nanos / rows));
+        }
+
+        // keep the JIT from removing the loop
+        if (result.get(rows - 1).get("id") == null) {
+            System.out.println(result.size());
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        run("copied", new CopyingProcessor(), ROWS / 5, false);
+        run("row map", new BasicRowProcessor(), ROWS / 5, false);
+        run("copied", new CopyingProcessor(), ROWS, true);
+        run("row map", new BasicRowProcessor(), ROWS, true);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+public class RowMapTest {
+
+    private static final String[] COLUMNS = { "ID", "name", "Id" };
+
+    private Map<String, Object> row(Object... values) throws Exception {
+        ResultSet rs = MockResultSet.create(MockResultSetMetaData.create(COLUMNS), new Object[][] { values });
+        rs.next();
+        return new BasicRowProcessor().toMap(rs);
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        Map<String, Object> map = row("1", "ann", "2");
+
+        // the last of the columns that differ in case wins, like puts into a case insensitive map
+        assertEquals(2, map.size());
+        assertEquals("2", map.get("id"));
+        assertEquals("2", map.get("ID"));
+        assertEquals("ann", map.get("NAME"));
+        assertTrue(map.containsKey("Name"));
+        assertFalse(map.containsKey("age"));
+        assertNull(map.get(null));
+        assertTrue(map.keySet().contains("Id"));
+    }
+
+    @Test
+    public void testSharedIndex() throws Exception {
+        ResultSet rs = MockResultSet.create(MockResultSetMetaData.create(COLUMNS),
+                                            new Object[][] { { "1", "ann", "2" }, { "3", "bob", "4" } });
+        BasicRowProcessor processor = new BasicRowProcessor();
+
+        rs.next();
+        Map<String, Object> first = processor.toMap(rs);
+        rs.next();
+        Map<String, Object> second = processor.toMap(rs);
+
+        assertEquals("ann", first.get("name"));
+        assertEquals("bob", second.get("name"));
+        assertEquals("4", second.get("id"));
+    }
+
+    @Test
+    public void testPut() throws Exception {
+        Map<String, Object> map = row("1", "ann", "2");
+
+        assertEquals("ann", map.put("name", "bob"));
+        assertEquals("bob", map.get("NAME"));
+
+        assertNull(map.put("age", Integer.valueOf(3)));
+        assertEquals(3, map.size());
+        assertEquals(Integer.valueOf(3), map.get("AGE"));
+        assertEquals("bob", map.get("Name"));
+
+        assertEquals("2", map.remove("ID"));
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey("id"));
+    }
+
+    @Test
+    public void testEntries() throws Exception {
+        Map<String, Object> map = row("1", "ann", "2");
+
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (entry.getKey().equals("name")) {
+                entry.setValue("bob");
+            }
+        }
+
+        assertEquals("bob", map.get("name"));
+
+        Map<String, Object> expected = new HashMap<String, Object>();
+        expected.put("Id", "2");
+        expected.put("name", "bob");
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void testIteratorRemove() throws Exception {
+        Map<String, Object> map = row("1", "ann", "2");
+
+        Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Object> entry = it.next();
+            if (entry.getKey().equals("Id")) {
+                it.remove();
+            } else {
+                entry.setValue("bob");
+            }
+        }
+
+        assertEquals(1, map.size());
+        assertFalse(map.containsKey("id"));
+        assertEquals("bob", map.get("NAME"));
+
+        map = row("1", "ann", "2");
+        assertTrue(map.keySet().remove("Id"));
+        assertEquals(1, map.size());
+
+        map = row("1", "ann", "2");
+        assertTrue(map.keySet().removeAll(Arrays.asList("name", "other")));
+        assertEquals(1, map.size());
+        assertEquals("2", map.get("id"));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        Map<String, Object> map = row("1", "ann", "2");
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("name"));
+    }
+
+}
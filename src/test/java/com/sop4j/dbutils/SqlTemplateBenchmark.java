@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Microbenchmark comparing {@link SqlTemplate#parse(String)} against the
+ * regular expression based parsing that executors used before 2.3. This is
+ * not run as part of the unit tests; run it from the test classpath:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.sop4j.dbutils.SqlTemplateBenchmark
+ * </pre>
+ */
+public class SqlTemplateBenchmark {
+
+    private static final Pattern PARAM_PATTERN = Pattern.compile("(:\\w+)");
+
+    private static final int WARMUP_ITERATIONS = 2000;
+    private static final int ITERATIONS = 5000;
+
+    /**
+     * The regular expression path used by AbstractExecutor before SqlTemplate.
+     */
+    static Object parseWithRegex(String sql) {
+        final Map<String, List<Integer>> paramPosMap = new HashMap<String, List<Integer>>();
+        final Matcher matcher = PARAM_PATTERN.matcher(sql);
+        int currentPosition = 0;
+
+        while (matcher.find()) {
+            final String param = matcher.group().replace(":", "");
+            List<Integer> posList = paramPosMap.get(param);
+
+            if (posList == null) {
+                posList = new ArrayList<Integer>();
+                paramPosMap.put(param, posList);
+            }
+
+            posList.add(Integer.valueOf(++currentPosition));
+        }
+
+        return sql.replaceAll(":\\w+", "\\?");
+    }
+
+    /**
+     * Builds a generated reporting query of roughly the given size.
+     */
+    static String buildSql(int targetLength) {
+        final StringBuilder sb = new StringBuilder("select r.region_id, r.name::text,\n");
+        int i = 0;
+
+        while (sb.length() < targetLength) {
+            sb.append("  sum(case when s.product_id = :product").append(i)
+              .append(" and s.sold_at >= :from and s.sold_at < :to then s.amount else 0 end) as p").append(i)
+              .append(", -- product ").append(i).append('\n')
+              .append("  max(coalesce(s.note, 'none')) as n").append(i).append(",\n");
+            i++;
+        }
+
+        sb.append("  count(*) as total\nfrom sales s join region r on r.region_id = s.region_id\n")
+          .append("where r.active = :active /* only active regions */\ngroup by r.region_id, r.name");
+
+        return sb.toString();
+    }
+
+    private static long time(String sql, boolean regex, int iterations) {
+        final long start = System.nanoTime();
+        int sink = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            final Object parsed = regex ? parseWithRegex(sql) : SqlTemplate.parse(sql);
+            sink += parsed.hashCode() & 1;
+        }
+
+        final long elapsed = System.nanoTime() - start;
+
+        // keep the JIT from removing the loop
+        if (sink == -1) {
+            System.out.println(sink);
+        }
+
+        return elapsed / iterations;
+    }
+
+    public static void main(String[] args) {
+        for (int size:new int[] { 500, 5 * 1024, 50 * 1024 }) {
+            final String sql = buildSql(size);
+
+            time(sql, true, WARMUP_ITERATIONS);
+            time(sql, false, WARMUP_ITERATIONS);
+
+            final long regexNanos = time(sql, true, ITERATIONS);
+            final long lexerNanos = time(sql, false, ITERATIONS);
+
+            System.out.printf("%6d chars: regex %8d ns/op, lexer %8d ns/op (%.1fx)%n",
+                              Integer.valueOf(sql.length()), Long.valueOf(regexNanos), Long.valueOf(lexerNanos),
+                              Double.valueOf((double) regexNanos / lexerNanos));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class SqlTemplateCacheTest {
+
+    private SqlTemplateCache cache;
+
+    @Before
+    public void setup() {
+        cache = SqlTemplateCache.instance();
+        cache.clear();
+    }
+
+    @Test
+    public void testParse() {
+        SqlTemplate template = cache.get("select * from blah where a = :first and b = :last or c = :first");
+
+        assertEquals("select * from blah where a = ? and b = ? or c = ?", template.getJdbcSql());
+        assertEquals(2, template.getParamCount());
+        assertEquals(3, template.getParameterCount());
+        assertArrayEquals(new int[] { 1, 3 }, template.getPositions("first"));
+        assertArrayEquals(new int[] { 2 }, template.getPositions("last"));
+        assertNull(template.getPositions("phone"));
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        SqlTemplate template = cache.get("select * from blah where a = :first");
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        assertSame(template, cache.get("select * from blah where a = :first"));
+        assertSame(template, cache.get("select * from blah where a = :first"));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testBounded() {
+        try {
+            cache.setMaxSize(2);
+
+            cache.get("select 1");
+            cache.get("select 2");
+            cache.get("select 3");
+
+            assertEquals(2, cache.size());
+            assertEquals(3, cache.getMissCount());
+        } finally {
+            cache.setMaxSize(SqlTemplateCache.DEFAULT_MAX_SIZE);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+
+public class SqlTemplateTest {
+
+    private static void assertParsed(String sql, String expectedSql, int expectedParams) {
+        SqlTemplate template = SqlTemplate.parse(sql);
+
+        assertEquals(expectedSql, template.getJdbcSql());
+        assertEquals(expectedParams, template.getParameterCount());
+    }
+
+    @Test
+    public void testParams() {
+        assertParsed("select * from blah :first = first and :last=last and phone=:phone",
+                     "select * from blah ? = first and ?=last and phone=?", 3);
+        assertParsed("select * from blah", "select * from blah", 0);
+        assertParsed("insert into blah values(:a,:b)", "insert into blah values(?,?)", 2);
+    }
+
+    @Test
+    public void testRepeatedParams() {
+        SqlTemplate template = SqlTemplate.parse("select :a, :b, :a, :a");
+
+        assertEquals("select ?, ?, ?, ?", template.getJdbcSql());
+        assertEquals(2, template.getParamCount());
+        assertArrayEquals(new int[] { 1, 3, 4 }, template.getPositions("a"));
+        assertArrayEquals(new int[] { 2 }, template.getPositions("b"));
+    }
+
+    @Test
+    public void testQuotes() {
+        assertParsed("select ':a' from t where b = :b", "select ':a' from t where b = ?", 1);
+        assertParsed("select 'it''s :a' from t where b = :b", "select 'it''s :a' from t where b = ?", 1);
+        assertParsed("select \":a\" from t where b = :b", "select \":a\" from t where b = ?", 1);
+        assertParsed("select `:a` from t where b = :b", "select `:a` from t where b = ?", 1);
+        assertParsed("select E'\\' :a' from t where b = :b", "select E'\\' :a' from t where b = ?", 1);
+    }
+
+    @Test
+    public void testComments() {
+        assertParsed("select a -- :a\n from t where b = :b", "select a -- :a\n from t where b = ?", 1);
+        assertParsed("select a /* :a */ from t where b = :b", "select a /* :a */ from t where b = ?", 1);
+        assertParsed("select a /* /* :a */ :c */ from t where b = :b", "select a /* /* :a */ :c */ from t where b = ?", 1);
+        assertParsed("select a - :b / :c", "select a - ? / ?", 2);
+    }
+
+    @Test
+    public void testPostgres() {
+        assertParsed("select a::text from t where b = :b::int", "select a::text from t where b = ?::int", 1);
+        assertParsed("select $$ :a $$ from t where b = :b", "select $$ :a $$ from t where b = ?", 1);
+        assertParsed("select $body$ :a $$ :c $body$ from t where b = :b", "select $body$ :a $$ :c $body$ from t where b = ?", 1);
+        assertParsed("select a$b, $1 from t where b = :b", "select a$b, $1 from t where b = ?", 1);
+    }
+
+    @Test
+    public void testUnterminated() {
+        assertParsed("select :a, 'unterminated :b", "select ?, 'unterminated :b", 1);
+        assertParsed("select :a /* unterminated :b", "select ? /* unterminated :b", 1);
+        assertParsed("select :a :", "select ? :", 1);
+    }
+
+    @Test
+    public void testExpandedSql() {
+        SqlTemplate template = SqlTemplate.parse("select * from blah where id in (:ids) and a = :a or id in (:ids)");
+
+        assertEquals("select * from blah where id in (?, ?, ?, ?) and a = ? or id in (?, ?, ?, ?)",
+                     template.getExpandedSql(new int[] { 4, 1 }));
+        assertEquals(template.getJdbcSql(), template.getExpandedSql(new int[] { 1, 1 }));
+        assertEquals(0, template.getSlotIndex(1));
+        assertEquals(1, template.getSlotIndex(2));
+        assertEquals(0, template.getSlotIndex(3));
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class StatementCacheTest {
+    StatementCache cache;
+
+    @Mock Connection conn;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);    // init the mocks
+
+        // hand out a new statement for every prepare
+        when(conn.prepareStatement(anyString(), anyInt())).thenAnswer(new Answer<PreparedStatement>() {
+            @Override
+            public PreparedStatement answer(InvocationOnMock invocation) throws Throwable {
+                return mock(PreparedStatement.class);
+            }
+        });
+
+        cache = new StatementCache(2);
+    }
+
+    @Test
+    public void testBorrowReleaseReuses() throws Exception {
+        PreparedStatement stmt = cache.borrow(conn, "select ?", Statement.NO_GENERATED_KEYS);
+        cache.release(conn, "select ?", Statement.NO_GENERATED_KEYS, stmt);
+
+        assertEquals(1, cache.size(conn));
+        assertSame(stmt, cache.borrow(conn, "select ?", Statement.NO_GENERATED_KEYS));
+        assertEquals(0, cache.size(conn));
+        verify(conn, times(1)).prepareStatement("select ?", Statement.NO_GENERATED_KEYS);
+    }
+
+    @Test
+    public void testBorrowedStatementIsNotShared() throws Exception {
+        PreparedStatement first = cache.borrow(conn, "select ?", Statement.NO_GENERATED_KEYS);
+        PreparedStatement second = cache.borrow(conn, "select ?", Statement.NO_GENERATED_KEYS);
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testGeneratedKeysAreSeparate() throws Exception {
+        PreparedStatement stmt = cache.borrow(conn, "insert ?", Statement.NO_GENERATED_KEYS);
+        cache.release(conn, "insert ?", Statement.NO_GENERATED_KEYS, stmt);
+
+        assertNotSame(stmt, cache.borrow(conn, "insert ?", Statement.RETURN_GENERATED_KEYS));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsClosed() throws Exception {
+        PreparedStatement a = cache.borrow(conn, "a", Statement.NO_GENERATED_KEYS);
+        PreparedStatement b = cache.borrow(conn, "b", Statement.NO_GENERATED_KEYS);
+        PreparedStatement c = cache.borrow(conn, "c", Statement.NO_GENERATED_KEYS);
+
+        cache.release(conn, "a", Statement.NO_GENERATED_KEYS, a);
+        cache.release(conn, "b", Statement.NO_GENERATED_KEYS, b);
+
+        // touch a, so b becomes the eldest
+        cache.release(conn, "a", Statement.NO_GENERATED_KEYS, cache.borrow(conn, "a", Statement.NO_GENERATED_KEYS));
+        cache.release(conn, "c", Statement.NO_GENERATED_KEYS, c);
+
+        assertEquals(2, cache.size(conn));
+        verify(b, times(1)).close();
+        verify(a, never()).close();
+        verify(c, never()).close();
+    }
+
+    @Test
+    public void testClosedStatementIsDiscarded() throws Exception {
+        PreparedStatement stmt = cache.borrow(conn, "select ?", Statement.NO_GENERATED_KEYS);
+        cache.release(conn, "select ?", Statement.NO_GENERATED_KEYS, stmt);
+        when(stmt.isClosed()).thenReturn(true);
+
+        assertNotSame(stmt, cache.borrow(conn, "select ?", Statement.NO_GENERATED_KEYS));
+    }
+
+    @Test
+    public void testEvict() throws Exception {
+        PreparedStatement stmt = cache.borrow(conn, "select ?", Statement.NO_GENERATED_KEYS);
+        cache.release(conn, "select ?", Statement.NO_GENERATED_KEYS, stmt);
+
+        cache.evict(conn);
+
+        assertEquals(0, cache.size(conn));
+        verify(stmt, times(1)).close();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new StatementCache(0);
+    }
+
+    // executor integration
+
+    @Test
+    public void testExecutorReturnsStatement() throws Exception {
+        QueryRunner runner = new QueryRunner(4);
+
+        runner.update(conn, "update blah set a = :a").bind("a", 1).execute();
+        runner.update(conn, "update blah set a = :a").bind("a", 2).execute();
+
+        verify(conn, times(1)).prepareStatement("update blah set a = ?", Statement.NO_GENERATED_KEYS);
+        verify(conn, never()).close();
+
+        runner.closeCachedStatements(conn);
+    }
+
+    @Test
+    public void testFailedStatementIsClosed() throws Exception {
+        final PreparedStatement stmt = mock(PreparedStatement.class);
+        when(conn.prepareStatement("select ?", Statement.NO_GENERATED_KEYS)).thenReturn(stmt);
+        when(stmt.executeQuery()).thenThrow(new SQLException("boom"));
+
+        QueryExecutor exec = new QueryExecutor(conn, "select :a", false, cache, null);
+
+        try {
+            exec.bind("a", 1).execute(new ResultSetHandler<Object>() {
+                @Override
+                public Object handle(ResultSet rs) throws SQLException {
+                    return null;
+                }
+            });
+        } catch (SQLException e) {
+            // expected
+        }
+
+        verify(stmt, times(1)).close();
+        assertEquals(0, cache.size(conn));
+    }
+
+    @Test
+    public void testSettingsAreReset() throws Exception {
+        final PreparedStatement stmt = mock(PreparedStatement.class);
+        when(conn.prepareStatement("update blah set a = ?", Statement.NO_GENERATED_KEYS)).thenReturn(stmt);
+
+        new UpdateExecutor(conn, "update blah set a = :a", false, cache, null).maxRows(10).bind("a", 1).execute();
+
+        verify(stmt, times(1)).setMaxRows(10);
+        verify(stmt, times(1)).setMaxRows(0);
+        verify(stmt, never()).close();
+        assertEquals(1, cache.size(conn));
+    }
+
+    @Test
+    public void testOtherConnectionsAreNotChecked() throws Exception {
+        PreparedStatement stmt = cache.borrow(conn, "select ?", Statement.NO_GENERATED_KEYS);
+        cache.release(conn, "select ?", Statement.NO_GENERATED_KEYS, stmt);
+
+        Connection next = mock(Connection.class);
+        when(next.prepareStatement(anyString(), anyInt())).thenReturn(mock(PreparedStatement.class));
+        cache.release(next, "select ?", Statement.NO_GENERATED_KEYS,
+                      cache.borrow(next, "select ?", Statement.NO_GENERATED_KEYS));
+
+        // the statements are kept until the connection is evicted
+        verify(conn, never()).isClosed();
+        verify(stmt, never()).close();
+        assertEquals(1, cache.size(conn));
+        assertEquals(1, cache.size(next));
+    }
+}
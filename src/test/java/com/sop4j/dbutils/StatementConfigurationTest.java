@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.ResultSet;
+
+import org.junit.Test;
+
+
+public class StatementConfigurationTest {
+
+    @Test
+    public void testEmptyBuilder() {
+        StatementConfiguration config = new StatementConfiguration.Builder().build();
+
+        assertNull(config.getFetchDirection());
+        assertNull(config.getFetchSize());
+        assertNull(config.getMaxFieldSize());
+        assertNull(config.getMaxRows());
+        assertNull(config.getQueryTimeout());
+        assertNull(config.getResultSetType());
+        assertNull(config.getResultSetConcurrency());
+    }
+
+    @Test
+    public void testBuilder() {
+        StatementConfiguration config = new StatementConfiguration.Builder()
+            .fetchDirection(ResultSet.FETCH_REVERSE)
+            .fetchSize(500)
+            .maxFieldSize(100)
+            .maxRows(10)
+            .queryTimeout(30)
+            .resultSet(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+            .build();
+
+        assertEquals(Integer.valueOf(ResultSet.FETCH_REVERSE), config.getFetchDirection());
+        assertEquals(Integer.valueOf(500), config.getFetchSize());
+        assertEquals(Integer.valueOf(100), config.getMaxFieldSize());
+        assertEquals(Integer.valueOf(10), config.getMaxRows());
+        assertEquals(Integer.valueOf(30), config.getQueryTimeout());
+        assertEquals(Integer.valueOf(ResultSet.TYPE_FORWARD_ONLY), config.getResultSetType());
+        assertEquals(Integer.valueOf(ResultSet.CONCUR_READ_ONLY), config.getResultSetConcurrency());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testTypeWithoutConcurrency() {
+        new StatementConfiguration(null, null, null, null, null, Integer.valueOf(ResultSet.TYPE_FORWARD_ONLY), null);
+    }
+}
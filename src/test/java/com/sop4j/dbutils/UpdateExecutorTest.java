@@ -24,6 +24,8 @@ import static org.mockito.Mockito.when;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -73,4 +75,43 @@ public class UpdateExecutorTest {
         verify(stmt, times(1)).close();
     }
 
+    @Test
+    public void testReusable() throws Exception {
+        createExecutor("update blah set a = :a");
+        executor.setReusable();
+
+        assertEquals(20, executor.bind("a", "one").execute());
+        assertEquals(20, executor.bind("a", "two").execute());
+
+        verify(conn, times(1)).prepareStatement(any(String.class), any(Integer.class));
+        verify(stmt, times(2)).executeUpdate();
+        verify(stmt, times(0)).close();
+
+        executor.close();
+
+        verify(stmt, times(1)).close();
+        verify(conn, times(1)).close();
+    }
+
+    @Test(expected=SQLException.class)
+    public void testReusableBindingsReset() throws Exception {
+        createExecutor("update blah set a = :a");
+        executor.setReusable();
+
+        executor.bind("a", "one").execute();
+        executor.execute(); // should throw, a must be bound again
+    }
+
+    @SuppressWarnings("boxing") // test code
+    @Test
+    public void testChunkedList() throws Exception {
+        createExecutor("update blah set a = :a where id in (:ids)");
+
+        int ret = executor.listChunkSize(2).bind("a", 1).bindList("ids", Arrays.asList(1, 2, 3)).execute();
+
+        // the update counts of the chunks are added
+        assertEquals(40, ret);
+        verify(conn, times(1)).prepareStatement("update blah set a = ? where id in (?, ?)", Statement.NO_GENERATED_KEYS);
+        verify(conn, times(1)).prepareStatement("update blah set a = ? where id in (?)", Statement.NO_GENERATED_KEYS);
+    }
 }
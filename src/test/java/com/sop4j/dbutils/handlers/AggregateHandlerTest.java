@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.sop4j.dbutils.BaseTestCase;
+import com.sop4j.dbutils.MockResultSet;
+import com.sop4j.dbutils.MockResultSetMetaData;
+
+/**
+ * AggregateHandlerTest
+ */
+public class AggregateHandlerTest extends BaseTestCase {
+
+    private ResultSet values(Object... values) {
+        Object[][] rows = new Object[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            rows[i] = new Object[] { values[i] };
+        }
+        return MockResultSet.create(MockResultSetMetaData.create(new String[] { "value" }), rows);
+    }
+
+    public void testCount() throws SQLException {
+        assertEquals(Long.valueOf(3), new AggregateHandler<Long>(Aggregates.count()).handle(this.values(1, null, 2)));
+        assertEquals(Long.valueOf(2), new AggregateHandler<Long>(Aggregates.count("value")).handle(this.values(1, null, 2)));
+        assertEquals(Long.valueOf(0), new AggregateHandler<Long>(Aggregates.count()).handle(this.emptyResultSet));
+    }
+
+    public void testSums() throws SQLException {
+        assertEquals(Long.valueOf(4), new AggregateHandler<Long>(Aggregates.sumLong("intTest")).handle(this.rs));
+        assertEquals(Double.valueOf(3.5),
+                     new AggregateHandler<Double>(Aggregates.sumDouble("value")).handle(this.values(1.25, null, 2.25)));
+    }
+
+    public void testMinMax() throws SQLException {
+        assertEquals("a", new AggregateHandler<Object>(Aggregates.min("value")).handle(this.values("b", "a", null)));
+        assertEquals("c", new AggregateHandler<Object>(Aggregates.max("value")).handle(this.values(null, "a", "c")));
+        assertNull(new AggregateHandler<Object>(Aggregates.max("value")).handle(this.values(null, null)));
+    }
+
+    public void testHistogram() throws SQLException {
+        long[] counts = new AggregateHandler<long[]>(Aggregates.histogram("value", 0, 10, 100))
+                .handle(this.values(-1, 0, 5, null, 10, 99.5, 100, 1000));
+
+        assertTrue(Arrays.toString(counts), Arrays.equals(new long[] { 1, 2, 2, 2 }, counts));
+    }
+
+    public void testHistogramBounds() {
+        try {
+            Aggregates.histogram("value", 10, 0);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testFrequencies() throws SQLException {
+        Map<Object, Long> counts = new AggregateHandler<Map<Object, Long>>(Aggregates.frequencies("value"))
+                .handle(this.values("b", "a", null, "b", "b"));
+
+        assertEquals(2, counts.size());
+        Iterator<Object> keys = counts.keySet().iterator();
+        assertEquals("b", keys.next());
+        assertEquals("a", keys.next());
+        assertEquals(Long.valueOf(3), counts.get("b"));
+        assertEquals(Long.valueOf(1), counts.get("a"));
+    }
+
+    public void testCustomReducer() throws SQLException {
+        Reducer<StringBuilder, String> concat = new Reducer<StringBuilder, String>() {
+            @Override
+            public StringBuilder start(ResultSet rs) {
+                return new StringBuilder();
+            }
+
+            @Override
+            public StringBuilder add(StringBuilder state, ResultSet rs) throws SQLException {
+                return state.append(rs.getString(1));
+            }
+
+            @Override
+            public String finish(StringBuilder state) {
+                return state.toString();
+            }
+        };
+
+        List<Object> results = new AggregateHandler<List<Object>>(Aggregates.all(concat, Aggregates.count()))
+                .handle(this.values("x", "y", "z"));
+
+        assertEquals(Arrays.<Object>asList("xyz", Long.valueOf(3)), results);
+    }
+
+    public void testNullReducer() {
+        try {
+            new AggregateHandler<Long>((Reducer<Object, Long>) null);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
@@ -15,13 +15,22 @@
  */
 package com.sop4j.dbutils.handlers;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.math.BigInteger;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -80,6 +89,67 @@ public class BeanMapHandlerTest {
         handle();
     }
 
+    private BeanMapHandler<Long, TestBean> sizedHandler() {
+        return new BeanMapHandler<Long, TestBean>(TestBean.class, "id", 1) {
+            @Override
+            protected TestBean createRow(ResultSet rs) throws SQLException {
+                return rp.toBean(rs, TestBean.class);
+            }
+        };
+    }
+
+    @Test
+    public void testBigintKeys() throws Exception {
+        when(rsmd.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(rsmd.getColumnClassName(1)).thenReturn(Long.class.getName());
+        when(rs.findColumn("id")).thenReturn(1);
+        when(rs.getLong(1)).thenReturn(23L);
+        bmh = sizedHandler();
+        handle();
+
+        assertTrue(res instanceof LongHashMap);
+        assertEquals(1, res.size());
+        verify(rs, never()).getObject(1);
+    }
+
+    @Test
+    public void testBigintKeysWithoutSize() throws Exception {
+        when(rsmd.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(rsmd.getColumnClassName(1)).thenReturn(Long.class.getName());
+        bmh = new BeanMapHandler<Long, TestBean>(TestBean.class, rp);
+        handle();
+
+        assertTrue(res instanceof HashMap);
+    }
+
+    @Test
+    public void testUnsignedBigintKeys() throws Exception {
+        when(rsmd.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(rsmd.getColumnClassName(1)).thenReturn(BigInteger.class.getName());
+        when(rs.findColumn("id")).thenReturn(1);
+        bmh = sizedHandler();
+        handle();
+
+        assertTrue(res instanceof HashMap);
+        verify(rs, never()).getLong(1);
+    }
+
+    @Test
+    public void testBigintKeysOverridden() throws Exception {
+        when(rsmd.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(rsmd.getColumnClassName(1)).thenReturn(Long.class.getName());
+        when(rs.findColumn("id")).thenReturn(1);
+        bmh = new BeanMapHandler<Long, TestBean>(TestBean.class, "id", 1) {
+            @Override
+            protected Map<Long, TestBean> createMap() {
+                return new TreeMap<Long, TestBean>();
+            }
+        };
+        handle();
+
+        assertTrue(res instanceof TreeMap);
+    }
+
     @Test
     public void testEmptyResultSet() throws Exception {
         when(Boolean.valueOf(rs.next())).thenReturn(Boolean.FALSE);
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import com.sop4j.dbutils.BaseTestCase;
+import com.sop4j.dbutils.MockResultSet;
+
+/**
+ * ColumnarHandlerTest
+ */
+public class ColumnarHandlerTest extends BaseTestCase {
+
+    private ResultSet createResultSet(Object[][] rows) throws SQLException {
+        ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+        String[] labels = { "id", "count", "ratio", "status", "amount", "code" };
+        int[] types = { Types.BIGINT, Types.INTEGER, Types.DOUBLE, Types.VARCHAR, Types.DECIMAL, Types.NUMERIC };
+
+        when(rsmd.getColumnCount()).thenReturn(labels.length);
+        for (int i = 0; i < labels.length; i++) {
+            when(rsmd.getColumnLabel(i + 1)).thenReturn(labels[i]);
+            when(rsmd.getColumnType(i + 1)).thenReturn(types[i]);
+        }
+        when(rsmd.getScale(5)).thenReturn(2);
+        when(rsmd.getPrecision(5)).thenReturn(10);
+        when(rsmd.getPrecision(6)).thenReturn(5);
+
+        return MockResultSet.create(rsmd, rows);
+    }
+
+    public void testHandle() throws SQLException {
+        Object[][] rows = new Object[100][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[] { Long.valueOf(i), i % 3 == 0 ? null : Integer.valueOf(i * 2), Double.valueOf(i / 4.0),
+                                     i % 2 == 0 ? "A" : i % 5 == 0 ? null : "D", new BigDecimal("1.25"), Integer.valueOf(7) };
+        }
+
+        ColumnarHandler.Columns columns = new ColumnarHandler(10).handle(createResultSet(rows));
+
+        assertEquals(100, columns.getRowCount());
+        assertEquals(6, columns.getColumnCount());
+
+        ColumnarHandler.LongColumn ids = (ColumnarHandler.LongColumn) columns.getColumn("ID");
+        assertEquals(100, ids.getValues().length);
+        assertEquals(99L, ids.getLong(99));
+        assertFalse(ids.isNull(99));
+
+        ColumnarHandler.IntColumn counts = (ColumnarHandler.IntColumn) columns.getColumn(2);
+        assertTrue(counts.isNull(3));
+        assertEquals(0, counts.getInt(3));
+        assertNull(counts.getObject(3));
+        assertEquals(8, counts.getInt(4));
+        assertEquals(34, counts.getNulls().cardinality());
+
+        ColumnarHandler.DoubleColumn ratios = (ColumnarHandler.DoubleColumn) columns.getColumn("ratio");
+        assertEquals(0.5, ratios.getDouble(2), 0.0);
+
+        ColumnarHandler.StringColumn statuses = (ColumnarHandler.StringColumn) columns.getColumn("status");
+        assertEquals(2, statuses.getDictionary().length);
+        assertEquals("A", statuses.getString(0));
+        assertEquals("D", statuses.getString(1));
+        assertNull(statuses.getString(5));
+        assertTrue(statuses.isNull(5));
+        assertEquals(-1, statuses.getCode(5));
+        assertEquals(statuses.getCode(0), statuses.getCode(2));
+
+        assertTrue(columns.getColumn("amount") instanceof ColumnarHandler.ObjectColumn);
+        assertEquals(new BigDecimal("1.25"), columns.getColumn("amount").getObject(0));
+        assertEquals(Integer.valueOf(7), columns.getColumn("code").getObject(0));
+        assertNull(columns.getColumn("missing"));
+
+        try {
+            ids.getLong(100);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException expected) {
+            // expected
+        }
+    }
+
+    public void testEmptyResultSetHandle() throws SQLException {
+        ColumnarHandler.Columns columns = new ColumnarHandler().handle(createResultSet(null));
+
+        assertEquals(0, columns.getRowCount());
+        assertEquals(0, ((ColumnarHandler.LongColumn) columns.getColumn(1)).getValues().length);
+    }
+
+}
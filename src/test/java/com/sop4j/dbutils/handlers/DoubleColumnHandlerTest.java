@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.SQLException;
+
+import com.sop4j.dbutils.BaseTestCase;
+import com.sop4j.dbutils.ResultSetHandler;
+
+/**
+ * DoubleColumnHandlerTest
+ */
+public class DoubleColumnHandlerTest extends BaseTestCase {
+
+    public void testColumnNameHandle() throws SQLException {
+        ResultSetHandler<double[]> h = new DoubleColumnHandler("columnProcessorDoubleTest");
+        double[] results = h.handle(this.rs);
+
+        assertEquals(2, results.length);
+        assertEquals(13.0, results[0], 0.0);
+        assertEquals(13.0, results[1], 0.0);
+    }
+
+    public void testNullValueHandle() throws SQLException {
+        ResultSetHandler<double[]> h = new DoubleColumnHandler("nullPrimitiveTest", Double.NaN);
+        double[] results = h.handle(this.rs);
+
+        assertEquals(2, results.length);
+        assertTrue(Double.isNaN(results[0]));
+        assertTrue(Double.isNaN(results[1]));
+    }
+
+    public void testEmptyResultSetHandle() throws SQLException {
+        ResultSetHandler<double[]> h = new DoubleColumnHandler();
+        double[] results = h.handle(this.emptyResultSet);
+
+        assertNotNull(results);
+        assertEquals(0, results.length);
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import com.sop4j.dbutils.BaseTestCase;
+import com.sop4j.dbutils.MockResultSet;
+import com.sop4j.dbutils.MockResultSetMetaData;
+import com.sop4j.dbutils.ResultSetHandler;
+
+/**
+ * GraphHandlerTest
+ */
+public class GraphHandlerTest extends BaseTestCase {
+
+    private static final String[] COLUMNS = {
+        "order_id", "order_customer", "line_id", "line_quantity", "product_id", "product_name" };
+
+    private final ResultSetHandler<List<Order>> handler = new GraphHandler<Order>(Order.class, "order_", "order_id",
+            new GraphHandler.Join("lines", Line.class, "line_", "line_id",
+                    new GraphHandler.Join("product", Product.class, "product_", "product_id")),
+            new GraphHandler.Join("tags", Line.class, "line_", "line_id"));
+
+    private ResultSet join(Object[]... rows) {
+        return MockResultSet.create(MockResultSetMetaData.create(COLUMNS), rows);
+    }
+
+    public void testHandle() throws SQLException {
+        List<Order> orders = handler.handle(join(
+                new Object[] { Integer.valueOf(1), "ann", Integer.valueOf(10), Integer.valueOf(2), Integer.valueOf(7), "pen" },
+                new Object[] { Integer.valueOf(1), "ann", Integer.valueOf(11), Integer.valueOf(3), Integer.valueOf(7), "pen" },
+                new Object[] { Integer.valueOf(2), "bob", null, null, null, null },
+                new Object[] { Integer.valueOf(1), "ann", Integer.valueOf(10), Integer.valueOf(2), Integer.valueOf(7), "pen" }));
+
+        assertEquals(2, orders.size());
+
+        Order ann = orders.get(0);
+        assertEquals(1, ann.getId());
+        assertEquals("ann", ann.getCustomer());
+        assertEquals(2, ann.getLines().size());
+        assertEquals(10, ann.getLines().get(0).getId());
+        assertEquals(2, ann.getLines().get(0).getQuantity());
+        assertEquals(11, ann.getLines().get(1).getId());
+        assertEquals("pen", ann.getLines().get(0).getProduct().getName());
+        assertSame(ann.getLines().get(0).getProduct(), ann.getLines().get(1).getProduct());
+        assertEquals(2, ann.getTags().size());
+        assertEquals(10, ann.getTags().iterator().next().getId());
+
+        Order bob = orders.get(1);
+        assertEquals("bob", bob.getCustomer());
+        assertNull(bob.getLines());
+    }
+
+    public void testEmptyResultSetHandle() throws SQLException {
+        List<Order> orders = handler.handle(this.emptyResultSet);
+
+        assertNotNull(orders);
+        assertTrue(orders.isEmpty());
+    }
+
+    public void testMissingIdColumn() throws SQLException {
+        try {
+            new GraphHandler<Order>(Order.class, "order_", "order_key").handle(join(
+                    new Object[] { Integer.valueOf(1), "ann", null, null, null, null }));
+            fail("Expected SQLException");
+        } catch (SQLException expected) {
+            // expected
+        }
+    }
+
+    public void testMissingProperty() {
+        try {
+            new GraphHandler<Order>(Order.class, "order_", "order_id",
+                                    new GraphHandler.Join("missing", Line.class, "line_", "line_id"));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    public static class Order {
+        private int id;
+        private String customer;
+        private List<Line> lines;
+        private Set<Line> tags;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(String customer) {
+            this.customer = customer;
+        }
+
+        public List<Line> getLines() {
+            return lines;
+        }
+
+        public void setLines(List<Line> lines) {
+            this.lines = lines;
+        }
+
+        public Set<Line> getTags() {
+            return tags;
+        }
+
+        public void setTags(Set<Line> tags) {
+            this.tags = tags;
+        }
+    }
+
+    public static class Line {
+        private int id;
+        private int quantity;
+        private Product product;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public Product getProduct() {
+            return product;
+        }
+
+        public void setProduct(Product product) {
+            this.product = product;
+        }
+    }
+
+    public static class Product {
+        private int id;
+        private String name;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+}
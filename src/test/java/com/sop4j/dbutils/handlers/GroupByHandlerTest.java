@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.sop4j.dbutils.BaseTestCase;
+import com.sop4j.dbutils.MockResultSet;
+import com.sop4j.dbutils.MockResultSetMetaData;
+
+/**
+ * GroupByHandlerTest
+ */
+public class GroupByHandlerTest extends BaseTestCase {
+
+    private static final String[] COLUMNS = new String[] { "region", "product", "qty", "price" };
+
+    private ResultSet sales() {
+        return MockResultSet.create(MockResultSetMetaData.create(COLUMNS), new Object[][] {
+            { "north", "a", Integer.valueOf(2), Double.valueOf(1.5) },
+            { "south", "a", Integer.valueOf(1), Double.valueOf(2.0) },
+            { "north", "b", Integer.valueOf(5), null },
+            { "north", "a", null, Double.valueOf(4.0) },
+            { null, "b", Integer.valueOf(3), Double.valueOf(1.0) },
+        });
+    }
+
+    public void testGroupByOneColumn() throws SQLException {
+        Map<String, Long> result = new GroupByHandler<String, Long>("region", Aggregates.sumLong("qty"))
+                .handle(this.sales());
+
+        assertEquals(3, result.size());
+        Iterator<String> keys = result.keySet().iterator();
+        assertEquals("north", keys.next());
+        assertEquals("south", keys.next());
+        assertNull(keys.next());
+        assertEquals(Long.valueOf(7), result.get("north"));
+        assertEquals(Long.valueOf(1), result.get("south"));
+        assertEquals(Long.valueOf(3), result.get(null));
+    }
+
+    public void testGroupBySeveralColumns() throws SQLException {
+        Map<List<Object>, Long> result = new GroupByHandler<List<Object>, Long>(
+                new String[] { "region", "product" }, Aggregates.count()).handle(this.sales());
+
+        assertEquals(4, result.size());
+        assertEquals(Long.valueOf(2), result.get(Arrays.<Object>asList("north", "a")));
+        assertEquals(Long.valueOf(1), result.get(Arrays.<Object>asList("north", "b")));
+        assertEquals(Long.valueOf(1), result.get(Arrays.<Object>asList("south", "a")));
+        assertEquals(Long.valueOf(1), result.get(Arrays.<Object>asList(null, "b")));
+    }
+
+    public void testGroupByAll() throws SQLException {
+        Map<String, List<Object>> result = new GroupByHandler<String, List<Object>>("region",
+                Aggregates.all(Aggregates.count("qty"), Aggregates.sumDouble("price"),
+                               Aggregates.min("price"), Aggregates.max("product")))
+                .handle(this.sales());
+
+        assertEquals(Arrays.<Object>asList(Long.valueOf(2), Double.valueOf(5.5), Double.valueOf(1.5), "b"),
+                     result.get("north"));
+        assertEquals(Arrays.<Object>asList(Long.valueOf(1), Double.valueOf(2.0), Double.valueOf(2.0), "a"),
+                     result.get("south"));
+    }
+
+    public void testEmptyResultSetHandle() throws SQLException {
+        Map<String, Long> result = new GroupByHandler<String, Long>("one", Aggregates.count())
+                .handle(this.emptyResultSet);
+
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
+
+    public void testUnknownColumn() {
+        try {
+            new GroupByHandler<String, Long>("none", Aggregates.count()).handle(this.sales());
+            fail("SQLException expected");
+        } catch (SQLException e) {
+            // expected
+        }
+    }
+
+    public void testIllegalArguments() {
+        try {
+            new GroupByHandler<String, Long>((String) null, Aggregates.count());
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new GroupByHandler<List<Object>, Long>(new String[0], Aggregates.count());
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new GroupByHandler<String, Long>("region", (Reducer<Object, Long>) null);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
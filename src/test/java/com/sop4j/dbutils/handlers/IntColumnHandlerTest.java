@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import com.sop4j.dbutils.BaseTestCase;
+import com.sop4j.dbutils.ResultSetHandler;
+
+/**
+ * IntColumnHandlerTest
+ */
+public class IntColumnHandlerTest extends BaseTestCase {
+
+    public void testHandle() throws SQLException {
+        ResultSetHandler<int[]> h = new IntColumnHandler();
+        int[] results = h.handle(this.rs);
+
+        assertTrue(Arrays.equals(new int[] { 1, 4 }, results));
+    }
+
+    public void testColumnIndexHandle() throws SQLException {
+        ResultSetHandler<int[]> h = new IntColumnHandler(6);
+        int[] results = h.handle(this.rs);
+
+        assertTrue(Arrays.equals(new int[] { 2, 4 }, results));
+    }
+
+    public void testNullsHandle() throws SQLException {
+        ColumnValues<int[]> column = new IntColumnHandler("nullPrimitiveTest").withNulls().handle(this.rs);
+
+        assertTrue(Arrays.equals(new int[] { 0, 0 }, column.getValues()));
+        assertEquals(2, column.getNulls().cardinality());
+    }
+
+    public void testEmptyResultSetHandle() throws SQLException {
+        ResultSetHandler<int[]> h = new IntColumnHandler();
+        int[] results = h.handle(this.emptyResultSet);
+
+        assertNotNull(results);
+        assertEquals(0, results.length);
+    }
+
+}
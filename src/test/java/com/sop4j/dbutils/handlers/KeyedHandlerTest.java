@@ -15,11 +15,19 @@
  */
 package com.sop4j.dbutils.handlers;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import com.sop4j.dbutils.BaseTestCase;
+import com.sop4j.dbutils.MockResultSet;
 import com.sop4j.dbutils.ResultSetHandler;
 
 public class KeyedHandlerTest extends BaseTestCase {
@@ -91,6 +99,33 @@ public class KeyedHandlerTest extends BaseTestCase {
         assertEquals("6", row.get("Three"));
     }
 
+    public void testBigintColumnHandle() throws SQLException {
+        ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+        when(rsmd.getColumnCount()).thenReturn(2);
+        when(rsmd.getColumnName(1)).thenReturn("name");
+        when(rsmd.getColumnName(2)).thenReturn("id");
+        when(rsmd.getColumnType(2)).thenReturn(Types.BIGINT);
+        when(rsmd.getColumnClassName(2)).thenReturn(Long.class.getName());
+        ResultSet bigints = MockResultSet.create(rsmd, new Object[][] {
+            { "one", Long.valueOf(1) }, { "two", Long.valueOf(2000000000000L) }, { "none", null } });
+
+        ResultSetHandler<Map<Long,Map<String,Object>>> h = new KeyedHandler<Long>("id", 3);
+        Map<Long,Map<String,Object>> results = h.handle(bigints);
+
+        assertTrue(results instanceof LongHashMap);
+        assertEquals(3, results.size());
+        assertEquals("one", results.get(Long.valueOf(1)).get("name"));
+        assertEquals("two", results.get(Long.valueOf(2000000000000L)).get("NAME"));
+        assertEquals("none", results.get(null).get("name"));
+        assertNull(results.get(Long.valueOf(0)));
+
+        // without an expected size the keys are read with getObject into a HashMap
+        bigints = MockResultSet.create(rsmd, new Object[][] { { "one", Long.valueOf(1) } });
+        results = new KeyedHandler<Long>("id").handle(bigints);
+        assertTrue(results instanceof HashMap);
+        assertEquals("one", results.get(Long.valueOf(1)).get("name"));
+    }
+
     public void testEmptyResultSetHandle() throws SQLException {
         ResultSetHandler<Map<String,Map<String,Object>>> h = new KeyedHandler<String>();
         Map<String,Map<String,Object>> results = h.handle(this.emptyResultSet);
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.sop4j.dbutils.BaseTestCase;
+import com.sop4j.dbutils.MockResultSet;
+import com.sop4j.dbutils.MockResultSetMetaData;
+import com.sop4j.dbutils.ResultSetHandler;
+
+/**
+ * LongColumnHandlerTest
+ */
+public class LongColumnHandlerTest extends BaseTestCase {
+
+    public void testHandle() throws SQLException {
+        ResultSetHandler<long[]> h = new LongColumnHandler();
+        long[] results = h.handle(this.rs);
+
+        assertTrue(Arrays.equals(new long[] { 1, 4 }, results));
+    }
+
+    public void testColumnNameHandle() throws SQLException {
+        ResultSetHandler<long[]> h = new LongColumnHandler("intTest");
+        long[] results = h.handle(this.rs);
+
+        assertTrue(Arrays.equals(new long[] { 1, 3 }, results));
+    }
+
+    public void testNullValueHandle() throws SQLException {
+        ResultSetHandler<long[]> h = new LongColumnHandler("nullPrimitiveTest", -1L);
+        long[] results = h.handle(this.rs);
+
+        assertTrue(Arrays.equals(new long[] { -1, -1 }, results));
+    }
+
+    public void testNullsHandle() throws SQLException {
+        Object[][] rows = new Object[200][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[] { i % 7 == 0 ? null : Long.valueOf(i) };
+        }
+        ResultSetHandler<ColumnValues<long[]>> h = new LongColumnHandler(1).withNulls();
+        ColumnValues<long[]> column = h.handle(
+                MockResultSet.create(MockResultSetMetaData.create(new String[] { "id" }), rows));
+        long[] results = column.getValues();
+        BitSet nulls = column.getNulls();
+
+        assertEquals(200, results.length);
+        assertEquals(199L, results[199]);
+        assertEquals(0L, results[7]);
+        assertTrue(nulls.get(7));
+        assertFalse(nulls.get(8));
+        assertEquals(29, nulls.cardinality());
+
+        // each query gets its own set
+        column = h.handle(MockResultSet.create(MockResultSetMetaData.create(new String[] { "id" }),
+                                               new Object[][] { { Long.valueOf(1) } }));
+        assertTrue(column.getNulls().isEmpty());
+        assertEquals(29, nulls.cardinality());
+    }
+
+    public void testEmptyResultSetHandle() throws SQLException {
+        ResultSetHandler<long[]> h = new LongColumnHandler();
+        long[] results = h.handle(this.emptyResultSet);
+
+        assertNotNull(results);
+        assertEquals(0, results.length);
+    }
+
+}
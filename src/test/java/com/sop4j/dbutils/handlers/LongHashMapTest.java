@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+public class LongHashMapTest {
+
+    @Test
+    public void testPrimitiveKeys() {
+        LongHashMap<String> map = new LongHashMap<String>();
+
+        assertNull(map.put(1L, "one"));
+        assertNull(map.put(-1L, "minus one"));
+        assertNull(map.put(0L, null));
+        assertEquals("one", map.put(1L, "uno"));
+
+        assertEquals(3, map.size());
+        assertEquals("uno", map.get(1L));
+        assertEquals("minus one", map.get(-1L));
+        assertTrue(map.containsKey(0L));
+        assertNull(map.get(0L));
+        assertFalse(map.containsKey(2L));
+
+        assertEquals("minus one", map.remove(-1L));
+        assertFalse(map.containsKey(-1L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testMapView() {
+        LongHashMap<String> map = new LongHashMap<String>(2);
+        Map<Long, String> view = map;
+
+        view.put(Long.valueOf(5), "five");
+        view.put(null, "null");
+
+        assertEquals("five", view.get(Long.valueOf(5)));
+        assertNull(view.get(Integer.valueOf(5)));
+        assertEquals("null", view.get(null));
+        assertTrue(view.containsKey(null));
+
+        Map<Long, String> expected = new HashMap<Long, String>();
+        expected.put(Long.valueOf(5), "five");
+        expected.put(null, "null");
+        assertEquals(expected, view);
+        assertEquals(view, expected);
+        assertEquals(expected.hashCode(), view.hashCode());
+
+        for (Map.Entry<Long, String> entry : view.entrySet()) {
+            entry.setValue(entry.getValue() + "!");
+        }
+        assertEquals("five!", map.get(5L));
+        assertEquals("null!", view.remove(null));
+        assertEquals(1, view.size());
+
+        view.clear();
+        assertTrue(view.isEmpty());
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        LongHashMap<Long> map = new LongHashMap<Long>();
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            // a small range of keys, so there are many collisions, replacements and removals
+            long key = random.nextInt(5000) * 1024L;
+
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(Long.valueOf(key)), map.remove(key));
+            } else {
+                Long value = Long.valueOf(i);
+                assertEquals(expected.put(Long.valueOf(key), value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        LongHashMap<Long> map = new LongHashMap<Long>();
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 3000; i++) {
+            // colliding keys make long runs of full slots, which removals shift back
+            long key = random.nextInt(1000) * 1024L;
+            map.put(key, Long.valueOf(i));
+            expected.put(Long.valueOf(key), Long.valueOf(i));
+        }
+        map.put((Long) null, Long.valueOf(-1));
+        expected.put(null, Long.valueOf(-1));
+
+        int size = map.size();
+        Set<Long> seen = new HashSet<Long>();
+        Iterator<Map.Entry<Long, Long>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Long> entry = it.next();
+            assertTrue("repeated " + entry.getKey(), seen.add(entry.getKey()));
+            assertEquals(expected.get(entry.getKey()), entry.getValue());
+            if (entry.getKey() == null || entry.getKey().longValue() % 3 == 0) {
+                it.remove();
+                expected.remove(entry.getKey());
+            } else {
+                entry.setValue(Long.valueOf(entry.getValue().longValue() + 1));
+                expected.put(entry.getKey(), Long.valueOf(entry.getValue().longValue()));
+            }
+        }
+
+        assertEquals(size, seen.size());
+        assertEquals(expected, map);
+        assertTrue(map.keySet().removeAll(Arrays.asList(map.keySet().iterator().next())));
+        assertEquals(expected.size() - 1, map.size());
+    }
+
+    @Test
+    public void testSerializable() throws Exception {
+        LongHashMap<String> map = new LongHashMap<String>();
+        map.put(1L, "one");
+        map.put(2L, null);
+        map.put((Long) null, "null");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(map);
+        out.close();
+        Object copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertTrue(copy instanceof LongHashMap);
+        assertEquals(map, copy);
+        assertTrue(((LongHashMap<?>) copy).containsKey(2L));
+    }
+
+}
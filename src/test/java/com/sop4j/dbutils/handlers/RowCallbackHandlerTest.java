@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2014 SOP4J
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sop4j.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sop4j.dbutils.BaseTestCase;
+import com.sop4j.dbutils.CompiledBeanProcessor;
+import com.sop4j.dbutils.ResultSetHandler;
+import com.sop4j.dbutils.RowConsumer;
+import com.sop4j.dbutils.RowMapper;
+import com.sop4j.dbutils.TestBean;
+
+/**
+ * RowCallbackHandlerTest
+ */
+public class RowCallbackHandlerTest extends BaseTestCase {
+
+    private static <T> RowConsumer<T> collect(final List<T> rows, final int limit) {
+        return new RowConsumer<T>() {
+            @Override
+            public boolean accept(T row) {
+                rows.add(row);
+                return rows.size() < limit;
+            }
+        };
+    }
+
+    public void testBeans() throws SQLException {
+        List<TestBean> rows = new ArrayList<TestBean>();
+        ResultSetHandler<Long> h = new RowCallbackHandler<TestBean>(TestBean.class, collect(rows, 10));
+
+        assertEquals(Long.valueOf(ROWS), h.handle(this.rs));
+        assertEquals(ROWS, rows.size());
+        assertEquals("1", rows.get(0).getOne());
+        assertEquals("4", rows.get(1).getOne());
+    }
+
+    public void testCompiledBeans() throws SQLException {
+        List<TestBean> rows = new ArrayList<TestBean>();
+        ResultSetHandler<Long> h = new RowCallbackHandler<TestBean>(TestBean.class, new CompiledBeanProcessor(),
+                collect(rows, 10));
+
+        assertEquals(Long.valueOf(ROWS), h.handle(this.rs));
+        assertEquals("4", rows.get(1).getOne());
+    }
+
+    public void testArrays() throws SQLException {
+        List<Object[]> rows = new ArrayList<Object[]>();
+        ResultSetHandler<Long> h = RowCallbackHandler.forArrays(collect(rows, 10));
+
+        assertEquals(Long.valueOf(ROWS), h.handle(this.rs));
+        assertEquals(COLS, rows.get(0).length);
+        assertEquals("4", rows.get(1)[0]);
+    }
+
+    public void testStop() throws SQLException {
+        List<Object> rows = new ArrayList<Object>();
+        ResultSetHandler<Long> h = new RowCallbackHandler<Object>(new RowMapper<Object>() {
+            @Override
+            public Object map(ResultSet rs) throws SQLException {
+                return rs.getObject(1);
+            }
+        }, collect(rows, 1));
+
+        assertEquals(Long.valueOf(1), h.handle(this.rs));
+        assertEquals(1, rows.size());
+        assertEquals("1", rows.get(0));
+        assertTrue(this.rs.next());
+    }
+
+    public void testEmptyResultSetHandle() throws SQLException {
+        List<TestBean> rows = new ArrayList<TestBean>();
+        ResultSetHandler<Long> h = new RowCallbackHandler<TestBean>(TestBean.class, collect(rows, 10));
+
+        assertEquals(Long.valueOf(0), h.handle(this.emptyResultSet));
+        assertTrue(rows.isEmpty());
+    }
+
+    public void testNullConsumer() {
+        try {
+            new RowCallbackHandler<TestBean>(TestBean.class, null);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}